@@ -21,6 +21,8 @@ import akka.actor.ActorSystem;
 
 import com.strategicgains.eventing.EventBus;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventSlotFactory;
+import com.strategicgains.eventing.EventSlots;
 
 /**
  * @author tfredrich
@@ -39,6 +41,16 @@ extends EventBus
 		super(new AkkaEventTransport(actorSystem));
     }
 
+	/**
+	 * Not supported. Akka delivers events to actors by reference, asynchronously, so a slot
+	 * could be reused while an actor is still handling it.
+	 */
+	@Override
+	public <T> EventSlots<T> addSlots(Class<T> type, EventSlotFactory<T> factory, int size)
+	{
+		throw new UnsupportedOperationException("Akka delivers events by reference, so event slots cannot be reused safely");
+	}
+
 	public void subscribeAll(List<EventHandler> handlers)
     {
 		for (EventHandler handler : handlers)
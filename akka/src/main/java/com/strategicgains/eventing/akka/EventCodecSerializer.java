@@ -0,0 +1,189 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.akka;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import akka.actor.ExtendedActorSystem;
+import akka.serialization.JSerializer;
+
+import com.strategicgains.eventing.codec.AbstractEventCodec;
+import com.strategicgains.eventing.codec.BinaryCodec;
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValue;
+
+/**
+ * An Akka serializer backed by an EventCodec, so events sent between remote actor systems use
+ * the same encoding as the other distributed transports. Registered as 'domain-events' in
+ * reference.conf; bind event classes to it in application.conf:
+ * <pre>
+ * akka.actor.serialization-bindings {
+ *     "com.example.events.OrderPlaced" = domain-events
+ * }
+ * </pre>
+ * The codec class is configured by 'domain-eventing.akka.codec' and must have a no-argument constructor.
+ * Compact event type ids, written in place of class names, are configured by
+ * 'domain-eventing.akka.event-types', and must be the same on every node:
+ * <pre>
+ * domain-eventing.akka.event-types {
+ *     "com.example.events.OrderPlaced" = 1
+ * }
+ * </pre>
+ * Setting 'domain-eventing.akka.registered-types-only' to true decodes only those classes,
+ * refusing any other class named in a message. Use it wherever remote senders aren't all trusted,
+ * since codecs such as BinaryCodec otherwise instantiate whatever class a message names.
+ * <p/>
+ * Note that AkkaEventTransport, alone, delivers events within a single actor system by reference,
+ * so this serializer only comes into play with remoting (or akka.actor.serialize-messages).
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventCodecSerializer
+extends JSerializer
+{
+	// SECTION: CONSTANTS
+
+	public static final String CODEC_PATH = "domain-eventing.akka.codec";
+	public static final String EVENT_TYPES_PATH = "domain-eventing.akka.event-types";
+	public static final String REGISTERED_TYPES_ONLY_PATH = "domain-eventing.akka.registered-types-only";
+
+	// Akka reserves identifiers 0 through 40.
+	private static final int IDENTIFIER = 0x44455645;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private EventCodec codec;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * Used by Akka, which supplies the actor system.
+	 */
+	public EventCodecSerializer(ExtendedActorSystem system)
+	{
+		this(newCodec(system));
+	}
+
+	public EventCodecSerializer(EventCodec codec)
+	{
+		super();
+		this.codec = codec;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	@Override
+	public int identifier()
+	{
+		return IDENTIFIER;
+	}
+
+	/**
+	 * The codec writes the event type itself.
+	 */
+	@Override
+	public boolean includeManifest()
+	{
+		return false;
+	}
+
+	@Override
+	public byte[] toBinary(Object event)
+	{
+		EncodeBuffer buffer = EncodeBuffer.acquire();
+		codec.encode(event, buffer);
+		return buffer.toByteArray();
+	}
+
+	@Override
+	public Object fromBinaryJava(byte[] bytes, Class<?> manifest)
+	{
+		return codec.decode(ByteBuffer.wrap(bytes));
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private static EventCodec newCodec(ExtendedActorSystem system)
+	{
+		Config config = system.settings().config();
+		EventCodec codec = new BinaryCodec();
+
+		if (config.hasPath(CODEC_PATH))
+		{
+			codec = (EventCodec) newInstance(config.getString(CODEC_PATH), system);
+		}
+
+		if (config.hasPath(EVENT_TYPES_PATH))
+		{
+			EventTypeRegistry types = new EventTypeRegistry();
+
+			for (Map.Entry<String, ConfigValue> entry : config.getObject(EVENT_TYPES_PATH).entrySet())
+			{
+				types.register(loadClass(entry.getKey(), system), ((Number) entry.getValue().unwrapped()).intValue());
+			}
+
+			if (!types.isEmpty())
+			{
+				codec = types.configure(codec);
+			}
+		}
+
+		if (config.hasPath(REGISTERED_TYPES_ONLY_PATH) && config.getBoolean(REGISTERED_TYPES_ONLY_PATH))
+		{
+			if (!(codec instanceof AbstractEventCodec))
+			{
+				throw new IllegalArgumentException(REGISTERED_TYPES_ONLY_PATH + " isn't supported by " + codec.getClass().getName());
+			}
+
+			((AbstractEventCodec) codec).setRegisteredTypesOnly(true);
+		}
+
+		return codec;
+	}
+
+	private static Object newInstance(String className, ExtendedActorSystem system)
+	{
+		try
+		{
+			return loadClass(className, system).getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new IllegalArgumentException("Unable to create " + className, e);
+		}
+	}
+
+	private static Class<?> loadClass(String className, ExtendedActorSystem system)
+	{
+		try
+		{
+			return Class.forName(className, true, system.dynamicAccess().classLoader());
+		}
+		catch (ClassNotFoundException e)
+		{
+			throw new IllegalArgumentException("Unknown class in " + EVENT_TYPES_PATH + " or " + CODEC_PATH + ": " + className, e);
+		}
+	}
+}
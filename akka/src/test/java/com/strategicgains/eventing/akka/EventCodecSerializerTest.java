@@ -0,0 +1,66 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.akka;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import akka.actor.ActorSystem;
+import akka.serialization.SerializationExtension;
+import akka.serialization.Serializer;
+
+import com.typesafe.config.ConfigFactory;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventCodecSerializerTest
+{
+	private ActorSystem system;
+
+	@Before
+	public void setup()
+	{
+		system = ActorSystem.create("EventCodecSerializerTest", ConfigFactory.parseString(
+			"akka.actor.serialization-bindings { \"" + HandledEvent.class.getName() + "\" = domain-events }\n"
+			+ "domain-eventing.akka.event-types { \"" + HandledEvent.class.getName() + "\" = 7 }")
+			.withFallback(ConfigFactory.load()));
+	}
+
+	@After
+	public void teardown()
+	{
+		system.shutdown();
+	}
+
+	@Test
+	public void shouldRoundTripBoundEvents()
+	{
+		HandledEvent event = new HandledEvent();
+		Serializer serializer = SerializationExtension.get(system).findSerializerFor(event);
+		assertTrue(serializer instanceof EventCodecSerializer);
+
+		byte[] bytes = serializer.toBinary(event);
+		assertEquals(1, bytes.length);	// the type id; HandledEvent has no fields.
+		Object decoded = ((EventCodecSerializer) serializer).fromBinary(bytes, HandledEvent.class);
+		assertEquals(HandledEvent.class, decoded.getClass());
+	}
+}
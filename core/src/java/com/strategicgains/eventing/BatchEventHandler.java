@@ -0,0 +1,40 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import java.util.List;
+
+/**
+ * An EventHandler that can process many events at once, e.g. to write a projection in bulk.
+ * Transports that deliver in batches (such as a Kafka replay) call handleAll() instead of
+ * handle(); others call handle() per event as usual.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public interface BatchEventHandler
+extends EventHandler
+{
+	/**
+	 * Process the given events, in the order they occurred. Every event is one this handler
+	 * handles. The list is reused once the call returns, so copy it to keep it.
+	 * 
+	 * @param events
+	 * @throws Exception if something goes wrong
+	 */
+	public void handleAll(List<Object> events)
+	throws Exception;
+}
@@ -15,8 +15,10 @@
 */
 package com.strategicgains.eventing;
 
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -90,6 +92,61 @@ public class DomainEvents
 		instance().publishEvent(event);
 	}
 
+	/**
+	 * Publish an event to all event busses, but only those that can accept it immediately.
+	 * Use this to shed load when event busses are overloaded.
+	 * <p/>
+	 * Event publishing can only occur after event busses are setup.
+	 * 
+	 * @param event the Object as an event to publish.
+	 * @return true if every event bus accepted the event. False if any bus was at capacity.
+	 */
+	public static boolean tryPublish(Object event)
+	{
+		try
+		{
+			return instance().publishEvent(event, 0L, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Publish an event to all event busses, waiting up to the given timeout, in total,
+	 * for busses that are at capacity to accept it.
+	 * <p/>
+	 * Event publishing can only occur after event busses are setup.
+	 * 
+	 * @param event the Object as an event to publish.
+	 * @param timeout how long to wait for capacity.
+	 * @param unit the unit of the timeout.
+	 * @return true if every event bus accepted the event. False if any bus was at capacity.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public static boolean publish(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		return instance().publishEvent(event, timeout, unit);
+	}
+
+	/**
+	 * Publish a batch of events to all event busses, in iteration order. Each bus
+	 * receives the batch in a single call, which is cheaper than publishing the
+	 * events one at a time.
+	 * <p/>
+	 * Event publishing can only occur after event busses are setup.
+	 * 
+	 * @param events the Objects to publish as events.
+	 * @see UnitOfWork
+	 */
+	public static void publishAll(Collection<?> events)
+	{
+		instance().publishEvents(events);
+	}
+
 	/**
 	 * Register an event bus with the DomainEvents manager.
 	 * 
@@ -163,6 +220,48 @@ public class DomainEvents
 		}
 	}
 
+	/**
+	 * Raise an event on all event busses that can accept it within the timeout. The event
+	 * is still published to all busses, even if an earlier one rejected it.
+	 * 
+	 * @param event
+	 * @param timeout the total time to wait across all busses.
+	 * @param unit
+	 * @return true if all busses accepted the event.
+	 * @throws InterruptedException
+	 */
+	private boolean publishEvent(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		assert(hasEventBusses());
+
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		boolean isAccepted = true;
+
+		for (EventBus eventBus : eventBusses.values())
+		{
+			long remaining = Math.max(0L, deadline - System.nanoTime());
+			isAccepted &= eventBus.publish(event, remaining, TimeUnit.NANOSECONDS);
+		}
+
+		return isAccepted;
+	}
+
+	/**
+	 * Raise a batch of events on all event busses, passing them to applicable consumers asynchronously.
+	 * 
+	 * @param events
+	 */
+	private void publishEvents(Collection<?> events)
+	{
+		assert(hasEventBusses());
+
+		for (EventBus eventBus : eventBusses.values())
+		{
+			eventBus.publishAll(events);
+		}
+	}
+
 	/**
 	 * Raise an event on a named event bus, passing it to applicable consumers asynchronously.
 	 * 
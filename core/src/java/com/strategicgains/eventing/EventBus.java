@@ -15,8 +15,17 @@
  */
 package com.strategicgains.eventing;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.strategicgains.eventing.metrics.Metrics;
 
 /**
  * @author toddf
@@ -24,8 +33,13 @@ import java.util.Set;
  */
 public abstract class EventBus
 {
+	public static final String PUBLISHED_METRIC = "events.published";
+	public static final String REJECTED_METRIC = "events.rejected";
+
 	private EventTransport transport;
 	private Set<Class<?>> publishableEventTypes = new HashSet<Class<?>>();
+	private Metrics metrics = new Metrics();
+	private Map<Class<?>, EventSlots<?>> slotsByType = new ConcurrentHashMap<Class<?>, EventSlots<?>>();
 
 	public EventBus(EventTransport transport)
 	{
@@ -50,13 +64,163 @@ public abstract class EventBus
 		if (!canPublish(event.getClass())) return;
 
 		transport.publish(event);
+		metrics.increment(PUBLISHED_METRIC);
+	}
+
+	/**
+	 * Publish an event only if the bus can accept it immediately (see publish(Object, long, TimeUnit)).
+	 * Use this to shed load at the edge when the bus is overloaded.
+	 * 
+	 * @param event the Object as an event to publish.
+	 * @return true if the event was accepted (or this bus doesn't publish events of its type). False if the bus is at capacity.
+	 */
+	public boolean tryPublish(Object event)
+	{
+		try
+		{
+			return publish(event, 0L, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			// Cannot happen without waiting, but don't lose the interrupt.
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Publish an event, waiting up to the given timeout for the bus to have capacity to accept it.
+	 * Rejected events are counted in the REJECTED_METRIC.
+	 * 
+	 * @param event the Object as an event to publish.
+	 * @param timeout how long to wait for capacity.
+	 * @param unit the unit of the timeout.
+	 * @return true if the event was accepted (or this bus doesn't publish events of its type). False if the bus is at capacity.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public boolean publish(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		if (!canPublish(event.getClass())) return true;
+
+		if (transport.publish(event, timeout, unit))
+		{
+			metrics.increment(PUBLISHED_METRIC);
+			return true;
+		}
+
+		metrics.increment(REJECTED_METRIC);
+		return false;
+	}
+
+	/**
+	 * Publish a batch of events, in iteration order, as a single call to the
+	 * underlying transport. Events that this bus cannot publish are skipped.
+	 * 
+	 * @param events the events to publish.
+	 */
+	public void publishAll(Collection<?> events)
+	{
+		if (events.isEmpty()) return;
+
+		if (publishableEventTypes.isEmpty())
+		{
+			transport.publishAll(events);
+			metrics.add(PUBLISHED_METRIC, events.size());
+			return;
+		}
+
+		List<Object> publishable = new ArrayList<Object>(events.size());
+
+		for (Object event : events)
+		{
+			if (canPublish(event.getClass()))
+			{
+				publishable.add(event);
+			}
+		}
+
+		if (!publishable.isEmpty())
+		{
+			transport.publishAll(publishable);
+			metrics.add(PUBLISHED_METRIC, publishable.size());
+		}
+	}
+
+	/**
+	 * Create a ring of preallocated event slots for allocation-free publishing of the given event type.
+	 * Publishers claim a slot, fill it in and commit it (see EventSlots). Committed slots are passed to
+	 * the transport on a dedicated thread and then reused, so handlers must not retain the events.
+	 * 
+	 * @param type the event type.
+	 * @param factory creates each slot.
+	 * @param size the number of slots. Must be a power of two.
+	 * @return the slots, which publishers should hold on to rather than calling getSlots() for every event.
+	 * @throws IllegalStateException if slots already exist for the type.
+	 */
+	public <T> EventSlots<T> addSlots(Class<T> type, EventSlotFactory<T> factory, int size)
+	{
+		EventSlots<T> slots = new EventSlots<T>(type, factory, size, new Consumer<Object>()
+		{
+			@Override
+			public void accept(Object event)
+			{
+				dispatchSlot(event);
+			}
+		});
+
+		if (slotsByType.putIfAbsent(type, slots) != null)
+		{
+			slots.shutdown();
+			throw new IllegalStateException("Slots already added for: " + type.getName());
+		}
+
+		return slots;
+	}
+
+	/**
+	 * @param type an event type passed to addSlots().
+	 * @return the slots for the type, or null if there are none.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> EventSlots<T> getSlots(Class<T> type)
+	{
+		return (EventSlots<T>) slotsByType.get(type);
+	}
+
+	/**
+	 * Pass a committed slot to the transport. Called on the slots' dispatch thread. The slot is reused
+	 * as soon as this returns, so subclasses whose transport retains event references (e.g. by queueing
+	 * them) must override this to deliver the event synchronously.
+	 * 
+	 * @param event a committed slot.
+	 */
+	protected void dispatchSlot(Object event)
+	{
+		transport.publish(event);
+		metrics.increment(PUBLISHED_METRIC);
 	}
 
 	public void shutdown()
 	{
+		shutdownSlots();
 		transport.shutdown();
 	}
 
+	/**
+	 * Stop the slots' dispatch threads. Subclasses that don't call shutdown() on this class must
+	 * call this before releasing the transport.
+	 */
+	protected void shutdownSlots()
+	{
+		for (EventSlots<?> slots : slotsByType.values())
+		{
+			slots.shutdown();
+		}
+
+		slotsByType.clear();
+	}
+
 	public boolean subscribe(EventHandler handler)
 	{
 		return transport.subscribe(handler);
@@ -67,6 +231,14 @@ public abstract class EventBus
 		return transport.unsubscribe(handler);
 	}
 	
+	/**
+	 * The counters and gauges for this bus. Includes, at least, PUBLISHED_METRIC and REJECTED_METRIC.
+	 */
+	public Metrics getMetrics()
+	{
+		return metrics;
+	}
+
 	protected EventTransport getTransport()
 	{
 		return transport;
@@ -0,0 +1,316 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.strategicgains.eventing.metrics.Gauge;
+import com.strategicgains.eventing.metrics.Metrics;
+
+/**
+ * Limits the number of pending events, and their estimated size in bytes, that a transport
+ * will hold at once. Transports acquire capacity when an event is accepted and release it once
+ * the event leaves their custody (e.g. it is dispatched or sent).
+ * <p/>
+ * Acquiring is lock-free unless the caller has to wait for capacity to become available.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventCapacity
+{
+	// SECTION: CONSTANTS
+
+	public static final long UNLIMITED = Long.MAX_VALUE;
+	public static final long DEFAULT_EVENT_SIZE = 64L;
+
+	public static final String PENDING_EVENTS_METRIC = "capacity.pending.events";
+	public static final String PENDING_BYTES_METRIC = "capacity.pending.bytes";
+	public static final String REJECTED_BY_COUNT_METRIC = "capacity.rejected.count-limit";
+	public static final String REJECTED_BY_BYTES_METRIC = "capacity.rejected.byte-limit";
+
+	private static final EventSizeEstimator FIXED_SIZE_ESTIMATOR = new EventSizeEstimator()
+	{
+		@Override
+		public long estimate(Object event)
+		{
+			return DEFAULT_EVENT_SIZE;
+		}
+	};
+
+	private static final int ACQUIRED = 0;
+	private static final int OVER_COUNT = 1;
+	private static final int OVER_BYTES = 2;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private long maxEvents;
+	private long maxBytes;
+	private EventSizeEstimator estimator;
+	private AtomicLong events = new AtomicLong(0L);
+	private AtomicLong bytes = new AtomicLong(0L);
+	private LongAdder rejectedByCount = new LongAdder();
+	private LongAdder rejectedByBytes = new LongAdder();
+	private ReentrantLock lock = new ReentrantLock();
+	private Condition released = lock.newCondition();
+	private volatile int waiters = 0;
+
+
+	// SECTION: CONSTRUCTORS
+
+	public EventCapacity(long maxEvents)
+	{
+		this(maxEvents, UNLIMITED, null);
+	}
+
+	/**
+	 * @param maxEvents the maximum number of pending events. Use UNLIMITED for no limit.
+	 * @param maxBytes the maximum estimated size of all pending events. Use UNLIMITED for no limit.
+	 * @param estimator estimates the size of each event. If null, every event is assumed to be DEFAULT_EVENT_SIZE bytes.
+	 */
+	public EventCapacity(long maxEvents, long maxBytes, EventSizeEstimator estimator)
+	{
+		super();
+
+		if (maxEvents <= 0 || maxBytes <= 0)
+		{
+			throw new IllegalArgumentException("Capacity limits must be positive");
+		}
+
+		this.maxEvents = maxEvents;
+		this.maxBytes = maxBytes;
+		this.estimator = (estimator == null ? FIXED_SIZE_ESTIMATOR : estimator);
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Acquire capacity for the event, only if it is available now.
+	 * 
+	 * @param event
+	 * @return true if capacity was acquired. Otherwise, false.
+	 */
+	public boolean tryAcquire(Object event)
+	{
+		int result = reserve(estimator.estimate(event));
+
+		if (result == ACQUIRED) return true;
+
+		recordRejection(result);
+		return false;
+	}
+
+	/**
+	 * Acquire capacity for the event, waiting up to the given timeout for it to become available.
+	 * 
+	 * @param event
+	 * @param timeout
+	 * @param unit
+	 * @return true if capacity was acquired. Otherwise, false.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public boolean tryAcquire(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		long size = estimator.estimate(event);
+		int result = reserve(size);
+
+		if (result == ACQUIRED) return true;
+
+		long nanos = unit.toNanos(timeout);
+
+		if (nanos <= 0L)
+		{
+			recordRejection(result);
+			return false;
+		}
+
+		lock.lockInterruptibly();
+
+		try
+		{
+			++waiters;
+
+			while ((result = reserve(size)) != ACQUIRED)
+			{
+				if (nanos <= 0L)
+				{
+					recordRejection(result);
+					return false;
+				}
+
+				nanos = released.awaitNanos(nanos);
+			}
+
+			return true;
+		}
+		finally
+		{
+			--waiters;
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Acquire capacity for the event unconditionally, even if that exceeds the limits.
+	 * Used for events that must not be refused (e.g. plain publish() or retries), so
+	 * that they are still accounted for.
+	 * 
+	 * @param event
+	 */
+	public void acquire(Object event)
+	{
+		events.incrementAndGet();
+		bytes.addAndGet(estimator.estimate(event));
+	}
+
+	/**
+	 * Return the capacity held by an event that has left the transport's custody.
+	 * 
+	 * @param event an event previously acquired.
+	 */
+	public void release(Object event)
+	{
+		events.decrementAndGet();
+		bytes.addAndGet(-estimator.estimate(event));
+
+		if (waiters > 0)
+		{
+			lock.lock();
+
+			try
+			{
+				released.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	public long getPendingEvents()
+	{
+		return events.get();
+	}
+
+	public long getPendingBytes()
+	{
+		return bytes.get();
+	}
+
+	public long getRejectedByCount()
+	{
+		return rejectedByCount.sum();
+	}
+
+	public long getRejectedByBytes()
+	{
+		return rejectedByBytes.sum();
+	}
+
+	/**
+	 * Expose pending and rejection statistics as gauges on the given Metrics.
+	 * 
+	 * @param metrics
+	 */
+	public void registerMetrics(Metrics metrics)
+	{
+		metrics.register(PENDING_EVENTS_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getPendingEvents();
+			}
+		});
+		metrics.register(PENDING_BYTES_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getPendingBytes();
+			}
+		});
+		metrics.register(REJECTED_BY_COUNT_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getRejectedByCount();
+			}
+		});
+		metrics.register(REJECTED_BY_BYTES_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getRejectedByBytes();
+			}
+		});
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private int reserve(long size)
+	{
+		long count;
+
+		do
+		{
+			count = events.get();
+
+			if (count >= maxEvents) return OVER_COUNT;
+		}
+		while (!events.compareAndSet(count, count + 1));
+
+		long total;
+
+		do
+		{
+			total = bytes.get();
+
+			// Always admit a single event, however large, into an otherwise-empty transport.
+			if (total > 0 && total + size > maxBytes)
+			{
+				events.decrementAndGet();
+				return OVER_BYTES;
+			}
+		}
+		while (!bytes.compareAndSet(total, total + size));
+
+		return ACQUIRED;
+	}
+
+	private void recordRejection(int result)
+	{
+		if (result == OVER_COUNT)
+		{
+			rejectedByCount.increment();
+		}
+		else
+		{
+			rejectedByBytes.increment();
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+/**
+ * Chooses the key of a published event, for transports that partition events: events with
+ * the same key go to the same partition (a Kafka partition, or a Hazelcast work queue), so
+ * are handled in the order they were published. Typically, the key is the aggregate
+ * identifier, keeping each aggregate's events in order.
+ * <p/>
+ * Keys are strings so that every node maps a key to the same partition.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public interface EventKeyExtractor
+{
+	/**
+	 * @param event a published event.
+	 * @return the key, or null to let the transport spread the event across partitions.
+	 */
+	public String keyFor(Object event);
+}
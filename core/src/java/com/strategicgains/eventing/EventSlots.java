@@ -0,0 +1,249 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A ring of preallocated, mutable events of a single type, for publishing high-rate events
+ * without allocating. Publishers claim a slot, fill it in, then commit it:
+ * <pre>
+ * long sequence = slots.claim();
+ * TelemetryEvent event = slots.get(sequence);
+ * event.setValue(42);
+ * slots.commit(sequence);
+ * </pre>
+ * Committed slots are dispatched, in sequence order, by a dedicated thread. Once dispatched,
+ * a slot is reused for a later claim, so handlers must not retain a reference to the event
+ * (copy what they need instead). If every slot is in use, claim() waits for the dispatcher.
+ * <p/>
+ * Any number of threads may claim and commit concurrently. Every claimed sequence must be
+ * committed, as later sequences are not dispatched until earlier ones are.
+ * <p/>
+ * While idle, the dispatcher spins briefly, then parks briefly, then blocks until a commit wakes it.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventSlots<T>
+{
+	// SECTION: CONSTANTS
+
+	private static final long WAIT_NANOS = 50_000L;
+	private static final int SPIN_TRIES = 100;
+	private static final int PARK_TRIES = 200;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Object[] entries;
+	private int mask;
+	private AtomicLongArray committed;
+	private AtomicLong claimed = new AtomicLong(0L);
+	private AtomicLong dispatched = new AtomicLong(0L);
+	private Consumer<Object> dispatcher;
+	private Thread dispatchThread;
+	private volatile boolean shouldShutDown = false;
+	private volatile boolean isDispatcherBlocked = false;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param type the event type, used to name the dispatch thread.
+	 * @param factory creates each slot.
+	 * @param size the number of slots. Must be a power of two.
+	 * @param dispatcher called on the dispatch thread with each committed slot, in sequence order.
+	 */
+	public EventSlots(Class<T> type, EventSlotFactory<T> factory, int size, Consumer<Object> dispatcher)
+	{
+		super();
+
+		if (size <= 0 || Integer.bitCount(size) != 1)
+		{
+			throw new IllegalArgumentException("Slot count must be a power of two: " + size);
+		}
+
+		this.entries = new Object[size];
+		this.mask = size - 1;
+		this.committed = new AtomicLongArray(size);
+		this.dispatcher = dispatcher;
+
+		for (int i = 0; i < size; i++)
+		{
+			entries[i] = factory.newSlot();
+			committed.set(i, -1L);
+		}
+
+		dispatchThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				dispatchCommitted();
+			}
+		}, "event-slots-" + type.getSimpleName());
+		dispatchThread.setDaemon(true);
+		dispatchThread.start();
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Claim the next slot, waiting if all slots are in use.
+	 * 
+	 * @return the sequence of the claimed slot, for use with get() and commit().
+	 */
+	public long claim()
+	{
+		long sequence = claimed.getAndIncrement();
+
+		while (sequence - dispatched.get() >= entries.length)
+		{
+			if (shouldShutDown) throw new IllegalStateException("EventSlots shut down");
+
+			LockSupport.parkNanos(WAIT_NANOS);
+		}
+
+		return sequence;
+	}
+
+	/**
+	 * Get the event in a claimed slot, to fill it in.
+	 * 
+	 * @param sequence a sequence returned by claim().
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(long sequence)
+	{
+		return (T) entries[(int) sequence & mask];
+	}
+
+	/**
+	 * Make a claimed, filled-in slot available for dispatch.
+	 * 
+	 * @param sequence a sequence returned by claim().
+	 */
+	public void commit(long sequence)
+	{
+		committed.set((int) sequence & mask, sequence);
+
+		// The volatile write above, then this read, pairs with the dispatcher's write of the flag, then its re-check.
+		if (isDispatcherBlocked)
+		{
+			LockSupport.unpark(dispatchThread);
+		}
+	}
+
+	/**
+	 * The number of slots committed but not yet dispatched (approximately, while publishing is under way).
+	 */
+	public long getPendingCount()
+	{
+		return Math.max(0L, claimed.get() - dispatched.get());
+	}
+
+	/**
+	 * Stop the dispatch thread after it dispatches the slots already committed, and wait for it
+	 * to finish, so the caller can then release what the dispatcher publishes to.
+	 */
+	public void shutdown()
+	{
+		shouldShutDown = true;
+		LockSupport.unpark(dispatchThread);
+
+		if (Thread.currentThread() == dispatchThread) return;
+
+		try
+		{
+			dispatchThread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private void dispatchCommitted()
+	{
+		long next = dispatched.get();
+		int idleCount = 0;
+
+		while (true)
+		{
+			int index = (int) next & mask;
+
+			if (committed.get(index) == next)
+			{
+				try
+				{
+					dispatcher.accept(entries[index]);
+				}
+				catch (RuntimeException e)
+				{
+					e.printStackTrace();
+				}
+
+				dispatched.lazySet(++next);
+				idleCount = 0;
+			}
+			else if (shouldShutDown)
+			{
+				return;
+			}
+			else if (++idleCount < SPIN_TRIES)
+			{
+				Thread.yield();
+			}
+			else if (idleCount < SPIN_TRIES + PARK_TRIES)
+			{
+				LockSupport.parkNanos(WAIT_NANOS);
+			}
+			else
+			{
+				block(index, next);
+			}
+		}
+	}
+
+	/**
+	 * Park until commit() or shutdown() unparks the dispatcher, unless the slot is committed
+	 * meanwhile. Spurious wake-ups just return to the dispatch loop.
+	 */
+	private void block(int index, long next)
+	{
+		isDispatcherBlocked = true;
+
+		try
+		{
+			if (committed.get(index) != next && !shouldShutDown)
+			{
+				LockSupport.park(this);
+			}
+		}
+		finally
+		{
+			isDispatcherBlocked = false;
+		}
+	}
+}
@@ -15,6 +15,9 @@
  */
 package com.strategicgains.eventing;
 
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author toddf
  * @since Oct 18, 2012
@@ -22,6 +25,41 @@ package com.strategicgains.eventing;
 public interface EventTransport
 {
 	public void publish(Object event);
+
+	/**
+	 * Publish an event if the transport has capacity to accept it, waiting up to
+	 * the given timeout for capacity to become available. Transports that do not
+	 * limit their capacity always accept the event. A timeout of zero (or less)
+	 * does not wait at all.
+	 * 
+	 * @param event the event to publish.
+	 * @param timeout how long to wait for capacity.
+	 * @param unit the unit of the timeout.
+	 * @return true if the event was accepted. Otherwise, false.
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	public default boolean publish(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		publish(event);
+		return true;
+	}
+
+	/**
+	 * Publish a batch of events. Transports that can enqueue or send several
+	 * events at once should override this. By default, each event is published
+	 * individually, in iteration order.
+	 * 
+	 * @param events the events to publish.
+	 */
+	public default void publishAll(Collection<?> events)
+	{
+		for (Object event : events)
+		{
+			publish(event);
+		}
+	}
+
     public boolean subscribe(EventHandler handler);
     public boolean unsubscribe(EventHandler handler);
 	public void shutdown();
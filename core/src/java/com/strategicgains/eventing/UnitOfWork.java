@@ -0,0 +1,238 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * UnitOfWork collects the domain events raised on the current thread during a
+ * transaction and publishes them, as one batch, only when the transaction commits.
+ * If the transaction rolls back, the collected events are discarded and never published.
+ * <p/>
+ * Usage:
+ * <pre>
+ * UnitOfWork.begin();
+ *
+ * try
+ * {
+ *     // aggregates call UnitOfWork.raise(event)...
+ *     UnitOfWork.commit();
+ * }
+ * finally
+ * {
+ *     UnitOfWork.rollback();	// no-op if already committed.
+ * }
+ * </pre>
+ * Events are buffered in an array that is reused by the thread from one unit of work
+ * to the next, so raising an event does not allocate in the steady state. Committed
+ * events are published via DomainEvents.publishAll(Collection).
+ *
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class UnitOfWork
+{
+	// SECTION: CONSTANTS
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	// A burst of events should not pin a large array to the thread forever.
+	private static final int MAX_RETAINED_CAPACITY = 1024;
+
+	private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<UnitOfWork>()
+	{
+		@Override
+		protected UnitOfWork initialValue()
+		{
+			return new UnitOfWork();
+		}
+	};
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Object[] events = new Object[INITIAL_CAPACITY];
+	private int size = 0;
+	private boolean isActive = false;
+	private PendingEvents pending = new PendingEvents();
+
+
+	// SECTION: CONSTRUCTOR
+
+	private UnitOfWork()
+	{
+		super();
+	}
+
+
+	// SECTION: STATIC METHODS
+
+	/**
+	 * Start a unit of work on the current thread. Events raised on this thread
+	 * are buffered until commit() or rollback() is called.
+	 *
+	 * @throws IllegalStateException if a unit of work is already active on this thread.
+	 */
+	public static void begin()
+	{
+		CURRENT.get().start();
+	}
+
+	/**
+	 * Answers whether a unit of work is active on the current thread.
+	 */
+	public static boolean isActive()
+	{
+		return CURRENT.get().isActive;
+	}
+
+	/**
+	 * Raise an event within the current unit of work. If no unit of work is active
+	 * on this thread, the event is published immediately via DomainEvents.publish(Object).
+	 *
+	 * @param event the Object as an event to publish on commit.
+	 */
+	public static void raise(Object event)
+	{
+		UnitOfWork uow = CURRENT.get();
+
+		if (uow.isActive)
+		{
+			uow.add(event);
+		}
+		else
+		{
+			DomainEvents.publish(event);
+		}
+	}
+
+	/**
+	 * The number of events raised, but not yet published, in the current unit of work.
+	 */
+	public static int getPendingCount()
+	{
+		return CURRENT.get().size;
+	}
+
+	/**
+	 * Publish all events raised in the current unit of work as a single batch and end
+	 * the unit of work. The unit of work ends even if publishing fails.
+	 *
+	 * @throws IllegalStateException if no unit of work is active on this thread.
+	 */
+	public static void commit()
+	{
+		CURRENT.get().flush();
+	}
+
+	/**
+	 * Discard all events raised in the current unit of work and end it. Calling
+	 * rollback() when no unit of work is active does nothing, so it is safe to
+	 * call from a finally block.
+	 */
+	public static void rollback()
+	{
+		CURRENT.get().reset();
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	private void start()
+	{
+		if (isActive)
+		{
+			throw new IllegalStateException("Unit of work already active on this thread");
+		}
+
+		isActive = true;
+	}
+
+	private void add(Object event)
+	{
+		if (size == events.length)
+		{
+			events = Arrays.copyOf(events, size << 1);
+		}
+
+		events[size++] = event;
+	}
+
+	private void flush()
+	{
+		if (!isActive)
+		{
+			throw new IllegalStateException("No unit of work active on this thread");
+		}
+
+		try
+		{
+			if (size > 0)
+			{
+				DomainEvents.publishAll(pending);
+			}
+		}
+		finally
+		{
+			reset();
+		}
+	}
+
+	private void reset()
+	{
+		if (events.length > MAX_RETAINED_CAPACITY)
+		{
+			events = new Object[INITIAL_CAPACITY];
+		}
+		else
+		{
+			Arrays.fill(events, 0, size, null);
+		}
+
+		size = 0;
+		isActive = false;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * A read-only view of the buffered events, so committing doesn't have to copy them.
+	 */
+	private class PendingEvents
+	extends AbstractList<Object>
+	implements RandomAccess
+	{
+		@Override
+		public Object get(int index)
+		{
+			if (index >= size)
+			{
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+
+			return events[index];
+		}
+
+		@Override
+		public int size()
+		{
+			return size;
+		}
+	}
+}
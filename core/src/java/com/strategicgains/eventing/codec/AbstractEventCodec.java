@@ -0,0 +1,284 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class for codecs that write the event's type ahead of its contents, so the
+ * receiver knows what to decode it as. The type is written as a varint id from the
+ * EventTypeRegistry, if the class is registered, or as 0 followed by the class name.
+ * Also provides compact string helpers shared by the codecs.
+ * <p/>
+ * By default, a class written by name is loaded by the receiver, whatever it is, and decoding
+ * codecs such as BinaryCodec then instantiate it. Where messages may come from untrusted
+ * senders, call setRegisteredTypesOnly() so that only registered classes are ever decoded.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public abstract class AbstractEventCodec
+implements EventCodec
+{
+	private static final EventTypeRegistry NO_TYPES = new EventTypeRegistry();
+
+	private EventTypeRegistry types;
+	private Map<String, Class<?>> classesByName = new ConcurrentHashMap<String, Class<?>>();
+	private boolean isRegisteredTypesOnly = false;
+
+	public AbstractEventCodec()
+	{
+		this(null);
+	}
+
+	/**
+	 * @param types the registered event type ids. May be null.
+	 */
+	public AbstractEventCodec(EventTypeRegistry types)
+	{
+		super();
+		setTypeRegistry(types);
+	}
+
+	public EventTypeRegistry getTypeRegistry()
+	{
+		return (types == NO_TYPES ? null : types);
+	}
+
+	/**
+	 * Set the registered event type ids. Must be called before the codec is used.
+	 */
+	public void setTypeRegistry(EventTypeRegistry types)
+	{
+		this.types = (types == null ? NO_TYPES : types);
+	}
+
+	public boolean isRegisteredTypesOnly()
+	{
+		return isRegisteredTypesOnly;
+	}
+
+	/**
+	 * Decode only classes registered in the type registry (including those of nested objects
+	 * written by name), refusing to load any other class named in a message. Must be called
+	 * before the codec is used.
+	 */
+	public void setRegisteredTypesOnly(boolean value)
+	{
+		this.isRegisteredTypesOnly = value;
+	}
+
+	/**
+	 * Reads the type header written ahead of the event's contents.
+	 */
+	@Override
+	public Class<?> peekType(ByteBuffer bytes)
+	{
+		int position = bytes.position();
+
+		try
+		{
+			return readType(bytes);
+		}
+		finally
+		{
+			bytes.position(position);
+		}
+	}
+
+	/**
+	 * Write the class' registered id or, if it's not registered, 0 followed by its name.
+	 */
+	protected void writeType(Class<?> type, EncodeBuffer buffer)
+	{
+		int id = types.idOf(type);
+		buffer.writeVarint(id);
+
+		if (id == EventTypeRegistry.UNREGISTERED)
+		{
+			writeString(type.getName(), buffer);
+		}
+	}
+
+	/**
+	 * Read a class written by writeType().
+	 */
+	protected Class<?> readType(ByteBuffer bytes)
+	{
+		int id = Varints.readVarint(bytes);
+
+		if (id == EventTypeRegistry.UNREGISTERED)
+		{
+			return classForName(readString(bytes));
+		}
+
+		Class<?> type = types.typeOf(id);
+
+		if (type == null)
+		{
+			throw new CodecException("Unregistered event type id: " + id);
+		}
+
+		return type;
+	}
+
+	/**
+	 * Load, and cache, a class by name. In registered-types-only mode, answers only registered classes.
+	 */
+	protected Class<?> classForName(String name)
+	{
+		if (isRegisteredTypesOnly)
+		{
+			Class<?> registered = types.typeNamed(name);
+
+			if (registered == null)
+			{
+				throw new CodecException("Unregistered event class: " + name);
+			}
+
+			return registered;
+		}
+
+		Class<?> type = classesByName.get(name);
+
+		if (type == null)
+		{
+			try
+			{
+				type = Class.forName(name, true, Thread.currentThread().getContextClassLoader());
+			}
+			catch (ClassNotFoundException | RuntimeException e)
+			{
+				try
+				{
+					type = Class.forName(name);
+				}
+				catch (ClassNotFoundException e2)
+				{
+					throw new CodecException("Unknown event class: " + name, e2);
+				}
+			}
+
+			classesByName.put(name, type);
+		}
+
+		return type;
+	}
+
+	/**
+	 * Write a varint UTF-8 length followed by the UTF-8 bytes, without an intermediate byte array.
+	 */
+	protected static void writeString(String value, EncodeBuffer buffer)
+	{
+		int length = value.length();
+		int utf8Length = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			if (c < 0x80)
+			{
+				utf8Length += 1;
+			}
+			else if (c < 0x800)
+			{
+				utf8Length += 2;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				utf8Length += 4;
+				++i;
+			}
+			else
+			{
+				utf8Length += (Character.isSurrogate(c) ? 1 : 3);
+			}
+		}
+
+		buffer.writeVarint(utf8Length);
+
+		if (utf8Length == length)
+		{
+			for (int i = 0; i < length; i++)
+			{
+				buffer.write(value.charAt(i));
+			}
+
+			return;
+		}
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			if (c < 0x80)
+			{
+				buffer.write(c);
+			}
+			else if (c < 0x800)
+			{
+				buffer.write(0xC0 | (c >> 6));
+				buffer.write(0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer.write(0xF0 | (codePoint >> 18));
+				buffer.write(0x80 | ((codePoint >> 12) & 0x3F));
+				buffer.write(0x80 | ((codePoint >> 6) & 0x3F));
+				buffer.write(0x80 | (codePoint & 0x3F));
+			}
+			else if (Character.isSurrogate(c))
+			{
+				// Unpaired surrogates aren't valid UTF-8; written as '?', as String.getBytes() does.
+				buffer.write('?');
+			}
+			else
+			{
+				buffer.write(0xE0 | (c >> 12));
+				buffer.write(0x80 | ((c >> 6) & 0x3F));
+				buffer.write(0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * Read a string written by writeString().
+	 */
+	protected static String readString(ByteBuffer bytes)
+	{
+		int length = Varints.readVarint(bytes);
+		String value;
+
+		if (bytes.hasArray())
+		{
+			value = new String(bytes.array(), bytes.arrayOffset() + bytes.position(), length, StandardCharsets.UTF_8);
+			bytes.position(bytes.position() + length);
+		}
+		else
+		{
+			byte[] utf8 = new byte[length];
+			bytes.get(utf8);
+			value = new String(utf8, StandardCharsets.UTF_8);
+		}
+
+		return value;
+	}
+}
@@ -0,0 +1,498 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact binary EventCodec that writes an event's non-static, non-transient fields
+ * (including inherited ones) by reflection, in a fixed order, without field names. Integers
+ * are written as ZigZag varints, so small values take a byte or two.
+ * <p/>
+ * Events and nested objects need a no-argument constructor (of any visibility) and must form
+ * a tree; cyclic references are not supported. Supported field types are primitives and their
+ * wrappers, String, enums, byte[], UUID, Date, BigDecimal, List, Set and Map (decoded as
+ * ArrayList, LinkedHashSet and LinkedHashMap) and other objects meeting the same requirements.
+ * <p/>
+ * Event classes, and the classes of nested objects whose runtime type differs from their field's
+ * declared type, are written by name unless registered in an EventTypeRegistry.
+ * <p/>
+ * Decoding instantiates whatever class a message names. Unless every sender is trusted, restrict
+ * decoding to registered classes with setRegisteredTypesOnly(true).
+ * <p/>
+ * Both sides must have the same version of each event class, since fields aren't named on the
+ * wire. Use JacksonCodec where event classes evolve independently.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class BinaryCodec
+extends AbstractEventCodec
+{
+	// SECTION: CONSTANTS
+
+	private static final int NULL = 0;
+	private static final int FALSE = 1;
+	private static final int TRUE = 2;
+	private static final int BYTE = 3;
+	private static final int SHORT = 4;
+	private static final int CHAR = 5;
+	private static final int INT = 6;
+	private static final int LONG = 7;
+	private static final int FLOAT = 8;
+	private static final int DOUBLE = 9;
+	private static final int STRING = 10;
+	private static final int BYTES = 11;
+	private static final int ENUM = 12;
+	private static final int TYPED_ENUM = 13;
+	private static final int OBJECT = 14;
+	private static final int TYPED_OBJECT = 15;
+	private static final int LIST = 16;
+	private static final int SET = 17;
+	private static final int MAP = 18;
+	private static final int UUID_VALUE = 19;
+	private static final int DATE = 20;
+	private static final int DECIMAL = 21;
+
+	private static final Comparator<Field> BY_NAME = new Comparator<Field>()
+	{
+		@Override
+		public int compare(Field a, Field b)
+		{
+			return a.getName().compareTo(b.getName());
+		}
+	};
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Map<Class<?>, ClassPlan> plans = new ConcurrentHashMap<Class<?>, ClassPlan>();
+
+
+	// SECTION: CONSTRUCTORS
+
+	public BinaryCodec()
+	{
+		super();
+	}
+
+	/**
+	 * @param types registered event type ids, written in place of class names. May be null.
+	 */
+	public BinaryCodec(EventTypeRegistry types)
+	{
+		super(types);
+	}
+
+
+	// SECTION: ENCODING
+
+	@Override
+	public void encode(Object event, EncodeBuffer buffer)
+	{
+		try
+		{
+			writeType(event.getClass(), buffer);
+			writeFields(event, planFor(event.getClass()), buffer);
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new CodecException("Unable to encode event: " + event.getClass().getName(), e);
+		}
+	}
+
+	private void writeFields(Object object, ClassPlan plan, EncodeBuffer buffer)
+	throws IllegalAccessException
+	{
+		for (int i = 0; i < plan.fields.length; i++)
+		{
+			Field field = plan.fields[i];
+
+			switch (plan.kinds[i])
+			{
+				case FALSE: buffer.write(field.getBoolean(object) ? 1 : 0); break;
+				case BYTE: buffer.write(field.getByte(object)); break;
+				case SHORT: buffer.writeVarint(Varints.zigZag(field.getShort(object))); break;
+				case CHAR: buffer.writeVarint(field.getChar(object)); break;
+				case INT: buffer.writeVarint(Varints.zigZag(field.getInt(object))); break;
+				case LONG: buffer.writeVarlong(Varints.zigZag(field.getLong(object))); break;
+				case FLOAT: buffer.writeInt(Float.floatToIntBits(field.getFloat(object))); break;
+				case DOUBLE: buffer.writeLong(Double.doubleToLongBits(field.getDouble(object))); break;
+				default: writeValue(field.get(object), field.getType(), buffer);
+			}
+		}
+	}
+
+	private void writeValue(Object value, Class<?> declaredType, EncodeBuffer buffer)
+	throws IllegalAccessException
+	{
+		if (value == null)
+		{
+			buffer.write(NULL);
+			return;
+		}
+
+		Class<?> type = value.getClass();
+
+		if (type == String.class)
+		{
+			buffer.write(STRING);
+			writeString((String) value, buffer);
+		}
+		else if (type == Integer.class)
+		{
+			buffer.write(INT);
+			buffer.writeVarint(Varints.zigZag((Integer) value));
+		}
+		else if (type == Long.class)
+		{
+			buffer.write(LONG);
+			buffer.writeVarlong(Varints.zigZag((Long) value));
+		}
+		else if (type == Boolean.class)
+		{
+			buffer.write((Boolean) value ? TRUE : FALSE);
+		}
+		else if (type == Double.class)
+		{
+			buffer.write(DOUBLE);
+			buffer.writeLong(Double.doubleToLongBits((Double) value));
+		}
+		else if (type == Float.class)
+		{
+			buffer.write(FLOAT);
+			buffer.writeInt(Float.floatToIntBits((Float) value));
+		}
+		else if (type == Short.class)
+		{
+			buffer.write(SHORT);
+			buffer.writeVarint(Varints.zigZag((Short) value));
+		}
+		else if (type == Byte.class)
+		{
+			buffer.write(BYTE);
+			buffer.write((Byte) value);
+		}
+		else if (type == Character.class)
+		{
+			buffer.write(CHAR);
+			buffer.writeVarint((Character) value);
+		}
+		else if (type == byte[].class)
+		{
+			byte[] bytes = (byte[]) value;
+			buffer.write(BYTES);
+			buffer.writeVarint(bytes.length);
+			buffer.write(bytes, 0, bytes.length);
+		}
+		else if (value instanceof Enum)
+		{
+			Class<?> enumType = ((Enum<?>) value).getDeclaringClass();
+
+			if (enumType == declaredType)
+			{
+				buffer.write(ENUM);
+			}
+			else
+			{
+				buffer.write(TYPED_ENUM);
+				writeType(enumType, buffer);
+			}
+
+			buffer.writeVarint(((Enum<?>) value).ordinal());
+		}
+		else if (type == UUID.class)
+		{
+			buffer.write(UUID_VALUE);
+			buffer.writeLong(((UUID) value).getMostSignificantBits());
+			buffer.writeLong(((UUID) value).getLeastSignificantBits());
+		}
+		else if (type == Date.class)
+		{
+			buffer.write(DATE);
+			buffer.writeVarlong(Varints.zigZag(((Date) value).getTime()));
+		}
+		else if (type == BigDecimal.class)
+		{
+			buffer.write(DECIMAL);
+			writeString(value.toString(), buffer);
+		}
+		else if (value instanceof List)
+		{
+			buffer.write(LIST);
+			writeElements((Collection<?>) value, buffer);
+		}
+		else if (value instanceof Set)
+		{
+			buffer.write(SET);
+			writeElements((Collection<?>) value, buffer);
+		}
+		else if (value instanceof Map)
+		{
+			buffer.write(MAP);
+			Map<?, ?> map = (Map<?, ?>) value;
+			buffer.writeVarint(map.size());
+
+			for (Map.Entry<?, ?> entry : map.entrySet())
+			{
+				writeValue(entry.getKey(), Object.class, buffer);
+				writeValue(entry.getValue(), Object.class, buffer);
+			}
+		}
+		else
+		{
+			if (type == declaredType)
+			{
+				buffer.write(OBJECT);
+			}
+			else
+			{
+				buffer.write(TYPED_OBJECT);
+				writeType(type, buffer);
+			}
+
+			writeFields(value, planFor(type), buffer);
+		}
+	}
+
+	private void writeElements(Collection<?> elements, EncodeBuffer buffer)
+	throws IllegalAccessException
+	{
+		buffer.writeVarint(elements.size());
+
+		for (Object element : elements)
+		{
+			writeValue(element, Object.class, buffer);
+		}
+	}
+
+
+	// SECTION: DECODING
+
+	@Override
+	public Object decode(ByteBuffer bytes)
+	{
+		Class<?> type = readType(bytes);
+
+		try
+		{
+			return readObject(planFor(type), bytes);
+		}
+		catch (ReflectiveOperationException | RuntimeException e)
+		{
+			if (e instanceof CodecException) throw (CodecException) e;
+
+			throw new CodecException("Unable to decode event: " + type.getName(), e);
+		}
+	}
+
+	private Object readObject(ClassPlan plan, ByteBuffer bytes)
+	throws ReflectiveOperationException
+	{
+		Object object = plan.constructor.newInstance();
+
+		for (int i = 0; i < plan.fields.length; i++)
+		{
+			Field field = plan.fields[i];
+
+			switch (plan.kinds[i])
+			{
+				case FALSE: field.setBoolean(object, bytes.get() != 0); break;
+				case BYTE: field.setByte(object, bytes.get()); break;
+				case SHORT: field.setShort(object, (short) Varints.unZigZag(Varints.readVarint(bytes))); break;
+				case CHAR: field.setChar(object, (char) Varints.readVarint(bytes)); break;
+				case INT: field.setInt(object, Varints.unZigZag(Varints.readVarint(bytes))); break;
+				case LONG: field.setLong(object, Varints.unZigZag(Varints.readVarlong(bytes))); break;
+				case FLOAT: field.setFloat(object, Float.intBitsToFloat(bytes.getInt())); break;
+				case DOUBLE: field.setDouble(object, Double.longBitsToDouble(bytes.getLong())); break;
+				default: field.set(object, readValue(field.getType(), bytes));
+			}
+		}
+
+		return object;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readValue(Class<?> declaredType, ByteBuffer bytes)
+	throws ReflectiveOperationException
+	{
+		int tag = bytes.get();
+
+		switch (tag)
+		{
+			case NULL: return null;
+			case FALSE: return Boolean.FALSE;
+			case TRUE: return Boolean.TRUE;
+			case BYTE: return bytes.get();
+			case SHORT: return (short) Varints.unZigZag(Varints.readVarint(bytes));
+			case CHAR: return (char) Varints.readVarint(bytes);
+			case INT: return Varints.unZigZag(Varints.readVarint(bytes));
+			case LONG: return Varints.unZigZag(Varints.readVarlong(bytes));
+			case FLOAT: return Float.intBitsToFloat(bytes.getInt());
+			case DOUBLE: return Double.longBitsToDouble(bytes.getLong());
+			case STRING: return readString(bytes);
+			case BYTES:
+				byte[] array = new byte[Varints.readVarint(bytes)];
+				bytes.get(array);
+				return array;
+			case ENUM: return declaredType.getEnumConstants()[Varints.readVarint(bytes)];
+			case TYPED_ENUM: return readType(bytes).getEnumConstants()[Varints.readVarint(bytes)];
+			case OBJECT: return readObject(planFor(declaredType), bytes);
+			case TYPED_OBJECT: return readObject(planFor(readType(bytes)), bytes);
+			case LIST: return readElements(new ArrayList(), bytes);
+			case SET: return readElements(new LinkedHashSet(), bytes);
+			case MAP:
+				int size = Varints.readVarint(bytes);
+				Map map = new LinkedHashMap(size * 4 / 3 + 1);
+
+				for (int i = 0; i < size; i++)
+				{
+					map.put(readValue(Object.class, bytes), readValue(Object.class, bytes));
+				}
+
+				return map;
+			case UUID_VALUE: return new UUID(bytes.getLong(), bytes.getLong());
+			case DATE: return new Date(Varints.unZigZag(Varints.readVarlong(bytes)));
+			case DECIMAL: return new BigDecimal(readString(bytes));
+			default: throw new CodecException("Unknown value tag: " + tag);
+		}
+	}
+
+	private Collection<Object> readElements(Collection<Object> elements, ByteBuffer bytes)
+	throws ReflectiveOperationException
+	{
+		int size = Varints.readVarint(bytes);
+
+		for (int i = 0; i < size; i++)
+		{
+			elements.add(readValue(Object.class, bytes));
+		}
+
+		return elements;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private ClassPlan planFor(Class<?> type)
+	{
+		ClassPlan plan = plans.get(type);
+
+		if (plan == null)
+		{
+			plan = new ClassPlan(type);
+			plans.put(type, plan);
+		}
+
+		return plan;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * The cached constructor, fields and field kinds for a class, so reflection lookups
+	 * happen once per class rather than once per event.
+	 */
+	private static class ClassPlan
+	{
+		private Constructor<?> constructor;
+		private Field[] fields;
+		private int[] kinds;
+
+		public ClassPlan(Class<?> type)
+		{
+			super();
+
+			if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isArray())
+			{
+				throw new CodecException("Unsupported type: " + type.getName());
+			}
+
+			try
+			{
+				constructor = type.getDeclaredConstructor();
+				constructor.setAccessible(true);
+			}
+			catch (NoSuchMethodException e)
+			{
+				throw new CodecException(type.getName() + " must have a no-argument constructor", e);
+			}
+
+			List<Field> all = new ArrayList<Field>();
+			collectFields(type, all);
+			fields = all.toArray(new Field[0]);
+			kinds = new int[fields.length];
+
+			for (int i = 0; i < fields.length; i++)
+			{
+				fields[i].setAccessible(true);
+				kinds[i] = kindOf(fields[i].getType());
+			}
+		}
+
+		private static void collectFields(Class<?> type, List<Field> fields)
+		{
+			if (type == null || type == Object.class) return;
+
+			collectFields(type.getSuperclass(), fields);
+			Field[] declared = type.getDeclaredFields();
+			Arrays.sort(declared, BY_NAME);
+
+			for (Field field : declared)
+			{
+				int modifiers = field.getModifiers();
+
+				if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic())
+				{
+					fields.add(field);
+				}
+			}
+		}
+
+		/**
+		 * Field kinds reuse the value tags, with OBJECT standing for any reference type.
+		 */
+		private static int kindOf(Class<?> type)
+		{
+			if (!type.isPrimitive()) return OBJECT;
+			if (type == boolean.class) return FALSE;
+			if (type == byte.class) return BYTE;
+			if (type == short.class) return SHORT;
+			if (type == char.class) return CHAR;
+			if (type == int.class) return INT;
+			if (type == long.class) return LONG;
+			if (type == float.class) return FLOAT;
+			return DOUBLE;
+		}
+	}
+}
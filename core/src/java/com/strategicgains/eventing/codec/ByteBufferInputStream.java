@@ -0,0 +1,71 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the remaining bytes of a ByteBuffer (heap or direct) as an InputStream,
+ * advancing the buffer's position.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class ByteBufferInputStream
+extends InputStream
+{
+	private ByteBuffer buffer;
+
+	public ByteBufferInputStream(ByteBuffer buffer)
+	{
+		super();
+		this.buffer = buffer;
+	}
+
+	@Override
+	public int read()
+	{
+		if (!buffer.hasRemaining()) return -1;
+
+		return buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length)
+	{
+		if (length == 0) return 0;
+		if (!buffer.hasRemaining()) return -1;
+
+		int count = Math.min(length, buffer.remaining());
+		buffer.get(bytes, offset, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long count)
+	{
+		int skipped = (int) Math.max(0L, Math.min(count, buffer.remaining()));
+		buffer.position(buffer.position() + skipped);
+		return skipped;
+	}
+
+	@Override
+	public int available()
+	{
+		return buffer.remaining();
+	}
+}
@@ -0,0 +1,229 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable, reusable byte buffer that codecs encode events into. Unlike ByteArrayOutputStream,
+ * it is not synchronized and exposes its backing array, so the encoded bytes can be copied or
+ * sent without an intermediate copy.
+ * <p/>
+ * Not thread safe. Callers typically keep one per thread and reset() it between events;
+ * acquire() provides exactly that.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EncodeBuffer
+extends OutputStream
+{
+	private static final int DEFAULT_CAPACITY = 256;
+
+	// An occasional huge event should not pin a huge array to the thread forever.
+	private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+	private static final ThreadLocal<EncodeBuffer> POOL = new ThreadLocal<EncodeBuffer>()
+	{
+		@Override
+		protected EncodeBuffer initialValue()
+		{
+			return new EncodeBuffer();
+		}
+	};
+
+	private byte[] bytes;
+	private int length = 0;
+
+	public EncodeBuffer()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public EncodeBuffer(int initialCapacity)
+	{
+		super();
+		this.bytes = new byte[initialCapacity];
+	}
+
+	/**
+	 * Answers the calling thread's pooled buffer, reset and ready to encode into. The buffer
+	 * remains in use until the caller is done with its contents; in the meantime, the caller
+	 * must not call acquire() again on the same thread (e.g. from within a codec).
+	 */
+	public static EncodeBuffer acquire()
+	{
+		EncodeBuffer buffer = POOL.get();
+
+		if (buffer.bytes.length > MAX_POOLED_CAPACITY)
+		{
+			buffer = new EncodeBuffer();
+			POOL.set(buffer);
+		}
+
+		return buffer.reset();
+	}
+
+	/**
+	 * Discard the contents, retaining the backing array for reuse.
+	 */
+	public EncodeBuffer reset()
+	{
+		length = 0;
+		return this;
+	}
+
+	/**
+	 * The backing array. Only the first length() bytes are valid.
+	 */
+	public byte[] array()
+	{
+		return bytes;
+	}
+
+	public int length()
+	{
+		return length;
+	}
+
+	/**
+	 * Wrap the valid contents in a ByteBuffer, without copying.
+	 */
+	public ByteBuffer asByteBuffer()
+	{
+		return ByteBuffer.wrap(bytes, 0, length);
+	}
+
+	/**
+	 * Copy the valid contents to a new array.
+	 */
+	public byte[] toByteArray()
+	{
+		return Arrays.copyOf(bytes, length);
+	}
+
+	@Override
+	public void write(int b)
+	{
+		ensureCapacity(1);
+		bytes[length++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] source, int offset, int count)
+	{
+		ensureCapacity(count);
+		System.arraycopy(source, offset, bytes, length, count);
+		length += count;
+	}
+
+	public void writeBytes(ByteBuffer source)
+	{
+		int count = source.remaining();
+		ensureCapacity(count);
+		source.get(bytes, length, count);
+		length += count;
+	}
+
+	public void writeInt(int value)
+	{
+		ensureCapacity(4);
+		bytes[length++] = (byte) (value >>> 24);
+		bytes[length++] = (byte) (value >>> 16);
+		bytes[length++] = (byte) (value >>> 8);
+		bytes[length++] = (byte) value;
+	}
+
+	public void writeLong(long value)
+	{
+		writeInt((int) (value >>> 32));
+		writeInt((int) value);
+	}
+
+	/**
+	 * Write an unsigned variable-length integer, 7 bits per byte, least-significant group first.
+	 */
+	public void writeVarint(int value)
+	{
+		ensureCapacity(5);
+
+		while ((value & ~0x7F) != 0)
+		{
+			bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		bytes[length++] = (byte) value;
+	}
+
+	/**
+	 * Write an unsigned variable-length long, 7 bits per byte, least-significant group first.
+	 */
+	public void writeVarlong(long value)
+	{
+		ensureCapacity(10);
+
+		while ((value & ~0x7FL) != 0)
+		{
+			bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		bytes[length++] = (byte) value;
+	}
+
+	/**
+	 * Overwrite a previously-written 4-byte int, e.g. to fill in a length prefix.
+	 * 
+	 * @param index the offset of the int within the buffer.
+	 * @param value
+	 */
+	public void setInt(int index, int value)
+	{
+		bytes[index] = (byte) (value >>> 24);
+		bytes[index + 1] = (byte) (value >>> 16);
+		bytes[index + 2] = (byte) (value >>> 8);
+		bytes[index + 3] = (byte) value;
+	}
+
+	/**
+	 * Count bytes written directly into array(), after ensureCapacity(count), as part of the buffer.
+	 */
+	public void advance(int count)
+	{
+		if (length + count > bytes.length)
+		{
+			throw new IndexOutOfBoundsException("Cannot advance past capacity: " + (length + count));
+		}
+
+		length += count;
+	}
+
+	/**
+	 * Ensure there is room for count more bytes, growing the backing array if necessary.
+	 */
+	public void ensureCapacity(int count)
+	{
+		int required = length + count;
+
+		if (required > bytes.length)
+		{
+			bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length << 1));
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+/**
+ * Collects published events into frames and hands each finished frame to a FrameSink, so a
+ * distributed transport sends one message per batch instead of one per event. A frame is
+ * finished when it holds maxEvents events or maxBytes bytes, or when lingerMillis have passed,
+ * whichever comes first. So latency is bounded by the linger time, even when traffic is light.
+ * <p/>
+ * Thread safe. Events from any one thread are sent in the order they were added.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventBatcher
+{
+	// SECTION: CONSTANTS
+
+	public static final int DEFAULT_MAX_EVENTS = 100;
+	public static final int DEFAULT_MAX_BYTES = 64 * 1024;
+	public static final long DEFAULT_LINGER_MILLIS = 5L;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private EventFrameWriter writer;
+	private FrameSink sink;
+	private int maxEvents;
+	private int maxBytes;
+	private long lingerMillis;
+	private Thread lingerThread;
+	private volatile boolean shouldShutDown = false;
+
+
+	// SECTION: CONSTRUCTORS
+
+	public EventBatcher(EventFrameWriter writer, FrameSink sink)
+	{
+		this(writer, sink, DEFAULT_MAX_EVENTS, DEFAULT_MAX_BYTES, DEFAULT_LINGER_MILLIS);
+	}
+
+	/**
+	 * @param writer frames the events.
+	 * @param sink sends finished frames.
+	 * @param maxEvents the most events in one frame.
+	 * @param maxBytes the uncompressed frame size, in bytes, at which the frame is sent.
+	 * @param lingerMillis the longest an event waits for its frame to fill. If zero, frames are only sent when full or on flush().
+	 */
+	public EventBatcher(EventFrameWriter writer, FrameSink sink, int maxEvents, int maxBytes, long lingerMillis)
+	{
+		super();
+
+		if (maxEvents < 1 || maxBytes < 1 || lingerMillis < 0)
+		{
+			throw new IllegalArgumentException("Batch limits must be positive");
+		}
+
+		this.writer = writer;
+		this.sink = sink;
+		this.maxEvents = maxEvents;
+		this.maxBytes = maxBytes;
+		this.lingerMillis = lingerMillis;
+
+		if (lingerMillis > 0)
+		{
+			lingerThread = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					flushPeriodically();
+				}
+			}, "event-batcher");
+			lingerThread.setDaemon(true);
+			lingerThread.start();
+		}
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Add an event to the current frame, sending the frame if it's full.
+	 * 
+	 * @throws CodecException if the event cannot be encoded.
+	 * @throws IllegalStateException if the batcher is shut down.
+	 */
+	public synchronized void add(Object event)
+	{
+		if (shouldShutDown) throw new IllegalStateException("EventBatcher shut down");
+
+		writer.add(event);
+
+		if (writer.size() >= maxEvents || writer.payloadLength() >= maxBytes)
+		{
+			send();
+		}
+	}
+
+	/**
+	 * Send the current frame, if it holds any events.
+	 */
+	public synchronized void flush()
+	{
+		send();
+	}
+
+	/**
+	 * Send any pending events and stop the linger timer.
+	 */
+	public void shutdown()
+	{
+		shouldShutDown = true;
+
+		if (lingerThread != null)
+		{
+			lingerThread.interrupt();
+		}
+
+		flush();
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private void send()
+	{
+		byte[] frame = writer.finish();
+
+		if (frame != null)
+		{
+			sink.send(frame);
+		}
+	}
+
+	private void flushPeriodically()
+	{
+		while (!shouldShutDown)
+		{
+			try
+			{
+				Thread.sleep(lingerMillis);
+				flush();
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+			catch (RuntimeException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+}
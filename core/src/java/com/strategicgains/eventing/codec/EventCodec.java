@@ -0,0 +1,63 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts events to and from bytes, for transports and queues that hold or send
+ * events in serialized form. Implementations must be thread safe.
+ * <p/>
+ * Encoding appends to a caller-supplied EncodeBuffer, which callers reuse from one
+ * event to the next, so encoding needn't allocate a new byte array for every event.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public interface EventCodec
+{
+	/**
+	 * Append the encoded form of the event to the buffer.
+	 * 
+	 * @param event the event to encode.
+	 * @param buffer the buffer to write to.
+	 * @throws CodecException if the event cannot be encoded.
+	 */
+	public void encode(Object event, EncodeBuffer buffer);
+
+	/**
+	 * Decode one event from the remaining bytes in the buffer (i.e. from its position to its limit).
+	 * 
+	 * @param bytes the encoded event.
+	 * @return the decoded event.
+	 * @throws CodecException if the bytes cannot be decoded.
+	 */
+	public Object decode(ByteBuffer bytes);
+
+	/**
+	 * Answer the type of the encoded event without decoding it, so receivers can skip events
+	 * no local handler wants. The buffer's position is left unchanged. Codecs that can't tell
+	 * the type without decoding the event return null (the default).
+	 * 
+	 * @param bytes the encoded event.
+	 * @return the event's class, or null if unknown.
+	 * @throws CodecException if the type header is invalid.
+	 */
+	public default Class<?> peekType(ByteBuffer bytes)
+	{
+		return null;
+	}
+}
@@ -0,0 +1,229 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the events in a frame written by EventFrameWriter, lazily: a compressed frame is not
+ * decompressed until its first event is requested, and events are handed out still encoded,
+ * as views over the frame, so a receiver decodes only the events it actually wants.
+ * <p/>
+ * Usage:
+ * <pre>
+ * EventFrame frame = EventFrame.wrap(message);
+ *
+ * while (frame.hasNext())
+ * {
+ *     Object event = codec.decode(frame.next());
+ *     ...
+ * }
+ * </pre>
+ * To read many messages without allocating, reset() one EventFrame for each message instead;
+ * its decompression buffer is then reused too.
+ * <p/>
+ * Not thread safe.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventFrame
+{
+	// SECTION: CONSTANTS
+
+	// LZ4 can't expand data by more than this ratio, so bigger claims are corrupt.
+	private static final int MAX_COMPRESSION_RATIO = 255;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private byte[] bytes;
+	private byte[] unpacked;
+	private int header;
+	private int offset;
+	private int limit;
+	private boolean isUnpacked;
+	private ByteBuffer view;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * Creates an empty frame, to be reset() with each message to read.
+	 */
+	public EventFrame()
+	{
+		super();
+	}
+
+	private EventFrame(byte[] bytes, int offset, int length)
+	{
+		this();
+		reset(bytes, offset, length);
+	}
+
+
+	// SECTION: STATIC METHODS
+
+	public static EventFrame wrap(byte[] bytes)
+	{
+		return new EventFrame(bytes, 0, bytes.length);
+	}
+
+	public static EventFrame wrap(byte[] bytes, int offset, int length)
+	{
+		return new EventFrame(bytes, offset, length);
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Read a new message with this frame, reusing its buffers. Events returned by next()
+	 * for the previous message are no longer valid.
+	 * 
+	 * @return this frame.
+	 * @throws CodecException if the message is not a frame.
+	 */
+	public EventFrame reset(byte[] bytes, int offset, int length)
+	{
+		if (length < 1)
+		{
+			throw new CodecException("Empty event frame");
+		}
+
+		this.header = bytes[offset] & 0xFF;
+
+		if ((header & EventFrameWriter.VERSION_MASK) != EventFrameWriter.VERSION)
+		{
+			throw new CodecException("Unsupported event frame version: " + (header >>> 4));
+		}
+
+		this.bytes = bytes;
+		this.offset = offset + 1;
+		this.limit = offset + length;
+		this.isUnpacked = !isCompressed();
+		return this;
+	}
+
+	public boolean isBatch()
+	{
+		return ((header & EventFrameWriter.BATCH) != 0);
+	}
+
+	public boolean isCompressed()
+	{
+		return ((header & EventFrameWriter.COMPRESSED) != 0);
+	}
+
+	public boolean hasNext()
+	{
+		unpack();
+		return (offset < limit);
+	}
+
+	/**
+	 * Answers the next encoded event, positioned and limited for EventCodec.decode(ByteBuffer).
+	 * The same ByteBuffer instance is reused, so it is only valid until the next call.
+	 * 
+	 * @throws NoSuchElementException if there are no more events.
+	 * @throws CodecException if the frame is corrupt.
+	 */
+	public ByteBuffer next()
+	{
+		if (!hasNext()) throw new NoSuchElementException();
+
+		int length = (isBatch() ? readVarint() : limit - offset);
+
+		if (length < 0 || length > limit - offset)
+		{
+			throw new CodecException("Corrupt event frame: event overruns frame");
+		}
+
+		if (view == null || view.array() != bytes)
+		{
+			view = ByteBuffer.wrap(bytes);
+		}
+
+		view.clear();
+		view.position(offset).limit(offset + length);
+		offset += length;
+		return view;
+	}
+
+	/**
+	 * Skip the next event without decoding it.
+	 */
+	public void skip()
+	{
+		next();
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private void unpack()
+	{
+		if (isUnpacked) return;
+
+		int length = readVarint();
+		int compressedLength = limit - offset;
+
+		if (length < 0 || length > (long) compressedLength * MAX_COMPRESSION_RATIO + 16)
+		{
+			throw new CodecException("Corrupt event frame: invalid uncompressed length " + length);
+		}
+
+		if (unpacked == null || unpacked.length < length)
+		{
+			unpacked = new byte[length];
+		}
+
+		byte[] payload = unpacked;
+		int actual = Lz4.decompress(bytes, offset, compressedLength, payload, 0, length);
+
+		if (actual != length)
+		{
+			throw new CodecException("Corrupt event frame: expected " + length + " bytes, got " + actual);
+		}
+
+		bytes = payload;
+		offset = 0;
+		limit = length;
+		isUnpacked = true;
+	}
+
+	private int readVarint()
+	{
+		int value = 0;
+
+		for (int shift = 0; shift < 32; shift += 7)
+		{
+			if (offset >= limit)
+			{
+				throw new CodecException("Corrupt event frame: truncated length");
+			}
+
+			int b = bytes[offset++];
+			value |= (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) return value;
+		}
+
+		throw new CodecException("Corrupt event frame: malformed length");
+	}
+}
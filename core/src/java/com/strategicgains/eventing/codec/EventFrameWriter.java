@@ -0,0 +1,231 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.util.Arrays;
+
+/**
+ * Packs encoded events into frames, so a distributed transport can send many events as one
+ * message. Frames whose payload reaches the compression threshold are LZ4-compressed, which
+ * pays off handsomely for batches of similar events (repeated field names, type ids, etc.).
+ * <p/>
+ * Frame layout:
+ * <pre>
+ * [header byte: version (high nibble) | flags]
+ * [varint uncompressed payload length]    (compressed frames only)
+ * payload (possibly LZ4-compressed):
+ *     single-event frame: the encoded event
+ *     batch frame:        ([varint length][encoded event])*
+ * </pre>
+ * Every message a transport sends is a frame, single or batch, so receivers read both the same
+ * way (see EventFrame) regardless of whether the sender batches.
+ * <p/>
+ * Not thread safe. EventBatcher provides the thread-safe, time-bounded batching around it.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventFrameWriter
+{
+	// SECTION: CONSTANTS
+
+	static final int VERSION = 0x10;
+	static final int VERSION_MASK = 0xF0;
+	static final int COMPRESSED = 0x01;
+	static final int BATCH = 0x02;
+
+	/**
+	 * Below this payload size, compression rarely saves enough to be worth the CPU.
+	 */
+	public static final int DEFAULT_COMPRESSION_THRESHOLD = 512;
+	public static final int NO_COMPRESSION = Integer.MAX_VALUE;
+
+	// Frames are compressed into a per-thread scratch buffer, then copied out at their exact size.
+	private static final ThreadLocal<EncodeBuffer> COMPRESSION_BUFFER = new ThreadLocal<EncodeBuffer>()
+	{
+		@Override
+		protected EncodeBuffer initialValue()
+		{
+			return new EncodeBuffer(1024);
+		}
+	};
+
+	// An occasional huge frame should not pin a huge scratch buffer to the thread forever.
+	private static final int MAX_RETAINED_COMPRESSION_BUFFER = 256 * 1024;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private EventCodec codec;
+	private int compressionThreshold;
+	private EncodeBuffer payload = new EncodeBuffer(1024);
+	private EncodeBuffer scratch = new EncodeBuffer();
+	private int count = 0;
+
+
+	// SECTION: CONSTRUCTORS
+
+	public EventFrameWriter(EventCodec codec)
+	{
+		this(codec, DEFAULT_COMPRESSION_THRESHOLD);
+	}
+
+	/**
+	 * @param codec encodes each event.
+	 * @param compressionThreshold the payload size, in bytes, at or above which frames are compressed. NO_COMPRESSION disables compression.
+	 */
+	public EventFrameWriter(EventCodec codec, int compressionThreshold)
+	{
+		super();
+
+		if (codec == null) throw new NullPointerException("codec");
+
+		this.codec = codec;
+		this.compressionThreshold = compressionThreshold;
+	}
+
+
+	// SECTION: STATIC METHODS
+
+	/**
+	 * Encode one event as a single-event frame.
+	 * 
+	 * @param codec encodes the event.
+	 * @param event the event to encode.
+	 * @param compressionThreshold the encoded size, in bytes, at or above which the event is compressed.
+	 * @return the frame.
+	 */
+	public static byte[] single(EventCodec codec, Object event, int compressionThreshold)
+	{
+		EncodeBuffer buffer = EncodeBuffer.acquire();
+		buffer.write(VERSION);
+		codec.encode(event, buffer);
+		int length = buffer.length() - 1;
+
+		if (length >= compressionThreshold)
+		{
+			byte[] compressed = compress(buffer.array(), 1, length, VERSION);
+
+			if (compressed != null) return compressed;
+		}
+
+		return buffer.toByteArray();
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Encode an event and append it to the current batch.
+	 * 
+	 * @throws CodecException if the event cannot be encoded. The batch is unchanged.
+	 */
+	public void add(Object event)
+	{
+		codec.encode(event, scratch.reset());
+		payload.writeVarint(scratch.length());
+		payload.write(scratch.array(), 0, scratch.length());
+		++count;
+	}
+
+	/**
+	 * The number of events in the current batch.
+	 */
+	public int size()
+	{
+		return count;
+	}
+
+	public boolean isEmpty()
+	{
+		return (count == 0);
+	}
+
+	/**
+	 * The uncompressed size, in bytes, of the current batch.
+	 */
+	public int payloadLength()
+	{
+		return payload.length();
+	}
+
+	/**
+	 * Frame the current batch and start a new one.
+	 * 
+	 * @return the frame, or null if the batch is empty.
+	 */
+	public byte[] finish()
+	{
+		if (count == 0) return null;
+
+		try
+		{
+			int length = payload.length();
+
+			if (length >= compressionThreshold)
+			{
+				byte[] compressed = compress(payload.array(), 0, length, VERSION | BATCH);
+
+				if (compressed != null) return compressed;
+			}
+
+			byte[] result = new byte[length + 1];
+			result[0] = (byte) (VERSION | BATCH);
+			System.arraycopy(payload.array(), 0, result, 1, length);
+			return result;
+		}
+		finally
+		{
+			payload.reset();
+			count = 0;
+		}
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * @return the compressed frame, or null if compression doesn't make it smaller.
+	 */
+	private static byte[] compress(byte[] source, int offset, int length, int header)
+	{
+		EncodeBuffer buffer = COMPRESSION_BUFFER.get().reset();
+		buffer.ensureCapacity(6 + Lz4.maxCompressedLength(length));
+		byte[] result = buffer.array();
+
+		if (result.length > MAX_RETAINED_COMPRESSION_BUFFER)
+		{
+			COMPRESSION_BUFFER.remove();
+		}
+
+		result[0] = (byte) (header | COMPRESSED);
+		int i = 1;
+		int value = length;
+
+		while ((value & ~0x7F) != 0)
+		{
+			result[i++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+
+		result[i++] = (byte) value;
+		int frameLength = i + Lz4.compress(source, offset, length, result, i);
+
+		if (frameLength >= length + 1) return null;
+
+		return Arrays.copyOf(result, frameLength);
+	}
+}
@@ -0,0 +1,156 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps event classes to small, positive integer ids, so codecs can write a one- or two-byte
+ * varint tag in place of the class name, and the receiver can find the class with an array
+ * lookup. Every node must register the same classes with the same ids. Classes that aren't
+ * registered are still written by name.
+ * <p/>
+ * Register all types before the registry is used; lookups are thread safe.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventTypeRegistry
+{
+	// SECTION: CONSTANTS
+
+	/**
+	 * The id written for classes that aren't registered, followed by the class name.
+	 */
+	public static final int UNREGISTERED = 0;
+
+	// Ids index an array, so keep them small.
+	public static final int MAX_ID = 0xFFFF;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Map<Class<?>, Integer> idsByType = new ConcurrentHashMap<Class<?>, Integer>();
+	private Map<String, Class<?>> typesByName = new ConcurrentHashMap<String, Class<?>>();
+	private volatile Class<?>[] typesById = new Class<?>[16];
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Register an event class with an id.
+	 * 
+	 * @param type the event class.
+	 * @param id a unique id, from 1 to MAX_ID.
+	 * @return this registry, to facilitate method chaining.
+	 * @throws IllegalArgumentException if the id is out of range.
+	 * @throws IllegalStateException if the class or the id is already registered differently.
+	 */
+	public synchronized EventTypeRegistry register(Class<?> type, int id)
+	{
+		if (id <= UNREGISTERED || id > MAX_ID)
+		{
+			throw new IllegalArgumentException("Event type id must be between 1 and " + MAX_ID + ": " + id);
+		}
+
+		Integer existingId = idsByType.get(type);
+
+		if (existingId != null && existingId != id)
+		{
+			throw new IllegalStateException(type.getName() + " already registered with id " + existingId);
+		}
+
+		Class<?>[] types = typesById;
+
+		if (id < types.length && types[id] != null && types[id] != type)
+		{
+			throw new IllegalStateException("Event type id " + id + " already registered to " + types[id].getName());
+		}
+
+		if (id >= types.length)
+		{
+			Class<?>[] larger = new Class<?>[Math.max(id + 1, types.length << 1)];
+			System.arraycopy(types, 0, larger, 0, types.length);
+			types = larger;
+		}
+
+		types[id] = type;
+		typesById = types;
+		idsByType.put(type, id);
+		typesByName.put(type.getName(), type);
+		return this;
+	}
+
+	/**
+	 * Answers the id registered for exactly this class, or UNREGISTERED.
+	 */
+	public int idOf(Class<?> type)
+	{
+		Integer id = idsByType.get(type);
+		return (id == null ? UNREGISTERED : id);
+	}
+
+	/**
+	 * Answers the class registered with the id, or null.
+	 */
+	public Class<?> typeOf(int id)
+	{
+		Class<?>[] types = typesById;
+		return (id > UNREGISTERED && id < types.length ? types[id] : null);
+	}
+
+	/**
+	 * Answers the registered class with the given name, or null.
+	 */
+	public Class<?> typeNamed(String name)
+	{
+		return typesByName.get(name);
+	}
+
+	public boolean isEmpty()
+	{
+		return idsByType.isEmpty();
+	}
+
+	public int size()
+	{
+		return idsByType.size();
+	}
+
+	/**
+	 * Configure a codec to write type ids from this registry, for use by the builders.
+	 * 
+	 * @param codec a codec, or null for the default (a BinaryCodec).
+	 * @return the configured codec.
+	 * @throws IllegalArgumentException if the codec doesn't write event types (e.g. SerializableCodec).
+	 */
+	public EventCodec configure(EventCodec codec)
+	{
+		if (codec == null)
+		{
+			return new BinaryCodec(this);
+		}
+
+		if (!(codec instanceof AbstractEventCodec))
+		{
+			throw new IllegalArgumentException(codec.getClass().getName() + " does not support event type ids");
+		}
+
+		((AbstractEventCodec) codec).setTypeRegistry(this);
+		return codec;
+	}
+}
@@ -0,0 +1,98 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Encodes events as JSON using Jackson, preceded by the event's type. Larger and slower
+ * than BinaryCodec, but tolerant of fields being added or removed from event classes
+ * (depending on the ObjectMapper's configuration) and readable by non-Java consumers
+ * that skip the type header.
+ * <p/>
+ * Requires jackson-databind on the classpath; domain-eventing-core declares it optional.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class JacksonCodec
+extends AbstractEventCodec
+{
+	private ObjectMapper mapper;
+
+	public JacksonCodec()
+	{
+		this(new ObjectMapper());
+	}
+
+	/**
+	 * @param mapper a configured ObjectMapper. It must not be reconfigured once the codec is in use.
+	 */
+	public JacksonCodec(ObjectMapper mapper)
+	{
+		this(mapper, null);
+	}
+
+	/**
+	 * @param mapper a configured ObjectMapper. It must not be reconfigured once the codec is in use.
+	 * @param types registered event type ids, written in place of class names. May be null.
+	 */
+	public JacksonCodec(ObjectMapper mapper, EventTypeRegistry types)
+	{
+		super(types);
+		this.mapper = mapper;
+	}
+
+	@Override
+	public void encode(Object event, EncodeBuffer buffer)
+	{
+		writeType(event.getClass(), buffer);
+
+		try
+		{
+			mapper.writeValue(buffer, event);
+		}
+		catch (IOException e)
+		{
+			throw new CodecException("Unable to encode event as JSON: " + event.getClass().getName(), e);
+		}
+	}
+
+	@Override
+	public Object decode(ByteBuffer bytes)
+	{
+		Class<?> type = readType(bytes);
+
+		try
+		{
+			if (bytes.hasArray())
+			{
+				Object event = mapper.readValue(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(), type);
+				bytes.position(bytes.limit());
+				return event;
+			}
+
+			return mapper.readValue(new ByteBufferInputStream(bytes), type);
+		}
+		catch (IOException e)
+		{
+			throw new CodecException("Unable to decode JSON event: " + type.getName(), e);
+		}
+	}
+}
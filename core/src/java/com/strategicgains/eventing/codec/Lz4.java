@@ -0,0 +1,301 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.util.Arrays;
+
+/**
+ * A pure-Java compressor and decompressor for the LZ4 block format, so event frames can be
+ * compressed without a native library. The compressor is the fast, greedy, single-pass variant:
+ * it favors speed over ratio, which suits small, repetitive event payloads.
+ * <p/>
+ * Block format: a series of sequences, each a token byte (literal length in the high nibble,
+ * match length - 4 in the low nibble, 15 meaning "more bytes follow"), the literals, and a
+ * 2-byte little-endian match offset. The final sequence has literals only.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public final class Lz4
+{
+	// SECTION: CONSTANTS
+
+	private static final int MIN_MATCH = 4;
+	private static final int HASH_LOG = 12;
+	private static final int MAX_DISTANCE = 0xFFFF;
+
+	// After 2^SKIP_TRIGGER misses in a row, probe every other byte, then every third, and so on,
+	// so incompressible spans (e.g. UUIDs) are skipped quickly.
+	private static final int SKIP_TRIGGER = 6;
+
+	// The last match must start at least 12 bytes before the end; the last 5 bytes are always literals.
+	private static final int MF_LIMIT = 12;
+	private static final int LAST_LITERALS = 5;
+
+	private static final ThreadLocal<int[]> HASH_TABLE = new ThreadLocal<int[]>()
+	{
+		@Override
+		protected int[] initialValue()
+		{
+			return new int[1 << HASH_LOG];
+		}
+	};
+
+
+	// SECTION: CONSTRUCTOR
+
+	private Lz4()
+	{
+		// prevents instantiation.
+	}
+
+
+	// SECTION: STATIC METHODS
+
+	/**
+	 * The largest possible compressed size of the given number of bytes (incompressible data grows slightly).
+	 */
+	public static int maxCompressedLength(int length)
+	{
+		return length + (length / 255) + 16;
+	}
+
+	/**
+	 * Compress source bytes into the destination, which must have at least
+	 * maxCompressedLength(length) bytes available.
+	 * 
+	 * @return the compressed length.
+	 */
+	public static int compress(byte[] source, int offset, int length, byte[] destination, int destinationOffset)
+	{
+		int sourceEnd = offset + length;
+		int matchStartLimit = sourceEnd - MF_LIMIT;
+		int matchEndLimit = sourceEnd - LAST_LITERALS;
+		int d = destinationOffset;
+		int anchor = offset;
+		int s = offset;
+
+		if (length > MF_LIMIT)
+		{
+			int[] table = HASH_TABLE.get();
+			Arrays.fill(table, -1);
+			int misses = 1 << SKIP_TRIGGER;
+
+			while (s < matchStartLimit)
+			{
+				int sequence = readInt(source, s);
+				int h = hash(sequence);
+				int ref = table[h];
+				table[h] = s;
+
+				if (ref < 0 || s - ref > MAX_DISTANCE || readInt(source, ref) != sequence)
+				{
+					s += misses++ >>> SKIP_TRIGGER;
+					continue;
+				}
+
+				// Extend the match backwards over pending literals, then forwards.
+				while (s > anchor && ref > offset && source[s - 1] == source[ref - 1])
+				{
+					--s;
+					--ref;
+				}
+
+				int matchLength = MIN_MATCH;
+				misses = 1 << SKIP_TRIGGER;
+
+				while (s + matchLength < matchEndLimit && source[s + matchLength] == source[ref + matchLength])
+				{
+					++matchLength;
+				}
+
+				d = writeSequence(source, anchor, s - anchor, s - ref, matchLength, destination, d);
+				s += matchLength;
+				anchor = s;
+
+				if (s < matchStartLimit)
+				{
+					table[hash(readInt(source, s - 2))] = s - 2;
+				}
+			}
+		}
+
+		d = writeLiterals(source, anchor, sourceEnd - anchor, destination, d, 0);
+		return d - destinationOffset;
+	}
+
+	/**
+	 * Decompress a block whose decompressed length is known.
+	 * 
+	 * @return the decompressed length.
+	 * @throws CodecException if the block is malformed or decompresses to more than the given length.
+	 */
+	public static int decompress(byte[] source, int offset, int length, byte[] destination, int destinationOffset, int destinationLength)
+	{
+		int sourceEnd = offset + length;
+		int destinationEnd = destinationOffset + destinationLength;
+		int s = offset;
+		int d = destinationOffset;
+
+		try
+		{
+			while (true)
+			{
+				int token = source[s++] & 0xFF;
+				int literals = token >>> 4;
+
+				if (literals == 15)
+				{
+					int b;
+
+					do
+					{
+						b = source[s++] & 0xFF;
+						literals += b;
+					}
+					while (b == 255);
+				}
+
+				if (s + literals > sourceEnd || d + literals > destinationEnd)
+				{
+					throw new CodecException("Malformed LZ4 block: literals overrun");
+				}
+
+				System.arraycopy(source, s, destination, d, literals);
+				s += literals;
+				d += literals;
+
+				if (s == sourceEnd) break;
+
+				int matchOffset = (source[s++] & 0xFF) | ((source[s++] & 0xFF) << 8);
+				int ref = d - matchOffset;
+
+				if (matchOffset == 0 || ref < destinationOffset)
+				{
+					throw new CodecException("Malformed LZ4 block: invalid match offset");
+				}
+
+				int matchLength = token & 0x0F;
+
+				if (matchLength == 15)
+				{
+					int b;
+
+					do
+					{
+						b = source[s++] & 0xFF;
+						matchLength += b;
+					}
+					while (b == 255);
+				}
+
+				matchLength += MIN_MATCH;
+
+				if (d + matchLength > destinationEnd)
+				{
+					throw new CodecException("Malformed LZ4 block: match overrun");
+				}
+
+				if (matchOffset >= matchLength)
+				{
+					System.arraycopy(destination, ref, destination, d, matchLength);
+					d += matchLength;
+				}
+				else
+				{
+					// Overlapping match, e.g. a run: copy byte by byte.
+					for (int i = 0; i < matchLength; i++)
+					{
+						destination[d++] = destination[ref++];
+					}
+				}
+			}
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			throw new CodecException("Malformed LZ4 block: truncated", e);
+		}
+
+		return d - destinationOffset;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private static int writeSequence(byte[] source, int literalStart, int literalLength, int matchOffset, int matchLength, byte[] destination, int d)
+	{
+		int token = d;
+		d = writeLiterals(source, literalStart, literalLength, destination, d, 0);
+		destination[d++] = (byte) matchOffset;
+		destination[d++] = (byte) (matchOffset >>> 8);
+		int remaining = matchLength - MIN_MATCH;
+
+		if (remaining >= 15)
+		{
+			destination[token] |= 0x0F;
+			d = writeLength(remaining - 15, destination, d);
+		}
+		else
+		{
+			destination[token] |= remaining;
+		}
+
+		return d;
+	}
+
+	/**
+	 * Write a token (with the literal length) followed by the literals.
+	 */
+	private static int writeLiterals(byte[] source, int start, int length, byte[] destination, int d, int token)
+	{
+		int tokenPosition = d++;
+
+		if (length >= 15)
+		{
+			destination[tokenPosition] = (byte) (0xF0 | token);
+			d = writeLength(length - 15, destination, d);
+		}
+		else
+		{
+			destination[tokenPosition] = (byte) ((length << 4) | token);
+		}
+
+		System.arraycopy(source, start, destination, d, length);
+		return d + length;
+	}
+
+	private static int writeLength(int remaining, byte[] destination, int d)
+	{
+		while (remaining >= 255)
+		{
+			destination[d++] = (byte) 255;
+			remaining -= 255;
+		}
+
+		destination[d++] = (byte) remaining;
+		return d;
+	}
+
+	private static int hash(int sequence)
+	{
+		return (sequence * -1640531535) >>> (32 - HASH_LOG);
+	}
+
+	private static int readInt(byte[] bytes, int i)
+	{
+		return (bytes[i] & 0xFF) | ((bytes[i + 1] & 0xFF) << 8) | ((bytes[i + 2] & 0xFF) << 16) | ((bytes[i + 3] & 0xFF) << 24);
+	}
+}
@@ -0,0 +1,61 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes events using Java Serialization. Events must be Serializable. This is the
+ * most compatible codec, but the slowest and least compact.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class SerializableCodec
+implements EventCodec
+{
+	@Override
+	public void encode(Object event, EncodeBuffer buffer)
+	{
+		try
+		{
+			ObjectOutputStream out = new ObjectOutputStream(buffer);
+			out.writeObject(event);
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			throw new CodecException("Unable to serialize event: " + event.getClass().getName(), e);
+		}
+	}
+
+	@Override
+	public Object decode(ByteBuffer bytes)
+	{
+		try
+		{
+			ObjectInputStream in = new ObjectInputStream(new ByteBufferInputStream(bytes));
+			return in.readObject();
+		}
+		catch (IOException | ClassNotFoundException e)
+		{
+			throw new CodecException("Unable to deserialize event", e);
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the variable-length integers written by EncodeBuffer.writeVarint() and writeVarlong(),
+ * and maps signed values to and from the ZigZag encoding, so small negative numbers stay small.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public final class Varints
+{
+	private Varints()
+	{
+		// prevents instantiation.
+	}
+
+	public static int readVarint(ByteBuffer bytes)
+	{
+		int value = 0;
+		int shift = 0;
+		byte b;
+
+		do
+		{
+			if (shift > 28)
+			{
+				throw new CodecException("Malformed varint");
+			}
+
+			b = bytes.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+
+		return value;
+	}
+
+	public static long readVarlong(ByteBuffer bytes)
+	{
+		long value = 0L;
+		int shift = 0;
+		byte b;
+
+		do
+		{
+			if (shift > 63)
+			{
+				throw new CodecException("Malformed varlong");
+			}
+
+			b = bytes.get();
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+
+		return value;
+	}
+
+	public static int zigZag(int value)
+	{
+		return (value << 1) ^ (value >> 31);
+	}
+
+	public static int unZigZag(int value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public static long zigZag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	public static long unZigZag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -0,0 +1,258 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.flyweight;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base class for flyweight events: events whose fields are read from, and written to, a
+ * ByteBuffer in place, so reading a field never allocates and an event received off the
+ * wire needn't be deserialized into a POJO first. Subclasses are normally generated from
+ * an event schema by the domain-eventing-maven-plugin.
+ * <p/>
+ * Layout: the fixed-length fields come first, at fixed offsets, followed by the variable-length
+ * (string) fields, each as a 4-byte length and UTF-8 bytes, in schema order.
+ * <p/>
+ * Flyweights are Externalizable, writing only their encoded bytes, so transports that use Java
+ * Serialization (e.g. Hazelcast) deliver them to handlers as flyweights, too.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public abstract class Flyweight
+implements Externalizable
+{
+	private static final long serialVersionUID = 5718063940273610541L;
+	private static final int LENGTH_PREFIX = 4;
+
+	protected ByteBuffer buffer;
+	protected int offset;
+	protected int limit;
+
+	/**
+	 * The unique identifier of this event type, as given in its schema.
+	 */
+	public abstract int typeId();
+
+	/**
+	 * The total length of the fixed-length fields.
+	 */
+	public abstract int fixedLength();
+
+	/**
+	 * Create a new, unwrapped instance of the same type.
+	 */
+	public abstract Flyweight newInstance();
+
+	/**
+	 * Read an encoded event of this type.
+	 * 
+	 * @param buffer the buffer containing the event.
+	 * @param offset the offset of the event within the buffer.
+	 * @param length the length of the encoded event.
+	 * @return this flyweight.
+	 */
+	public Flyweight wrap(ByteBuffer buffer, int offset, int length)
+	{
+		this.buffer = buffer;
+		this.offset = offset;
+		this.limit = offset + length;
+		return this;
+	}
+
+	/**
+	 * Begin writing a new event of this type into the buffer. Set the fixed-length fields in any
+	 * order, then append the string fields in schema order. The buffer must be large enough.
+	 * 
+	 * @param buffer the buffer to encode into.
+	 * @param offset the offset at which to start.
+	 * @return this flyweight.
+	 */
+	public Flyweight wrapForEncode(ByteBuffer buffer, int offset)
+	{
+		this.buffer = buffer;
+		this.offset = offset;
+		this.limit = offset + fixedLength();
+		return this;
+	}
+
+	/**
+	 * Allocate a heap buffer of the given capacity and begin writing a new event into it.
+	 * 
+	 * @param capacity the maximum encoded length.
+	 * @return this flyweight.
+	 */
+	public Flyweight allocate(int capacity)
+	{
+		return wrapForEncode(ByteBuffer.allocate(Math.max(capacity, fixedLength())), 0);
+	}
+
+	public ByteBuffer buffer()
+	{
+		return buffer;
+	}
+
+	public int offset()
+	{
+		return offset;
+	}
+
+	public int encodedLength()
+	{
+		return limit - offset;
+	}
+
+	/**
+	 * Copy the encoded bytes into the destination array.
+	 */
+	public void getBytes(byte[] destination, int destinationOffset)
+	{
+		ByteBuffer view = buffer.duplicate();
+		view.limit(limit);
+		view.position(offset);
+		view.get(destination, destinationOffset, encodedLength());
+	}
+
+
+	// SECTION: STRING FIELD SUPPORT
+
+	/**
+	 * The length, in UTF-8 bytes, of the index'th string field.
+	 */
+	protected int stringLength(int index)
+	{
+		return buffer.getInt(stringOffset(index));
+	}
+
+	/**
+	 * Copy the UTF-8 bytes of the index'th string field, without allocating.
+	 * 
+	 * @return the number of bytes copied.
+	 */
+	protected int stringBytes(int index, byte[] destination, int destinationOffset)
+	{
+		int position = stringOffset(index);
+		int length = buffer.getInt(position);
+
+		for (int i = 0; i < length; i++)
+		{
+			destination[destinationOffset + i] = buffer.get(position + LENGTH_PREFIX + i);
+		}
+
+		return length;
+	}
+
+	/**
+	 * Decode the index'th string field. Allocates a String; use stringBytes() on hot paths.
+	 */
+	protected String string(int index)
+	{
+		int position = stringOffset(index);
+		byte[] bytes = new byte[buffer.getInt(position)];
+		stringBytes(index, bytes, 0);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Append a string field at the end of the encoded event, encoding it as UTF-8 without allocating.
+	 */
+	protected void appendString(CharSequence value)
+	{
+		int start = limit;
+		int position = start + LENGTH_PREFIX;
+		int length = value.length();
+
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			if (c < 0x80)
+			{
+				buffer.put(position++, (byte) c);
+			}
+			else if (c < 0x800)
+			{
+				buffer.put(position++, (byte) (0xC0 | (c >> 6)));
+				buffer.put(position++, (byte) (0x80 | (c & 0x3F)));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer.put(position++, (byte) (0xF0 | (codePoint >> 18)));
+				buffer.put(position++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+				buffer.put(position++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+				buffer.put(position++, (byte) (0x80 | (codePoint & 0x3F)));
+			}
+			else
+			{
+				buffer.put(position++, (byte) (0xE0 | (c >> 12)));
+				buffer.put(position++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put(position++, (byte) (0x80 | (c & 0x3F)));
+			}
+		}
+
+		buffer.putInt(start, position - start - LENGTH_PREFIX);
+		limit = position;
+	}
+
+	private int stringOffset(int index)
+	{
+		int position = offset + fixedLength();
+
+		for (int i = 0; i < index; i++)
+		{
+			position += LENGTH_PREFIX + buffer.getInt(position);
+		}
+
+		return position;
+	}
+
+
+	// SECTION: EXTERNALIZABLE
+
+	@Override
+	public void writeExternal(ObjectOutput out)
+	throws IOException
+	{
+		int length = encodedLength();
+		out.writeInt(length);
+
+		if (buffer.hasArray())
+		{
+			out.write(buffer.array(), buffer.arrayOffset() + offset, length);
+		}
+		else
+		{
+			byte[] bytes = new byte[length];
+			getBytes(bytes, 0);
+			out.write(bytes);
+		}
+	}
+
+	@Override
+	public void readExternal(ObjectInput in)
+	throws IOException
+	{
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		wrap(ByteBuffer.wrap(bytes), 0, bytes.length);
+	}
+}
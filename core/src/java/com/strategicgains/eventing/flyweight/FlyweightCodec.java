@@ -0,0 +1,172 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.flyweight;
+
+import java.nio.ByteBuffer;
+
+import com.strategicgains.eventing.codec.CodecException;
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.SerializableCodec;
+import com.strategicgains.eventing.codec.Varints;
+
+/**
+ * An EventCodec that writes flyweight events as their type id followed by their encoded bytes,
+ * and decodes them back into flyweights of the registered type, so handlers read fields straight
+ * from the received bytes. Other events are delegated to a fallback codec.
+ * <p/>
+ * Each flyweight type must be registered (on both the sending and receiving sides) before use.
+ * Registration is not thread safe, so register all types before sharing the codec.
+ * <p/>
+ * Decoding copies the event's bytes once, into an array owned by the new flyweight, since
+ * callers may reuse the buffer they decoded from.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class FlyweightCodec
+implements EventCodec
+{
+	// SECTION: CONSTANTS
+
+	private static final int FALLBACK_TYPE_ID = 0;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Flyweight[] prototypes = new Flyweight[16];
+	private EventCodec fallback;
+
+
+	// SECTION: CONSTRUCTORS
+
+	public FlyweightCodec()
+	{
+		this(new SerializableCodec());
+	}
+
+	/**
+	 * @param fallback encodes events that are not flyweights.
+	 */
+	public FlyweightCodec(EventCodec fallback)
+	{
+		super();
+		this.fallback = fallback;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Register a flyweight type, using an instance of it as a prototype.
+	 * 
+	 * @param prototype an (unwrapped) instance of the flyweight type.
+	 * @return this codec.
+	 * @throws IllegalArgumentException if the type id is not positive.
+	 * @throws IllegalStateException if a different type is already registered with the same type id.
+	 */
+	public FlyweightCodec register(Flyweight prototype)
+	{
+		int typeId = prototype.typeId();
+
+		if (typeId <= FALLBACK_TYPE_ID)
+		{
+			throw new IllegalArgumentException("Flyweight type ids must be positive: " + prototype.getClass().getName());
+		}
+
+		if (typeId >= prototypes.length)
+		{
+			Flyweight[] larger = new Flyweight[Math.max(typeId + 1, prototypes.length << 1)];
+			System.arraycopy(prototypes, 0, larger, 0, prototypes.length);
+			prototypes = larger;
+		}
+
+		Flyweight existing = prototypes[typeId];
+
+		if (existing != null && existing.getClass() != prototype.getClass())
+		{
+			throw new IllegalStateException("Type id " + typeId + " already registered to " + existing.getClass().getName());
+		}
+
+		prototypes[typeId] = prototype;
+		return this;
+	}
+
+	@Override
+	public void encode(Object event, EncodeBuffer buffer)
+	{
+		if (!(event instanceof Flyweight))
+		{
+			buffer.writeVarint(FALLBACK_TYPE_ID);
+			fallback.encode(event, buffer);
+			return;
+		}
+
+		Flyweight flyweight = (Flyweight) event;
+		buffer.writeVarint(flyweight.typeId());
+		ByteBuffer view = flyweight.buffer().duplicate();
+		view.limit(flyweight.offset() + flyweight.encodedLength());
+		view.position(flyweight.offset());
+		buffer.writeBytes(view);
+	}
+
+	@Override
+	public Object decode(ByteBuffer bytes)
+	{
+		int typeId = Varints.readVarint(bytes);
+
+		if (typeId == FALLBACK_TYPE_ID)
+		{
+			return fallback.decode(bytes);
+		}
+
+		if (typeId >= prototypes.length || prototypes[typeId] == null)
+		{
+			throw new CodecException("Unregistered flyweight type id: " + typeId);
+		}
+
+		byte[] copy = new byte[bytes.remaining()];
+		bytes.get(copy);
+		return prototypes[typeId].newInstance().wrap(ByteBuffer.wrap(copy), 0, copy.length);
+	}
+
+	@Override
+	public Class<?> peekType(ByteBuffer bytes)
+	{
+		int position = bytes.position();
+
+		try
+		{
+			int typeId = Varints.readVarint(bytes);
+
+			if (typeId == FALLBACK_TYPE_ID)
+			{
+				return fallback.peekType(bytes);
+			}
+
+			if (typeId >= prototypes.length || prototypes[typeId] == null)
+			{
+				throw new CodecException("Unregistered flyweight type id: " + typeId);
+			}
+
+			return prototypes[typeId].getClass();
+		}
+		finally
+		{
+			bytes.position(position);
+		}
+	}
+}
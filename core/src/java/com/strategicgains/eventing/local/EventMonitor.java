@@ -101,6 +101,29 @@ extends Thread
 		this.shouldReRaiseOnError = value;
 	}
 
+	/**
+	 * Calls each appropriate EventHandler directly on the calling thread, instead of via the Executor.
+	 * Failed events are not re-raised.
+	 * 
+	 * @param event
+	 */
+	public void dispatchNow(Object event)
+	{
+		List<EventHandler> consumers = getConsumersFor(event.getClass());
+
+		for (int i = 0; i < consumers.size(); i++)
+		{
+			try
+			{
+				consumers.get(i).handle(event);
+			}
+			catch (Exception e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
 	
 	// SECTION: RUNNABLE/THREAD
 
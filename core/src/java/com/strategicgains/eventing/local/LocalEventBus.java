@@ -16,8 +16,10 @@
 package com.strategicgains.eventing.local;
 
 import java.util.Collection;
+import java.util.Queue;
 
 import com.strategicgains.eventing.EventBus;
+import com.strategicgains.eventing.EventCapacity;
 import com.strategicgains.eventing.EventHandler;
 
 /**
@@ -29,7 +31,47 @@ extends EventBus
 {
 	public LocalEventBus(Collection<EventHandler> handlers, boolean shouldReraiseOnError, long pollDelayMillis)
 	{
-		super(new LocalEventTransport(handlers, shouldReraiseOnError, pollDelayMillis));
+		this(handlers, shouldReraiseOnError, pollDelayMillis, null);
+	}
+
+	/**
+	 * @param handlers
+	 * @param shouldReraiseOnError
+	 * @param pollDelayMillis
+	 * @param capacity limits on pending events, enforced by tryPublish() and timed publish(). May be null.
+	 */
+	public LocalEventBus(Collection<EventHandler> handlers, boolean shouldReraiseOnError, long pollDelayMillis, EventCapacity capacity)
+	{
+		this(handlers, shouldReraiseOnError, pollDelayMillis, capacity, null);
+	}
+
+	/**
+	 * @param handlers
+	 * @param shouldReraiseOnError
+	 * @param pollDelayMillis
+	 * @param capacity limits on pending events, enforced by tryPublish() and timed publish(). May be null.
+	 * @param queue the thread-safe queue holding pending events (e.g. a SpillingEventQueue). May be null.
+	 */
+	public LocalEventBus(Collection<EventHandler> handlers, boolean shouldReraiseOnError, long pollDelayMillis, EventCapacity capacity, Queue<Object> queue)
+	{
+		super(new LocalEventTransport(handlers, shouldReraiseOnError, pollDelayMillis, capacity, queue));
+
+		if (capacity != null)
+		{
+			capacity.registerMetrics(getMetrics());
+		}
+	}
+
+	/**
+	 * Slots are reused as soon as they're dispatched, so they can't wait in the queue.
+	 * Instead, handlers are called directly on the slots' dispatch thread. Failed slots
+	 * are not retried.
+	 */
+	@Override
+	protected void dispatchSlot(Object event)
+	{
+		((LocalEventTransport) getTransport()).dispatchNow(event);
+		getMetrics().increment(PUBLISHED_METRIC);
 	}
 
 	/**
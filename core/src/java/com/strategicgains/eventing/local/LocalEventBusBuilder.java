@@ -15,12 +15,19 @@
  */
 package com.strategicgains.eventing.local;
 
+import java.io.File;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.Queue;
 import java.util.Set;
 
 import com.strategicgains.eventing.EventBusBuilder;
+import com.strategicgains.eventing.EventCapacity;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventSizeEstimator;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
+import com.strategicgains.eventing.codec.SerializableCodec;
 
 /**
  * Configure and build a local EventQueue that receives events only within the current JVM.
@@ -37,6 +44,16 @@ implements EventBusBuilder<LocalEventBus, LocalEventBusBuilder>
 	private Set<Class<?>> publishableEventTypes = new HashSet<Class<?>>();
 	private boolean shouldRepublishOnError = false;
 	private long pollDelay = DEFAULT_POLL_DELAY;
+	private long maxPendingEvents = EventCapacity.UNLIMITED;
+	private long maxPendingBytes = EventCapacity.UNLIMITED;
+	private EventSizeEstimator sizeEstimator = null;
+	private boolean shouldSpillToDisk = false;
+	private File spillDirectory = null;
+	private long maxHeapBytes;
+	private boolean isOffHeap = false;
+	private int slabSize = OffHeapEventQueue.DEFAULT_SLAB_SIZE;
+	private EventCodec codec = null;
+	private EventTypeRegistry eventTypes = new EventTypeRegistry();
 
 	public LocalEventBusBuilder()
 	{
@@ -48,7 +65,7 @@ implements EventBusBuilder<LocalEventBus, LocalEventBusBuilder>
 	{
 		assert(!subscribers.isEmpty());
 
-		LocalEventBus bus = new LocalEventBus(subscribers, shouldRepublishOnError, pollDelay);
+		LocalEventBus bus = new LocalEventBus(subscribers, shouldRepublishOnError, pollDelay, buildCapacity(), buildQueue());
 		
 		for (Class<?> eventType : publishableEventTypes)
 		{
@@ -70,6 +87,117 @@ implements EventBusBuilder<LocalEventBus, LocalEventBusBuilder>
     	return this;
     }
 
+    /**
+     * Limit the number of events waiting in the queue. When the limit is reached,
+     * tryPublish() and timed publish() reject events. Plain publish() is not limited.
+     * 
+     * @param count the maximum number of pending events.
+     * @return this builder to facilitate method chaining.
+     */
+    public LocalEventBusBuilder maxPendingEvents(long count)
+    {
+    	this.maxPendingEvents = count;
+    	return this;
+    }
+
+    /**
+     * Limit the estimated size of the events waiting in the queue. When the limit is reached,
+     * tryPublish() and timed publish() reject events. Plain publish() is not limited.
+     * 
+     * @param bytes the maximum estimated bytes of pending events.
+     * @return this builder to facilitate method chaining.
+     * @see #sizeEstimator(EventSizeEstimator)
+     */
+    public LocalEventBusBuilder maxPendingBytes(long bytes)
+    {
+    	this.maxPendingBytes = bytes;
+    	return this;
+    }
+
+    /**
+     * Hold at most (approximately) maxHeapBytes of pending events in memory, spilling the rest
+     * to an append-only file in the given directory. Spilled events are read back, in order,
+     * as the EventMonitor catches up. Events must be Serializable.
+     * 
+     * @param directory where to create the spill file. If null, the system temporary directory is used.
+     * @param maxHeapBytes the estimated heap budget for pending events.
+     * @return this builder to facilitate method chaining.
+     * @see #sizeEstimator(EventSizeEstimator)
+     */
+    public LocalEventBusBuilder spillToDisk(File directory, long maxHeapBytes)
+    {
+    	this.shouldSpillToDisk = true;
+    	this.spillDirectory = directory;
+    	this.maxHeapBytes = maxHeapBytes;
+    	return this;
+    }
+
+    /**
+     * Store pending events in serialized form, in direct ByteBuffers outside the Java heap,
+     * decoding each only when it is dispatched. This keeps large backlogs from churning the
+     * old generation. Events are encoded with the codec set via codec(EventCodec).
+     * 
+     * @return this builder to facilitate method chaining.
+     */
+    public LocalEventBusBuilder offHeap()
+    {
+    	return offHeap(OffHeapEventQueue.DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Store pending events off-heap (see offHeap()), allocating direct memory in slabs of the given size.
+     * 
+     * @param slabBytes the size of each direct buffer.
+     * @return this builder to facilitate method chaining.
+     */
+    public LocalEventBusBuilder offHeap(int slabBytes)
+    {
+    	this.isOffHeap = true;
+    	this.slabSize = slabBytes;
+    	return this;
+    }
+
+    /**
+     * Set the codec used to serialize events for offHeap() and spillToDisk(). Defaults
+     * to a SerializableCodec (Java Serialization).
+     * 
+     * @param codec
+     * @return this builder to facilitate method chaining.
+     */
+    public LocalEventBusBuilder codec(EventCodec codec)
+    {
+    	this.codec = codec;
+    	return this;
+    }
+
+    /**
+     * Register a compact id for an event type, written by the codec in place of the class name
+     * when events are serialized for offHeap() or spillToDisk(). Registering any event type makes
+     * the default codec a BinaryCodec; an explicit codec must extend AbstractEventCodec.
+     * 
+     * @param eventType the event class.
+     * @param id a unique id, from 1 to EventTypeRegistry.MAX_ID.
+     * @return this builder to facilitate method chaining.
+     */
+    public LocalEventBusBuilder eventType(Class<?> eventType, int id)
+    {
+    	eventTypes.register(eventType, id);
+    	return this;
+    }
+
+    /**
+     * Set how event sizes are estimated for maxPendingBytes() and spillToDisk(). By default,
+     * each event is assumed to be EventCapacity.DEFAULT_EVENT_SIZE bytes.
+     * 
+     * @param estimator
+     * @return this builder to facilitate method chaining.
+     */
+    public LocalEventBusBuilder sizeEstimator(EventSizeEstimator estimator)
+    {
+    	this.sizeEstimator = estimator;
+    	return this;
+    }
+
     @Override
     public LocalEventBusBuilder subscribe(EventHandler handler)
     {
@@ -93,4 +221,36 @@ implements EventBusBuilder<LocalEventBus, LocalEventBusBuilder>
     	publishableEventTypes.add(eventType);
     	return this;
     }
+
+    private Queue<Object> buildQueue()
+    {
+    	if (isOffHeap && shouldSpillToDisk)
+    	{
+    		throw new IllegalStateException("Choose either offHeap() or spillToDisk(), not both");
+    	}
+
+    	EventCodec eventCodec = (eventTypes.isEmpty() ? codec : eventTypes.configure(codec));
+
+    	if (isOffHeap)
+    	{
+    		return new OffHeapEventQueue((eventCodec == null ? new SerializableCodec() : eventCodec), slabSize);
+    	}
+
+    	if (shouldSpillToDisk)
+    	{
+    		return new SpillingEventQueue(spillDirectory, maxHeapBytes, sizeEstimator, eventCodec);
+    	}
+
+    	return null;
+    }
+
+    private EventCapacity buildCapacity()
+    {
+    	if (maxPendingEvents == EventCapacity.UNLIMITED && maxPendingBytes == EventCapacity.UNLIMITED)
+    	{
+    		return null;
+    	}
+
+    	return new EventCapacity(maxPendingEvents, maxPendingBytes, sizeEstimator);
+    }
 }
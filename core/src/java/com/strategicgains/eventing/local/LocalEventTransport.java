@@ -18,7 +18,9 @@ package com.strategicgains.eventing.local;
 import java.util.Collection;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 
+import com.strategicgains.eventing.EventCapacity;
 import com.strategicgains.eventing.EventHandler;
 import com.strategicgains.eventing.EventTransport;
 
@@ -29,12 +31,43 @@ import com.strategicgains.eventing.EventTransport;
 public class LocalEventTransport
 implements EventTransport
 {
-	private Queue<Object> queue = new ConcurrentLinkedQueue<Object>();
+	private volatile Queue<Object> queue = new ConcurrentLinkedQueue<Object>();
 	private EventMonitor monitor;
+	private EventCapacity capacity;
 
 	public LocalEventTransport(Collection<EventHandler> handlers, boolean shouldReraiseOnError, long pollDelayMillis)
+	{
+		this(handlers, shouldReraiseOnError, pollDelayMillis, null);
+	}
+
+	/**
+	 * @param handlers
+	 * @param shouldReraiseOnError
+	 * @param pollDelayMillis
+	 * @param capacity limits the events pending in the queue for tryPublish() and timed publish(). May be null for no limits.
+	 */
+	public LocalEventTransport(Collection<EventHandler> handlers, boolean shouldReraiseOnError, long pollDelayMillis, EventCapacity capacity)
+	{
+		this(handlers, shouldReraiseOnError, pollDelayMillis, capacity, null);
+	}
+
+	/**
+	 * @param handlers
+	 * @param shouldReraiseOnError
+	 * @param pollDelayMillis
+	 * @param capacity limits the events pending in the queue for tryPublish() and timed publish(). May be null for no limits.
+	 * @param queue the thread-safe queue holding pending events (e.g. a SpillingEventQueue). If null, an unbounded, in-memory queue is used.
+	 */
+	public LocalEventTransport(Collection<EventHandler> handlers, boolean shouldReraiseOnError, long pollDelayMillis, EventCapacity capacity, Queue<Object> queue)
 	{
 		super();
+		this.capacity = capacity;
+
+		if (queue != null)
+		{
+			this.queue = queue;
+		}
+
 		initializeMonitor(handlers, shouldReraiseOnError, pollDelayMillis);
 	}
 
@@ -61,13 +94,67 @@ implements EventTransport
 
 	public Object poll()
 	{
-		return queue.poll();
+		Queue<Object> pending = queue;
+
+		// Shut down.
+		if (pending == null) return null;
+
+		Object event = pending.poll();
+
+		if (event != null)
+		{
+			release(event);
+		}
+
+		return event;
+	}
+
+	public EventCapacity getCapacity()
+	{
+		return capacity;
 	}
 
+	/**
+	 * Always accepts the event. If limits are configured, the event still counts against them.
+	 */
 	@Override
 	public void publish(Object event)
 	{
-		queue.add(event);
+		if (capacity != null)
+		{
+			capacity.acquire(event);
+		}
+
+		enqueue(event);
+	}
+
+	@Override
+	public boolean publish(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		if (capacity != null && !capacity.tryAcquire(event, timeout, unit))
+		{
+			return false;
+		}
+
+		enqueue(event);
+		return true;
+	}
+
+	/**
+	 * If the queue refuses the event (e.g. it can't be spilled to disk), its capacity is released.
+	 */
+	private void enqueue(Object event)
+	{
+		try
+		{
+			queue.add(event);
+		}
+		catch (RuntimeException e)
+		{
+			release(event);
+			throw e;
+		}
 
 		synchronized (this)
 		{
@@ -75,6 +162,72 @@ implements EventTransport
 		}
 	}
 
+	private void release(Object event)
+	{
+		if (capacity != null)
+		{
+			capacity.release(event);
+		}
+	}
+
+	/**
+	 * Enqueues all the events at once, waking the EventMonitor only once for the batch. If the
+	 * queue refuses an event, it and those after it aren't enqueued, and their capacity is released.
+	 */
+	@Override
+	public void publishAll(Collection<?> events)
+	{
+		if (capacity != null)
+		{
+			for (Object event : events)
+			{
+				capacity.acquire(event);
+			}
+		}
+
+		int enqueued = 0;
+
+		try
+		{
+			for (Object event : events)
+			{
+				queue.add(event);
+				++enqueued;
+			}
+		}
+		catch (RuntimeException e)
+		{
+			int index = 0;
+
+			for (Object event : events)
+			{
+				if (index++ >= enqueued)
+				{
+					release(event);
+				}
+			}
+
+			throw e;
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Deliver an event to the subscribed handlers immediately, on the calling thread, bypassing the queue.
+	 * 
+	 * @param event
+	 */
+	public void dispatchNow(Object event)
+	{
+		monitor.dispatchNow(event);
+	}
+
 	/**
 	 * @param value
 	 */
@@ -83,9 +236,19 @@ implements EventTransport
 		monitor.setReRaiseOnError(value);
     }
 
+	/**
+	 * Stops the EventMonitor and discards pending events, releasing their capacity.
+	 */
 	@Override
 	public void shutdown()
 	{
+		monitor.shutdown();
+
+		if (capacity != null)
+		{
+			while (poll() != null);
+		}
+
 		queue.clear();
 		queue = null;
 	}
@@ -0,0 +1,336 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.local;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.codec.EventCodec;
+
+/**
+ * A FIFO event queue that stores pending events in serialized form, in direct ByteBuffer
+ * 'slabs' outside the Java heap. Events are encoded when offered and decoded only when
+ * polled (i.e. at dispatch time), so a large backlog of pending events doesn't churn the
+ * old generation or lengthen GC pauses.
+ * <p/>
+ * Each record in a slab is a 4-byte length followed by the encoded event. Drained slabs
+ * are kept for reuse, up to a small limit, since allocating direct memory is expensive.
+ * <p/>
+ * peek() and iteration decode events without consuming them, so each call pays for decoding
+ * again. Iterators are snapshots of the pending events and don't support remove().
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class OffHeapEventQueue
+extends AbstractQueue<Object>
+{
+	// SECTION: CONSTANTS
+
+	public static final int DEFAULT_SLAB_SIZE = 1024 * 1024;
+	private static final int MAX_FREE_SLABS = 4;
+	private static final int LENGTH_PREFIX = 4;
+
+	private static final ThreadLocal<EncodeBuffer> BUFFERS = new ThreadLocal<EncodeBuffer>()
+	{
+		@Override
+		protected EncodeBuffer initialValue()
+		{
+			return new EncodeBuffer();
+		}
+	};
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private EventCodec codec;
+	private int slabSize;
+
+	// Slabs in FIFO order. Writes go to the last; reads come from the first.
+	private ArrayDeque<ByteBuffer> slabs = new ArrayDeque<ByteBuffer>();
+	private ArrayDeque<ByteBuffer> freeSlabs = new ArrayDeque<ByteBuffer>();
+	private int readPosition = 0;
+	private int count = 0;
+
+
+	// SECTION: CONSTRUCTORS
+
+	public OffHeapEventQueue(EventCodec codec)
+	{
+		this(codec, DEFAULT_SLAB_SIZE);
+	}
+
+	/**
+	 * @param codec encodes events when offered and decodes them when polled.
+	 * @param slabSize the size, in bytes, of each direct buffer. Events larger than this get a slab of their own.
+	 */
+	public OffHeapEventQueue(EventCodec codec, int slabSize)
+	{
+		super();
+
+		if (slabSize <= LENGTH_PREFIX)
+		{
+			throw new IllegalArgumentException("Slab size too small: " + slabSize);
+		}
+
+		this.codec = codec;
+		this.slabSize = slabSize;
+	}
+
+
+	// SECTION: QUEUE
+
+	@Override
+	public boolean offer(Object event)
+	{
+		if (event == null) throw new NullPointerException();
+
+		// Encode outside the lock, then copy into the slab.
+		EncodeBuffer buffer = BUFFERS.get().reset();
+		codec.encode(event, buffer);
+
+		synchronized (this)
+		{
+			ByteBuffer slab = writableSlab(LENGTH_PREFIX + buffer.length());
+			slab.putInt(buffer.length());
+			slab.put(buffer.array(), 0, buffer.length());
+			++count;
+		}
+
+		return true;
+	}
+
+	@Override
+	public Object poll()
+	{
+		EncodeBuffer buffer = BUFFERS.get().reset();
+
+		// Copy the record out under the lock, then decode outside of it.
+		synchronized (this)
+		{
+			if (count == 0) return null;
+
+			// copyHead() may move to the next slab, so take its size before advancing.
+			int size = copyHead(buffer);
+			readPosition += size;
+
+			if (--count == 0)
+			{
+				resetSlabs();
+			}
+		}
+
+		return codec.decode(buffer.asByteBuffer());
+	}
+
+	/**
+	 * Decodes the next event, which poll() will decode again.
+	 */
+	@Override
+	public Object peek()
+	{
+		EncodeBuffer buffer = BUFFERS.get().reset();
+
+		synchronized (this)
+		{
+			if (count == 0) return null;
+
+			copyHead(buffer);
+		}
+
+		return codec.decode(buffer.asByteBuffer());
+	}
+
+	@Override
+	public synchronized boolean isEmpty()
+	{
+		return (count == 0);
+	}
+
+	@Override
+	public synchronized int size()
+	{
+		return count;
+	}
+
+	@Override
+	public synchronized void clear()
+	{
+		count = 0;
+		resetSlabs();
+	}
+
+	/**
+	 * Copies the pending records to the heap and decodes each as it's reached.
+	 */
+	@Override
+	public Iterator<Object> iterator()
+	{
+		final ByteBuffer snapshot;
+		final int snapshotCount;
+
+		synchronized (this)
+		{
+			int length = 0;
+			int start = readPosition;
+
+			for (ByteBuffer slab : slabs)
+			{
+				length += slab.position() - start;
+				start = 0;
+			}
+
+			snapshot = ByteBuffer.allocate(length);
+			start = readPosition;
+
+			for (ByteBuffer slab : slabs)
+			{
+				ByteBuffer records = slab.duplicate();
+				records.flip();
+				records.position(start);
+				snapshot.put(records);
+				start = 0;
+			}
+
+			snapshot.flip();
+			snapshotCount = count;
+		}
+
+		return new Iterator<Object>()
+		{
+			private int remaining = snapshotCount;
+
+			@Override
+			public boolean hasNext()
+			{
+				return (remaining > 0);
+			}
+
+			@Override
+			public Object next()
+			{
+				if (remaining == 0) throw new NoSuchElementException();
+
+				int length = snapshot.getInt();
+				ByteBuffer record = snapshot.slice();
+				record.limit(length);
+				snapshot.position(snapshot.position() + length);
+				--remaining;
+				return codec.decode(record);
+			}
+		};
+	}
+
+	/**
+	 * The direct memory, in bytes, currently allocated to slabs (including free slabs held for reuse).
+	 */
+	public synchronized long getAllocatedBytes()
+	{
+		long total = 0L;
+
+		for (ByteBuffer slab : slabs)
+		{
+			total += slab.capacity();
+		}
+
+		for (ByteBuffer slab : freeSlabs)
+		{
+			total += slab.capacity();
+		}
+
+		return total;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * Copy the next record, without its length prefix, into the buffer. Call with count > 0.
+	 * 
+	 * @return the record's size in its slab, including the length prefix.
+	 */
+	private int copyHead(EncodeBuffer buffer)
+	{
+		ByteBuffer slab = slabs.peekFirst();
+
+		if (readPosition == slab.position())
+		{
+			// Exhausted this slab. Since count > 0, there's another.
+			recycle(slabs.pollFirst());
+			slab = slabs.peekFirst();
+			readPosition = 0;
+		}
+
+		int length = slab.getInt(readPosition);
+		ByteBuffer record = slab.duplicate();
+		record.limit(readPosition + LENGTH_PREFIX + length);
+		record.position(readPosition + LENGTH_PREFIX);
+		buffer.writeBytes(record);
+		return LENGTH_PREFIX + length;
+	}
+
+	private ByteBuffer writableSlab(int required)
+	{
+		ByteBuffer slab = slabs.peekLast();
+
+		if (slab == null || slab.remaining() < required)
+		{
+			slab = allocate(required);
+			slabs.addLast(slab);
+		}
+
+		return slab;
+	}
+
+	private ByteBuffer allocate(int required)
+	{
+		if (required > slabSize)
+		{
+			return ByteBuffer.allocateDirect(required);
+		}
+
+		ByteBuffer slab = freeSlabs.pollFirst();
+		return (slab == null ? ByteBuffer.allocateDirect(slabSize) : slab);
+	}
+
+	private void recycle(ByteBuffer slab)
+	{
+		if (slab.capacity() == slabSize && freeSlabs.size() < MAX_FREE_SLABS)
+		{
+			slab.clear();
+			freeSlabs.addLast(slab);
+		}
+	}
+
+	/**
+	 * When empty, rewind to the start of the first slab rather than carrying on where the last write ended.
+	 */
+	private void resetSlabs()
+	{
+		ByteBuffer slab;
+
+		while ((slab = slabs.pollFirst()) != null)
+		{
+			recycle(slab);
+		}
+
+		readPosition = 0;
+	}
+}
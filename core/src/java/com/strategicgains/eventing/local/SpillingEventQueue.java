@@ -0,0 +1,428 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.local;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.strategicgains.eventing.EventCapacity;
+import com.strategicgains.eventing.EventSizeEstimator;
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.SerializableCodec;
+
+/**
+ * A FIFO event queue that holds events in memory up to a heap budget and, beyond that, spills
+ * them to an append-only file on local disk. Spilled events are read back, in order, as the
+ * consumer catches up. Once the file is drained, it is deleted and the queue returns to
+ * in-memory operation. So memory use stays flat during bursts without losing events.
+ * <p/>
+ * To preserve ordering, once the queue starts spilling, all newly-offered events go to disk
+ * until the spilled events have been consumed.
+ * <p/>
+ * Spilled events are written using an EventCodec. By default, that's Java Serialization,
+ * so events must be Serializable. Each is encoded, with its length, before anything is written,
+ * and a failed write is truncated away, so an event that can't be spilled is refused without
+ * affecting those spilled before or after it.
+ * <p/>
+ * peek() reads the next spilled event ahead, once the in-memory events are consumed. Iterators
+ * are snapshots, which read and decode the whole spill file, and don't support remove().
+ *
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class SpillingEventQueue
+extends AbstractQueue<Object>
+{
+	// SECTION: CONSTANTS
+
+	// Spilled records are collected up to this size before being written to the file.
+	private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+	private static final EventSizeEstimator FIXED_SIZE_ESTIMATOR = new EventSizeEstimator()
+	{
+		@Override
+		public long estimate(Object event)
+		{
+			return EventCapacity.DEFAULT_EVENT_SIZE;
+		}
+	};
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private ArrayDeque<Object> memory = new ArrayDeque<Object>();
+	private long memoryBytes = 0L;
+	private long maxMemoryBytes;
+	private EventSizeEstimator estimator;
+	private EventCodec codec;
+	private File directory;
+
+	private File spillFile;
+	private FileChannel writer;
+	private DataInputStream reader;
+	private long spilledCount = 0L;
+	private long writtenBytes = 0L;
+	private long readBytes = 0L;
+
+	// The next spilled event, read ahead by peek().
+	private Object spilledHead;
+	private EncodeBuffer eventBuffer = new EncodeBuffer();
+	private EncodeBuffer writeBuffer = new EncodeBuffer();
+	private EncodeBuffer readBuffer = new EncodeBuffer();
+
+
+	// SECTION: CONSTRUCTORS
+
+	public SpillingEventQueue(File directory, long maxMemoryBytes, EventSizeEstimator estimator)
+	{
+		this(directory, maxMemoryBytes, estimator, null);
+	}
+
+	/**
+	 * @param directory the directory in which to create spill files. If null, the system temporary directory is used.
+	 * @param maxMemoryBytes the estimated heap budget for in-memory events.
+	 * @param estimator estimates the size of each event. If null, every event is assumed to be EventCapacity.DEFAULT_EVENT_SIZE bytes.
+	 * @param codec encodes spilled events. If null, a SerializableCodec is used.
+	 */
+	public SpillingEventQueue(File directory, long maxMemoryBytes, EventSizeEstimator estimator, EventCodec codec)
+	{
+		super();
+
+		if (maxMemoryBytes <= 0)
+		{
+			throw new IllegalArgumentException("Heap budget must be positive");
+		}
+
+		this.directory = directory;
+		this.maxMemoryBytes = maxMemoryBytes;
+		this.estimator = (estimator == null ? FIXED_SIZE_ESTIMATOR : estimator);
+		this.codec = (codec == null ? new SerializableCodec() : codec);
+	}
+
+
+	// SECTION: QUEUE
+
+	@Override
+	public synchronized boolean offer(Object event)
+	{
+		if (event == null) throw new NullPointerException();
+
+		long size = estimator.estimate(event);
+
+		if (!isSpilling() && spilledHead == null && (memory.isEmpty() || memoryBytes + size <= maxMemoryBytes))
+		{
+			memory.add(event);
+			memoryBytes += size;
+			return true;
+		}
+
+		spill(event);
+		return true;
+	}
+
+	@Override
+	public synchronized Object poll()
+	{
+		Object event = memory.poll();
+
+		if (event != null)
+		{
+			memoryBytes -= estimator.estimate(event);
+			return event;
+		}
+
+		if (spilledHead != null)
+		{
+			event = spilledHead;
+			spilledHead = null;
+			return event;
+		}
+
+		if (isSpilling())
+		{
+			return unspill();
+		}
+
+		return null;
+	}
+
+	/**
+	 * If the next event is on disk, reads it ahead, to be returned by the next poll().
+	 */
+	@Override
+	public synchronized Object peek()
+	{
+		if (!memory.isEmpty()) return memory.peek();
+
+		if (spilledHead == null && isSpilling())
+		{
+			spilledHead = unspill();
+		}
+
+		return spilledHead;
+	}
+
+	@Override
+	public synchronized boolean isEmpty()
+	{
+		return (memory.isEmpty() && spilledHead == null && !isSpilling());
+	}
+
+	@Override
+	public synchronized int size()
+	{
+		return (int) Math.min(Integer.MAX_VALUE, memory.size() + (spilledHead == null ? 0 : 1) + spilledCount);
+	}
+
+	/**
+	 * Discards all pending events, including those on disk, and deletes the spill file.
+	 */
+	@Override
+	public synchronized void clear()
+	{
+		memory.clear();
+		memoryBytes = 0L;
+		spilledHead = null;
+		closeSpillFile();
+	}
+
+	/**
+	 * Reads and decodes every spilled event, so is only suitable for diagnostics.
+	 */
+	@Override
+	public synchronized Iterator<Object> iterator()
+	{
+		List<Object> snapshot = new ArrayList<Object>(memory);
+
+		if (spilledHead != null)
+		{
+			snapshot.add(spilledHead);
+		}
+
+		if (isSpilling())
+		{
+			readSpilled(snapshot);
+		}
+
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	/**
+	 * The number of events currently spilled to disk.
+	 */
+	public synchronized long getSpilledCount()
+	{
+		return spilledCount;
+	}
+
+	/**
+	 * The estimated bytes of events currently held in memory.
+	 */
+	public synchronized long getMemoryBytes()
+	{
+		return memoryBytes;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private boolean isSpilling()
+	{
+		return (spilledCount > 0);
+	}
+
+	private void spill(Object event)
+	{
+		try
+		{
+			if (writer == null)
+			{
+				openSpillFile();
+			}
+
+			codec.encode(event, eventBuffer.reset());
+			int length = eventBuffer.length();
+
+			if (writeBuffer.length() > 0 && writeBuffer.length() + 4 + length > WRITE_BUFFER_BYTES)
+			{
+				writePending();
+			}
+
+			writeBuffer.writeInt(length);
+			writeBuffer.write(eventBuffer.array(), 0, length);
+			++spilledCount;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Unable to spill event to " + spillFile, e);
+		}
+	}
+
+	private Object unspill()
+	{
+		try
+		{
+			// Only what has been written is visible to the reader.
+			if (writeBuffer.length() > 0)
+			{
+				writePending();
+			}
+
+			int length = reader.readInt();
+			readBuffer.reset().ensureCapacity(length);
+			reader.readFully(readBuffer.array(), 0, length);
+			readBytes += 4 + length;
+			Object event = codec.decode(ByteBuffer.wrap(readBuffer.array(), 0, length));
+
+			if (--spilledCount == 0)
+			{
+				closeSpillFile();
+			}
+
+			return event;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Unable to read spilled event from " + spillFile, e);
+		}
+	}
+
+	/**
+	 * Decode the spilled events not yet read, in order, into the list, leaving the reader where it is.
+	 */
+	private void readSpilled(List<Object> events)
+	{
+		try
+		{
+			if (writeBuffer.length() > 0)
+			{
+				writePending();
+			}
+
+			FileInputStream file = new FileInputStream(spillFile);
+
+			try
+			{
+				file.getChannel().position(readBytes);
+				DataInputStream spilled = new DataInputStream(new BufferedInputStream(file));
+				EncodeBuffer buffer = new EncodeBuffer();
+
+				for (long i = 0; i < spilledCount; i++)
+				{
+					int length = spilled.readInt();
+					buffer.reset().ensureCapacity(length);
+					spilled.readFully(buffer.array(), 0, length);
+					events.add(codec.decode(ByteBuffer.wrap(buffer.array(), 0, length)));
+				}
+			}
+			finally
+			{
+				file.close();
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Unable to read spilled events from " + spillFile, e);
+		}
+	}
+
+	/**
+	 * Write the buffered records to the file. If that fails, the file is truncated back to the
+	 * records already written and the buffered ones are kept, to be written again later.
+	 */
+	private void writePending()
+	throws IOException
+	{
+		ByteBuffer pending = writeBuffer.asByteBuffer();
+
+		try
+		{
+			while (pending.hasRemaining())
+			{
+				writer.write(pending);
+			}
+		}
+		catch (IOException e)
+		{
+			try
+			{
+				writer.truncate(writtenBytes);
+				writer.position(writtenBytes);
+			}
+			catch (IOException t)
+			{
+				e.addSuppressed(t);
+			}
+
+			throw e;
+		}
+
+		writtenBytes += writeBuffer.length();
+		writeBuffer.reset();
+	}
+
+	private void openSpillFile()
+	throws IOException
+	{
+		spillFile = File.createTempFile("domain-events-", ".spill", directory);
+		spillFile.deleteOnExit();
+		writer = new FileOutputStream(spillFile).getChannel();
+		reader = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile)));
+	}
+
+	private void closeSpillFile()
+	{
+		spilledCount = 0L;
+		writtenBytes = 0L;
+		readBytes = 0L;
+		writeBuffer.reset();
+
+		if (spillFile == null) return;
+
+		try
+		{
+			writer.close();
+			reader.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+
+		if (!spillFile.delete())
+		{
+			System.err.println("Unable to delete spill file: " + spillFile);
+		}
+
+		writer = null;
+		reader = null;
+		spillFile = null;
+	}
+}
@@ -0,0 +1,188 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies into power-of-two microsecond buckets, so percentiles can be read
+ * cheaply, to within a factor of two, without retaining samples. Recording is lock-free.
+ * Values are cumulative since the histogram was created.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class LatencyHistogram
+{
+	// SECTION: CONSTANTS
+
+	// Bucket i counts latencies below 2^i microseconds (and at least 2^(i-1)); the last is unbounded.
+	private static final int BUCKETS = 40;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private LongAdder count = new LongAdder();
+	private LongAdder totalMicros = new LongAdder();
+	private AtomicLong maxMicros = new AtomicLong(0L);
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * @param nanos a latency, in nanoseconds. Negative values are recorded as zero.
+	 */
+	public void record(long nanos)
+	{
+		long micros = Math.max(0L, nanos / 1000L);
+		buckets.incrementAndGet(bucketFor(micros));
+		count.increment();
+		totalMicros.add(micros);
+
+		long max;
+
+		while (micros > (max = maxMicros.get()) && !maxMicros.compareAndSet(max, micros));
+	}
+
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	public long getMeanMicros()
+	{
+		long n = count.sum();
+		return (n == 0L ? 0L : totalMicros.sum() / n);
+	}
+
+	public long getMaxMicros()
+	{
+		return maxMicros.get();
+	}
+
+	/**
+	 * An upper bound on the given percentile: the top of the bucket it falls in, or the maximum
+	 * recorded latency if that's lower.
+	 * 
+	 * @param percentile from 0 to 100.
+	 * @return the latency, in microseconds, or zero if nothing has been recorded.
+	 */
+	public long getPercentileMicros(double percentile)
+	{
+		long[] counts = new long[BUCKETS];
+		long total = 0L;
+
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+
+		if (total == 0L) return 0L;
+
+		long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100d));
+		long seen = 0L;
+
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+
+			if (seen >= rank)
+			{
+				return Math.min((1L << i) - 1L, getMaxMicros());
+			}
+		}
+
+		return getMaxMicros();
+	}
+
+	/**
+	 * Expose the count, mean, 50th and 99th percentiles and maximum as gauges named
+	 * prefix.count, prefix.mean-micros, prefix.p50-micros, prefix.p99-micros and prefix.max-micros.
+	 * 
+	 * @param metrics
+	 * @param prefix
+	 */
+	public void registerMetrics(Metrics metrics, String prefix)
+	{
+		metrics.register(prefix + ".count", new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getCount();
+			}
+		});
+		metrics.register(prefix + ".mean-micros", new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getMeanMicros();
+			}
+		});
+		metrics.register(prefix + ".p50-micros", new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getPercentileMicros(50d);
+			}
+		});
+		metrics.register(prefix + ".p99-micros", new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getPercentileMicros(99d);
+			}
+		});
+		metrics.register(prefix + ".max-micros", new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getMaxMicros();
+			}
+		});
+	}
+
+	/**
+	 * Remove the gauges added by registerMetrics().
+	 * 
+	 * @param metrics
+	 * @param prefix
+	 */
+	public void unregisterMetrics(Metrics metrics, String prefix)
+	{
+		metrics.unregister(prefix + ".count");
+		metrics.unregister(prefix + ".mean-micros");
+		metrics.unregister(prefix + ".p50-micros");
+		metrics.unregister(prefix + ".p99-micros");
+		metrics.unregister(prefix + ".max-micros");
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private static int bucketFor(long micros)
+	{
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+	}
+}
@@ -0,0 +1,115 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.metrics;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A minimal, dependency-free registry of named counters and gauges. Each EventBus
+ * owns one, and transports may add their own metrics to it. Counters are cheap to
+ * update from many threads concurrently; gauges are only evaluated when read.
+ * <p/>
+ * Bridge to your metrics library of choice by periodically reading snapshot().
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class Metrics
+{
+	private ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<String, LongAdder>();
+	private ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<String, Gauge>();
+
+	public void increment(String name)
+	{
+		counter(name).increment();
+	}
+
+	public void add(String name, long delta)
+	{
+		counter(name).add(delta);
+	}
+
+	/**
+	 * Get the current value of a counter or gauge.
+	 * 
+	 * @param name the metric name.
+	 * @return the current value, or zero if no such metric exists.
+	 */
+	public long get(String name)
+	{
+		LongAdder counter = counters.get(name);
+
+		if (counter != null) return counter.sum();
+
+		Gauge gauge = gauges.get(name);
+		return (gauge == null ? 0L : gauge.getValue());
+	}
+
+	public void register(String name, Gauge gauge)
+	{
+		gauges.put(name, gauge);
+	}
+
+	public boolean unregister(String name)
+	{
+		return (gauges.remove(name) != null);
+	}
+
+	/**
+	 * Read all counters and gauges at once.
+	 * 
+	 * @return a Map of metric name to value, sorted by name.
+	 */
+	public Map<String, Long> snapshot()
+	{
+		Map<String, Long> snapshot = new TreeMap<String, Long>();
+
+		for (Entry<String, LongAdder> entry : counters.entrySet())
+		{
+			snapshot.put(entry.getKey(), entry.getValue().sum());
+		}
+
+		for (Entry<String, Gauge> entry : gauges.entrySet())
+		{
+			snapshot.put(entry.getKey(), entry.getValue().getValue());
+		}
+
+		return snapshot;
+	}
+
+	private LongAdder counter(String name)
+	{
+		LongAdder counter = counters.get(name);
+
+		if (counter == null)
+		{
+			counter = new LongAdder();
+			LongAdder existing = counters.putIfAbsent(name, counter);
+
+			if (existing != null)
+			{
+				counter = existing;
+			}
+		}
+
+		return counter;
+	}
+}
@@ -0,0 +1,149 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.strategicgains.eventing.metrics.Metrics;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventCapacityTest
+{
+	private static final EventSizeEstimator STRING_LENGTH = new EventSizeEstimator()
+	{
+		@Override
+		public long estimate(Object event)
+		{
+			return ((String) event).length();
+		}
+	};
+
+	@Test
+	public void shouldRejectOverCount()
+	{
+		EventCapacity capacity = new EventCapacity(2);
+		assertTrue(capacity.tryAcquire("a"));
+		assertTrue(capacity.tryAcquire("b"));
+		assertFalse(capacity.tryAcquire("c"));
+		assertEquals(2, capacity.getPendingEvents());
+		assertEquals(1, capacity.getRejectedByCount());
+		assertEquals(0, capacity.getRejectedByBytes());
+
+		capacity.release("a");
+		assertTrue(capacity.tryAcquire("c"));
+	}
+
+	@Test
+	public void shouldRejectOverBytes()
+	{
+		EventCapacity capacity = new EventCapacity(EventCapacity.UNLIMITED, 10, STRING_LENGTH);
+		assertTrue(capacity.tryAcquire("123456"));
+		assertFalse(capacity.tryAcquire("12345"));
+		assertTrue(capacity.tryAcquire("1234"));
+		assertEquals(10, capacity.getPendingBytes());
+		assertEquals(2, capacity.getPendingEvents());
+		assertEquals(1, capacity.getRejectedByBytes());
+		assertEquals(0, capacity.getRejectedByCount());
+	}
+
+	@Test
+	public void shouldAdmitOversizedEventWhenEmpty()
+	{
+		EventCapacity capacity = new EventCapacity(EventCapacity.UNLIMITED, 10, STRING_LENGTH);
+		assertTrue(capacity.tryAcquire("this event is larger than the limit"));
+		assertFalse(capacity.tryAcquire("a"));
+	}
+
+	@Test
+	public void shouldAccountForUnconditionalAcquire()
+	{
+		EventCapacity capacity = new EventCapacity(1);
+		capacity.acquire("a");
+		capacity.acquire("b");
+		assertEquals(2, capacity.getPendingEvents());
+		assertFalse(capacity.tryAcquire("c"));
+		capacity.release("a");
+		assertFalse(capacity.tryAcquire("c"));
+		capacity.release("b");
+		assertTrue(capacity.tryAcquire("c"));
+	}
+
+	@Test
+	public void shouldTimeOutWaiting()
+	throws Exception
+	{
+		EventCapacity capacity = new EventCapacity(1);
+		assertTrue(capacity.tryAcquire("a"));
+		long start = System.nanoTime();
+		assertFalse(capacity.tryAcquire("b", 50, TimeUnit.MILLISECONDS));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+		assertEquals(1, capacity.getRejectedByCount());
+	}
+
+	@Test
+	public void shouldWakeWaiterOnRelease()
+	throws Exception
+	{
+		final EventCapacity capacity = new EventCapacity(1);
+		assertTrue(capacity.tryAcquire("a"));
+
+		Thread releaser = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e)
+				{
+					e.printStackTrace();
+				}
+
+				capacity.release("a");
+			}
+		});
+		releaser.start();
+
+		assertTrue(capacity.tryAcquire("b", 5, TimeUnit.SECONDS));
+		releaser.join();
+		assertEquals(0, capacity.getRejectedByCount());
+	}
+
+	@Test
+	public void shouldRegisterMetrics()
+	{
+		Metrics metrics = new Metrics();
+		EventCapacity capacity = new EventCapacity(1);
+		capacity.registerMetrics(metrics);
+		capacity.tryAcquire("a");
+		capacity.tryAcquire("b");
+		assertEquals(1L, metrics.get(EventCapacity.PENDING_EVENTS_METRIC));
+		assertEquals(EventCapacity.DEFAULT_EVENT_SIZE, metrics.get(EventCapacity.PENDING_BYTES_METRIC));
+		assertEquals(1L, metrics.get(EventCapacity.REJECTED_BY_COUNT_METRIC));
+		assertEquals(0L, metrics.get(EventCapacity.REJECTED_BY_BYTES_METRIC));
+	}
+}
@@ -0,0 +1,236 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strategicgains.eventing.local.LocalEventBus;
+import com.strategicgains.eventing.local.LocalEventBusBuilder;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventSlotsTest
+{
+	private static final int WARM_UP_OPERATIONS = 500_000;
+	private static final int MEASURED_OPERATIONS = 1_000_000;
+
+	private TelemetryHandler handler = new TelemetryHandler();
+	private LocalEventBus bus;
+	private EventSlots<TelemetryEvent> slots;
+
+	@Before
+	public void setup()
+	{
+		bus = new LocalEventBusBuilder()
+			.subscribe(handler)
+			.build();
+		slots = bus.addSlots(TelemetryEvent.class, new EventSlotFactory<TelemetryEvent>()
+		{
+			@Override
+			public TelemetryEvent newSlot()
+			{
+				return new TelemetryEvent();
+			}
+		}, 1024);
+	}
+
+	@After
+	public void teardown()
+	{
+		bus.shutdown();
+	}
+
+	@Test
+	public void shouldDispatchInOrder()
+	throws Exception
+	{
+		for (int i = 1; i <= 5000; i++)
+		{
+			long sequence = slots.claim();
+			slots.get(sequence).value = i;
+			slots.commit(sequence);
+		}
+
+		waitForDispatch(5000);
+		assertEquals(5000, handler.count.get());
+		assertEquals(5000L * 5001L / 2L, handler.sum.get());
+		assertTrue(handler.isOrdered);
+		assertEquals(5000L, bus.getMetrics().get(EventBus.PUBLISHED_METRIC));
+	}
+
+	@Test
+	public void shouldDispatchFromManyPublishers()
+	throws Exception
+	{
+		Thread[] publishers = new Thread[4];
+
+		for (int t = 0; t < publishers.length; t++)
+		{
+			publishers[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					for (int i = 0; i < 10_000; i++)
+					{
+						long sequence = slots.claim();
+						slots.get(sequence).value = 1;
+						slots.commit(sequence);
+					}
+				}
+			});
+			publishers[t].start();
+		}
+
+		for (Thread publisher : publishers)
+		{
+			publisher.join();
+		}
+
+		waitForDispatch(40_000);
+		assertEquals(40_000, handler.count.get());
+		assertEquals(40_000L, handler.sum.get());
+	}
+
+	@Test
+	public void shouldBlockWhenIdleAndWakeOnCommit()
+	throws Exception
+	{
+		Thread.sleep(200);
+		assertEquals(Thread.State.WAITING, dispatchThreadState());
+
+		long sequence = slots.claim();
+		slots.get(sequence).value = 1;
+		slots.commit(sequence);
+		waitForDispatch(1);
+		assertEquals(1, handler.count.get());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldNotAddSlotsTwice()
+	{
+		bus.addSlots(TelemetryEvent.class, new EventSlotFactory<TelemetryEvent>()
+		{
+			@Override
+			public TelemetryEvent newSlot()
+			{
+				return new TelemetryEvent();
+			}
+		}, 16);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void shouldRequirePowerOfTwo()
+	{
+		new EventSlots<TelemetryEvent>(TelemetryEvent.class, null, 1000, null);
+	}
+
+	@Test
+	public void shouldNotAllocateWhenPublishing()
+	throws Exception
+	{
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+		com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+		assumeTrue(allocations.isThreadAllocatedMemorySupported());
+		allocations.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+
+		publish(WARM_UP_OPERATIONS);
+		long before = allocations.getThreadAllocatedBytes(threadId);
+		publish(MEASURED_OPERATIONS);
+		long after = allocations.getThreadAllocatedBytes(threadId);
+
+		// Allow for a few bytes of measurement overhead, but nothing per operation.
+		long allocated = after - before;
+		assertEquals("bytes allocated per operation (" + allocated + " total)", 0L, allocated / MEASURED_OPERATIONS);
+		assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+	}
+
+	private void publish(int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			long sequence = slots.claim();
+			TelemetryEvent event = slots.get(sequence);
+			event.value = i;
+			slots.commit(sequence);
+		}
+	}
+
+	private static Thread.State dispatchThreadState()
+	{
+		for (Thread thread : Thread.getAllStackTraces().keySet())
+		{
+			if (thread.getName().equals("event-slots-TelemetryEvent")) return thread.getState();
+		}
+
+		return null;
+	}
+
+	private void waitForDispatch(int count)
+	throws InterruptedException
+	{
+		for (int i = 0; i < 100 && handler.count.get() < count; i++)
+		{
+			Thread.sleep(20);
+		}
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class TelemetryEvent
+	{
+		private long value;
+	}
+
+	private static class TelemetryHandler
+	implements EventHandler
+	{
+		private AtomicLong count = new AtomicLong(0L);
+		private AtomicLong sum = new AtomicLong(0L);
+		private long last = 0L;
+		private boolean isOrdered = true;
+
+		@Override
+		public void handle(Object event)
+		{
+			long value = ((TelemetryEvent) event).value;
+			isOrdered &= (value == last + 1 || value == 1);
+			last = value;
+			count.incrementAndGet();
+			sum.addAndGet(value);
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return (TelemetryEvent.class.isAssignableFrom(eventClass));
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strategicgains.eventing.local.LocalEventBusBuilder;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class UnitOfWorkTest
+{
+	private static final int PAUSE_MILLIS = 150;
+
+	private CountingHandler handler = new CountingHandler();
+
+	@Before
+	public void setup()
+	{
+		EventBus q = new LocalEventBusBuilder()
+			.subscribe(handler)
+			.build();
+		DomainEvents.addBus("primary", q);
+	}
+
+	@After
+	public void teardown()
+	{
+		UnitOfWork.rollback();
+		DomainEvents.shutdown();
+	}
+
+	@Test
+	public void shouldPublishOnCommit()
+	throws Exception
+	{
+		UnitOfWork.begin();
+		UnitOfWork.raise(new HandledEvent());
+		UnitOfWork.raise(new HandledEvent());
+		UnitOfWork.raise(new HandledEvent());
+		Thread.sleep(PAUSE_MILLIS);
+		assertEquals(0, handler.getCallCount());
+		assertEquals(3, UnitOfWork.getPendingCount());
+
+		UnitOfWork.commit();
+		Thread.sleep(PAUSE_MILLIS);
+		assertEquals(3, handler.getCallCount());
+		assertEquals(0, UnitOfWork.getPendingCount());
+		assertFalse(UnitOfWork.isActive());
+	}
+
+	@Test
+	public void shouldDiscardOnRollback()
+	throws Exception
+	{
+		UnitOfWork.begin();
+		UnitOfWork.raise(new HandledEvent());
+		UnitOfWork.raise(new HandledEvent());
+		UnitOfWork.rollback();
+		Thread.sleep(PAUSE_MILLIS);
+		assertEquals(0, handler.getCallCount());
+		assertEquals(0, UnitOfWork.getPendingCount());
+		assertFalse(UnitOfWork.isActive());
+	}
+
+	@Test
+	public void shouldPublishImmediatelyWithoutUnitOfWork()
+	throws Exception
+	{
+		assertFalse(UnitOfWork.isActive());
+		UnitOfWork.raise(new HandledEvent());
+		Thread.sleep(PAUSE_MILLIS);
+		assertEquals(1, handler.getCallCount());
+	}
+
+	@Test
+	public void shouldReuseAcrossUnitsOfWork()
+	throws Exception
+	{
+		for (int i = 0; i < 3; i++)
+		{
+			UnitOfWork.begin();
+
+			for (int j = 0; j < 50; j++)
+			{
+				UnitOfWork.raise(new HandledEvent());
+			}
+
+			UnitOfWork.commit();
+		}
+
+		Thread.sleep(PAUSE_MILLIS);
+		assertEquals(150, handler.getCallCount());
+	}
+
+	@Test
+	public void shouldIsolateThreads()
+	throws Exception
+	{
+		UnitOfWork.begin();
+		UnitOfWork.raise(new HandledEvent());
+
+		Thread other = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				UnitOfWork.begin();
+				UnitOfWork.raise(new HandledEvent());
+				UnitOfWork.raise(new HandledEvent());
+				UnitOfWork.rollback();
+			}
+		});
+		other.start();
+		other.join();
+
+		assertTrue(UnitOfWork.isActive());
+		assertEquals(1, UnitOfWork.getPendingCount());
+		UnitOfWork.commit();
+		Thread.sleep(PAUSE_MILLIS);
+		assertEquals(1, handler.getCallCount());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldNotNest()
+	{
+		UnitOfWork.begin();
+		UnitOfWork.begin();
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldNotCommitWithoutBegin()
+	{
+		UnitOfWork.commit();
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private class HandledEvent
+	{
+	}
+
+	private static class CountingHandler
+	implements EventHandler
+	{
+		private AtomicInteger callCount = new AtomicInteger(0);
+
+		@Override
+		public void handle(Object event)
+		{
+			callCount.incrementAndGet();
+		}
+
+		public int getCallCount()
+		{
+			return callCount.get();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return (HandledEvent.class.isAssignableFrom(eventClass));
+		}
+	}
+}
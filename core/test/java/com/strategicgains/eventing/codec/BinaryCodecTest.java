@@ -0,0 +1,316 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class BinaryCodecTest
+{
+	private BinaryCodec codec = new BinaryCodec();
+
+	@Test
+	public void shouldRoundTripFields()
+	{
+		OrderPlaced order = newOrder();
+		OrderPlaced decoded = (OrderPlaced) roundTrip(order);
+
+		assertEquals(order.orderId, decoded.orderId);
+		assertEquals(order.quantity, decoded.quantity);
+		assertEquals(order.express, decoded.express);
+		assertEquals(order.discount, decoded.discount, 0.0);
+		assertEquals(order.price, decoded.price, 0.0);
+		assertEquals(order.grade, decoded.grade);
+		assertEquals(order.region, decoded.region);
+		assertEquals(order.priority, decoded.priority);
+		assertEquals(order.customer, decoded.customer);
+		assertEquals(order.status, decoded.status);
+		assertEquals(order.id, decoded.id);
+		assertEquals(order.placedAt, decoded.placedAt);
+		assertEquals(order.total, decoded.total);
+		assertArrayEquals(order.signature, decoded.signature);
+		assertEquals(order.skus, decoded.skus);
+		assertEquals(order.tags, decoded.tags);
+		assertEquals(order.attributes, decoded.attributes);
+		assertEquals(order.shipTo.city, decoded.shipTo.city);
+		assertEquals(order.billTo.getClass(), decoded.billTo.getClass());
+		assertEquals("Boulder", ((Address) decoded.billTo).city);
+		assertEquals(order.version, decoded.version);
+		assertNull(decoded.note);
+	}
+
+	@Test
+	public void shouldSkipTransientFields()
+	{
+		OrderPlaced order = newOrder();
+		order.cached = "do not send";
+		OrderPlaced decoded = (OrderPlaced) roundTrip(order);
+		assertEquals(OrderPlaced.DEFAULT, decoded.cached);
+	}
+
+	@Test
+	public void shouldBeCompact()
+	{
+		EncodeBuffer binary = new EncodeBuffer();
+		EncodeBuffer serialized = new EncodeBuffer();
+		// 2-, 3- and 4-byte sequences, and an unpaired surrogate.
+		OrderPlaced order = newOrder();
+		codec.encode(order, binary);
+		new SerializableCodec().encode(order, serialized);
+		assertTrue(binary.length() * 3 < serialized.length());
+	}
+
+	@Test
+	public void shouldRoundTripUnicode()
+	{
+		// 2-, 3- and 4-byte sequences, and an unpaired surrogate.
+		Address address = new Address("Zo\u00eb \u65e5\u672c \ud83d\ude00 \ud800");
+		assertEquals("Zo\u00eb \u65e5\u672c \ud83d\ude00 ?", ((Address) roundTrip(address)).city);
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRequireNoArgConstructor()
+	{
+		codec.encode(new NoDefaultConstructor("x"), new EncodeBuffer());
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectUnknownClass()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		buffer.writeVarint(EventTypeRegistry.UNREGISTERED);
+		AbstractEventCodec.writeString("com.example.Missing", buffer);
+		codec.decode(buffer.asByteBuffer());
+	}
+
+	@Test
+	public void shouldWriteRegisteredTypeIds()
+	{
+		EncodeBuffer named = new EncodeBuffer();
+		codec.encode(new Address("Denver"), named);
+
+		BinaryCodec compact = new BinaryCodec(new EventTypeRegistry().register(Address.class, 300));
+		EncodeBuffer tagged = new EncodeBuffer();
+		compact.encode(new Address("Denver"), tagged);
+
+		assertTrue(tagged.length() * 2 < named.length());
+		assertEquals(new Address("Denver"), compact.decode(tagged.asByteBuffer()));
+
+		// Unregistered types are still written by name.
+		EncodeBuffer order = new EncodeBuffer();
+		compact.encode(newOrder(), order);
+		assertEquals(OrderPlaced.class, compact.decode(order.asByteBuffer()).getClass());
+	}
+
+	@Test
+	public void shouldPeekTypeWithoutDecoding()
+	{
+		BinaryCodec compact = new BinaryCodec(new EventTypeRegistry().register(Address.class, 1));
+		EncodeBuffer tagged = new EncodeBuffer();
+		compact.encode(new Address("Denver"), tagged);
+		ByteBuffer bytes = tagged.asByteBuffer();
+
+		assertEquals(Address.class, compact.peekType(bytes));
+		assertEquals(0, bytes.position());
+
+		EncodeBuffer named = new EncodeBuffer();
+		compact.encode(newOrder(), named);
+		assertEquals(OrderPlaced.class, compact.peekType(named.asByteBuffer()));
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectUnregisteredTypeId()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		new BinaryCodec(new EventTypeRegistry().register(Address.class, 1)).encode(new Address("Denver"), buffer);
+		codec.decode(buffer.asByteBuffer());
+	}
+
+	@Test
+	public void shouldDecodeOnlyRegisteredTypesWhenRestricted()
+	{
+		BinaryCodec strict = new BinaryCodec(new EventTypeRegistry().register(Address.class, 1));
+		strict.setRegisteredTypesOnly(true);
+
+		// Registered classes are still accepted by name.
+		EncodeBuffer named = new EncodeBuffer();
+		codec.encode(new Address("Denver"), named);
+		assertEquals(new Address("Denver"), strict.decode(named.asByteBuffer()));
+
+		EncodeBuffer order = new EncodeBuffer();
+		codec.encode(newOrder(), order);
+
+		try
+		{
+			strict.decode(order.asByteBuffer());
+			fail("Decoded an unregistered class");
+		}
+		catch (CodecException e)
+		{
+			assertTrue(e.getMessage().contains(OrderPlaced.class.getName()));
+		}
+	}
+
+	private Object roundTrip(Object event)
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		codec.encode(event, buffer);
+		ByteBuffer bytes = buffer.asByteBuffer();
+		Object decoded = codec.decode(bytes);
+		assertEquals(0, bytes.remaining());
+		return decoded;
+	}
+
+	private OrderPlaced newOrder()
+	{
+		OrderPlaced order = new OrderPlaced();
+		order.orderId = -42L;
+		order.quantity = 3;
+		order.express = true;
+		order.discount = 0.25f;
+		order.price = 19.99d;
+		order.grade = 'B';
+		order.region = (short) -7;
+		order.priority = (byte) 5;
+		order.customer = "Acme";
+		order.status = Status.PLACED;
+		order.id = UUID.randomUUID();
+		order.placedAt = new Date();
+		order.total = new BigDecimal("59.97");
+		order.signature = new byte[] {1, 2, 3};
+		order.skus = new ArrayList<String>();
+		order.skus.add("SKU-1");
+		order.skus.add(null);
+		order.tags = new HashSet<Object>();
+		order.tags.add(Status.SHIPPED);
+		order.tags.add(12L);
+		order.attributes = new LinkedHashMap<String, Object>();
+		order.attributes.put("gift", Boolean.TRUE);
+		order.attributes.put("weight", 1.5d);
+		order.attributes.put("address", new Address("Aspen"));
+		order.shipTo = new Address("Denver");
+		order.billTo = new Address("Boulder");
+		order.version = Integer.valueOf(7);
+		return order;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	public enum Status
+	{
+		PLACED, SHIPPED
+	}
+
+	public static class Event
+	implements Serializable
+	{
+		private static final long serialVersionUID = -3329012950880404530L;
+
+		protected Integer version;
+	}
+
+	public static class OrderPlaced
+	extends Event
+	{
+		private static final long serialVersionUID = 5081893957206478164L;
+		private static final String DEFAULT = "default";
+
+		private long orderId;
+		private int quantity;
+		private boolean express;
+		private float discount;
+		private double price;
+		private char grade;
+		private short region;
+		private byte priority;
+		private String customer;
+		private String note;
+		private Status status;
+		private UUID id;
+		private Date placedAt;
+		private BigDecimal total;
+		private byte[] signature;
+		private List<String> skus;
+		private Set<Object> tags;
+		private Map<String, Object> attributes;
+		private Address shipTo;
+		private Object billTo;
+		private transient String cached = DEFAULT;
+	}
+
+	public static class Address
+	implements Serializable
+	{
+		private static final long serialVersionUID = 2620557467311225815L;
+
+		private String city;
+
+		private Address()
+		{
+			super();
+		}
+
+		public Address(String city)
+		{
+			this();
+			this.city = city;
+		}
+
+		@Override
+		public boolean equals(Object that)
+		{
+			return (that instanceof Address && city.equals(((Address) that).city));
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return city.hashCode();
+		}
+	}
+
+	public static class NoDefaultConstructor
+	{
+		private String value;
+
+		public NoDefaultConstructor(String value)
+		{
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Measures encode and decode throughput, and encoded size, of the EventCodec implementations
+ * for a typical small domain event. JacksonCodec is included when jackson-databind is on the
+ * classpath (it is an optional dependency of domain-eventing-core).
+ * <p/>
+ * Not run as part of the build. Run with, for example:
+ * <pre>
+ * java -cp ... com.strategicgains.eventing.codec.CodecBenchmark [iterations]
+ * </pre>
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class CodecBenchmark
+{
+	private static final int DEFAULT_ITERATIONS = 1_000_000;
+
+	public static void main(String[] args)
+	{
+		int iterations = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ITERATIONS);
+		Map<String, EventCodec> codecs = new LinkedHashMap<String, EventCodec>();
+		EventTypeRegistry types = new EventTypeRegistry().register(OrderPlaced.class, 1);
+		codecs.put("SerializableCodec", new SerializableCodec());
+		codecs.put("BinaryCodec", new BinaryCodec());
+		codecs.put("BinaryCodec+ids", new BinaryCodec(types));
+
+		if (isJacksonAvailable())
+		{
+			codecs.put("JacksonCodec", new JacksonCodec());
+			codecs.put("JacksonCodec+ids", new JacksonCodec(new ObjectMapper(), types));
+		}
+
+		OrderPlaced event = new OrderPlaced(UUID.randomUUID().toString(), 42L, 3, 19.99d, "Acme Widgets, Inc.", true);
+
+		// Warm up every codec before measuring any.
+		for (EventCodec codec : codecs.values())
+		{
+			run(codec, event, iterations / 10);
+		}
+
+		for (Map.Entry<String, EventCodec> entry : codecs.entrySet())
+		{
+			Result result = run(entry.getValue(), event, iterations);
+			System.out.println(String.format("%-18s size=%4d bytes  encode=%,12.0f/s  decode=%,12.0f/s",
+				entry.getKey(), result.size, result.encodesPerSecond, result.decodesPerSecond));
+		}
+	}
+
+	private static Result run(EventCodec codec, Object event, int iterations)
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < iterations; i++)
+		{
+			codec.encode(event, buffer.reset());
+		}
+
+		long encoded = System.nanoTime();
+		byte[] bytes = buffer.toByteArray();
+		long sink = 0;
+		long decodeStart = System.nanoTime();
+
+		for (int i = 0; i < iterations; i++)
+		{
+			sink += ((OrderPlaced) codec.decode(ByteBuffer.wrap(bytes))).quantity;
+		}
+
+		long decoded = System.nanoTime();
+
+		if (sink != 3L * iterations)
+		{
+			throw new IllegalStateException("Decoding failed");
+		}
+
+		Result result = new Result();
+		result.size = bytes.length;
+		result.encodesPerSecond = iterations * 1e9 / (encoded - start);
+		result.decodesPerSecond = iterations * 1e9 / (decoded - decodeStart);
+		return result;
+	}
+
+	private static boolean isJacksonAvailable()
+	{
+		try
+		{
+			Class.forName("com.fasterxml.jackson.databind.ObjectMapper");
+			return true;
+		}
+		catch (ClassNotFoundException e)
+		{
+			return false;
+		}
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class Result
+	{
+		private int size;
+		private double encodesPerSecond;
+		private double decodesPerSecond;
+	}
+
+	/**
+	 * Public fields and a no-argument constructor, so every codec can handle it.
+	 */
+	public static class OrderPlaced
+	implements Serializable
+	{
+		private static final long serialVersionUID = -8785457519183669734L;
+
+		public String id;
+		public long orderId;
+		public int quantity;
+		public double price;
+		public String customer;
+		public boolean express;
+
+		public OrderPlaced()
+		{
+			super();
+		}
+
+		public OrderPlaced(String id, long orderId, int quantity, double price, String customer, boolean express)
+		{
+			this();
+			this.id = id;
+			this.orderId = orderId;
+			this.quantity = quantity;
+			this.price = price;
+			this.customer = customer;
+			this.express = express;
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventBatcherTest
+{
+	private SerializableCodec codec = new SerializableCodec();
+	private RecordingSink sink = new RecordingSink();
+	private EventBatcher batcher;
+
+	@After
+	public void teardown()
+	{
+		if (batcher != null) batcher.shutdown();
+	}
+
+	@Test
+	public void shouldSendWhenFull()
+	{
+		batcher = new EventBatcher(new EventFrameWriter(codec), sink, 10, EventBatcher.DEFAULT_MAX_BYTES, 0L);
+
+		for (int i = 0; i < 25; i++)
+		{
+			batcher.add(Integer.valueOf(i));
+		}
+
+		assertEquals(2, sink.frames.size());
+		batcher.flush();
+		assertEquals(3, sink.frames.size());
+		assertEquals(range(25), sink.events());
+	}
+
+	@Test
+	public void shouldSendWhenBytesReached()
+	{
+		batcher = new EventBatcher(new EventFrameWriter(codec), sink, 1000, 100, 0L);
+
+		for (int i = 0; i < 10; i++)
+		{
+			batcher.add("0123456789012345678901234567890123456789");
+		}
+
+		assertEquals(3, sink.frames.size());
+	}
+
+	@Test
+	public void shouldSendAfterLinger()
+	throws Exception
+	{
+		batcher = new EventBatcher(new EventFrameWriter(codec), sink, 1000, EventBatcher.DEFAULT_MAX_BYTES, 10L);
+		batcher.add(Integer.valueOf(0));
+		batcher.add(Integer.valueOf(1));
+		Thread.sleep(100);
+		assertEquals(1, sink.frames.size());
+		assertEquals(range(2), sink.events());
+	}
+
+	@Test
+	public void shouldSendPendingOnShutdown()
+	{
+		batcher = new EventBatcher(new EventFrameWriter(codec), sink, 1000, EventBatcher.DEFAULT_MAX_BYTES, 60000L);
+		batcher.add(Integer.valueOf(0));
+		batcher.shutdown();
+		assertEquals(range(1), sink.events());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldRejectAfterShutdown()
+	{
+		batcher = new EventBatcher(new EventFrameWriter(codec), sink);
+		batcher.shutdown();
+		batcher.add(Integer.valueOf(0));
+	}
+
+	private static List<Object> range(int count)
+	{
+		List<Object> values = new ArrayList<Object>();
+
+		for (int i = 0; i < count; i++)
+		{
+			values.add(Integer.valueOf(i));
+		}
+
+		return values;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private class RecordingSink
+	implements FrameSink
+	{
+		private List<byte[]> frames = Collections.synchronizedList(new ArrayList<byte[]>());
+
+		@Override
+		public void send(byte[] frame)
+		{
+			frames.add(frame);
+		}
+
+		public List<Object> events()
+		{
+			List<Object> events = new ArrayList<Object>();
+
+			synchronized (frames)
+			{
+				for (byte[] bytes : frames)
+				{
+					EventFrame frame = EventFrame.wrap(bytes);
+
+					while (frame.hasNext())
+					{
+						events.add(codec.decode(frame.next()));
+					}
+				}
+			}
+
+			return events;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.strategicgains.eventing.codec.CodecBenchmark.OrderPlaced;
+
+/**
+ * Compares sending one event per message with sending batch frames, with and without LZ4
+ * compression: the bytes on the wire per event, the number of messages, and the throughput of
+ * framing (encode + compress) and unpacking (decompress + decode) on one thread.
+ * <p/>
+ * Not run as part of the build. Run with, for example:
+ * <pre>
+ * java -cp ... com.strategicgains.eventing.codec.EventFrameBenchmark [events]
+ * </pre>
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventFrameBenchmark
+{
+	private static final int DEFAULT_EVENTS = 1_000_000;
+	private static final String[] CUSTOMERS = {"Acme Widgets, Inc.", "Globex Corporation", "Initech", "Umbrella Corp.", "Stark Industries"};
+
+	public static void main(String[] args)
+	{
+		int count = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS);
+		EventCodec codec = new BinaryCodec(new EventTypeRegistry().register(OrderPlaced.class, 1));
+		List<Object> events = newEvents(count);
+
+		// Warm up before measuring.
+		for (int i = 0; i < 3; i++)
+		{
+			run(codec, events, 1, EventFrameWriter.NO_COMPRESSION);
+			run(codec, events, 100, EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD);
+		}
+
+		report("one per message", best(codec, events, 1, EventFrameWriter.NO_COMPRESSION), count);
+		report("batch 10", best(codec, events, 10, EventFrameWriter.NO_COMPRESSION), count);
+		report("batch 10 + lz4", best(codec, events, 10, EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD), count);
+		report("batch 100", best(codec, events, 100, EventFrameWriter.NO_COMPRESSION), count);
+		report("batch 100 + lz4", best(codec, events, 100, EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD), count);
+	}
+
+	/**
+	 * The best of several runs, to filter out GC pauses.
+	 */
+	private static Result best(EventCodec codec, List<Object> events, int batchSize, int compressionThreshold)
+	{
+		Result best = run(codec, events, batchSize, compressionThreshold);
+
+		for (int i = 0; i < 4; i++)
+		{
+			Result result = run(codec, events, batchSize, compressionThreshold);
+			best.encodesPerSecond = Math.max(best.encodesPerSecond, result.encodesPerSecond);
+			best.decodesPerSecond = Math.max(best.decodesPerSecond, result.decodesPerSecond);
+		}
+
+		return best;
+	}
+
+	private static Result run(EventCodec codec, List<Object> events, int batchSize, int compressionThreshold)
+	{
+		List<byte[]> messages = new ArrayList<byte[]>(events.size() / batchSize + 1);
+		EventFrameWriter writer = new EventFrameWriter(codec, compressionThreshold);
+		long start = System.nanoTime();
+
+		if (batchSize == 1)
+		{
+			for (Object event : events)
+			{
+				messages.add(EventFrameWriter.single(codec, event, compressionThreshold));
+			}
+		}
+		else
+		{
+			for (Object event : events)
+			{
+				writer.add(event);
+
+				if (writer.size() == batchSize)
+				{
+					messages.add(writer.finish());
+				}
+			}
+
+			if (!writer.isEmpty()) messages.add(writer.finish());
+		}
+
+		long encoded = System.nanoTime();
+		long bytes = 0L;
+		long sink = 0L;
+
+		for (byte[] message : messages)
+		{
+			bytes += message.length;
+			EventFrame frame = EventFrame.wrap(message);
+
+			while (frame.hasNext())
+			{
+				sink += ((OrderPlaced) codec.decode(frame.next())).quantity;
+			}
+		}
+
+		long decoded = System.nanoTime();
+
+		if (sink == 0L)
+		{
+			throw new IllegalStateException("Decoding failed");
+		}
+
+		Result result = new Result();
+		result.messages = messages.size();
+		result.bytes = bytes;
+		result.encodesPerSecond = events.size() * 1e9 / (encoded - start);
+		result.decodesPerSecond = events.size() * 1e9 / (decoded - encoded);
+		return result;
+	}
+
+	private static void report(String name, Result result, int count)
+	{
+		System.out.println(String.format("%-16s messages=%,9d  bytes/event=%6.1f  frame=%,12.0f/s  unpack=%,12.0f/s",
+			name, result.messages, (double) result.bytes / count, result.encodesPerSecond, result.decodesPerSecond));
+	}
+
+	private static List<Object> newEvents(int count)
+	{
+		Random random = new Random(42);
+		List<Object> events = new ArrayList<Object>(count);
+
+		for (int i = 0; i < count; i++)
+		{
+			events.add(new OrderPlaced(UUID.randomUUID().toString(), 100_000L + i, 1 + random.nextInt(10),
+				9.99d * (1 + random.nextInt(20)), CUSTOMERS[random.nextInt(CUSTOMERS.length)], random.nextBoolean()));
+		}
+
+		return events;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class Result
+	{
+		private int messages;
+		private long bytes;
+		private double encodesPerSecond;
+		private double decodesPerSecond;
+	}
+}
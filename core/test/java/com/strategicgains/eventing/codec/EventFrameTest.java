@@ -0,0 +1,235 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventFrameTest
+{
+	private BinaryCodec codec = new BinaryCodec(new EventTypeRegistry().register(Trade.class, 1));
+
+	@Test
+	public void shouldReadSingleEventFrame()
+	{
+		byte[] bytes = EventFrameWriter.single(codec, new Trade("ACME", 10), EventFrameWriter.NO_COMPRESSION);
+		EventFrame frame = EventFrame.wrap(bytes);
+
+		assertFalse(frame.isBatch());
+		assertFalse(frame.isCompressed());
+		assertEquals(new Trade("ACME", 10), codec.decode(frame.next()));
+		assertFalse(frame.hasNext());
+	}
+
+	@Test
+	public void shouldCompressLargeSingleEvent()
+	{
+		Trade trade = new Trade(repeat("ACME", 100), 10);
+		byte[] bytes = EventFrameWriter.single(codec, trade, 64);
+		EventFrame frame = EventFrame.wrap(bytes);
+
+		assertTrue(frame.isCompressed());
+		assertTrue(bytes.length < 100);
+		assertEquals(trade, codec.decode(frame.next()));
+		assertFalse(frame.hasNext());
+	}
+
+	@Test
+	public void shouldReadBatchInOrder()
+	{
+		EventFrameWriter writer = new EventFrameWriter(codec, EventFrameWriter.NO_COMPRESSION);
+
+		for (int i = 0; i < 50; i++)
+		{
+			writer.add(new Trade("T" + i, i));
+		}
+
+		assertEquals(50, writer.size());
+		EventFrame frame = EventFrame.wrap(writer.finish());
+		assertTrue(frame.isBatch());
+		assertFalse(frame.isCompressed());
+		assertEquals(50, decodeAll(frame).size());
+		assertTrue(writer.isEmpty());
+		assertNull(writer.finish());
+	}
+
+	@Test
+	public void shouldCompressBatchAboveThreshold()
+	{
+		EventFrameWriter writer = new EventFrameWriter(codec, 256);
+		List<Trade> trades = new ArrayList<Trade>();
+
+		for (int i = 0; i < 100; i++)
+		{
+			Trade trade = new Trade("ACME Widgets", i % 7);
+			trades.add(trade);
+			writer.add(trade);
+		}
+
+		int uncompressed = writer.payloadLength();
+		byte[] bytes = writer.finish();
+		EventFrame frame = EventFrame.wrap(bytes);
+
+		assertTrue(frame.isCompressed());
+		assertTrue(bytes.length + " of " + uncompressed, bytes.length < uncompressed / 4);
+		assertEquals(trades, decodeAll(frame));
+	}
+
+	@Test
+	public void shouldNotCompressBelowThreshold()
+	{
+		EventFrameWriter writer = new EventFrameWriter(codec);
+		writer.add(new Trade("ACME", 1));
+		writer.add(new Trade("ACME", 2));
+		assertFalse(EventFrame.wrap(writer.finish()).isCompressed());
+	}
+
+	@Test
+	public void shouldSkipWithoutDecoding()
+	{
+		EventFrameWriter writer = new EventFrameWriter(codec, 0);
+		writer.add(new Trade("A", 1));
+		writer.add(new Trade("B", 2));
+		writer.add(new Trade("C", 3));
+		EventFrame frame = EventFrame.wrap(writer.finish());
+
+		frame.skip();
+		frame.skip();
+		assertEquals(new Trade("C", 3), codec.decode(frame.next()));
+		assertFalse(frame.hasNext());
+	}
+
+	@Test
+	public void shouldResetForEachMessage()
+	{
+		EventFrameWriter writer = new EventFrameWriter(codec, 64);
+		List<byte[]> messages = new ArrayList<byte[]>();
+
+		for (int i = 0; i < 3; i++)
+		{
+			for (int j = 0; j < 20 * (3 - i); j++)
+			{
+				writer.add(new Trade("ACME", i));
+			}
+
+			messages.add(writer.finish());
+		}
+
+		messages.add(EventFrameWriter.single(codec, new Trade("ACME", 3), EventFrameWriter.NO_COMPRESSION));
+		EventFrame frame = new EventFrame();
+
+		for (int i = 0; i < 3; i++)
+		{
+			byte[] message = messages.get(i);
+			assertTrue(frame.reset(message, 0, message.length).isCompressed());
+			List<Object> events = decodeAll(frame);
+			assertEquals(20 * (3 - i), events.size());
+			assertEquals(new Trade("ACME", i), events.get(events.size() - 1));
+		}
+
+		byte[] single = messages.get(3);
+		assertFalse(frame.reset(single, 0, single.length).isBatch());
+		assertEquals(new Trade("ACME", 3), codec.decode(frame.next()));
+		assertFalse(frame.hasNext());
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectUnknownVersion()
+	{
+		EventFrame.wrap(new byte[] {0x20, 1, 2, 3});
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectCorruptBatch()
+	{
+		EventFrameWriter writer = new EventFrameWriter(codec, EventFrameWriter.NO_COMPRESSION);
+		writer.add(new Trade("ACME", 1));
+		byte[] bytes = writer.finish();
+		bytes[1] = 0x7F;
+		EventFrame.wrap(bytes).next();
+	}
+
+	private List<Object> decodeAll(EventFrame frame)
+	{
+		List<Object> events = new ArrayList<Object>();
+
+		while (frame.hasNext())
+		{
+			events.add(codec.decode(frame.next()));
+		}
+
+		return events;
+	}
+
+	private static String repeat(String s, int count)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < count; i++)
+		{
+			sb.append(s);
+		}
+
+		return sb.toString();
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	public static class Trade
+	{
+		private String symbol;
+		private int quantity;
+
+		public Trade()
+		{
+			super();
+		}
+
+		public Trade(String symbol, int quantity)
+		{
+			this();
+			this.symbol = symbol;
+			this.quantity = quantity;
+		}
+
+		@Override
+		public boolean equals(Object that)
+		{
+			if (!(that instanceof Trade)) return false;
+
+			Trade trade = (Trade) that;
+			return (symbol.equals(trade.symbol) && quantity == trade.quantity);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return symbol.hashCode() * 31 + quantity;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventTypeRegistryTest
+{
+	private EventTypeRegistry registry = new EventTypeRegistry()
+		.register(String.class, 1)
+		.register(Long.class, 1000);
+
+	@Test
+	public void shouldMapBothWays()
+	{
+		assertEquals(1, registry.idOf(String.class));
+		assertEquals(1000, registry.idOf(Long.class));
+		assertEquals(EventTypeRegistry.UNREGISTERED, registry.idOf(Integer.class));
+		assertSame(String.class, registry.typeOf(1));
+		assertSame(Long.class, registry.typeOf(1000));
+		assertNull(registry.typeOf(2));
+		assertNull(registry.typeOf(EventTypeRegistry.UNREGISTERED));
+		assertNull(registry.typeOf(EventTypeRegistry.MAX_ID + 1));
+		assertEquals(2, registry.size());
+	}
+
+	@Test
+	public void shouldAllowReregistration()
+	{
+		registry.register(String.class, 1);
+		assertEquals(2, registry.size());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldRejectDuplicateId()
+	{
+		registry.register(Integer.class, 1);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldRejectSecondId()
+	{
+		registry.register(String.class, 2);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void shouldRejectUnregisteredId()
+	{
+		registry.register(Integer.class, EventTypeRegistry.UNREGISTERED);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void shouldRejectLargeId()
+	{
+		registry.register(Integer.class, EventTypeRegistry.MAX_ID + 1);
+	}
+
+	@Test
+	public void shouldConfigureCodecs()
+	{
+		EventCodec codec = registry.configure(null);
+		assertTrue(codec instanceof BinaryCodec);
+		assertSame(registry, ((BinaryCodec) codec).getTypeRegistry());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void shouldRejectCodecsWithoutTypes()
+	{
+		registry.configure(new SerializableCodec());
+	}
+}
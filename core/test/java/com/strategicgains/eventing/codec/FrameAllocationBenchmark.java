@@ -0,0 +1,190 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import com.strategicgains.eventing.codec.CodecBenchmark.OrderPlaced;
+
+/**
+ * Measures the bytes allocated per event on the framing paths the distributed transports use:
+ * encoding single-event and batch frames (with and without compression) and unpacking frames,
+ * either wrapping each message in a new EventFrame or resetting one reused EventFrame. The
+ * frames themselves are counted, as a transport must hand each one to its client library.
+ * <p/>
+ * Uses the HotSpot per-thread allocation counter (com.sun.management.ThreadMXBean). Not run
+ * as part of the build. Run with, for example:
+ * <pre>
+ * java -cp ... com.strategicgains.eventing.codec.FrameAllocationBenchmark [events]
+ * </pre>
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class FrameAllocationBenchmark
+{
+	private static final int DEFAULT_EVENTS = 200_000;
+	private static final String[] CUSTOMERS = {"Acme Widgets, Inc.", "Globex Corporation", "Initech", "Umbrella Corp.", "Stark Industries"};
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	public static void main(String[] args)
+	{
+		int count = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS);
+		EventCodec codec = new BinaryCodec(new EventTypeRegistry().register(OrderPlaced.class, 1));
+		List<Object> events = newEvents(count);
+		List<byte[]> singles = encodeSingles(codec, events, EventFrameWriter.NO_COMPRESSION);
+		List<byte[]> batches = encodeBatches(codec, events, 100, EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD);
+
+		// Warm up, so JIT escape analysis has done its work before measuring.
+		for (int i = 0; i < 5; i++)
+		{
+			encodeSingles(codec, events, EventFrameWriter.NO_COMPRESSION);
+			encodeSingles(codec, events, 0);
+			encodeBatches(codec, events, 100, EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD);
+			unpackWrapped(codec, singles);
+			unpackWrapped(codec, batches);
+			unpackReused(codec, singles);
+			unpackReused(codec, batches);
+		}
+
+		long before = allocated();
+		encodeSingles(codec, events, EventFrameWriter.NO_COMPRESSION);
+		report("encode single", allocated() - before, count);
+
+		before = allocated();
+		encodeSingles(codec, events, 0);
+		report("encode single + lz4", allocated() - before, count);
+
+		before = allocated();
+		encodeBatches(codec, events, 100, EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD);
+		report("encode batch 100 + lz4", allocated() - before, count);
+
+		before = allocated();
+		unpackWrapped(codec, singles);
+		report("unpack single, wrap", allocated() - before, count);
+
+		before = allocated();
+		unpackReused(codec, singles);
+		report("unpack single, reuse", allocated() - before, count);
+
+		before = allocated();
+		unpackWrapped(codec, batches);
+		report("unpack batch, wrap", allocated() - before, count);
+
+		before = allocated();
+		unpackReused(codec, batches);
+		report("unpack batch, reuse", allocated() - before, count);
+	}
+
+	private static List<byte[]> encodeSingles(EventCodec codec, List<Object> events, int compressionThreshold)
+	{
+		List<byte[]> messages = new ArrayList<byte[]>(events.size());
+
+		for (Object event : events)
+		{
+			messages.add(EventFrameWriter.single(codec, event, compressionThreshold));
+		}
+
+		return messages;
+	}
+
+	private static List<byte[]> encodeBatches(EventCodec codec, List<Object> events, int batchSize, int compressionThreshold)
+	{
+		List<byte[]> messages = new ArrayList<byte[]>(events.size() / batchSize + 1);
+		EventFrameWriter writer = new EventFrameWriter(codec, compressionThreshold);
+
+		for (Object event : events)
+		{
+			writer.add(event);
+
+			if (writer.size() == batchSize)
+			{
+				messages.add(writer.finish());
+			}
+		}
+
+		if (!writer.isEmpty()) messages.add(writer.finish());
+
+		return messages;
+	}
+
+	/**
+	 * Decodes only the event type, as a receiver does to discard unwanted events, so the
+	 * decoded events' own allocation doesn't swamp the framing overhead.
+	 */
+	private static long unpackWrapped(EventCodec codec, List<byte[]> messages)
+	{
+		long sink = 0L;
+
+		for (byte[] message : messages)
+		{
+			EventFrame frame = EventFrame.wrap(message);
+
+			while (frame.hasNext())
+			{
+				sink += codec.peekType(frame.next()).hashCode();
+			}
+		}
+
+		return sink;
+	}
+
+	private static long unpackReused(EventCodec codec, List<byte[]> messages)
+	{
+		long sink = 0L;
+		EventFrame frame = new EventFrame();
+
+		for (byte[] message : messages)
+		{
+			frame.reset(message, 0, message.length);
+
+			while (frame.hasNext())
+			{
+				sink += codec.peekType(frame.next()).hashCode();
+			}
+		}
+
+		return sink;
+	}
+
+	private static long allocated()
+	{
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static void report(String name, long bytes, int count)
+	{
+		System.out.println(String.format("%-24s allocated/event=%8.1f bytes", name, (double) bytes / count));
+	}
+
+	private static List<Object> newEvents(int count)
+	{
+		Random random = new Random(42);
+		List<Object> events = new ArrayList<Object>(count);
+
+		for (int i = 0; i < count; i++)
+		{
+			events.add(new OrderPlaced(UUID.randomUUID().toString(), 100_000L + i, 1 + random.nextInt(10),
+				9.99d * (1 + random.nextInt(20)), CUSTOMERS[random.nextInt(CUSTOMERS.length)], random.nextBoolean()));
+		}
+
+		return events;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class Lz4Test
+{
+	@Test
+	public void shouldRoundTripEmptyAndTinyInputs()
+	{
+		for (int length = 0; length < 20; length++)
+		{
+			byte[] source = new byte[length];
+			Arrays.fill(source, (byte) 'a');
+			assertArrayEquals(source, roundTrip(source));
+		}
+	}
+
+	@Test
+	public void shouldCompressRepetitiveInput()
+	{
+		StringBuilder text = new StringBuilder();
+
+		for (int i = 0; i < 200; i++)
+		{
+			text.append("{\"type\":\"OrderPlaced\",\"customer\":\"Acme Widgets\",\"quantity\":").append(i).append('}');
+		}
+
+		byte[] source = text.toString().getBytes();
+		byte[] compressed = new byte[Lz4.maxCompressedLength(source.length)];
+		int length = Lz4.compress(source, 0, source.length, compressed, 0);
+
+		assertTrue("compressed to " + length + " of " + source.length, length < source.length / 5);
+		assertArrayEquals(source, roundTrip(source));
+	}
+
+	@Test
+	public void shouldRoundTripLongRunsAndLiterals()
+	{
+		// Runs and literal spans longer than 15 + 255 exercise the extended length bytes.
+		byte[] source = new byte[5000];
+		Random random = new Random(7);
+		random.nextBytes(source);
+		Arrays.fill(source, 1000, 3000, (byte) 0x55);
+		assertArrayEquals(source, roundTrip(source));
+	}
+
+	@Test
+	public void shouldRoundTripRandomInputs()
+	{
+		Random random = new Random(42);
+
+		for (int i = 0; i < 200; i++)
+		{
+			byte[] source = new byte[random.nextInt(3000)];
+
+			// A small alphabet gives a mix of matches and literals.
+			for (int j = 0; j < source.length; j++)
+			{
+				source[j] = (byte) ('a' + random.nextInt(i % 5 + 2));
+			}
+
+			assertArrayEquals(source, roundTrip(source));
+		}
+	}
+
+	@Test
+	public void shouldHonorOffsets()
+	{
+		byte[] source = "xxxxabcabcabcabcabcabcabcabcabcabcabcabcyyyy".getBytes();
+		byte[] compressed = new byte[Lz4.maxCompressedLength(source.length) + 3];
+		int length = Lz4.compress(source, 4, source.length - 8, compressed, 3);
+		byte[] decompressed = new byte[source.length];
+		int decompressedLength = Lz4.decompress(compressed, 3, length, decompressed, 2, source.length - 8);
+
+		assertEquals(source.length - 8, decompressedLength);
+		assertArrayEquals(Arrays.copyOfRange(source, 4, source.length - 4), Arrays.copyOfRange(decompressed, 2, 2 + decompressedLength));
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectTruncatedBlock()
+	{
+		byte[] source = new byte[1000];
+		byte[] compressed = new byte[Lz4.maxCompressedLength(source.length)];
+		int length = Lz4.compress(source, 0, source.length, compressed, 0);
+		Lz4.decompress(compressed, 0, length - 3, new byte[1000], 0, 1000);
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectOverrun()
+	{
+		byte[] source = new byte[1000];
+		byte[] compressed = new byte[Lz4.maxCompressedLength(source.length)];
+		int length = Lz4.compress(source, 0, source.length, compressed, 0);
+		Lz4.decompress(compressed, 0, length, new byte[999], 0, 999);
+	}
+
+	private byte[] roundTrip(byte[] source)
+	{
+		byte[] compressed = new byte[Lz4.maxCompressedLength(source.length)];
+		int length = Lz4.compress(source, 0, source.length, compressed, 0);
+		byte[] decompressed = new byte[source.length];
+		assertEquals(source.length, Lz4.decompress(compressed, 0, length, decompressed, 0, source.length));
+		return decompressed;
+	}
+}
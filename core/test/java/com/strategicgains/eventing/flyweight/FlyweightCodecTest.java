@@ -0,0 +1,290 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.flyweight;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.strategicgains.eventing.codec.CodecException;
+import com.strategicgains.eventing.codec.EncodeBuffer;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class FlyweightCodecTest
+{
+	// Exercises 2-, 3- and 4-byte UTF-8 sequences.
+	private static final String CUSTOMER = "Zo\u00eb \u65e5\u672c \ud83d\ude00";
+
+	private FlyweightCodec codec = new FlyweightCodec().register(new OrderPlaced());
+
+	@Test
+	public void shouldReadFieldsInPlace()
+	{
+		OrderPlaced order = newOrder();
+		assertEquals(42L, order.orderId());
+		assertEquals(3, order.quantity());
+		assertTrue(order.express());
+		assertEquals(CUSTOMER, order.customer());
+		assertEquals("SKU-1", order.sku());
+		assertEquals(OrderPlaced.FIXED_LENGTH + 4 + order.customerLength() + 4 + 5, order.encodedLength());
+
+		byte[] bytes = new byte[order.customerLength()];
+		order.customerBytes(bytes, 0);
+		assertEquals(CUSTOMER, new String(bytes, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void shouldRoundTripFlyweights()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		codec.encode(newOrder(), buffer);
+		Object decoded = codec.decode(buffer.asByteBuffer());
+
+		assertTrue(decoded instanceof OrderPlaced);
+		OrderPlaced order = (OrderPlaced) decoded;
+		assertEquals(42L, order.orderId());
+		assertEquals(3, order.quantity());
+		assertEquals("SKU-1", order.sku());
+	}
+
+	@Test
+	public void shouldNotShareDecodeBuffer()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		codec.encode(newOrder(), buffer);
+		ByteBuffer bytes = buffer.asByteBuffer();
+		OrderPlaced order = (OrderPlaced) codec.decode(bytes);
+
+		buffer.reset();
+		codec.encode(new OrderPlaced().allocate(64).orderId(7L).customer("x").sku("y"), buffer);
+		assertEquals(42L, order.orderId());
+	}
+
+	@Test
+	public void shouldFallBackForOtherEvents()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		codec.encode("not a flyweight", buffer);
+		assertEquals("not a flyweight", codec.decode(buffer.asByteBuffer()));
+	}
+
+	@Test
+	public void shouldPeekTypeWithoutDecoding()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		codec.encode(newOrder(), buffer);
+		ByteBuffer bytes = buffer.asByteBuffer();
+
+		assertEquals(OrderPlaced.class, codec.peekType(bytes));
+		assertEquals(0, bytes.position());
+
+		// Java Serialization can't tell without decoding.
+		buffer.reset();
+		codec.encode("not a flyweight", buffer);
+		assertNull(codec.peekType(buffer.asByteBuffer()));
+	}
+
+	@Test(expected=CodecException.class)
+	public void shouldRejectUnregisteredType()
+	{
+		EncodeBuffer buffer = new EncodeBuffer();
+		codec.encode(newOrder(), buffer);
+		new FlyweightCodec().decode(buffer.asByteBuffer());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldRejectDuplicateTypeId()
+	{
+		codec.register(new Flyweight()
+		{
+			@Override
+			public int typeId()
+			{
+				return OrderPlaced.TYPE_ID;
+			}
+
+			@Override
+			public int fixedLength()
+			{
+				return 0;
+			}
+
+			@Override
+			public Flyweight newInstance()
+			{
+				return null;
+			}
+		});
+	}
+
+	@Test
+	public void shouldSerializeAsEncodedBytes()
+	throws Exception
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(newOrder());
+		out.close();
+
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		OrderPlaced order = (OrderPlaced) in.readObject();
+		assertEquals(42L, order.orderId());
+		assertEquals(CUSTOMER, order.customer());
+		assertEquals("SKU-1", order.sku());
+	}
+
+	private OrderPlaced newOrder()
+	{
+		// Strings are appended in schema order, fixed fields in any order.
+		return new OrderPlaced()
+			.allocate(128)
+			.express(true)
+			.orderId(42L)
+			.quantity(3)
+			.customer(CUSTOMER)
+			.sku("SKU-1");
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * Equivalent to the class the maven plugin generates for:
+	 * <pre>
+	 * event OrderPlaced 7
+	 *     int64 orderId
+	 *     int32 quantity
+	 *     bool express
+	 *     string customer
+	 *     string sku
+	 * end
+	 * </pre>
+	 */
+	public static class OrderPlaced
+	extends Flyweight
+	{
+		public static final int TYPE_ID = 7;
+		public static final int FIXED_LENGTH = 13;
+
+		private static final int ORDER_ID_OFFSET = 0;
+		private static final int QUANTITY_OFFSET = 8;
+		private static final int EXPRESS_OFFSET = 12;
+		private static final int CUSTOMER_INDEX = 0;
+		private static final int SKU_INDEX = 1;
+
+		@Override
+		public int typeId()
+		{
+			return TYPE_ID;
+		}
+
+		@Override
+		public int fixedLength()
+		{
+			return FIXED_LENGTH;
+		}
+
+		@Override
+		public OrderPlaced newInstance()
+		{
+			return new OrderPlaced();
+		}
+
+		@Override
+		public OrderPlaced allocate(int capacity)
+		{
+			super.allocate(capacity);
+			return this;
+		}
+
+		public long orderId()
+		{
+			return buffer.getLong(offset + ORDER_ID_OFFSET);
+		}
+
+		public OrderPlaced orderId(long value)
+		{
+			buffer.putLong(offset + ORDER_ID_OFFSET, value);
+			return this;
+		}
+
+		public int quantity()
+		{
+			return buffer.getInt(offset + QUANTITY_OFFSET);
+		}
+
+		public OrderPlaced quantity(int value)
+		{
+			buffer.putInt(offset + QUANTITY_OFFSET, value);
+			return this;
+		}
+
+		public boolean express()
+		{
+			return buffer.get(offset + EXPRESS_OFFSET) != 0;
+		}
+
+		public OrderPlaced express(boolean value)
+		{
+			buffer.put(offset + EXPRESS_OFFSET, (byte) (value ? 1 : 0));
+			return this;
+		}
+
+		public String customer()
+		{
+			return string(CUSTOMER_INDEX);
+		}
+
+		public int customerLength()
+		{
+			return stringLength(CUSTOMER_INDEX);
+		}
+
+		public int customerBytes(byte[] destination, int destinationOffset)
+		{
+			return stringBytes(CUSTOMER_INDEX, destination, destinationOffset);
+		}
+
+		public OrderPlaced customer(CharSequence value)
+		{
+			appendString(value);
+			return this;
+		}
+
+		public String sku()
+		{
+			return string(SKU_INDEX);
+		}
+
+		public OrderPlaced sku(CharSequence value)
+		{
+			appendString(value);
+			return this;
+		}
+	}
+}
@@ -16,11 +16,16 @@
 package com.strategicgains.eventing.local;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.strategicgains.eventing.EventBus;
+import com.strategicgains.eventing.EventCapacity;
 import com.strategicgains.eventing.EventHandler;
 
 /**
@@ -143,6 +148,50 @@ public class LocalEventBusBuilderTest
 		assertEquals(5, longHandler.getCallCount());
 	}
 
+	@Test
+	public void shouldTryPublishWithCapacity()
+	throws Exception
+	{
+		eventBus.shutdown();
+		eventBus = new LocalEventBusBuilder()
+			.subscribe(handler)
+			.subscribe(ignoredHandler)
+			.subscribe(longHandler)
+			.maxPendingEvents(1000)
+			.maxPendingBytes(1024 * 1024)
+			.build();
+
+		assertTrue(eventBus.tryPublish(new HandledEvent()));
+		assertTrue(eventBus.tryPublish(new IgnoredEvent()));
+		Thread.sleep(150);
+		assertEquals(1, handler.getCallCount());
+		assertEquals(1, ignoredHandler.getCallCount());
+		assertEquals(2L, eventBus.getMetrics().get(EventBus.PUBLISHED_METRIC));
+		assertEquals(0L, eventBus.getMetrics().get(EventBus.REJECTED_METRIC));
+		assertEquals(0L, eventBus.getMetrics().get(EventCapacity.PENDING_EVENTS_METRIC));
+	}
+
+	@Test
+	public void shouldReleaseCapacityOfDiscardedEvents()
+	throws Exception
+	{
+		EventCapacity capacity = new EventCapacity(1000);
+		LocalEventTransport transport = new LocalEventTransport(Collections.<EventHandler>singletonList(handler), false, 1000L, capacity);
+		Thread.sleep(50);
+
+		// Holding the transport keeps its waiting monitor from taking the events.
+		synchronized (transport)
+		{
+			transport.publish(new HandledEvent());
+			transport.publish(new HandledEvent());
+			assertEquals(2L, capacity.getPendingEvents());
+			transport.shutdown();
+		}
+
+		assertEquals(0L, capacity.getPendingEvents());
+		assertEquals(0, handler.getCallCount());
+	}
+
 	
 	// SECTION: INNER CLASSES
 
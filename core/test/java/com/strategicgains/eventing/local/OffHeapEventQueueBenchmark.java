@@ -0,0 +1,171 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.local;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.codec.EventCodec;
+
+/**
+ * Compares GC activity while a large backlog of small events sits in the local queue:
+ * the default on-heap ConcurrentLinkedQueue versus OffHeapEventQueue. While the backlog
+ * is held, the benchmark allocates short-lived garbage (as an application would), which
+ * forces collections that have to trace (or copy) the on-heap backlog.
+ * <p/>
+ * Not run as part of the build. Run with, for example:
+ * <pre>
+ * java -Xmx2g -cp ... com.strategicgains.eventing.local.OffHeapEventQueueBenchmark [events]
+ * </pre>
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class OffHeapEventQueueBenchmark
+{
+	private static final int DEFAULT_EVENTS = 5_000_000;
+	private static final int GARBAGE_ROUNDS = 200;
+
+	public static void main(String[] args)
+	{
+		int events = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_EVENTS);
+
+		// Warm up both paths.
+		run("warm-up on-heap", new ConcurrentLinkedQueue<Object>(), events / 10);
+		run("warm-up off-heap", new OffHeapEventQueue(new TelemetryCodec()), events / 10);
+
+		run("ConcurrentLinkedQueue", new ConcurrentLinkedQueue<Object>(), events);
+		run("OffHeapEventQueue", new OffHeapEventQueue(new TelemetryCodec()), events);
+	}
+
+	private static void run(String name, Queue<Object> queue, int events)
+	{
+		System.gc();
+		GcSnapshot before = GcSnapshot.take();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < events; i++)
+		{
+			queue.offer(new TelemetryEvent(i, System.nanoTime()));
+		}
+
+		long filled = System.nanoTime();
+		GcSnapshot afterFill = GcSnapshot.take();
+		long sink = churn();
+		GcSnapshot afterChurn = GcSnapshot.take();
+		long drainStart = System.nanoTime();
+		Object event;
+
+		while ((event = queue.poll()) != null)
+		{
+			sink += ((TelemetryEvent) event).id;
+		}
+
+		long drained = System.nanoTime();
+		GcSnapshot afterDrain = GcSnapshot.take();
+
+		System.out.println(String.format("%-24s events=%,d fill=%,dms drain=%,dms (checksum %d)",
+			name, events, (filled - start) / 1_000_000, (drained - drainStart) / 1_000_000, sink));
+		System.out.println(String.format("%-24s   GC during fill:  %s", "", afterFill.minus(before)));
+		System.out.println(String.format("%-24s   GC during churn: %s", "", afterChurn.minus(afterFill)));
+		System.out.println(String.format("%-24s   GC during drain: %s", "", afterDrain.minus(afterChurn)));
+	}
+
+	/**
+	 * Allocate short-lived garbage while the backlog is held.
+	 */
+	private static long churn()
+	{
+		long sink = 0;
+
+		for (int round = 0; round < GARBAGE_ROUNDS; round++)
+		{
+			List<byte[]> garbage = new ArrayList<byte[]>();
+
+			for (int i = 0; i < 1000; i++)
+			{
+				garbage.add(new byte[1024]);
+			}
+
+			sink += garbage.size();
+		}
+
+		return sink;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class GcSnapshot
+	{
+		private long count;
+		private long millis;
+
+		public static GcSnapshot take()
+		{
+			GcSnapshot snapshot = new GcSnapshot();
+
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			{
+				snapshot.count += Math.max(0L, gc.getCollectionCount());
+				snapshot.millis += Math.max(0L, gc.getCollectionTime());
+			}
+
+			return snapshot;
+		}
+
+		public String minus(GcSnapshot earlier)
+		{
+			return String.format("%,d collections, %,dms total", count - earlier.count, millis - earlier.millis);
+		}
+	}
+
+	private static class TelemetryEvent
+	{
+		private long id;
+		private long timestamp;
+
+		public TelemetryEvent(long id, long timestamp)
+		{
+			this.id = id;
+			this.timestamp = timestamp;
+		}
+	}
+
+	private static class TelemetryCodec
+	implements EventCodec
+	{
+		@Override
+		public void encode(Object event, EncodeBuffer buffer)
+		{
+			TelemetryEvent telemetry = (TelemetryEvent) event;
+			buffer.writeLong(telemetry.id);
+			buffer.writeLong(telemetry.timestamp);
+		}
+
+		@Override
+		public Object decode(ByteBuffer bytes)
+		{
+			return new TelemetryEvent(bytes.getLong(), bytes.getLong());
+		}
+	}
+}
@@ -0,0 +1,228 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.codec.SerializableCodec;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class OffHeapEventQueueTest
+{
+	@Test
+	public void shouldPreserveOrderAcrossSlabs()
+	{
+		OffHeapEventQueue queue = new OffHeapEventQueue(new SerializableCodec(), 1024);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			queue.offer(new SequencedEvent(i, "payload"));
+		}
+
+		assertEquals(1000, queue.size());
+		assertTrue(queue.getAllocatedBytes() > 1024);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			SequencedEvent event = (SequencedEvent) queue.poll();
+			assertEquals(i, event.sequence);
+			assertEquals("payload", event.payload);
+		}
+
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void shouldPeekAndIterateWithoutConsuming()
+	{
+		OffHeapEventQueue queue = new OffHeapEventQueue(new SerializableCodec(), 1024);
+		assertNull(queue.peek());
+
+		for (int i = 0; i < 100; i++)
+		{
+			queue.offer(new SequencedEvent(i, "payload"));
+		}
+
+		// Leave the head part-way through a slab.
+		for (int i = 0; i < 30; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.peek()).sequence);
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		int expected = 30;
+
+		for (Object event : queue)
+		{
+			assertEquals(expected++, ((SequencedEvent) event).sequence);
+		}
+
+		assertEquals(100, expected);
+		assertEquals(70, queue.size());
+		assertEquals(30, ((SequencedEvent) queue.peek()).sequence);
+	}
+
+	@Test
+	public void shouldHoldEventsLargerThanSlab()
+	{
+		OffHeapEventQueue queue = new OffHeapEventQueue(new SerializableCodec(), 256);
+		StringBuilder large = new StringBuilder();
+
+		for (int i = 0; i < 1000; i++)
+		{
+			large.append('x');
+		}
+
+		queue.offer(new SequencedEvent(0, "small"));
+		queue.offer(new SequencedEvent(1, large.toString()));
+		queue.offer(new SequencedEvent(2, "small"));
+
+		assertEquals("small", ((SequencedEvent) queue.poll()).payload);
+		assertEquals(large.toString(), ((SequencedEvent) queue.poll()).payload);
+		assertEquals("small", ((SequencedEvent) queue.poll()).payload);
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void shouldReuseSlabsWhenDrained()
+	{
+		OffHeapEventQueue queue = new OffHeapEventQueue(new SerializableCodec(), 1024);
+
+		for (int round = 0; round < 10; round++)
+		{
+			for (int i = 0; i < 100; i++)
+			{
+				queue.offer(new SequencedEvent(i, "payload"));
+			}
+
+			for (int i = 0; i < 100; i++)
+			{
+				assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+			}
+		}
+
+		// At most the free-slab limit remains allocated.
+		assertTrue(queue.getAllocatedBytes() <= 4 * 1024);
+	}
+
+	@Test
+	public void shouldClear()
+	{
+		OffHeapEventQueue queue = new OffHeapEventQueue(new SerializableCodec(), 1024);
+		queue.offer(new SequencedEvent(0, "payload"));
+		queue.offer(new SequencedEvent(1, "payload"));
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertNull(queue.poll());
+		queue.offer(new SequencedEvent(2, "payload"));
+		assertEquals(2, ((SequencedEvent) queue.poll()).sequence);
+	}
+
+	@Test
+	public void shouldDeliverOffHeapEventsOnBus()
+	throws Exception
+	{
+		CountingHandler handler = new CountingHandler();
+		LocalEventBus bus = new LocalEventBusBuilder()
+			.subscribe(handler)
+			.offHeap(4096)
+			.build();
+
+		try
+		{
+			for (int i = 0; i < 50; i++)
+			{
+				bus.publish(new SequencedEvent(i, "payload"));
+			}
+
+			Thread.sleep(300);
+			assertEquals(50, handler.getCallCount());
+		}
+		finally
+		{
+			bus.shutdown();
+		}
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldNotAllowOffHeapAndSpill()
+	{
+		new LocalEventBusBuilder()
+			.subscribe(new CountingHandler())
+			.offHeap()
+			.spillToDisk(null, 1024)
+			.build();
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class SequencedEvent
+	implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private int sequence;
+		private String payload;
+
+		public SequencedEvent(int sequence, String payload)
+		{
+			this.sequence = sequence;
+			this.payload = payload;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "SequencedEvent " + sequence;
+		}
+	}
+
+	private static class CountingHandler
+	implements EventHandler
+	{
+		private AtomicInteger callCount = new AtomicInteger(0);
+
+		@Override
+		public void handle(Object event)
+		{
+			callCount.incrementAndGet();
+		}
+
+		public int getCallCount()
+		{
+			return callCount.get();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return (SequencedEvent.class.isAssignableFrom(eventClass));
+		}
+	}
+}
@@ -0,0 +1,333 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.local;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strategicgains.eventing.EventCapacity;
+import com.strategicgains.eventing.EventHandler;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class SpillingEventQueueTest
+{
+	private File directory;
+	private SpillingEventQueue queue;
+
+	@Before
+	public void setup()
+	{
+		directory = new File(System.getProperty("java.io.tmpdir"), "spilling-event-queue-test");
+		directory.mkdirs();
+		queue = new SpillingEventQueue(directory, 10 * EventCapacity.DEFAULT_EVENT_SIZE, null);
+	}
+
+	@After
+	public void teardown()
+	{
+		queue.clear();
+		directory.delete();
+	}
+
+	@Test
+	public void shouldPreserveOrderAcrossSpill()
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		assertEquals(100, queue.size());
+		assertEquals(90, queue.getSpilledCount());
+		assertEquals(10 * EventCapacity.DEFAULT_EVENT_SIZE, queue.getMemoryBytes());
+
+		for (int i = 0; i < 100; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+		assertEquals(0, spillFileCount());
+	}
+
+	@Test
+	public void shouldKeepSpillingUntilDrained()
+	{
+		for (int i = 0; i < 20; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		// Consume the in-memory head; new events must still queue behind the spilled ones.
+		for (int i = 0; i < 10; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		for (int i = 20; i < 25; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		assertEquals(0L, queue.getMemoryBytes());
+
+		for (int i = 10; i < 25; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		assertTrue(queue.isEmpty());
+
+		// Drained, so back to memory.
+		queue.offer(new SequencedEvent(25));
+		assertEquals(0L, queue.getSpilledCount());
+		assertEquals(EventCapacity.DEFAULT_EVENT_SIZE, queue.getMemoryBytes());
+	}
+
+	@Test
+	public void shouldPeekAndIterateAcrossSpill()
+	{
+		for (int i = 0; i < 20; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		for (int i = 0; i < 12; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.peek()).sequence);
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		// Read ahead from disk; newer events still queue behind it.
+		assertEquals(12, ((SequencedEvent) queue.peek()).sequence);
+		queue.offer(new SequencedEvent(20));
+		assertEquals(9, queue.size());
+
+		int expected = 12;
+
+		for (Object event : queue)
+		{
+			assertEquals(expected++, ((SequencedEvent) event).sequence);
+		}
+
+		assertEquals(21, expected);
+
+		for (int i = 12; i < 21; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		assertNull(queue.peek());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void shouldDeleteSpillFileOnClear()
+	{
+		for (int i = 0; i < 20; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		assertEquals(1, spillFileCount());
+		queue.clear();
+		assertEquals(0, spillFileCount());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void shouldDeliverSpilledEventsOnBus()
+	throws Exception
+	{
+		CountingHandler handler = new CountingHandler();
+		LocalEventBus bus = new LocalEventBusBuilder()
+			.subscribe(handler)
+			.spillToDisk(directory, 4 * EventCapacity.DEFAULT_EVENT_SIZE)
+			.build();
+
+		try
+		{
+			for (int i = 0; i < 50; i++)
+			{
+				bus.publish(new SequencedEvent(i));
+			}
+
+			Thread.sleep(300);
+			assertEquals(50, handler.getCallCount());
+		}
+		finally
+		{
+			bus.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldRefuseEventThatCannotBeSpilled()
+	{
+		for (int i = 0; i < 15; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		try
+		{
+			queue.offer(new UnserializableEvent());
+			fail("Expected the event to be refused");
+		}
+		catch (RuntimeException e)
+		{
+			// Expected.
+		}
+
+		for (int i = 15; i < 20; i++)
+		{
+			queue.offer(new SequencedEvent(i));
+		}
+
+		assertEquals(20, queue.size());
+
+		for (int i = 0; i < 20; i++)
+		{
+			assertEquals(i, ((SequencedEvent) queue.poll()).sequence);
+		}
+
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void shouldReleaseCapacityOfRefusedEvent()
+	{
+		EventCapacity capacity = new EventCapacity(100);
+
+		// Nothing is consumed, so the queue only changes when published to.
+		SpillingEventQueue spilling = new SpillingEventQueue(directory, EventCapacity.DEFAULT_EVENT_SIZE, null)
+		{
+			@Override
+			public synchronized Object poll()
+			{
+				return null;
+			}
+		};
+		LocalEventTransport transport = new LocalEventTransport(Collections.<EventHandler>emptyList(), false, 0L, capacity, spilling);
+
+		try
+		{
+			for (int i = 0; i < 4; i++)
+			{
+				transport.publish(new SequencedEvent(i));
+			}
+
+			try
+			{
+				transport.publish(new UnserializableEvent());
+				fail("Expected the event to be refused");
+			}
+			catch (RuntimeException e)
+			{
+				// Expected.
+			}
+
+			try
+			{
+				transport.publishAll(Arrays.asList(new SequencedEvent(4), new UnserializableEvent(), new SequencedEvent(5)));
+				fail("Expected the event to be refused");
+			}
+			catch (RuntimeException e)
+			{
+				// Expected.
+			}
+
+			assertEquals(5, spilling.size());
+			assertEquals(5L, capacity.getPendingEvents());
+		}
+		finally
+		{
+			spilling.clear();
+			transport.shutdown();
+		}
+	}
+
+	private int spillFileCount()
+	{
+		String[] files = directory.list();
+		return (files == null ? 0 : files.length);
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class SequencedEvent
+	implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private int sequence;
+
+		public SequencedEvent(int sequence)
+		{
+			this.sequence = sequence;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "SequencedEvent " + sequence;
+		}
+	}
+
+	private static class UnserializableEvent
+	{
+	}
+
+	private static class CountingHandler
+	implements EventHandler
+	{
+		private AtomicInteger callCount = new AtomicInteger(0);
+
+		@Override
+		public void handle(Object event)
+		{
+			callCount.incrementAndGet();
+		}
+
+		public int getCallCount()
+		{
+			return callCount.get();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return (SequencedEvent.class.isAssignableFrom(eventClass));
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class LatencyHistogramTest
+{
+	private static final long MICROS = 1000L;
+
+	@Test
+	public void shouldReportNothingWhenEmpty()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0L, histogram.getCount());
+		assertEquals(0L, histogram.getMeanMicros());
+		assertEquals(0L, histogram.getPercentileMicros(99d));
+	}
+
+	@Test
+	public void shouldBoundPercentilesWithinFactorOfTwo()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (int i = 0; i < 99; i++)
+		{
+			histogram.record(100 * MICROS);
+		}
+
+		histogram.record(10000 * MICROS);
+
+		assertEquals(100L, histogram.getCount());
+		assertEquals(199L, histogram.getMeanMicros());
+		assertEquals(10000L, histogram.getMaxMicros());
+
+		long p50 = histogram.getPercentileMicros(50d);
+		assertTrue(p50 >= 100L && p50 < 200L);
+		assertEquals(p50, histogram.getPercentileMicros(99d));
+		assertEquals(10000L, histogram.getPercentileMicros(100d));
+	}
+
+	@Test
+	public void shouldRegisterGauges()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		Metrics metrics = new Metrics();
+		histogram.registerMetrics(metrics, "send.latency");
+		histogram.record(5 * MICROS);
+		histogram.record(-1L);
+
+		assertEquals(2L, metrics.get("send.latency.count"));
+		assertEquals(5L, metrics.get("send.latency.max-micros"));
+		assertEquals(2L, metrics.get("send.latency.mean-micros"));
+
+		histogram.unregisterMetrics(metrics, "send.latency");
+		assertTrue(metrics.snapshot().isEmpty());
+	}
+}
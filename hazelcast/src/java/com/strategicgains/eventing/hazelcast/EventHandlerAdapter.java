@@ -15,14 +15,39 @@
  */
 package com.strategicgains.eventing.hazelcast;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 
 import com.hazelcast.core.Message;
 import com.hazelcast.core.MessageListener;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.codec.CodecException;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrame;
 
 /**
+ * The one listener a node registers on a topic, which dispatches each received event to all
+ * of the node's subscribed handlers. Before decoding an event, it peeks at the event's type
+ * header (see EventCodec.peekType()) and consults its dispatch table: events no local handler
+ * handles are skipped without being decoded, and the rest are decoded exactly once, however
+ * many handlers receive them. An event that can't be decoded, such as one of a type unknown to
+ * this node, is skipped without affecting the rest of its frame.
+ * <p/>
+ * A frame may be tagged with the id of the transport that published it (see tag()), so that a
+ * transport delivering its own events locally can skip them when they come back on the topic.
+ * <p/>
+ * Handlers are called on an executor: by default a shared thread pool, so handlers run in
+ * parallel, each event on a thread of its own. Given a direct executor instead, handlers run
+ * on the delivering thread, in order, and dispatch() returns once they've finished.
+ * 
  * @author toddf
  * @since Oct 5, 2012
  */
@@ -33,45 +58,184 @@ implements MessageListener<Object>
 
 	private static final Executor EVENT_EXECUTOR = Executors.newCachedThreadPool();
 
+	// Can't be the header of an event frame, whose high nibble is its version.
+	private static final byte TAGGED = 0x00;
+	private static final int TAG_LENGTH = 9;
+
 	// SECTION: INSTANCE VARIABLES
 
-	private EventHandler handler;
+	private Map<Class<?>, List<EventHandler>> handlersByEvent = new ConcurrentHashMap<Class<?>, List<EventHandler>>();
+	private Set<EventHandler> handlers = new LinkedHashSet<EventHandler>();
+	private EventCodec codec;
+	private Executor executor;
+	private volatile Long localPublisherId;
+
+	public EventHandlerAdapter(EventCodec codec)
+	{
+		this(codec, EVENT_EXECUTOR);
+	}
 
-	public EventHandlerAdapter(EventHandler handler)
+	/**
+	 * @param codec decodes events.
+	 * @param executor calls the handlers.
+	 */
+	public EventHandlerAdapter(EventCodec codec, Executor executor)
 	{
 		super();
-		this.handler = handler;
+		this.codec = codec;
+		this.executor = executor;
+	}
+
+	/**
+	 * Skip frames tagged with the given publisher id, whose events have been delivered directly (see deliver()).
+	 * 
+	 * @param publisherId the id the local transport tags its frames with. May be null.
+	 */
+	public void setLocalPublisherId(Long publisherId)
+	{
+		this.localPublisherId = publisherId;
+	}
+
+	public synchronized boolean register(EventHandler handler)
+	{
+		boolean result = handlers.add(handler);
+		handlersByEvent.clear();
+		return result;
+	}
+
+	public synchronized boolean unregister(EventHandler handler)
+	{
+		if (handlers.remove(handler))
+		{
+			handlersByEvent.clear();
+			return true;
+		}
+
+		return false;
+	}
+
+	public synchronized boolean isEmpty()
+	{
+		return handlers.isEmpty();
 	}
 
 	@Override
 	public void onMessage(Message<Object> message)
 	{
-		System.out.println("Message received: " + message.toString());
+		dispatch(message.getMessageObject());
+	}
+
+	/**
+	 * Hand a published event, as is, to the handlers that handle it, without encoding it.
+	 */
+	public void deliver(Object event)
+	{
+		processEvent(event);
+	}
+
+	/**
+	 * Decode a message's events and hand each to the handlers that handle it.
+	 * 
+	 * @param payload an event frame, possibly tagged, or, from older publishers, an event.
+	 */
+	public void dispatch(Object payload)
+	{
+		if (!(payload instanceof byte[]))
+		{
+			processEvent(payload);
+			return;
+		}
+
+		byte[] bytes = (byte[]) payload;
+		int offset = 0;
 
-		if (handler.handles(message.getMessageObject().getClass()))
+		if (bytes.length >= TAG_LENGTH && bytes[0] == TAGGED)
 		{
-			processEvent(message.getMessageObject());
+			Long local = localPublisherId;
+
+			if (local != null && local.longValue() == ByteBuffer.wrap(bytes, 1, 8).getLong()) return;
+
+			offset = TAG_LENGTH;
+		}
+
+		// Events in the frame are decompressed and decoded only as they're reached.
+		EventFrame frame = EventFrame.wrap(bytes, offset, bytes.length - offset);
+
+		while (frame.hasNext())
+		{
+			ByteBuffer encoded = frame.next();
+
+			try
+			{
+				Class<?> type = codec.peekType(encoded);
+
+				if (type != null && getConsumersFor(type).isEmpty()) continue;
+
+				processEvent(codec.decode(encoded));
+			}
+			catch (CodecException e)
+			{
+				// E.g. a type this node doesn't know, so no local handler can want it.
+				System.err.println("Skipping undecodable event: " + e.getMessage());
+			}
 		}
 	}
 
-	private void processEvent(final Object event)
+	/**
+	 * Prefix a frame with the id of the transport publishing it.
+	 */
+	static byte[] tag(long publisherId, byte[] frame)
 	{
-		System.out.println("Processing event: " + event.toString());
+		ByteBuffer tagged = ByteBuffer.allocate(TAG_LENGTH + frame.length);
+		tagged.put(TAGGED).putLong(publisherId).put(frame);
+		return tagged.array();
+	}
 
-		EVENT_EXECUTOR.execute(new Runnable()
+	private void processEvent(final Object event)
+	{
+		for (final EventHandler handler : getConsumersFor(event.getClass()))
 		{
-			@Override
-			public void run()
+			executor.execute(new Runnable()
 			{
-				try
+				@Override
+				public void run()
 				{
-					handler.handle(event);
+					try
+					{
+						handler.handle(event);
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
 				}
-				catch (Exception e)
+			});
+		}
+	}
+
+	private List<EventHandler> getConsumersFor(Class<?> eventClass)
+	{
+		List<EventHandler> result = handlersByEvent.get(eventClass);
+
+		if (result == null)
+		{
+			synchronized (this)
+			{
+				result = new ArrayList<EventHandler>();
+
+				for (EventHandler handler : handlers)
 				{
-					e.printStackTrace();
+					if (handler.handles(eventClass))
+					{
+						result.add(handler);
+					}
 				}
+
+				result = (result.isEmpty() ? Collections.<EventHandler>emptyList() : result);
+				handlersByEvent.put(eventClass, result);
 			}
-		});
+		}
+
+		return result;
 	}
 }
@@ -19,14 +19,17 @@ import java.io.Serializable;
 import java.util.List;
 
 import com.hazelcast.config.Config;
-import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
 import com.strategicgains.eventing.EventBus;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.codec.EventCodec;
 
 /**
  * Leverages Hazelcast to create a distrubuted EventBus implementation to
  * support intra-cluster eventing.
+ * <p/>
+ * Buses share their Hazelcast instance (see HazelcastInstances): those with the same Config (or
+ * none) use one cluster member, which is shut down along with the last of them.
  * 
  * @author toddf
  * @since Jun 27, 2012
@@ -38,21 +41,127 @@ extends EventBus
 
 	public HazelcastEventBus(String queueName, List<EventHandler> subscribers)
 	{
-		this(queueName, new Config(), subscribers);
+		this(queueName, (Config) null, subscribers);
 	}
 
 	public HazelcastEventBus(String queueName, Config config, List<EventHandler> subscribers)
 	{
-		super(new HazelcastEventTransport());
-		hazelcast = Hazelcast.newHazelcastInstance(config);
-		((HazelcastEventTransport) getTransport()).setTopic(hazelcast.getTopic(queueName));
+		this(queueName, config, subscribers, null);
+	}
+
+	/**
+	 * @param queueName the name of the Hazelcast topic.
+	 * @param config Hazelcast configuration. May be null, for the default configuration.
+	 * @param subscribers the event handlers.
+	 * @param codec encodes events on the topic. If null, Java Serialization is used.
+	 */
+	public HazelcastEventBus(String queueName, Config config, List<EventHandler> subscribers, EventCodec codec)
+	{
+		this(HazelcastInstances.acquire(config), queueName, subscribers, codec);
+	}
+
+	/**
+	 * @param queueName the name of the Hazelcast topic.
+	 * @param hazelcast a cluster member or client, which the application shuts down once done with it.
+	 * @param subscribers the event handlers.
+	 * @param codec encodes events on the topic. If null, Java Serialization is used.
+	 */
+	public HazelcastEventBus(String queueName, HazelcastInstance hazelcast, List<EventHandler> subscribers, EventCodec codec)
+	{
+		this(HazelcastInstances.acquire(hazelcast), queueName, subscribers, codec);
+	}
+
+	private HazelcastEventBus(HazelcastInstance hazelcast, String queueName, List<EventHandler> subscribers, EventCodec codec)
+	{
+		this(hazelcast, new HazelcastEventTransport(hazelcast.<Object>getTopic(queueName)), codec, subscribers);
+	}
+
+	/**
+	 * @param hazelcast an instance acquired from HazelcastInstances, released on shutdown.
+	 * @param transport a transport set to use a topic, ringbuffer or work queues of the instance.
+	 * @param codec encodes events. If null, Java Serialization is used.
+	 * @param subscribers the event handlers.
+	 */
+	HazelcastEventBus(HazelcastInstance hazelcast, HazelcastEventTransport transport, EventCodec codec, List<EventHandler> subscribers)
+	{
+		super(transport);
+		this.hazelcast = hazelcast;
+
+		if (codec != null)
+		{
+			transport.setCodec(codec);
+		}
+
 		addSubscribers(subscribers);
 	}
 
+	/**
+	 * Configure how published events are framed. A maxBatchEvents of zero sends one message per event.
+	 */
+	void setFraming(int compressionThreshold, int maxBatchEvents, int maxBatchBytes, long lingerMillis)
+	{
+		HazelcastEventTransport transport = (HazelcastEventTransport) getTransport();
+		transport.setCompressionThreshold(compressionThreshold);
+
+		if (maxBatchEvents > 0)
+		{
+			transport.setBatching(maxBatchEvents, maxBatchBytes, lingerMillis);
+		}
+	}
+
+	/**
+	 * In reliable mode, the ringbuffer sequence of the next event this node will read. Save it
+	 * to resume from, via the builder's resumeFrom(), when the node restarts.
+	 */
+	public long getReadSequence()
+	{
+		return ((HazelcastEventTransport) getTransport()).getReadSequence();
+	}
+
+	/**
+	 * In reliable mode, the number of events the ringbuffer overwrote before this node read them.
+	 */
+	public long getLostCount()
+	{
+		return ((HazelcastEventTransport) getTransport()).getLostCount();
+	}
+
+	/**
+	 * @return the Hazelcast instance, or null once shut down.
+	 */
+	HazelcastInstance getInstance()
+	{
+		return hazelcast;
+	}
+
+	/**
+	 * Encodes the slot before it's reused and, with local delivery, hands this node's handlers
+	 * a decoded copy rather than the slot, since they run later on another thread.
+	 */
+	@Override
+	protected void dispatchSlot(Object event)
+	{
+		((HazelcastEventTransport) getTransport()).publishSlot(event);
+		getMetrics().increment(PUBLISHED_METRIC);
+	}
+
+	/**
+	 * Send any batched events, detach this bus's handlers and release the Hazelcast instance,
+	 * shutting it down if no other bus uses it.
+	 */
 	@Override
-	public void shutdown()
+	public synchronized void shutdown()
 	{
-		Hazelcast.shutdownAll();
+		shutdownSlots();
+		HazelcastEventTransport transport = (HazelcastEventTransport) getTransport();
+		transport.stopBatching();
+		transport.close();
+
+		if (hazelcast != null)
+		{
+			HazelcastInstances.release(hazelcast);
+			hazelcast = null;
+		}
 	}
 
 	/**
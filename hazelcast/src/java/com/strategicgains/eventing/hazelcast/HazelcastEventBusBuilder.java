@@ -21,9 +21,16 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
 import com.strategicgains.eventing.EventBusBuilder;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventKeyExtractor;
+import com.strategicgains.eventing.codec.EventBatcher;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
 
 /**
  * @author toddf
@@ -33,10 +40,33 @@ public class HazelcastEventBusBuilder<T extends Serializable>
 implements EventBusBuilder<HazelcastEventBus<T>, HazelcastEventBusBuilder<T>>
 {
 	private static final String DEFAULT_QUEUE_NAME = "domain-events";
+	private static final EventKeyExtractor NO_KEYS = new EventKeyExtractor()
+	{
+		@Override
+		public String keyFor(Object event)
+		{
+			return null;
+		}
+	};
 
 	private Config config = null;
+	private ClientConfig clientConfig = null;
+	private HazelcastInstance instance = null;
 	private String queueName = DEFAULT_QUEUE_NAME;
 	private Set<EventHandler> subscribers = new LinkedHashSet<EventHandler>();
+	private EventCodec codec = null;
+	private EventTypeRegistry eventTypes = new EventTypeRegistry();
+	private int compressionThreshold = EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD;
+	private int maxBatchEvents = 0;
+	private int maxBatchBytes = EventBatcher.DEFAULT_MAX_BYTES;
+	private long lingerMillis = EventBatcher.DEFAULT_LINGER_MILLIS;
+	private int readBatchSize = 0;
+	private long readSequence = RingbufferReader.FROM_TAIL;
+	private EventKeyExtractor workQueueKeys = null;
+	private int workQueueCount = PartitionedWorkQueues.DEFAULT_QUEUE_COUNT;
+	private int workerThreads = PartitionedWorkQueues.DEFAULT_WORKER_THREADS;
+	private int drainBatchSize = PartitionedWorkQueues.DEFAULT_DRAIN_BATCH_SIZE;
+	private boolean isLocalDelivery = false;
 
 	public HazelcastEventBusBuilder()
 	{
@@ -56,6 +86,201 @@ implements EventBusBuilder<HazelcastEventBus<T>, HazelcastEventBusBuilder<T>>
 		return this;
 	}
 
+	/**
+	 * Connect as a Hazelcast client, rather than starting a cluster member in this JVM. A client
+	 * starts in far less time and memory, keeping no cluster data itself. Buses built with the
+	 * same ClientConfig share one client. Requires hazelcast-client.
+	 * 
+	 * @param configuration Hazelcast ClientConfig instance.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> client(ClientConfig configuration)
+	{
+		this.clientConfig = configuration;
+		return this;
+	}
+
+	/**
+	 * Use an existing Hazelcast member or client, which the application shuts down once done
+	 * with it. Otherwise, buses built with the same Config (or none) share one member, which is
+	 * shut down along with the last of them.
+	 * 
+	 * @param hazelcast a HazelcastInstance.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> instance(HazelcastInstance hazelcast)
+	{
+		this.instance = hazelcast;
+		return this;
+	}
+
+	/**
+	 * Set the codec used to encode events on the topic. Every node must use the same codec.
+	 * Defaults to Java Serialization.
+	 * 
+	 * @param codec an EventCodec.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> codec(EventCodec codec)
+	{
+		this.codec = codec;
+		return this;
+	}
+
+	/**
+	 * Register a compact id for an event type, written in each message in place of the class
+	 * descriptor. Every node must register the same types with the same ids. Registering any
+	 * event type makes the default codec a BinaryCodec; an explicit codec must extend
+	 * AbstractEventCodec.
+	 * 
+	 * @param eventType the event class.
+	 * @param id a unique id, from 1 to EventTypeRegistry.MAX_ID.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> eventType(Class<?> eventType, int id)
+	{
+		eventTypes.register(eventType, id);
+		return this;
+	}
+
+	/**
+	 * Send published events in batches of up to maxEvents per message, waiting at most
+	 * lingerMillis for a batch to fill. Fewer, larger messages cost far less per event
+	 * in network round trips and compress much better. By default, events are not batched.
+	 * 
+	 * @param maxEvents the most events in one message.
+	 * @param lingerMillis the longest an event waits for its batch to fill.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> batch(int maxEvents, long lingerMillis)
+	{
+		return batch(maxEvents, EventBatcher.DEFAULT_MAX_BYTES, lingerMillis);
+	}
+
+	/**
+	 * @param maxEvents the most events in one message.
+	 * @param maxBytes the uncompressed size, in bytes, at which a batch is sent regardless of its event count.
+	 * @param lingerMillis the longest an event waits for its batch to fill.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> batch(int maxEvents, int maxBytes, long lingerMillis)
+	{
+		this.maxBatchEvents = maxEvents;
+		this.maxBatchBytes = maxBytes;
+		this.lingerMillis = lingerMillis;
+		return this;
+	}
+
+	/**
+	 * Set the message size, in bytes, at or above which messages are LZ4-compressed. Defaults to
+	 * EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD. Use EventFrameWriter.NO_COMPRESSION to disable.
+	 * 
+	 * @param bytes the compression threshold.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> compressionThreshold(int bytes)
+	{
+		this.compressionThreshold = bytes;
+		return this;
+	}
+
+	/**
+	 * Send events through a Hazelcast Ringbuffer instead of a topic, reading up to
+	 * RingbufferReader.DEFAULT_BATCH_SIZE at a time. See reliable(int).
+	 * 
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> reliable()
+	{
+		return reliable(RingbufferReader.DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Send events through a Hazelcast Ringbuffer instead of a topic. Each node reads the
+	 * ringbuffer in order, in batches, tracking its own sequence, so a slow node falls behind
+	 * rather than dropping events, and handlers are called one event at a time, in publishing
+	 * order. Events are lost only if the ringbuffer overwrites them first; size it (in the
+	 * Hazelcast Config) for how far behind a node may fall. Every node must use the same mode.
+	 * 
+	 * @param readBatchSize the most events read at once, up to RingbufferReader.MAX_BATCH_SIZE.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> reliable(int readBatchSize)
+	{
+		if (readBatchSize < 1 || readBatchSize > RingbufferReader.MAX_BATCH_SIZE)
+		{
+			throw new IllegalArgumentException("Read batch size must be from 1 to " + RingbufferReader.MAX_BATCH_SIZE);
+		}
+
+		this.readBatchSize = readBatchSize;
+		return this;
+	}
+
+	/**
+	 * In reliable mode, start reading at the given ringbuffer sequence (e.g. one saved from
+	 * HazelcastEventBus.getReadSequence() before a restart) rather than with the events
+	 * published from now on.
+	 * 
+	 * @param sequence a ringbuffer sequence.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> resumeFrom(long sequence)
+	{
+		this.readSequence = sequence;
+		return this;
+	}
+
+	/**
+	 * Deliver each event to just one node, rather than every node, spreading handler work across
+	 * the cluster (see PartitionedWorkQueues). Events are queued by key, in
+	 * PartitionedWorkQueues.DEFAULT_QUEUE_COUNT queues, and each node's workers take them in
+	 * batches, keeping events with the same key in order. Every node must use the same mode,
+	 * queue count and handlers.
+	 * 
+	 * @param keys chooses each event's queue, e.g. by aggregate identifier. May be null, to spread events evenly.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> workQueues(EventKeyExtractor keys)
+	{
+		return workQueues(keys, PartitionedWorkQueues.DEFAULT_QUEUE_COUNT, PartitionedWorkQueues.DEFAULT_WORKER_THREADS, PartitionedWorkQueues.DEFAULT_DRAIN_BATCH_SIZE);
+	}
+
+	/**
+	 * @param keys chooses each event's queue. May be null, to spread events evenly.
+	 * @param queueCount the number of queues, which limits how many batches the cluster handles at once.
+	 * @param workerThreads the threads on this node taking batches from the queues.
+	 * @param drainBatchSize the most messages taken from a queue at once.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> workQueues(EventKeyExtractor keys, int queueCount, int workerThreads, int drainBatchSize)
+	{
+		if (queueCount < 1 || workerThreads < 1 || drainBatchSize < 1)
+		{
+			throw new IllegalArgumentException("Queue count, worker threads and drain batch size must be positive");
+		}
+
+		this.workQueueKeys = (keys == null ? NO_KEYS : keys);
+		this.workQueueCount = queueCount;
+		this.workerThreads = workerThreads;
+		this.drainBatchSize = drainBatchSize;
+		return this;
+	}
+
+	/**
+	 * Hand events published through this bus to its own handlers directly, rather than waiting
+	 * for them to come back through the cluster and decoding them again. Events are still sent on
+	 * the topic, for other members and buses, but this bus's listener skips its own. Local handlers
+	 * receive the published instance itself, so events must not be changed once published. Applies
+	 * to neither reliable() nor workQueues() mode.
+	 * 
+	 * @return this builder to facilitate method chaining.
+	 */
+	public HazelcastEventBusBuilder<T> localDelivery()
+	{
+		this.isLocalDelivery = true;
+		return this;
+	}
+
 	@Override
 	public HazelcastEventBusBuilder<T> subscribe(EventHandler handler)
 	{
@@ -73,7 +298,70 @@ implements EventBusBuilder<HazelcastEventBus<T>, HazelcastEventBusBuilder<T>>
 	@Override
 	public HazelcastEventBus<T> build()
 	{
+		if (workQueueKeys != null && readBatchSize > 0)
+		{
+			throw new IllegalStateException("Work queues can't be reliable too");
+		}
+
+		if (isLocalDelivery && (workQueueKeys != null || readBatchSize > 0))
+		{
+			throw new IllegalStateException("Local delivery requires topic mode");
+		}
+
 		List<EventHandler> subscriberList = Arrays.asList(subscribers.toArray(new EventHandler[0]));
-		return (config == null ? new HazelcastEventBus<T>(queueName, subscriberList) : new HazelcastEventBus<T>(queueName, config, subscriberList));
+		EventCodec eventCodec = (eventTypes.isEmpty() ? codec : eventTypes.configure(codec));
+		HazelcastInstance hazelcast = acquireInstance();
+
+		try
+		{
+			HazelcastEventBus<T> bus = new HazelcastEventBus<T>(hazelcast, newTransport(hazelcast), eventCodec, subscriberList);
+			bus.setFraming(compressionThreshold, maxBatchEvents, maxBatchBytes, lingerMillis);
+			return bus;
+		}
+		catch (RuntimeException e)
+		{
+			HazelcastInstances.release(hazelcast);
+			throw e;
+		}
+	}
+
+	private HazelcastEventTransport newTransport(HazelcastInstance hazelcast)
+	{
+		HazelcastEventTransport transport = new HazelcastEventTransport();
+
+		if (workQueueKeys != null)
+		{
+			transport.setWorkQueues(new PartitionedWorkQueues(hazelcast, queueName, workQueueCount, workQueueKeys, workerThreads, drainBatchSize));
+		}
+		else if (readBatchSize > 0)
+		{
+			transport.setRingbuffer(hazelcast.<Object>getRingbuffer(queueName), readBatchSize, readSequence);
+		}
+		else
+		{
+			transport.setTopic(hazelcast.<Object>getTopic(queueName));
+
+			if (isLocalDelivery)
+			{
+				transport.setLocalDelivery();
+			}
+		}
+
+		return transport;
+	}
+
+	private HazelcastInstance acquireInstance()
+	{
+		if (instance != null)
+		{
+			return HazelcastInstances.acquire(instance);
+		}
+
+		if (clientConfig != null)
+		{
+			return HazelcastInstances.acquireClient(clientConfig);
+		}
+
+		return HazelcastInstances.acquire(config);
 	}
 }
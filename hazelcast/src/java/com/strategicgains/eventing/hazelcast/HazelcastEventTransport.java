@@ -15,22 +15,79 @@
  */
 package com.strategicgains.eventing.hazelcast;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.concurrent.Executor;
 
 import com.hazelcast.core.ITopic;
+import com.hazelcast.ringbuffer.Ringbuffer;
 import com.strategicgains.eventing.EventHandler;
 import com.strategicgains.eventing.EventTransport;
+import com.strategicgains.eventing.codec.EventBatcher;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.FrameSink;
+import com.strategicgains.eventing.codec.SerializableCodec;
 
 /**
+ * Publishes events to a Hazelcast topic as byte arrays, encoded by an EventCodec
+ * (Java Serialization, by default), and decodes them for the subscribed handlers.
+ * <p/>
+ * Each message is an event frame (see EventFrameWriter) holding one event or, when batching
+ * is enabled or events are published via publishAll(), many. Large frames are compressed.
+ * <p/>
+ * Given a Ringbuffer (see setRingbuffer()), the transport is reliable: messages are added to
+ * the ringbuffer instead of a topic, and each node reads them in order, in batches, from its own
+ * sequence (see RingbufferReader). A node that falls behind, or whose handlers are unsubscribed
+ * for a while, carries on from where it stopped rather than missing what was published meanwhile,
+ * as long as the ringbuffer still holds it.
+ * <p/>
+ * Given PartitionedWorkQueues (see setWorkQueues()), each event is instead handled by just one
+ * node, which takes it from the queue for its key. Batching doesn't apply in this mode, but
+ * publishAll() sends one message per queue.
+ * <p/>
+ * With local delivery (see setLocalDelivery()), events published through this transport are
+ * handed to its own handlers directly, without being decoded, and are still sent on the topic
+ * for every other listener: those of other members and clients, and of other buses sharing this
+ * node's instance. Frames are tagged with the transport's publisher id, so its own listener skips
+ * just the frames it published.
+ * 
  * @author toddf
  * @since Oct 18, 2012
  */
 public class HazelcastEventTransport
 implements EventTransport
 {
+	// Reliable mode calls the handlers on the reader's thread, so each message is handled before its sequence is passed.
+	private static final Executor DIRECT = new Executor()
+	{
+		@Override
+		public void execute(Runnable command)
+		{
+			command.run();
+		}
+	};
+
 	private ITopic<Object> topic;
-	private Map<EventHandler, String> subscriptions = new ConcurrentHashMap<EventHandler, String>();
+	private EventCodec codec = new SerializableCodec();
+	private volatile EventHandlerAdapter adapter;
+	private String listenerId;
+	private Ringbuffer<Object> ringbuffer;
+	private RingbufferReader reader;
+	private int readBatchSize = RingbufferReader.DEFAULT_BATCH_SIZE;
+	private long readSequence = RingbufferReader.FROM_TAIL;
+	private PartitionedWorkQueues workQueues;
+	private Long publisherId;
+	private int compressionThreshold = EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD;
+	private EventBatcher batcher;
+	private FrameSink topicSink = new FrameSink()
+	{
+		@Override
+		public void send(byte[] frame)
+		{
+			write(frame);
+		}
+	};
 
 	protected HazelcastEventTransport()
 	{
@@ -43,41 +100,361 @@ implements EventTransport
 		setTopic(topic);
 	}
 
+	public HazelcastEventTransport(ITopic<Object> topic, EventCodec codec)
+	{
+		this(topic);
+		setCodec(codec);
+	}
+
 	protected void setTopic(ITopic<Object> aTopic)
     {
 		this.topic = aTopic;
     }
 
+	/**
+	 * Publish to, and read from, a ringbuffer instead of the topic. Call before subscribing.
+	 * 
+	 * @param ringbuffer the ringbuffer.
+	 * @param readBatchSize the most messages read at once, up to RingbufferReader.MAX_BATCH_SIZE.
+	 * @param readSequence the sequence to start reading from, or RingbufferReader.FROM_TAIL to
+	 * read only messages published after the first handler subscribes.
+	 */
+	protected void setRingbuffer(Ringbuffer<Object> ringbuffer, int readBatchSize, long readSequence)
+	{
+		this.ringbuffer = ringbuffer;
+		this.readBatchSize = readBatchSize;
+		this.readSequence = readSequence;
+	}
+
+	/**
+	 * Deliver each event to one node, via work queues, instead of every node. Call before subscribing.
+	 */
+	protected void setWorkQueues(PartitionedWorkQueues workQueues)
+	{
+		this.workQueues = workQueues;
+	}
+
+	/**
+	 * Deliver events published through this transport to its handlers directly, skipping them when
+	 * they come back on the topic. Topic mode only. Call before subscribing.
+	 */
+	protected void setLocalDelivery()
+	{
+		this.publisherId = new SecureRandom().nextLong();
+	}
+
+	public boolean isReliable()
+	{
+		return (ringbuffer != null);
+	}
+
+	/**
+	 * In reliable mode, the sequence of the next message this node will read. Save it to resume
+	 * from, via the builder's resumeFrom(), when the node restarts.
+	 * 
+	 * @return the sequence, or RingbufferReader.FROM_TAIL if nothing has been read.
+	 */
+	public synchronized long getReadSequence()
+	{
+		return (reader == null ? readSequence : reader.getSequence());
+	}
+
+	/**
+	 * @return the number of messages the ringbuffer overwrote before this node read them.
+	 */
+	public synchronized long getLostCount()
+	{
+		return (reader == null ? 0L : reader.getLostCount());
+	}
+
+	protected void setCodec(EventCodec codec)
+	{
+		this.codec = codec;
+	}
+
+	/**
+	 * @param compressionThreshold the frame payload size, in bytes, at or above which frames are compressed.
+	 */
+	protected void setCompressionThreshold(int compressionThreshold)
+	{
+		this.compressionThreshold = compressionThreshold;
+	}
+
+	/**
+	 * Collect published events into batch frames instead of sending one message per event.
+	 * Call after setting the codec and compression threshold.
+	 * 
+	 * @param maxEvents the most events in one message.
+	 * @param maxBytes the uncompressed size, in bytes, at which a batch is sent.
+	 * @param lingerMillis the longest an event waits for its batch to fill.
+	 */
+	protected void setBatching(int maxEvents, int maxBytes, long lingerMillis)
+	{
+		stopBatching();
+		batcher = new EventBatcher(new EventFrameWriter(codec, compressionThreshold), topicSink, maxEvents, maxBytes, lingerMillis);
+	}
+
+	/**
+	 * Send any batched events and stop batching.
+	 */
+	protected void stopBatching()
+	{
+		if (batcher != null)
+		{
+			batcher.shutdown();
+			batcher = null;
+		}
+	}
+
 	@Override
 	public void publish(Object event)
 	{
-		topic.publish(event);
+		if (workQueues != null)
+		{
+			workQueues.add(workQueues.indexFor(event), EventFrameWriter.single(codec, event, compressionThreshold));
+			return;
+		}
+
+		if (publisherId != null)
+		{
+			deliverLocally(event);
+		}
+
+		if (batcher != null)
+		{
+			batcher.add(event);
+		}
+		else
+		{
+			write(EventFrameWriter.single(codec, event, compressionThreshold));
+		}
+	}
+
+	/**
+	 * Publish an event that's reused as soon as this returns, such as a committed slot. It's encoded
+	 * before returning and, with local delivery, isn't tagged, so this node's handlers get a copy
+	 * decoded from the topic instead of the instance itself.
+	 */
+	protected void publishSlot(Object event)
+	{
+		if (publisherId == null)
+		{
+			publish(event);
+		}
+		else
+		{
+			topic.publish(EventFrameWriter.single(codec, event, compressionThreshold));
+		}
+	}
+
+	/**
+	 * Sends the events as one or more batch frames.
+	 */
+	@Override
+	public void publishAll(Collection<?> events)
+	{
+		if (workQueues != null)
+		{
+			publishToWorkQueues(events);
+			return;
+		}
+
+		if (publisherId != null)
+		{
+			for (Object event : events)
+			{
+				deliverLocally(event);
+			}
+		}
+
+		EventBatcher frames = batcher;
+
+		if (frames == null)
+		{
+			frames = new EventBatcher(new EventFrameWriter(codec, compressionThreshold), topicSink, EventBatcher.DEFAULT_MAX_EVENTS, EventBatcher.DEFAULT_MAX_BYTES, 0L);
+		}
+
+		for (Object event : events)
+		{
+			frames.add(event);
+		}
+
+		frames.flush();
+	}
+
+	/**
+	 * Send any batched events now, rather than waiting for the batch to fill or linger.
+	 */
+	public void flush()
+	{
+		if (batcher != null)
+		{
+			batcher.flush();
+		}
 	}
 
 	@Override
 	public void shutdown()
 	{
-		topic.destroy();
+		stopBatching();
+		close();
+
+		if (isReliable())
+		{
+			ringbuffer.destroy();
+		}
+		else if (topic != null)
+		{
+			topic.destroy();
+		}
+
+		// Work queues are left, with any events still in them, to the other nodes.
 	}
 
+	/**
+	 * Registers the handler with this node's one listener on the topic, adding the listener if necessary.
+	 * In reliable mode, starts (or resumes) this node's ringbuffer reader instead, and in work
+	 * queue mode, this node's queue workers.
+	 */
 	@Override
-	public boolean subscribe(EventHandler handler)
+	public synchronized boolean subscribe(EventHandler handler)
 	{
-		String listenerId = topic.addMessageListener(new EventHandlerAdapter(handler));
-		subscriptions.put(handler, listenerId);
-		return true;
+		if (adapter == null)
+		{
+			adapter = (isReliable() || workQueues != null ? new EventHandlerAdapter(codec, DIRECT) : new EventHandlerAdapter(codec));
+			adapter.setLocalPublisherId(publisherId);
+		}
+
+		boolean isSubscribed = adapter.register(handler);
+
+		if (isReliable())
+		{
+			if (reader == null)
+			{
+				reader = new RingbufferReader(ringbuffer, adapter, readBatchSize, readSequence);
+			}
+
+			reader.start();
+		}
+		else if (workQueues != null)
+		{
+			workQueues.start(adapter);
+		}
+		else if (listenerId == null)
+		{
+			listenerId = topic.addMessageListener(adapter);
+		}
+
+		return isSubscribed;
 	}
 
+	/**
+	 * Removes the topic listener along with the last handler.
+	 */
 	@Override
-	public boolean unsubscribe(EventHandler handler)
+	public synchronized boolean unsubscribe(EventHandler handler)
+	{
+		if (adapter == null || !adapter.unregister(handler))
+		{
+			return false;
+		}
+
+		if (adapter.isEmpty())
+		{
+			close();
+		}
+
+		return true;
+	}
+
+	private void deliverLocally(Object event)
+	{
+		EventHandlerAdapter local = adapter;
+
+		if (local != null)
+		{
+			local.deliver(event);
+		}
+	}
+
+	/**
+	 * Send the events as batch frames, one or more per work queue, keeping the events for each queue in order.
+	 */
+	private void publishToWorkQueues(Collection<?> events)
 	{
-		String listenerId = subscriptions.get(handler);
+		EventBatcher[] frames = new EventBatcher[workQueues.getQueueCount()];
+
+		for (Object event : events)
+		{
+			final int index = workQueues.indexFor(event);
+
+			if (frames[index] == null)
+			{
+				frames[index] = new EventBatcher(new EventFrameWriter(codec, compressionThreshold), new FrameSink()
+				{
+					@Override
+					public void send(byte[] frame)
+					{
+						workQueues.add(index, frame);
+					}
+				}, EventBatcher.DEFAULT_MAX_EVENTS, EventBatcher.DEFAULT_MAX_BYTES, 0L);
+			}
+
+			frames[index].add(event);
+		}
+
+		for (EventBatcher batch : frames)
+		{
+			if (batch != null)
+			{
+				batch.flush();
+			}
+		}
+	}
+
+	/**
+	 * Write a frame to the ringbuffer, in reliable mode, or the topic.
+	 */
+	private void write(byte[] frame)
+	{
+		if (isReliable())
+		{
+			ringbuffer.add(frame);
+		}
+		else
+		{
+			topic.publish(publisherId == null ? frame : EventHandlerAdapter.tag(publisherId, frame));
+		}
+	}
+
+	/**
+	 * Stop delivering to this node's handlers: remove the topic listener or stop the ringbuffer
+	 * reader or queue workers, leaving the topic, ringbuffer or queues to any other buses using them.
+	 */
+	protected synchronized void close()
+	{
+		if (workQueues != null)
+		{
+			workQueues.stop();
+		}
 
 		if (listenerId != null)
 		{
-			return topic.removeMessageListener(listenerId);
+			topic.removeMessageListener(listenerId);
+			listenerId = null;
 		}
 
-		return false;
+		stopReading();
+	}
+
+	/**
+	 * Stop the ringbuffer reader, if any, keeping its sequence to resume from.
+	 */
+	protected synchronized void stopReading()
+	{
+		if (reader != null)
+		{
+			reader.stop();
+		}
 	}
 }
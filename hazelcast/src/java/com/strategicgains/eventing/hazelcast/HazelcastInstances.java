@@ -0,0 +1,267 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.hazelcast;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+
+/**
+ * Shares Hazelcast instances between event buses in the JVM, counting the buses using each.
+ * <p/>
+ * Buses given the same Config (or none) share one cluster member, and buses given the same
+ * ClientConfig share one client, rather than each starting an instance of its own. An instance
+ * created here is shut down when the last bus using it releases it. An instance supplied by the
+ * application is counted too, but never shut down here: it belongs to the application.
+ * <p/>
+ * Starting or shutting down an instance can take seconds, so it's done without holding the
+ * lock: other buses acquiring the same configuration wait for the instance being started,
+ * while those using other instances carry on.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public final class HazelcastInstances
+{
+	// SECTION: CONSTANTS
+
+	// The key for buses configured without a Config.
+	private static final Object DEFAULT_CONFIG = new Object();
+	private static final Map<Object, Shared> INSTANCES_BY_CONFIG = new IdentityHashMap<Object, Shared>();
+	private static final Map<HazelcastInstance, Shared> SHARED_BY_INSTANCE = new IdentityHashMap<HazelcastInstance, Shared>();
+
+
+	// SECTION: CONSTRUCTORS
+
+	private HazelcastInstances()
+	{
+		// prevents instantiation.
+	}
+
+
+	// SECTION: STATIC METHODS
+
+	/**
+	 * Get the cluster member for the given configuration, starting it if no bus is using one.
+	 * 
+	 * @param config a Hazelcast Config. May be null, for the default configuration.
+	 * @return a member, to be given back via release().
+	 */
+	public static HazelcastInstance acquire(final Config config)
+	{
+		return acquire((config == null ? DEFAULT_CONFIG : config), new Supplier<HazelcastInstance>()
+		{
+			@Override
+			public HazelcastInstance get()
+			{
+				return Hazelcast.newHazelcastInstance(config == null ? new Config() : config);
+			}
+		});
+	}
+
+	/**
+	 * Get the client for the given configuration, connecting it if no bus is using one. A
+	 * client joins no cluster itself, so starts in far less time and memory than a member.
+	 * Requires hazelcast-client.
+	 * 
+	 * @param config a Hazelcast ClientConfig.
+	 * @return a client, to be given back via release().
+	 */
+	public static HazelcastInstance acquireClient(final ClientConfig config)
+	{
+		return acquire(config, new Supplier<HazelcastInstance>()
+		{
+			@Override
+			public HazelcastInstance get()
+			{
+				return HazelcastClient.newHazelcastClient(config);
+			}
+		});
+	}
+
+	/**
+	 * Count a bus using an instance the application created and will shut down itself.
+	 * 
+	 * @param instance a member or client.
+	 * @return the instance, to be given back via release().
+	 */
+	public static synchronized HazelcastInstance acquire(HazelcastInstance instance)
+	{
+		Shared shared = SHARED_BY_INSTANCE.get(instance);
+
+		if (shared == null)
+		{
+			shared = new Shared(null, false);
+			shared.started(instance);
+			SHARED_BY_INSTANCE.put(instance, shared);
+		}
+
+		++shared.references;
+		return instance;
+	}
+
+	/**
+	 * Give back an acquired instance, shutting it down if it was created here and no other bus uses it.
+	 * 
+	 * @param instance an instance returned by one of the acquire methods.
+	 */
+	public static void release(HazelcastInstance instance)
+	{
+		synchronized (HazelcastInstances.class)
+		{
+			Shared shared = SHARED_BY_INSTANCE.get(instance);
+
+			if (shared == null || --shared.references > 0) return;
+
+			SHARED_BY_INSTANCE.remove(instance);
+
+			if (shared.key != null)
+			{
+				INSTANCES_BY_CONFIG.remove(shared.key);
+			}
+
+			if (!shared.isOwned) return;
+		}
+
+		instance.shutdown();
+	}
+
+	/**
+	 * @return the number of buses using the instance.
+	 */
+	public static synchronized int getReferenceCount(HazelcastInstance instance)
+	{
+		Shared shared = SHARED_BY_INSTANCE.get(instance);
+		return (shared == null ? 0 : shared.references);
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * Get the instance for a configuration, the first caller starting it outside the lock.
+	 * 
+	 * @param key the configuration.
+	 * @param starter starts an instance for the configuration.
+	 */
+	private static HazelcastInstance acquire(Object key, Supplier<HazelcastInstance> starter)
+	{
+		Shared shared;
+		boolean isStarter = false;
+
+		synchronized (HazelcastInstances.class)
+		{
+			shared = INSTANCES_BY_CONFIG.get(key);
+
+			if (shared == null)
+			{
+				shared = new Shared(key, true);
+				INSTANCES_BY_CONFIG.put(key, shared);
+				isStarter = true;
+			}
+
+			// Counted now, so the instance can't be shut down before this caller gets it.
+			++shared.references;
+		}
+
+		if (isStarter)
+		{
+			start(shared, starter);
+		}
+
+		return shared.await();
+	}
+
+	private static void start(Shared shared, Supplier<HazelcastInstance> starter)
+	{
+		HazelcastInstance instance;
+
+		try
+		{
+			instance = starter.get();
+		}
+		catch (RuntimeException e)
+		{
+			// Forget it, so the next caller tries again. Those waiting get the failure.
+			synchronized (HazelcastInstances.class)
+			{
+				INSTANCES_BY_CONFIG.remove(shared.key);
+			}
+
+			shared.failed(e);
+			return;
+		}
+
+		synchronized (HazelcastInstances.class)
+		{
+			SHARED_BY_INSTANCE.put(instance, shared);
+		}
+
+		shared.started(instance);
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class Shared
+	{
+		private Object key;
+		private boolean isOwned;
+		private CompletableFuture<HazelcastInstance> instance = new CompletableFuture<HazelcastInstance>();
+		private int references = 0;
+
+		public Shared(Object key, boolean isOwned)
+		{
+			super();
+			this.key = key;
+			this.isOwned = isOwned;
+		}
+
+		public void started(HazelcastInstance started)
+		{
+			instance.complete(started);
+		}
+
+		public void failed(RuntimeException e)
+		{
+			instance.completeExceptionally(e);
+		}
+
+		/**
+		 * @return the instance, once started.
+		 * @throws RuntimeException if it failed to start.
+		 */
+		public HazelcastInstance await()
+		{
+			try
+			{
+				return instance.join();
+			}
+			catch (CompletionException e)
+			{
+				throw (e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e);
+			}
+		}
+	}
+}
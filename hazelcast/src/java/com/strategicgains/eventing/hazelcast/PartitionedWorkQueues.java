@@ -0,0 +1,361 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.hazelcast;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ILock;
+import com.hazelcast.core.IQueue;
+import com.hazelcast.core.ItemEvent;
+import com.hazelcast.core.ItemListener;
+import com.strategicgains.eventing.EventKeyExtractor;
+
+/**
+ * Competing-consumer delivery over a fixed set of Hazelcast queues: each event is handled by
+ * one node, rather than broadcast to every node, so expensive handler work is spread across
+ * the cluster.
+ * <p/>
+ * Events are assigned to a queue by key (see EventKeyExtractor). Each queue has a cluster-wide
+ * lock, kept on the queue's partition, and a node takes a batch from a queue (with drainTo())
+ * only while holding its lock, releasing it once the batch is handled. So, while every node's
+ * workers take turns across every queue, a queue's events are handled one batch at a time, in
+ * order, and events with the same key stay in order. With more queues than nodes, adding nodes
+ * adds throughput, as Hazelcast spreads the queues' partitions across the members.
+ * <p/>
+ * Keys are strings, whose hash codes are the same on every node, so every node queues a key's
+ * events to the same queue.
+ * <p/>
+ * Workers with nothing to take wait, without polling, until an item listener on the queues
+ * signals that an event has been added anywhere in the cluster.
+ * <p/>
+ * Every node should subscribe the same handlers: an event is handled only by the node that
+ * takes it. Delivery is at most once: a batch taken by a node that fails before handling it is lost.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class PartitionedWorkQueues
+{
+	// SECTION: CONSTANTS
+
+	public static final int DEFAULT_QUEUE_COUNT = 16;
+	public static final int DEFAULT_WORKER_THREADS = 4;
+	public static final int DEFAULT_DRAIN_BATCH_SIZE = 100;
+	// An idle worker re-checks the queues this often, in case it missed a signal.
+	private static final long IDLE_MILLIS = 1000L;
+	private static final long ERROR_MILLIS = 1000L;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private List<IQueue<Object>> queues;
+	private List<ILock> locks;
+	private EventKeyExtractor keys;
+	private int workerThreads;
+	private int drainBatchSize;
+	private AtomicInteger unkeyed = new AtomicInteger(0);
+	private List<Worker> workers = new ArrayList<Worker>();
+	private List<String> listenerIds = new ArrayList<String>();
+	private final Object signal = new Object();
+	private long addedCount = 0L;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param hazelcast the Hazelcast instance.
+	 * @param name the prefix for the queue names.
+	 * @param queueCount the number of queues. Must be the same on every node.
+	 * @param keys chooses each event's queue.
+	 * @param workerThreads the threads on this node taking batches from the queues.
+	 * @param drainBatchSize the most events taken from a queue at once.
+	 */
+	public PartitionedWorkQueues(HazelcastInstance hazelcast, String name, int queueCount, EventKeyExtractor keys, int workerThreads, int drainBatchSize)
+	{
+		super();
+
+		if (queueCount < 1 || workerThreads < 1 || drainBatchSize < 1)
+		{
+			throw new IllegalArgumentException("Queue count, worker threads and drain batch size must be positive");
+		}
+
+		this.keys = keys;
+		this.workerThreads = workerThreads;
+		this.drainBatchSize = drainBatchSize;
+		this.queues = new ArrayList<IQueue<Object>>(queueCount);
+		this.locks = new ArrayList<ILock>(queueCount);
+
+		for (int i = 0; i < queueCount; i++)
+		{
+			String queueName = name + "-" + i;
+			queues.add(hazelcast.<Object>getQueue(queueName));
+
+			// The partition key keeps the lock with its queue.
+			locks.add(hazelcast.getLock(queueName + "-consumer@" + queueName));
+		}
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	public int getQueueCount()
+	{
+		return queues.size();
+	}
+
+	/**
+	 * @return the index of the queue for the event's key.
+	 */
+	public int indexFor(Object event)
+	{
+		String key = (keys == null ? null : keys.keyFor(event));
+		int hash = (key == null ? unkeyed.getAndIncrement() : key.hashCode());
+		return (hash & 0x7fffffff) % queues.size();
+	}
+
+	/**
+	 * Add an event frame to a queue.
+	 * 
+	 * @throws IllegalStateException if the queue is full.
+	 */
+	public void add(int index, byte[] frame)
+	{
+		queues.get(index).add(frame);
+	}
+
+	/**
+	 * @return the number of event frames waiting in the queues.
+	 */
+	public int size()
+	{
+		int size = 0;
+
+		for (IQueue<Object> queue : queues)
+		{
+			size += queue.size();
+		}
+
+		return size;
+	}
+
+	/**
+	 * Start this node's workers, which hand each frame they take to the adapter. The adapter should
+	 * call its handlers directly, so a batch is handled before its queue is released.
+	 */
+	public synchronized void start(EventHandlerAdapter adapter)
+	{
+		if (!workers.isEmpty()) return;
+
+		ItemListener<Object> listener = new ItemListener<Object>()
+		{
+			@Override
+			public void itemAdded(ItemEvent<Object> item)
+			{
+				signal();
+			}
+
+			@Override
+			public void itemRemoved(ItemEvent<Object> item)
+			{
+			}
+		};
+
+		for (IQueue<Object> queue : queues)
+		{
+			listenerIds.add(queue.addItemListener(listener, false));
+		}
+
+		for (int i = 0; i < workerThreads; i++)
+		{
+			// Workers start at different queues, so they rarely contend for the same lock.
+			Worker worker = new Worker(adapter, i * queues.size() / workerThreads);
+			Thread thread = new Thread(worker, "hazelcast-work-queue-" + i);
+			thread.setDaemon(true);
+			workers.add(worker);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stop this node's workers after their current batches. Events still queued are left for the other nodes.
+	 */
+	public synchronized void stop()
+	{
+		for (Worker worker : workers)
+		{
+			worker.isRunning = false;
+		}
+
+		workers.clear();
+
+		for (int i = 0; i < listenerIds.size(); i++)
+		{
+			queues.get(i).removeItemListener(listenerIds.get(i));
+		}
+
+		listenerIds.clear();
+		signal();
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * Wake the idle workers.
+	 */
+	private void signal()
+	{
+		synchronized (signal)
+		{
+			++addedCount;
+			signal.notifyAll();
+		}
+	}
+
+	private long getAddedCount()
+	{
+		synchronized (signal)
+		{
+			return addedCount;
+		}
+	}
+
+	/**
+	 * Wait until signalled, unless already signalled since the given count was read.
+	 */
+	private void awaitAdded(long count)
+	throws InterruptedException
+	{
+		synchronized (signal)
+		{
+			if (addedCount == count)
+			{
+				signal.wait(IDLE_MILLIS);
+			}
+		}
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private class Worker
+	implements Runnable
+	{
+		private EventHandlerAdapter adapter;
+		private int start;
+		private volatile boolean isRunning = true;
+		private List<Object> batch = new ArrayList<Object>(drainBatchSize);
+
+		public Worker(EventHandlerAdapter adapter, int start)
+		{
+			super();
+			this.adapter = adapter;
+			this.start = start;
+		}
+
+		@Override
+		public void run()
+		{
+			while (isRunning)
+			{
+				try
+				{
+					// Read before draining, so an event added during the pass isn't waited out.
+					long added = getAddedCount();
+
+					if (!drainAll() && isRunning)
+					{
+						awaitAdded(added);
+					}
+				}
+				catch (InterruptedException e)
+				{
+					isRunning = false;
+				}
+				catch (RuntimeException e)
+				{
+					System.err.println("Unable to take events from work queues. Retrying in " + ERROR_MILLIS + "ms");
+					e.printStackTrace();
+					pause(ERROR_MILLIS);
+				}
+			}
+		}
+
+		/**
+		 * Take and handle a batch from each queue not held by another worker.
+		 * 
+		 * @return true if any events were handled.
+		 */
+		private boolean drainAll()
+		{
+			boolean isDrained = false;
+
+			for (int i = 0; isRunning && i < queues.size(); i++)
+			{
+				int index = (start + i) % queues.size();
+				ILock lock = locks.get(index);
+
+				if (!lock.tryLock()) continue;
+
+				try
+				{
+					queues.get(index).drainTo(batch, drainBatchSize);
+					isDrained |= !batch.isEmpty();
+
+					for (Object frame : batch)
+					{
+						dispatch(frame);
+					}
+				}
+				finally
+				{
+					batch.clear();
+					lock.unlock();
+				}
+			}
+
+			return isDrained;
+		}
+
+		private void dispatch(Object frame)
+		{
+			try
+			{
+				adapter.dispatch(frame);
+			}
+			catch (RuntimeException e)
+			{
+				System.err.println("Skipping undeliverable work queue message");
+				e.printStackTrace();
+			}
+		}
+
+		private void pause(long millis)
+		{
+			try
+			{
+				Thread.sleep(millis);
+			}
+			catch (InterruptedException e)
+			{
+				isRunning = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,250 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.hazelcast;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.ringbuffer.ReadResultSet;
+import com.hazelcast.ringbuffer.Ringbuffer;
+import com.hazelcast.ringbuffer.StaleSequenceException;
+
+/**
+ * Reads a Ringbuffer in batches, with readManyAsync(), and hands each message to an
+ * EventHandlerAdapter. Unlike a topic listener, the reader owns its position: it tracks the
+ * sequence of the next message to read, advancing it only once a message's handlers have run,
+ * so delivery has no gaps, and a reader that is stopped (or falls behind) resumes from where
+ * it left off rather than from whatever is published next.
+ * <p/>
+ * A reader can only lose messages by falling so far behind that the ringbuffer overwrites
+ * them. It then skips to the oldest message still held, and counts and logs those it missed.
+ * <p/>
+ * No thread waits on the ringbuffer: each read's callback handles the batch and issues the
+ * next read. Callbacks run on the reader's own thread pool, never on Hazelcast's internal
+ * threads, so slow handlers don't hold up the member.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class RingbufferReader
+implements ExecutionCallback<ReadResultSet<Object>>
+{
+	// SECTION: CONSTANTS
+
+	/**
+	 * Hazelcast reads at most 1000 items per readMany.
+	 */
+	public static final int MAX_BATCH_SIZE = 1000;
+	public static final int DEFAULT_BATCH_SIZE = 100;
+	public static final long FROM_TAIL = -1L;
+	private static final long RETRY_MILLIS = 1000L;
+
+	private static final ExecutorService CALLBACKS = Executors.newCachedThreadPool(new ThreadFactory()
+	{
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		@Override
+		public Thread newThread(Runnable runnable)
+		{
+			Thread thread = new Thread(runnable, "hazelcast-ringbuffer-reader-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	private static final ScheduledExecutorService RETRIES = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+	{
+		@Override
+		public Thread newThread(Runnable runnable)
+		{
+			Thread thread = new Thread(runnable, "hazelcast-ringbuffer-retry");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Ringbuffer<Object> ringbuffer;
+	private EventHandlerAdapter adapter;
+	private int batchSize;
+	private volatile long sequence;
+	private volatile boolean isRunning = false;
+	private boolean isReading = false;
+	private AtomicLong lost = new AtomicLong(0L);
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param ringbuffer the ringbuffer to read.
+	 * @param adapter dispatches each message. Should call its handlers directly, so a message's
+	 * sequence is passed only once they've run.
+	 * @param batchSize the most messages per read, up to MAX_BATCH_SIZE.
+	 * @param sequence the sequence of the first message to read, or FROM_TAIL to read only
+	 * messages added from now on.
+	 */
+	public RingbufferReader(Ringbuffer<Object> ringbuffer, EventHandlerAdapter adapter, int batchSize, long sequence)
+	{
+		super();
+
+		if (batchSize < 1 || batchSize > MAX_BATCH_SIZE)
+		{
+			throw new IllegalArgumentException("Batch size must be from 1 to " + MAX_BATCH_SIZE);
+		}
+
+		this.ringbuffer = ringbuffer;
+		this.adapter = adapter;
+		this.batchSize = batchSize;
+		this.sequence = (sequence == FROM_TAIL ? ringbuffer.tailSequence() + 1 : sequence);
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Start, or resume, reading from the current sequence.
+	 */
+	public synchronized void start()
+	{
+		if (isRunning) return;
+
+		isRunning = true;
+
+		// A read issued before stop() may still be outstanding; its callback carries on from it.
+		if (!isReading)
+		{
+			readNext();
+		}
+	}
+
+	/**
+	 * Stop reading after the current message, if any, is handled. The sequence is kept, for start() to resume from.
+	 */
+	public synchronized void stop()
+	{
+		isRunning = false;
+	}
+
+	public boolean isRunning()
+	{
+		return isRunning;
+	}
+
+	/**
+	 * @return the sequence of the next message to read, e.g. to persist and resume from later.
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+	/**
+	 * @return the number of messages overwritten before this reader could read them.
+	 */
+	public long getLostCount()
+	{
+		return lost.get();
+	}
+
+	@Override
+	public void onResponse(ReadResultSet<Object> messages)
+	{
+		for (int i = 0; i < messages.readCount(); i++)
+		{
+			// Once stopped, leave the rest of the batch to be read again on resuming.
+			if (!isRunning) break;
+
+			try
+			{
+				adapter.dispatch(messages.get(i));
+			}
+			catch (RuntimeException e)
+			{
+				System.err.println("Skipping undeliverable message at sequence " + sequence + " of " + ringbuffer.getName());
+				e.printStackTrace();
+			}
+
+			++sequence;
+		}
+
+		readNext();
+	}
+
+	@Override
+	public void onFailure(Throwable t)
+	{
+		StaleSequenceException stale = staleSequence(t);
+
+		if (stale != null)
+		{
+			long head = Math.max(stale.getHeadSeq(), ringbuffer.headSequence());
+			lost.addAndGet(head - sequence);
+			System.err.println("Ringbuffer " + ringbuffer.getName() + " overwrote " + (head - sequence) + " message(s) before they were read. Resuming at " + head);
+			sequence = head;
+			readNext();
+			return;
+		}
+
+		synchronized (this)
+		{
+			// Once stopped, no read is outstanding, so start() must issue the next one.
+			isReading = isRunning;
+
+			if (!isRunning) return;
+		}
+
+		System.err.println("Unable to read ringbuffer " + ringbuffer.getName() + " at sequence " + sequence + ". Retrying in " + RETRY_MILLIS + "ms");
+		t.printStackTrace();
+		RETRIES.schedule(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				readNext();
+			}
+		}, RETRY_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private synchronized void readNext()
+	{
+		isReading = isRunning;
+
+		if (!isRunning) return;
+
+		ringbuffer.readManyAsync(sequence, 1, batchSize, null).andThen(this, CALLBACKS);
+	}
+
+	private static StaleSequenceException staleSequence(Throwable t)
+	{
+		for (Throwable cause = t; cause != null; cause = cause.getCause())
+		{
+			if (cause instanceof StaleSequenceException) return (StaleSequenceException) cause;
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,250 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.hazelcast;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.codec.BinaryCodec;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrame;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
+
+/**
+ * Compares the cost per message of delivering to 50 handlers on one node through one listener
+ * per handler, as the transport used to register, with one listener per node, as
+ * HazelcastEventTransport now registers. Each per-handler listener decodes every message, then
+ * asks its handler whether it handles the event. The per-node listener peeks each event's type,
+ * decodes it only if some handler handles it, and fans out through its cached dispatch table.
+ * Half the handlers handle HandledEvent, half IgnoredEvent, and messages alternate between the two.
+ * <p/>
+ * Handlers run on the dispatching thread, so only dispatch is measured. Not run as part of the
+ * build. Run with, for example:
+ * <pre>
+ * java -cp ... com.strategicgains.eventing.hazelcast.DispatchBenchmark [messages]
+ * </pre>
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class DispatchBenchmark
+{
+	private static final int DEFAULT_MESSAGES = 500_000;
+	private static final int HANDLERS = 50;
+	private static final Executor DIRECT = new Executor()
+	{
+		@Override
+		public void execute(Runnable command)
+		{
+			command.run();
+		}
+	};
+
+	public static void main(String[] args)
+	{
+		int count = (args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES);
+		CountingCodec codec = new CountingCodec(new EventTypeRegistry().register(HandledEvent.class, 1).register(IgnoredEvent.class, 2));
+		List<byte[]> messages = newMessages(codec, count);
+		List<CountingHandler> handlers = newHandlers();
+		List<HandlerListener> perHandler = new ArrayList<HandlerListener>(HANDLERS);
+		EventHandlerAdapter shared = new EventHandlerAdapter(codec, DIRECT);
+
+		for (CountingHandler handler : handlers)
+		{
+			perHandler.add(new HandlerListener(handler, codec));
+			shared.register(handler);
+		}
+
+		// Warm up.
+		for (int i = 0; i < 5; i++)
+		{
+			dispatch(perHandler, messages);
+			dispatch(shared, messages);
+		}
+
+		reset(codec, handlers);
+		long start = System.nanoTime();
+		dispatch(perHandler, messages);
+		report("listener per handler", System.nanoTime() - start, codec, handlers, count);
+
+		reset(codec, handlers);
+		start = System.nanoTime();
+		dispatch(shared, messages);
+		report("listener per node", System.nanoTime() - start, codec, handlers, count);
+	}
+
+	private static void dispatch(List<HandlerListener> listeners, List<byte[]> messages)
+	{
+		for (byte[] message : messages)
+		{
+			// Every listener on the topic receives every message.
+			for (HandlerListener listener : listeners)
+			{
+				listener.dispatch(message);
+			}
+		}
+	}
+
+	private static void dispatch(EventHandlerAdapter adapter, List<byte[]> messages)
+	{
+		for (byte[] message : messages)
+		{
+			adapter.dispatch(message);
+		}
+	}
+
+	private static void reset(CountingCodec codec, List<CountingHandler> handlers)
+	{
+		codec.decodeCount.set(0L);
+
+		for (CountingHandler handler : handlers)
+		{
+			handler.handlesCount.set(0L);
+			handler.handleCount.set(0L);
+		}
+	}
+
+	private static void report(String name, long nanos, CountingCodec codec, List<CountingHandler> handlers, int count)
+	{
+		long handlesCalls = 0L;
+		long handled = 0L;
+
+		for (CountingHandler handler : handlers)
+		{
+			handlesCalls += handler.handlesCount.get();
+			handled += handler.handleCount.get();
+		}
+
+		System.out.println(String.format("%-22s %8.1f ns/message, decodes/message=%5.2f, handles()/message=%6.2f, deliveries/message=%5.1f",
+			name, (double) nanos / count, (double) codec.decodeCount.get() / count, (double) handlesCalls / count, (double) handled / count));
+	}
+
+	private static List<byte[]> newMessages(EventCodec codec, int count)
+	{
+		List<byte[]> messages = new ArrayList<byte[]>(count);
+
+		for (int i = 0; i < count; i++)
+		{
+			Object event = (i % 2 == 0 ? new HandledEvent() : new IgnoredEvent());
+			messages.add(EventFrameWriter.single(codec, event, EventFrameWriter.NO_COMPRESSION));
+		}
+
+		return messages;
+	}
+
+	private static List<CountingHandler> newHandlers()
+	{
+		List<CountingHandler> handlers = new ArrayList<CountingHandler>(HANDLERS);
+
+		for (int i = 0; i < HANDLERS; i++)
+		{
+			handlers.add(new CountingHandler(i % 2 == 0 ? HandledEvent.class : IgnoredEvent.class));
+		}
+
+		return handlers;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * The listener the transport registered per handler before dispatch tables: it decodes
+	 * every event, then asks its handler whether it handles it.
+	 */
+	private static class HandlerListener
+	{
+		private EventHandler handler;
+		private EventCodec codec;
+
+		public HandlerListener(EventHandler handler, EventCodec codec)
+		{
+			super();
+			this.handler = handler;
+			this.codec = codec;
+		}
+
+		public void dispatch(byte[] payload)
+		{
+			EventFrame frame = EventFrame.wrap(payload);
+
+			while (frame.hasNext())
+			{
+				Object event = codec.decode(frame.next());
+
+				if (!handler.handles(event.getClass())) continue;
+
+				try
+				{
+					handler.handle(event);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+	}
+
+	private static class CountingCodec
+	extends BinaryCodec
+	{
+		private AtomicLong decodeCount = new AtomicLong(0L);
+
+		public CountingCodec(EventTypeRegistry eventTypes)
+		{
+			super(eventTypes);
+		}
+
+		@Override
+		public Object decode(ByteBuffer bytes)
+		{
+			decodeCount.incrementAndGet();
+			return super.decode(bytes);
+		}
+	}
+
+	private static class CountingHandler
+	implements EventHandler
+	{
+		private Class<?> eventType;
+		private AtomicLong handlesCount = new AtomicLong(0L);
+		private AtomicLong handleCount = new AtomicLong(0L);
+
+		public CountingHandler(Class<?> eventType)
+		{
+			super();
+			this.eventType = eventType;
+		}
+
+		@Override
+		public void handle(Object event)
+		{
+			handleCount.incrementAndGet();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			handlesCount.incrementAndGet();
+			return eventType.isAssignableFrom(eventClass);
+		}
+	}
+}
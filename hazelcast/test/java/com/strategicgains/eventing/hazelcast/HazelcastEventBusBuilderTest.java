@@ -16,14 +16,38 @@
 package com.strategicgains.eventing.hazelcast;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.hazelcast.config.Config;
+import com.hazelcast.config.RingbufferConfig;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventKeyExtractor;
+import com.strategicgains.eventing.EventSlotFactory;
+import com.strategicgains.eventing.EventSlots;
+import com.strategicgains.eventing.codec.BinaryCodec;
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
 
 /**
  * @author toddf
@@ -127,8 +151,665 @@ public class HazelcastEventBusBuilderTest
 		assertEquals(5, longHandler.getCallCount());
 	}
 
+	@Test
+	public void shouldEncodeWithCodec()
+	throws Exception
+	{
+		// Every node on the topic must use the same codec.
+		queue.shutdown();
+		DomainEventsTestHandler binaryHandler = new DomainEventsTestHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.codec(new BinaryCodec())
+			.subscribe(binaryHandler)
+			.build();
+
+		queue.publish(new HandledEvent());
+		queue.publish(new IgnoredEvent());
+		queue.publish(new HandledEvent());
+		Thread.sleep(50);
+		assertEquals(2, binaryHandler.getCallCount());
+	}
+
+	@Test
+	public void shouldEncodeWithEventTypeIds()
+	throws Exception
+	{
+		queue.shutdown();
+		DomainEventsTestHandler typedHandler = new DomainEventsTestHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.eventType(HandledEvent.class, 1)
+			.eventType(IgnoredEvent.class, 2)
+			.subscribe(typedHandler)
+			.build();
+
+		queue.publish(new HandledEvent());
+		queue.publish(new IgnoredEvent());
+		queue.publish(new HandledEvent());
+		Thread.sleep(50);
+		assertEquals(2, typedHandler.getCallCount());
+	}
+
+	@Test
+	public void shouldDecodeOnlyHandledEventsOncePerNode()
+	throws Exception
+	{
+		queue.shutdown();
+		DomainEventsTestHandler first = new DomainEventsTestHandler();
+		DomainEventsTestHandler second = new DomainEventsTestHandler();
+		CountingCodec codec = new CountingCodec();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.codec(codec)
+			.eventType(HandledEvent.class, 1)
+			.eventType(IgnoredEvent.class, 2)
+			.subscribe(first)
+			.subscribe(second)
+			.build();
+
+		queue.publish(new HandledEvent());
+		queue.publish(new IgnoredEvent());
+		queue.publish(new IgnoredEvent());
+		queue.publish(new HandledEvent());
+		Thread.sleep(50);
+		assertEquals(2, first.getCallCount());
+		assertEquals(2, second.getCallCount());
+		assertEquals(2, codec.decodeCount.get());
+	}
+
+	@Test
+	public void shouldBatchAndCompress()
+	throws Exception
+	{
+		queue.shutdown();
+		DomainEventsTestHandler batchHandler = new DomainEventsTestHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.codec(new BinaryCodec())
+			.batch(10, 20)
+			.compressionThreshold(16)
+			.subscribe(batchHandler)
+			.build();
+
+		for (int i = 0; i < 25; i++)
+		{
+			queue.publish(new HandledEvent());
+			queue.publish(new IgnoredEvent());
+		}
+
+		// The last five events wait out the linger time.
+		Thread.sleep(100);
+		assertEquals(25, batchHandler.getCallCount());
+	}
+
+	@Test
+	public void shouldDeliverReliablyInOrder()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler sequenced = new SequenceRecordingHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.reliable(10)
+			.subscribe(sequenced)
+			.build();
+
+		for (int i = 0; i < 250; i++)
+		{
+			queue.publish(new SequencedEvent(i));
+		}
+
+		sequenced.await(250);
+		assertInOrder(sequenced.getSequences(), 0, 250);
+
+		// The sequence passes an event once its handlers return.
+		Thread.sleep(50);
+		assertEquals(250L, queue.getReadSequence());
+		assertEquals(0L, queue.getLostCount());
+	}
+
+	@Test
+	public void shouldHandleReliableEventsOffHazelcastThreads()
+	throws Exception
+	{
+		queue.shutdown();
+		final List<String> threads = new ArrayList<String>();
+		SequenceRecordingHandler sequenced = new SequenceRecordingHandler()
+		{
+			@Override
+			public synchronized void handle(Object event)
+			{
+				threads.add(Thread.currentThread().getName());
+				super.handle(event);
+			}
+		};
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.reliable()
+			.subscribe(sequenced)
+			.build();
+
+		queue.publish(new SequencedEvent(0));
+		sequenced.await(1);
+		assertEquals(1, threads.size());
+		assertTrue(threads.get(0), threads.get(0).startsWith("hazelcast-ringbuffer-reader"));
+	}
+
+	@Test
+	public void shouldResumeFromLastSequence()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler sequenced = new SequenceRecordingHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.reliable()
+			.subscribe(sequenced)
+			.build();
+
+		for (int i = 0; i < 5; i++)
+		{
+			queue.publish(new SequencedEvent(i));
+		}
+
+		sequenced.await(5);
+		queue.unsubscribe(sequenced);
+
+		// Published while nothing on this node is subscribed.
+		for (int i = 5; i < 10; i++)
+		{
+			queue.publish(new SequencedEvent(i));
+		}
+
+		Thread.sleep(50);
+		assertEquals(5, sequenced.getSequences().size());
+		queue.subscribe(sequenced);
+		sequenced.await(10);
+		assertInOrder(sequenced.getSequences(), 0, 10);
+	}
+
+	@Test
+	public void shouldSkipOverwrittenEvents()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler sequenced = new SequenceRecordingHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.setConfiguration(new Config().addRingBufferConfig(new RingbufferConfig("domain-events").setCapacity(10)))
+			.reliable()
+			.resumeFrom(0L)
+			.build();
+
+		for (int i = 0; i < 25; i++)
+		{
+			queue.publish(new SequencedEvent(i));
+		}
+
+		// The first 15 events have been overwritten before this node reads them.
+		queue.subscribe(sequenced);
+		sequenced.await(10);
+		assertInOrder(sequenced.getSequences(), 15, 25);
+		assertEquals(15L, queue.getLostCount());
+	}
+
+	@Test
+	public void shouldShareInstanceAcrossBuses()
+	throws Exception
+	{
+		DomainEventsTestHandler otherHandler = new DomainEventsTestHandler();
+		HazelcastEventBus<Serializable> other = new HazelcastEventBusBuilder<Serializable>()
+			.subscribe(otherHandler)
+			.build();
+		HazelcastInstance hazelcast = queue.getInstance();
+
+		assertSame(hazelcast, other.getInstance());
+		assertEquals(2, HazelcastInstances.getReferenceCount(hazelcast));
+
+		// Shutting one bus down detaches only its own handlers.
+		other.shutdown();
+		assertEquals(1, HazelcastInstances.getReferenceCount(hazelcast));
+		assertTrue(hazelcast.getLifecycleService().isRunning());
+		queue.publish(new HandledEvent());
+		Thread.sleep(50);
+		assertEquals(1, handler.getCallCount());
+		assertEquals(0, otherHandler.getCallCount());
+
+		queue.shutdown();
+		assertNull(queue.getInstance());
+		assertEquals(0, HazelcastInstances.getReferenceCount(hazelcast));
+		assertFalse(hazelcast.getLifecycleService().isRunning());
+	}
+
+	@Test
+	public void shouldStartOneInstanceForConcurrentAcquires()
+	throws Exception
+	{
+		final Config config = new Config();
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<HazelcastInstance> acquired = Collections.synchronizedList(new ArrayList<HazelcastInstance>());
+		Thread[] threads = new Thread[8];
+
+		for (int i = 0; i < threads.length; i++)
+		{
+			threads[i] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+						acquired.add(HazelcastInstances.acquire(config));
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+			});
+			threads[i].start();
+		}
+
+		start.countDown();
+
+		for (Thread thread : threads)
+		{
+			thread.join(5000L);
+		}
+
+		HazelcastInstance hazelcast = acquired.get(0);
+		assertEquals(threads.length, acquired.size());
+		assertEquals(1, new HashSet<HazelcastInstance>(acquired).size());
+		assertEquals(threads.length, HazelcastInstances.getReferenceCount(hazelcast));
+
+		for (HazelcastInstance instance : acquired)
+		{
+			HazelcastInstances.release(instance);
+		}
+
+		assertEquals(0, HazelcastInstances.getReferenceCount(hazelcast));
+		assertFalse(hazelcast.getLifecycleService().isRunning());
+	}
+
+	@Test
+	public void shouldNotShutDownSuppliedInstance()
+	throws Exception
+	{
+		HazelcastInstance hazelcast = Hazelcast.newHazelcastInstance(new Config());
+		DomainEventsTestHandler suppliedHandler = new DomainEventsTestHandler();
+		HazelcastEventBus<Serializable> supplied = new HazelcastEventBusBuilder<Serializable>()
+			.instance(hazelcast)
+			.subscribe(suppliedHandler)
+			.build();
+
+		assertSame(hazelcast, supplied.getInstance());
+		supplied.publish(new HandledEvent());
+		Thread.sleep(50);
+		assertEquals(1, suppliedHandler.getCallCount());
+
+		supplied.shutdown();
+		assertEquals(0, HazelcastInstances.getReferenceCount(hazelcast));
+		assertTrue(hazelcast.getLifecycleService().isRunning());
+		hazelcast.shutdown();
+	}
+
+	@Test
+	public void shouldWakeIdleWorkQueueWorkers()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler sequenced = new SequenceRecordingHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.workQueues(null)
+			.subscribe(sequenced)
+			.build();
+
+		// Let the workers find the queues empty and wait.
+		Thread.sleep(100);
+		long start = System.currentTimeMillis();
+		queue.publish(new SequencedEvent(0));
+		sequenced.await(1);
+
+		// Well within the workers' idle re-check interval.
+		assertEquals(1, sequenced.getSequences().size());
+		assertTrue(System.currentTimeMillis() - start < 500L);
+	}
+
+	@Test
+	public void shouldHandleEachWorkQueueEventOnceInKeyOrder()
+	throws Exception
+	{
+		queue.shutdown();
+		EventKeyExtractor keys = new EventKeyExtractor()
+		{
+			@Override
+			public String keyFor(Object event)
+			{
+				return String.valueOf(((SequencedEvent) event).getSequence() % 10);
+			}
+		};
+		List<Integer> handled = new ArrayList<Integer>();
+		SequenceRecordingHandler first = new SequenceRecordingHandler(handled);
+		SequenceRecordingHandler second = new SequenceRecordingHandler(handled);
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.workQueues(keys, 4, 2, 10)
+			.subscribe(first)
+			.build();
+		HazelcastEventBus<Serializable> other = new HazelcastEventBusBuilder<Serializable>()
+			.workQueues(keys, 4, 2, 10)
+			.subscribe(second)
+			.build();
+
+		try
+		{
+			List<SequencedEvent> events = new ArrayList<SequencedEvent>();
+
+			for (int i = 0; i < 200; i++)
+			{
+				if (i < 100)
+				{
+					queue.publish(new SequencedEvent(i));
+				}
+				else
+				{
+					events.add(new SequencedEvent(i));
+				}
+			}
+
+			other.publishAll(events);
+			first.await(handled, 200);
+			Thread.sleep(50);
+
+			// Each event is handled by just one of the buses, each key's events in order.
+			assertEquals(200, first.getSequences().size() + second.getSequences().size());
+			assertEquals(200, handled.size());
+
+			for (int key = 0; key < 10; key++)
+			{
+				int last = -1;
+
+				for (int sequence : handled)
+				{
+					if (sequence % 10 != key) continue;
+
+					assertTrue(sequence > last);
+					last = sequence;
+				}
+			}
+		}
+		finally
+		{
+			other.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldDeliverLocallyWithoutDecoding()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler local = new SequenceRecordingHandler();
+		CountingCodec codec = new CountingCodec();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.codec(codec)
+			.localDelivery()
+			.subscribe(local)
+			.build();
+
+		queue.publish(new SequencedEvent(1));
+		queue.publishAll(Arrays.asList(new SequencedEvent(2), new SequencedEvent(3)));
+		local.await(3);
+		Thread.sleep(50);
+
+		// Still sent, for any other listener, but skipped when it comes back.
+		assertEquals(3, local.getSequences().size());
+		assertEquals(3, codec.encodeCount.get());
+		assertEquals(0, codec.decodeCount.get());
+	}
+
+	@Test
+	public void shouldDeliverLocallyToBusesSharingInstance()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler first = new SequenceRecordingHandler();
+		SequenceRecordingHandler second = new SequenceRecordingHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.localDelivery()
+			.subscribe(first)
+			.build();
+		HazelcastEventBus<Serializable> other = new HazelcastEventBusBuilder<Serializable>()
+			.localDelivery()
+			.subscribe(second)
+			.build();
+
+		try
+		{
+			// The only member of the cluster, shared by both buses.
+			assertSame(queue.getInstance(), other.getInstance());
+			queue.publish(new SequencedEvent(1));
+			other.publish(new SequencedEvent(2));
+			first.await(2);
+			second.await(2);
+			Thread.sleep(50);
+
+			assertEquals(2, first.getSequences().size());
+			assertEquals(2, second.getSequences().size());
+		}
+		finally
+		{
+			other.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldSendLocallyDeliveredEventsToRemoteMembers()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler local = new SequenceRecordingHandler();
+		SequenceRecordingHandler remote = new SequenceRecordingHandler();
+		CountingCodec codec = new CountingCodec();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.codec(codec)
+			.localDelivery()
+			.subscribe(local)
+			.build();
+
+		// Another member of the cluster.
+		HazelcastEventBus<Serializable> other = new HazelcastEventBusBuilder<Serializable>()
+			.setConfiguration(new Config())
+			.codec(codec)
+			.localDelivery()
+			.subscribe(remote)
+			.build();
+
+		try
+		{
+			queue.publish(new SequencedEvent(1));
+			local.await(1);
+			remote.await(1);
+			Thread.sleep(50);
+
+			// Delivered once on each member, encoded once and decoded only remotely.
+			assertEquals(1, local.getSequences().size());
+			assertEquals(1, remote.getSequences().size());
+			assertEquals(1, codec.encodeCount.get());
+			assertEquals(1, codec.decodeCount.get());
+		}
+		finally
+		{
+			other.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldDeliverSlotCopiesLocally()
+	throws Exception
+	{
+		queue.shutdown();
+		SequenceRecordingHandler local = new SequenceRecordingHandler();
+		queue = new HazelcastEventBusBuilder<Serializable>()
+			.codec(new BinaryCodec())
+			.localDelivery()
+			.subscribe(local)
+			.build();
+		EventSlots<SequencedEvent> slots = queue.addSlots(SequencedEvent.class, new EventSlotFactory<SequencedEvent>()
+		{
+			@Override
+			public SequencedEvent newSlot()
+			{
+				return new SequencedEvent();
+			}
+		}, 4);
+
+		for (int i = 0; i < 200; i++)
+		{
+			long sequence = slots.claim();
+			slots.get(sequence).setSequence(i);
+			slots.commit(sequence);
+		}
+
+		local.await(200);
+		Thread.sleep(50);
+
+		// Each handled once with its own value, not whatever the reused slot held by then.
+		List<Integer> sequences = local.getSequences();
+		Collections.sort(sequences);
+		assertInOrder(sequences, 0, 200);
+	}
+
+	@Test
+	public void shouldSkipUnknownEventTypesInBatch()
+	{
+		BinaryCodec sender = new BinaryCodec(new EventTypeRegistry()
+			.register(HandledEvent.class, 1)
+			.register(IgnoredEvent.class, 2));
+		EventFrameWriter writer = new EventFrameWriter(sender);
+		writer.add(new HandledEvent());
+		writer.add(new IgnoredEvent());
+		writer.add(new HandledEvent());
+
+		// The receiver doesn't know type id 2.
+		EventHandlerAdapter adapter = new EventHandlerAdapter(new BinaryCodec(new EventTypeRegistry()
+			.register(HandledEvent.class, 1)), new Executor()
+			{
+				@Override
+				public void execute(Runnable command)
+				{
+					command.run();
+				}
+			});
+		DomainEventsTestHandler handled = new DomainEventsTestHandler();
+		adapter.register(handled);
+		adapter.register(ignoredHandler);
+		adapter.dispatch(writer.finish());
+
+		assertEquals(2, handled.getCallCount());
+		assertEquals(0, ignoredHandler.getCallCount());
+	}
+
+	private static void assertInOrder(List<Integer> sequences, int from, int to)
+	{
+		assertEquals(to - from, sequences.size());
+
+		for (int i = from; i < to; i++)
+		{
+			assertEquals(i, sequences.get(i - from).intValue());
+		}
+	}
+
 	
 	// SECTION: INNER CLASSES
+
+	private static class SequenceRecordingHandler
+	implements EventHandler
+	{
+		private List<Integer> sequences = new ArrayList<Integer>();
+		private List<Integer> shared;
+
+		public SequenceRecordingHandler()
+		{
+			this(null);
+		}
+
+		/**
+		 * @param shared also records events in this list, with other handlers.
+		 */
+		public SequenceRecordingHandler(List<Integer> shared)
+		{
+			super();
+			this.shared = shared;
+		}
+
+		@Override
+		public synchronized void handle(Object event)
+		{
+			int sequence = ((SequencedEvent) event).getSequence();
+			sequences.add(sequence);
+			notifyAll();
+
+			if (shared != null)
+			{
+				synchronized (shared)
+				{
+					shared.add(sequence);
+					shared.notifyAll();
+				}
+			}
+		}
+
+		public synchronized List<Integer> getSequences()
+		{
+			return new ArrayList<Integer>(sequences);
+		}
+
+		public synchronized void await(int count)
+		throws InterruptedException
+		{
+			long deadline = System.currentTimeMillis() + 5000L;
+
+			while (sequences.size() < count && System.currentTimeMillis() < deadline)
+			{
+				wait(deadline - System.currentTimeMillis());
+			}
+		}
+
+		public void await(List<Integer> shared, int count)
+		throws InterruptedException
+		{
+			long deadline = System.currentTimeMillis() + 5000L;
+
+			synchronized (shared)
+			{
+				while (shared.size() < count && System.currentTimeMillis() < deadline)
+				{
+					shared.wait(deadline - System.currentTimeMillis());
+				}
+			}
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return SequencedEvent.class.isAssignableFrom(eventClass);
+		}
+	}
+
+	private static class CountingCodec
+	extends BinaryCodec
+	{
+		private AtomicInteger decodeCount = new AtomicInteger(0);
+		private AtomicInteger encodeCount = new AtomicInteger(0);
+
+		@Override
+		public void encode(Object event, EncodeBuffer buffer)
+		{
+			encodeCount.incrementAndGet();
+			super.encode(event, buffer);
+		}
+
+		@Override
+		public Object decode(ByteBuffer bytes)
+		{
+			decodeCount.incrementAndGet();
+			return super.decode(bytes);
+		}
+	}
 	
 	private static class DomainEventsTestHandler
 	implements EventHandler
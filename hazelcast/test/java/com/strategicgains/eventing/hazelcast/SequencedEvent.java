@@ -0,0 +1,51 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.hazelcast;
+
+import java.io.Serializable;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class SequencedEvent
+implements Serializable
+{
+    private static final long serialVersionUID = 4096335218745180214L;
+
+	private int sequence;
+
+	public SequencedEvent()
+	{
+		super();
+	}
+
+	public SequencedEvent(int sequence)
+	{
+		super();
+		this.sequence = sequence;
+	}
+
+	public int getSequence()
+	{
+		return sequence;
+	}
+
+	public void setSequence(int sequence)
+	{
+		this.sequence = sequence;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+/**
+ * The producer's 'acks' setting: how many replicas must receive a record before a send
+ * succeeds.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public enum Acks
+{
+	/**
+	 * Don't wait for the broker. Fastest, but records can be lost without the producer knowing.
+	 */
+	NONE("0"),
+
+	/**
+	 * Wait for the partition leader only. Records can be lost if the leader fails before replicating.
+	 */
+	LEADER("1"),
+
+	/**
+	 * Wait for all in-sync replicas.
+	 */
+	ALL("all");
+
+	private final String value;
+
+	private Acks(String value)
+	{
+		this.value = value;
+	}
+
+	/**
+	 * @return the value of the producer's 'acks' property.
+	 */
+	public String value()
+	{
+		return value;
+	}
+}
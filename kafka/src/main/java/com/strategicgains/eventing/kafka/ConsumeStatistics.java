@@ -0,0 +1,268 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.kafka.common.TopicPartition;
+
+import com.strategicgains.eventing.metrics.Gauge;
+import com.strategicgains.eventing.metrics.LatencyHistogram;
+import com.strategicgains.eventing.metrics.Metrics;
+
+/**
+ * The consumer runtime's statistics: per-partition and total lag, processing rate and processing
+ * latency (see PartitionStatistics), exposed as metrics named:
+ * <pre>
+ * kafka.consumer.lag, kafka.consumer.records-per-sec, kafka.consumer.processed.records,
+ * kafka.consumer.latency.*                   (totals across the assigned partitions)
+ * kafka.consumer.worker-threads              (the size of the worker pool)
+ * kafka.consumer.[topic]-[partition].lag, .records-per-sec, .processed.records, .latency.*
+ * </pre>
+ * Partitions' metrics are added as partitions are assigned and removed as they're revoked.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class ConsumeStatistics
+{
+	// SECTION: CONSTANTS
+
+	public static final String PREFIX = "kafka.consumer.";
+	public static final String LAG_METRIC = PREFIX + "lag";
+	public static final String RATE_METRIC = PREFIX + "records-per-sec";
+	public static final String PROCESSED_METRIC = PREFIX + "processed.records";
+	public static final String LATENCY_METRIC = PREFIX + "latency";
+	public static final String WORKER_THREADS_METRIC = PREFIX + "worker-threads";
+
+	private static final String LAG = ".lag";
+	private static final String RATE = ".records-per-sec";
+	private static final String PROCESSED = ".processed.records";
+	private static final String LATENCY = ".latency";
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private ConcurrentMap<TopicPartition, PartitionStatistics> partitions = new ConcurrentHashMap<TopicPartition, PartitionStatistics>();
+	private LatencyHistogram latency = new LatencyHistogram();
+	private volatile Metrics metrics;
+	private volatile int workerThreads = 0;
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * @return the statistics for a partition, creating (and registering metrics for) them if needed.
+	 */
+	public PartitionStatistics forPartition(TopicPartition partition)
+	{
+		PartitionStatistics statistics = partitions.get(partition);
+
+		if (statistics == null)
+		{
+			PartitionStatistics created = new PartitionStatistics(partition, latency);
+			statistics = partitions.putIfAbsent(partition, created);
+
+			if (statistics == null)
+			{
+				statistics = created;
+				register(created);
+			}
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Stop tracking a partition, e.g. once it's revoked.
+	 */
+	public void remove(TopicPartition partition)
+	{
+		PartitionStatistics statistics = partitions.remove(partition);
+
+		if (statistics != null)
+		{
+			unregister(statistics);
+		}
+	}
+
+	public Map<TopicPartition, PartitionStatistics> getPartitions()
+	{
+		return partitions;
+	}
+
+	/**
+	 * @return the total lag of the partitions whose lag is known.
+	 */
+	public long getLag()
+	{
+		long total = 0L;
+
+		for (PartitionStatistics statistics : partitions.values())
+		{
+			total += Math.max(0L, statistics.getLag());
+		}
+
+		return total;
+	}
+
+	public long getRecordsPerSecond()
+	{
+		long total = 0L;
+
+		for (PartitionStatistics statistics : partitions.values())
+		{
+			total += statistics.getRecordsPerSecond();
+		}
+
+		return total;
+	}
+
+	public long getProcessed()
+	{
+		long total = 0L;
+
+		for (PartitionStatistics statistics : partitions.values())
+		{
+			total += statistics.getProcessed();
+		}
+
+		return total;
+	}
+
+	public LatencyHistogram getLatency()
+	{
+		return latency;
+	}
+
+	public int getWorkerThreads()
+	{
+		return workerThreads;
+	}
+
+	void setWorkerThreads(int count)
+	{
+		this.workerThreads = count;
+	}
+
+	/**
+	 * Expose the totals, and each partition's statistics, as gauges.
+	 * 
+	 * @param metrics
+	 */
+	public void registerMetrics(Metrics metrics)
+	{
+		this.metrics = metrics;
+		metrics.register(LAG_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getLag();
+			}
+		});
+		metrics.register(RATE_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getRecordsPerSecond();
+			}
+		});
+		metrics.register(PROCESSED_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getProcessed();
+			}
+		});
+		metrics.register(WORKER_THREADS_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getWorkerThreads();
+			}
+		});
+		latency.registerMetrics(metrics, LATENCY_METRIC);
+
+		for (PartitionStatistics statistics : partitions.values())
+		{
+			register(statistics);
+		}
+	}
+
+	/**
+	 * The metric name prefix for a partition, e.g. 'kafka.consumer.domain-events-0'.
+	 */
+	public static String prefixFor(TopicPartition partition)
+	{
+		return PREFIX + partition.topic() + "-" + partition.partition();
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private void register(final PartitionStatistics statistics)
+	{
+		Metrics registry = metrics;
+
+		if (registry == null) return;
+
+		String prefix = prefixFor(statistics.getPartition());
+		registry.register(prefix + LAG, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return statistics.getLag();
+			}
+		});
+		registry.register(prefix + RATE, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return statistics.getRecordsPerSecond();
+			}
+		});
+		registry.register(prefix + PROCESSED, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return statistics.getProcessed();
+			}
+		});
+		statistics.getLatency().registerMetrics(registry, prefix + LATENCY);
+	}
+
+	private void unregister(PartitionStatistics statistics)
+	{
+		Metrics registry = metrics;
+
+		if (registry == null) return;
+
+		String prefix = prefixFor(statistics.getPartition());
+		registry.unregister(prefix + LAG);
+		registry.unregister(prefix + RATE);
+		registry.unregister(prefix + PROCESSED);
+		statistics.getLatency().unregisterMetrics(registry, prefix + LATENCY);
+	}
+}
@@ -0,0 +1,188 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.strategicgains.eventing.EventHandler;
+
+/**
+ * Routes published events to Kafka topics by type, so each event type (or family of types)
+ * can have a topic of its own and a consumer fetches only the topics carrying events its
+ * handlers handle, instead of downloading every event to skip most of them.
+ * <p/>
+ * An event goes to the topic of the first route whose type it is an instance of, in the order
+ * the routes were added, or to the default topic if none matches. Each event class's topic is
+ * resolved once, then cached.
+ * <p/>
+ * Consumers subscribe to the topic of each route whose type one of their handlers handles, as
+ * asked via EventHandler.handles(), plus the default topic, which may carry any type. So route
+ * the types handlers name, or have handlers handle the routed supertype. Without a default topic,
+ * events of unrouted types can't be published, and consumers subscribe to routed topics only.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class EventTopicRouter
+{
+	// SECTION: CONSTANTS
+
+	// ConcurrentHashMap can't hold null, so cache 'no topic' as this.
+	private static final String NO_TOPIC = "";
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private String defaultTopic;
+	private Map<Class<?>, String> routes = new LinkedHashMap<Class<?>, String>();
+	private Map<Class<?>, String> topicsByClass = new ConcurrentHashMap<Class<?>, String>();
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param defaultTopic the topic for events of unrouted types. If null, they can't be published.
+	 */
+	public EventTopicRouter(String defaultTopic)
+	{
+		super();
+		this.defaultTopic = defaultTopic;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Send events of the given type, and its subtypes, to a topic.
+	 * 
+	 * @param eventType the event type.
+	 * @param topic the topic its events are published to and consumed from.
+	 * @return this router to facilitate method chaining.
+	 */
+	public synchronized EventTopicRouter route(Class<?> eventType, String topic)
+	{
+		if (eventType == null || topic == null)
+		{
+			throw new NullPointerException("Event type and topic are required");
+		}
+
+		routes.put(eventType, topic);
+		topicsByClass.clear();
+		return this;
+	}
+
+	public String getDefaultTopic()
+	{
+		return defaultTopic;
+	}
+
+	/**
+	 * @param eventType a published event's class.
+	 * @return the topic to publish it to, or null if it isn't routed and there's no default topic.
+	 */
+	public String topicFor(Class<?> eventType)
+	{
+		String topic = topicsByClass.get(eventType);
+
+		if (topic == null)
+		{
+			topic = resolve(eventType);
+		}
+
+		return (topic == NO_TOPIC ? null : topic);
+	}
+
+	/**
+	 * @return every topic events are published to: the routes' and the default.
+	 */
+	public synchronized Set<String> getTopics()
+	{
+		Set<String> topics = new LinkedHashSet<String>();
+
+		if (defaultTopic != null)
+		{
+			topics.add(defaultTopic);
+		}
+
+		topics.addAll(routes.values());
+		return topics;
+	}
+
+	/**
+	 * @param handlers the subscribed handlers.
+	 * @return the topics the handlers need: the default topic, if any, and the topic of each route
+	 * whose type one of them handles. Empty if there are no handlers.
+	 */
+	public synchronized Set<String> topicsHandledBy(Collection<EventHandler> handlers)
+	{
+		Set<String> topics = new LinkedHashSet<String>();
+
+		if (handlers.isEmpty()) return topics;
+
+		if (defaultTopic != null)
+		{
+			topics.add(defaultTopic);
+		}
+
+		for (Entry<Class<?>, String> route : routes.entrySet())
+		{
+			for (EventHandler handler : handlers)
+			{
+				if (handler.handles(route.getKey()))
+				{
+					topics.add(route.getValue());
+					break;
+				}
+			}
+		}
+
+		return topics;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * Find and cache the topic for an event class (NO_TOPIC if there is none).
+	 */
+	private synchronized String resolve(Class<?> eventType)
+	{
+		String topic = defaultTopic;
+
+		for (Entry<Class<?>, String> route : routes.entrySet())
+		{
+			if (route.getKey().isAssignableFrom(eventType))
+			{
+				topic = route.getValue();
+				break;
+			}
+		}
+
+		if (topic == null)
+		{
+			topic = NO_TOPIC;
+		}
+
+		topicsByClass.put(eventType, topic);
+		return topic;
+	}
+}
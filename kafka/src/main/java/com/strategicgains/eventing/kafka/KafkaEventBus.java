@@ -16,19 +16,137 @@
 package com.strategicgains.eventing.kafka;
 
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.strategicgains.eventing.EventBus;
+import com.strategicgains.eventing.EventCapacity;
+import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventSlotFactory;
+import com.strategicgains.eventing.EventSlots;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.metrics.Gauge;
 
 /**
+ * In addition to the EventBus metrics, exposes the KafkaEventTransport's SendStatistics and
+ * IN_FLIGHT_METRIC, the number of events awaiting acknowledgement (when limited).
+ * 
  * @author tfredrich
  * @since 20 May 2016
  */
 public class KafkaEventBus
 extends EventBus
 {
+	public static final String IN_FLIGHT_METRIC = "kafka.in-flight.events";
+
 	public KafkaEventBus(Properties config, String topic, ObjectMapper mapper)
 	{
-		super(new KafkaEventTransport(config, topic, mapper));
+		this(new KafkaEventTransport(config, topic, mapper));
+	}
+
+	public KafkaEventBus(Properties config, String topic, EventCodec codec)
+	{
+		this(new KafkaEventTransport(config, topic, codec));
+	}
+
+	public KafkaEventBus(final KafkaEventTransport transport)
+	{
+		super(transport);
+		transport.getStatistics().registerMetrics(getMetrics());
+		getMetrics().register(IN_FLIGHT_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				EventCapacity inFlight = transport.getInFlightLimit();
+				return (inFlight == null ? 0L : inFlight.getPendingEvents());
+			}
+		});
+
+		if (transport.getConsumeStatistics() != null)
+		{
+			transport.getConsumeStatistics().registerMetrics(getMetrics());
+		}
+	}
+
+	/**
+	 * Events are encoded before publish() returns, so a slot can be reused right away, unless
+	 * in-flight capacity is limited: each event's capacity is released (and its size estimated
+	 * again) only once its record is acknowledged, by which time the slot holds another event.
+	 * 
+	 * @throws UnsupportedOperationException if the transport has an in-flight limit.
+	 */
+	@Override
+	public <T> EventSlots<T> addSlots(Class<T> type, EventSlotFactory<T> factory, int size)
+	{
+		if (((KafkaEventTransport) getTransport()).getInFlightLimit() != null)
+		{
+			throw new UnsupportedOperationException("In-flight events are held until acknowledged, so event slots cannot be reused safely");
+		}
+
+		return super.addSlots(type, factory, size);
+	}
+
+	/**
+	 * Publish an event and learn when the broker has acknowledged it (see
+	 * KafkaEventTransport.publishAsync()).
+	 * 
+	 * @param event the Object as an event to publish.
+	 * @return a stage completed with the event's record metadata, or exceptionally if it could not
+	 * be sent. The event is counted as published once the stage completes normally.
+	 * If this bus doesn't publish events of the type, the stage is already complete, with null.
+	 */
+	public CompletionStage<RecordMetadata> publishAsync(Object event)
+	{
+		if (!canPublish(event.getClass())) return CompletableFuture.completedFuture(null);
+
+		CompletionStage<RecordMetadata> result = ((KafkaEventTransport) getTransport()).publishAsync(event);
+		result.whenComplete(new BiConsumer<RecordMetadata, Throwable>()
+		{
+			@Override
+			public void accept(RecordMetadata metadata, Throwable exception)
+			{
+				if (exception == null)
+				{
+					getMetrics().increment(PUBLISHED_METRIC);
+				}
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Replay history into a handler, then hand over to live consumption (see KafkaReplay). For
+	 * backfilling a new handler, such as a projection, which is not subscribed to this bus.
+	 * 
+	 * @param consumerConfig Kafka consumer configuration, with the handler's own group.id. The
+	 * deserializers are supplied and auto-commit is disabled.
+	 * @param handler the handler to replay into.
+	 * @return the replay, to be positioned (e.g. fromTimestamp()) and started.
+	 */
+	public KafkaReplay replay(Properties consumerConfig, EventHandler handler)
+	{
+		Properties config = new Properties();
+		config.putAll(consumerConfig);
+		config.put("enable.auto.commit", "false");
+		return replay(new KafkaConsumer<byte[], byte[]>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer()), handler);
+	}
+
+	/**
+	 * @param consumer the replay's consumer, configured with the handler's own group.id and
+	 * enable.auto.commit=false.
+	 * @param handler the handler to replay into.
+	 * @return the replay, to be positioned (e.g. fromTimestamp()) and started.
+	 */
+	public KafkaReplay replay(Consumer<byte[], byte[]> consumer, EventHandler handler)
+	{
+		return ((KafkaEventTransport) getTransport()).replay(consumer, handler);
 	}
 }
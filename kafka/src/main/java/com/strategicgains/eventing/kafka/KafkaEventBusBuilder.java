@@ -15,34 +15,624 @@
 */
 package com.strategicgains.eventing.kafka;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.record.CompressionType;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
 import com.strategicgains.eventing.EventBusBuilder;
+import com.strategicgains.eventing.EventCapacity;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventKeyExtractor;
+import com.strategicgains.eventing.EventSizeEstimator;
+import com.strategicgains.eventing.codec.EventBatcher;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
+import com.strategicgains.eventing.codec.JacksonCodec;
 
 /**
+ * Builds a KafkaEventBus. Publishing requires producer configuration (or a producer);
+ * subscribing handlers also requires consumer configuration (or a consumer), including a
+ * group.id. Consumer offsets are committed by the bus, so auto-commit is disabled.
+ * <p/>
+ * Created producers default to throughput-oriented settings: linger.ms=5, batch.size=64KB,
+ * compression.type=lz4 and acks=1. Producer configuration overrides those defaults and the
+ * typed options (e.g. acks()) override both.
+ * <p/>
+ * For exactly-once consume-transform-produce pipelines, build each bus with the same
+ * KafkaTransactions (see transactions()), which supplies the producer.
+ * <p/>
+ * To give event types topics of their own, so consumers fetch only the events they handle,
+ * see route().
+ * 
  * @author tfredrich
  * @since 20 May 2016
  */
 public class KafkaEventBusBuilder
 implements EventBusBuilder<KafkaEventBus, KafkaEventBusBuilder>
 {
+	private static final String DEFAULT_TOPIC = "domain-events";
+	private static final long DEFAULT_PRODUCER_LINGER_MILLIS = 5L;
+	private static final int DEFAULT_PRODUCER_BATCH_SIZE = 64 * 1024;
+	private static final CompressionType DEFAULT_PRODUCER_COMPRESSION = CompressionType.LZ4;
+	private static final Acks DEFAULT_ACKS = Acks.LEADER;
+
+	private String topic = DEFAULT_TOPIC;
+	private Map<Class<?>, String> routes = new LinkedHashMap<Class<?>, String>();
+	private Properties producerConfig = null;
+	private Properties consumerConfig = null;
+	private Producer<byte[], byte[]> producer = null;
+	private Consumer<byte[], byte[]> consumer = null;
+	private Set<EventHandler> subscribers = new LinkedHashSet<EventHandler>();
+	private EventCodec codec = null;
+	private EventTypeRegistry eventTypes = new EventTypeRegistry();
+	private int compressionThreshold = EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD;
+	private int maxBatchEvents = 0;
+	private int maxBatchBytes = EventBatcher.DEFAULT_MAX_BYTES;
+	private long lingerMillis = EventBatcher.DEFAULT_LINGER_MILLIS;
+	private int workerThreads = Runtime.getRuntime().availableProcessors();
+	private int parallelismPerPartition = 1;
+	private int highWatermarkRecords = KafkaEventHandlerAdapter.DEFAULT_HIGH_WATERMARK_RECORDS;
+	private int lowWatermarkRecords = KafkaEventHandlerAdapter.DEFAULT_LOW_WATERMARK_RECORDS;
+	private long highWatermarkBytes = KafkaEventHandlerAdapter.UNLIMITED_BYTES;
+	private long lowWatermarkBytes = KafkaEventHandlerAdapter.UNLIMITED_BYTES;
+	private WorkerAutoscaler autoscaler = null;
+	private EventKeyExtractor keyExtractor = null;
+	private Long producerLingerMillis = null;
+	private Integer producerBatchSize = null;
+	private CompressionType producerCompression = null;
+	private Acks acks = null;
+	private long maxInFlightEvents = EventCapacity.UNLIMITED;
+	private long maxInFlightBytes = EventCapacity.UNLIMITED;
+	private EventSizeEstimator sizeEstimator = null;
+	private boolean isIdempotent = false;
+	private KafkaTransactions transactions = null;
+	private String groupId = null;
+
+	public KafkaEventBusBuilder()
+	{
+		super();
+	}
+
+	/**
+	 * @param topic the Kafka topic events are published to and consumed from, unless routed
+	 * elsewhere (see route()). Defaults to 'domain-events'. If null, only routed event types are
+	 * published and consumed.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder topic(String topic)
+	{
+		this.topic = topic;
+		return this;
+	}
+
+	/**
+	 * Publish events of the given type (and its subtypes) to a topic of their own. Consumers
+	 * subscribe to a routed topic only if one of their handlers handles the routed type (see
+	 * EventTopicRouter). Routes are matched in the order added.
+	 * 
+	 * @param eventType the event type.
+	 * @param topic the Kafka topic its events are published to and consumed from.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder route(Class<?> eventType, String topic)
+	{
+		routes.put(eventType, topic);
+		return this;
+	}
+
+	/**
+	 * Kafka producer configuration (e.g. bootstrap.servers). The key and value serializers are supplied.
+	 * 
+	 * @param config producer properties.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder producerConfig(Properties config)
+	{
+		this.producerConfig = config;
+		return this;
+	}
+
+	/**
+	 * Kafka consumer configuration (e.g. bootstrap.servers, group.id). The key and value
+	 * deserializers are supplied and enable.auto.commit is set to false.
+	 * 
+	 * @param config consumer properties.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder consumerConfig(Properties config)
+	{
+		this.consumerConfig = config;
+		return this;
+	}
+
+	/**
+	 * Use an existing producer (e.g. a MockProducer) instead of creating one from the producer configuration.
+	 * 
+	 * @param producer a producer, which the bus closes on shutdown.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder producer(Producer<byte[], byte[]> producer)
+	{
+		this.producer = producer;
+		return this;
+	}
+
+	/**
+	 * Use an existing consumer (e.g. a MockConsumer) instead of creating one from the consumer
+	 * configuration. It must not auto-commit offsets.
+	 * 
+	 * @param consumer a consumer, which the bus closes on shutdown.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder consumer(Consumer<byte[], byte[]> consumer)
+	{
+		this.consumer = consumer;
+		return this;
+	}
+
+	/**
+	 * Set the codec used to encode events. Every producer and consumer of the topic must use
+	 * the same codec. Defaults to JSON, via Jackson.
+	 * 
+	 * @param codec an EventCodec.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder codec(EventCodec codec)
+	{
+		this.codec = codec;
+		return this;
+	}
+
+	/**
+	 * Register a compact id for an event type, written in each record in place of the class
+	 * name. Every producer and consumer must register the same types with the same ids.
+	 * Registering any event type makes the default codec a BinaryCodec; an explicit codec
+	 * must extend AbstractEventCodec.
+	 * 
+	 * @param eventType the event class.
+	 * @param id a unique id, from 1 to EventTypeRegistry.MAX_ID.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder eventType(Class<?> eventType, int id)
+	{
+		eventTypes.register(eventType, id);
+		return this;
+	}
+
+	/**
+	 * Send published events in batches of up to maxEvents per record, waiting at most
+	 * lingerMillis for a batch to fill. By default, events are not batched.
+	 * 
+	 * @param maxEvents the most events in one record.
+	 * @param lingerMillis the longest an event waits for its batch to fill.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder batch(int maxEvents, long lingerMillis)
+	{
+		return batch(maxEvents, EventBatcher.DEFAULT_MAX_BYTES, lingerMillis);
+	}
+
+	/**
+	 * @param maxEvents the most events in one record.
+	 * @param maxBytes the uncompressed size, in bytes, at which a batch is sent regardless of its event count.
+	 * @param lingerMillis the longest an event waits for its batch to fill.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder batch(int maxEvents, int maxBytes, long lingerMillis)
+	{
+		this.maxBatchEvents = maxEvents;
+		this.maxBatchBytes = maxBytes;
+		this.lingerMillis = lingerMillis;
+		return this;
+	}
+
+	/**
+	 * Set the record size, in bytes, at or above which record values are LZ4-compressed.
+	 * Use EventFrameWriter.NO_COMPRESSION to disable.
+	 * 
+	 * @param bytes the compression threshold.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder compressionThreshold(int bytes)
+	{
+		this.compressionThreshold = bytes;
+		return this;
+	}
+
+	/**
+	 * Choose each event's record key, typically its aggregate identifier. Events with the same
+	 * key go to the same partition, so are consumed in order. By default, records are unkeyed
+	 * and spread across partitions, with no ordering between them.
+	 * 
+	 * @param keyExtractor an EventKeyExtractor.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder keyExtractor(EventKeyExtractor keyExtractor)
+	{
+		this.keyExtractor = keyExtractor;
+		return this;
+	}
+
+	/**
+	 * Set the producer's linger.ms: how long it waits for more records to share a request.
+	 * Defaults to 5.
+	 * 
+	 * @param millis the linger time.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder producerLingerMillis(long millis)
+	{
+		this.producerLingerMillis = millis;
+		return this;
+	}
+
+	/**
+	 * Set the producer's batch.size: the most bytes of records it batches per partition.
+	 * Defaults to 64KB.
+	 * 
+	 * @param bytes the batch size.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder producerBatchSize(int bytes)
+	{
+		this.producerBatchSize = bytes;
+		return this;
+	}
+
+	/**
+	 * Set the producer's compression.type. Defaults to LZ4, which compresses the many small
+	 * records the bus sends when it isn't batching.
+	 * 
+	 * @param compression the compression type.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder producerCompression(CompressionType compression)
+	{
+		this.producerCompression = compression;
+		return this;
+	}
+
+	/**
+	 * Set the producer's acks. Defaults to Acks.LEADER.
+	 * 
+	 * @param acks the acknowledgement level.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder acks(Acks acks)
+	{
+		this.acks = acks;
+		return this;
+	}
+
+	/**
+	 * Make the producer idempotent, so retries can't duplicate or reorder records within a
+	 * partition. This requires acks=all and one in-flight request per connection, so it
+	 * overrides those settings.
+	 * 
+	 * @return this builder to facilitate method chaining.
+	 * @throws IllegalStateException from build() if acks() is set to anything but Acks.ALL.
+	 */
+	public KafkaEventBusBuilder idempotent()
+	{
+		this.isIdempotent = true;
+		return this;
+	}
+
+	/**
+	 * Publish, and commit consumed offsets, in transactions shared with the other buses built
+	 * with the same KafkaTransactions. Their producer is used in place of producer() or
+	 * producerConfig(). Consumers read only committed records (isolation.level=read_committed)
+	 * and a groupId() is required to subscribe.
+	 * 
+	 * @param transactions a KafkaTransactions.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder transactions(KafkaTransactions transactions)
+	{
+		this.transactions = transactions;
+		return this;
+	}
+
+	/**
+	 * Set the consumer's group.id, which is also the group transactions commit offsets for.
+	 * Overrides any group.id in the consumer configuration.
+	 * 
+	 * @param groupId the consumer group.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder groupId(String groupId)
+	{
+		this.groupId = groupId;
+		return this;
+	}
+
+	/**
+	 * Limit the number of published events awaiting acknowledgement from the broker, including
+	 * those waiting in batches. At the limit, publish(), publishAll() and publishAsync() wait,
+	 * while tryPublish() and timed publish() give up. Unlimited by default.
+	 * 
+	 * @param count the most events in flight.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder maxInFlightEvents(long count)
+	{
+		this.maxInFlightEvents = count;
+		return this;
+	}
+
+	/**
+	 * Limit the estimated size of published events awaiting acknowledgement (see maxInFlightEvents()).
+	 * Unlimited by default.
+	 * 
+	 * @param bytes the most estimated bytes in flight.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder maxInFlightBytes(long bytes)
+	{
+		this.maxInFlightBytes = bytes;
+		return this;
+	}
+
+	/**
+	 * Set how event sizes are estimated for maxInFlightBytes(). By default, each event is
+	 * assumed to be EventCapacity.DEFAULT_EVENT_SIZE bytes.
+	 * 
+	 * @param estimator
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder sizeEstimator(EventSizeEstimator estimator)
+	{
+		this.sizeEstimator = estimator;
+		return this;
+	}
+
+	/**
+	 * Set the number of threads that process consumed partitions in parallel. Records within
+	 * a partition are processed in order, unless parallelismPerPartition() is set. Defaults to the number of processors.
+	 * 
+	 * @param count the number of worker threads.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder workerThreads(int count)
+	{
+		this.workerThreads = count;
+		return this;
+	}
+
+	/**
+	 * Process each partition's records on up to the given number of worker threads at once,
+	 * keeping records with the same key in order, instead of processing each partition in offset
+	 * order. This lifts consumer throughput beyond one thread per partition without repartitioning
+	 * the topic. Offsets are still committed only once every earlier record has been processed.
+	 * 
+	 * @param lanes the number of keys of a partition processed in parallel. Defaults to 1.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder parallelismPerPartition(int lanes)
+	{
+		this.parallelismPerPartition = lanes;
+		return this;
+	}
+
+	/**
+	 * Bound the consumed records held in memory awaiting handlers: a partition with more than
+	 * highWatermark records queued is paused, and resumed once down to lowWatermark. The consumer
+	 * keeps polling meanwhile, so it stays in its group. Defaults to 1000 and 250.
+	 * 
+	 * @param highWatermark the queued records, per partition, above which it is paused.
+	 * @param lowWatermark the queued records, per partition, at or below which it is resumed.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder pendingRecordWatermarks(int highWatermark, int lowWatermark)
+	{
+		this.highWatermarkRecords = highWatermark;
+		this.lowWatermarkRecords = lowWatermark;
+		return this;
+	}
+
+	/**
+	 * Bound the consumed bytes (record keys and values) held in memory awaiting handlers, per
+	 * partition, as pendingRecordWatermarks() does records. Unlimited by default. Each partition's
+	 * backlog can exceed its high watermark by at most one poll's worth (see max.poll.records).
+	 * 
+	 * @param highWatermark the queued bytes, per partition, above which it is paused.
+	 * @param lowWatermark the queued bytes, per partition, at or below which it is resumed.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder pendingByteWatermarks(long highWatermark, long lowWatermark)
+	{
+		this.highWatermarkBytes = highWatermark;
+		this.lowWatermarkBytes = lowWatermark;
+		return this;
+	}
+
+	/**
+	 * Grow the consumer's worker pool while its lag is above targetLag and not falling, and
+	 * shrink it once lag stays low, within the given limits (see WorkerAutoscaler). Lag is
+	 * sampled every second. Replaces workerThreads() as the pool's size, once consuming.
+	 * 
+	 * @param minThreads the fewest worker threads.
+	 * @param maxThreads the most worker threads.
+	 * @param targetLag the total lag, in records, across the assigned partitions.
+	 * @return this builder to facilitate method chaining.
+	 */
+	public KafkaEventBusBuilder autoscaleWorkers(int minThreads, int maxThreads, long targetLag)
+	{
+		this.autoscaler = new WorkerAutoscaler(minThreads, maxThreads, targetLag);
+		return this;
+	}
+
 	@Override
 	public KafkaEventBusBuilder subscribe(EventHandler handler)
 	{
-		// TODO Auto-generated method stub
-		return null;
+		subscribers.add(handler);
+		return this;
 	}
 
 	@Override
 	public KafkaEventBusBuilder unsubscribe(EventHandler handler)
 	{
-		// TODO Auto-generated method stub
-		return null;
+		subscribers.remove(handler);
+		return this;
 	}
 
+	/**
+	 * @throws IllegalStateException if neither a producer nor producer configuration is set,
+	 * handlers are subscribed without a consumer or consumer configuration, or there is neither a topic nor a route.
+	 */
 	@Override
 	public KafkaEventBus build()
 	{
-		// TODO Auto-generated method stub
-		return null;
+		if (transactions == null && producer == null && producerConfig == null)
+		{
+			throw new IllegalStateException("Kafka producer configuration is required");
+		}
+
+		if (!subscribers.isEmpty() && consumer == null && consumerConfig == null)
+		{
+			throw new IllegalStateException("Kafka consumer configuration is required to subscribe handlers");
+		}
+
+		boolean isConsuming = (consumer != null || consumerConfig != null);
+		String consumerGroupId = getGroupId();
+
+		if (transactions != null && isConsuming && consumerGroupId == null)
+		{
+			throw new IllegalStateException("A consumer group id is required to commit offsets in transactions");
+		}
+
+		if (topic == null && routes.isEmpty())
+		{
+			throw new IllegalStateException("A topic or route is required");
+		}
+
+		EventTopicRouter router = new EventTopicRouter(topic);
+
+		for (Entry<Class<?>, String> route : routes.entrySet())
+		{
+			router.route(route.getKey(), route.getValue());
+		}
+
+		EventCodec eventCodec = (eventTypes.isEmpty() ? (codec == null ? new JacksonCodec() : codec) : eventTypes.configure(codec));
+		KafkaEventTransport transport = (transactions != null
+			? new KafkaEventTransport(transactions, router, eventCodec)
+			: new KafkaEventTransport(buildProducer(), router, eventCodec));
+		transport.setCompressionThreshold(compressionThreshold);
+		transport.setKeyExtractor(keyExtractor);
+		transport.setInFlightLimit(buildInFlightLimit());
+
+		if (maxBatchEvents > 0)
+		{
+			transport.setBatching(maxBatchEvents, maxBatchBytes, lingerMillis);
+		}
+
+		if (isConsuming)
+		{
+			transport.setConsumer(buildConsumer(), workerThreads, consumerGroupId);
+			transport.setParallelismPerPartition(parallelismPerPartition);
+			transport.setPendingRecordWatermarks(highWatermarkRecords, lowWatermarkRecords);
+			transport.setPendingByteWatermarks(highWatermarkBytes, lowWatermarkBytes);
+			transport.setWorkerAutoscaler(autoscaler);
+		}
+
+		KafkaEventBus bus = new KafkaEventBus(transport);
+
+		for (EventHandler handler : subscribers)
+		{
+			bus.subscribe(handler);
+		}
+
+		return bus;
+	}
+
+	private Producer<byte[], byte[]> buildProducer()
+	{
+		if (producer != null) return producer;
+
+		return new KafkaProducer<byte[], byte[]>(buildProducerConfig(), new ByteArraySerializer(), new ByteArraySerializer());
+	}
+
+	Properties buildProducerConfig()
+	{
+		Properties config = new Properties();
+		config.put("linger.ms", String.valueOf(DEFAULT_PRODUCER_LINGER_MILLIS));
+		config.put("batch.size", String.valueOf(DEFAULT_PRODUCER_BATCH_SIZE));
+		config.put("compression.type", DEFAULT_PRODUCER_COMPRESSION.name);
+		config.put("acks", DEFAULT_ACKS.value());
+
+		if (producerConfig != null)
+		{
+			config.putAll(producerConfig);
+		}
+
+		if (producerLingerMillis != null) config.put("linger.ms", String.valueOf(producerLingerMillis));
+		if (producerBatchSize != null) config.put("batch.size", String.valueOf(producerBatchSize));
+		if (producerCompression != null) config.put("compression.type", producerCompression.name);
+		if (acks != null) config.put("acks", acks.value());
+
+		if (isIdempotent)
+		{
+			if (acks != null && acks != Acks.ALL)
+			{
+				throw new IllegalStateException("An idempotent producer requires Acks.ALL");
+			}
+
+			config.put("enable.idempotence", "true");
+			config.put("acks", Acks.ALL.value());
+			config.put("max.in.flight.requests.per.connection", "1");
+		}
+
+		return config;
+	}
+
+	private String getGroupId()
+	{
+		if (groupId != null) return groupId;
+
+		return (consumerConfig == null ? null : consumerConfig.getProperty("group.id"));
+	}
+
+	private EventCapacity buildInFlightLimit()
+	{
+		if (maxInFlightEvents == EventCapacity.UNLIMITED && maxInFlightBytes == EventCapacity.UNLIMITED)
+		{
+			return null;
+		}
+
+		return new EventCapacity(maxInFlightEvents, maxInFlightBytes, sizeEstimator);
+	}
+
+	private Consumer<byte[], byte[]> buildConsumer()
+	{
+		if (consumer != null) return consumer;
+
+		Properties config = new Properties();
+
+		if (transactions != null)
+		{
+			config.put("isolation.level", "read_committed");
+		}
+
+		config.putAll(consumerConfig);
+		config.put("enable.auto.commit", "false");
+
+		if (groupId != null)
+		{
+			config.put("group.id", groupId);
+		}
+
+		return new KafkaConsumer<byte[], byte[]>(config, new ByteArrayDeserializer(), new ByteArrayDeserializer());
 	}
 }
@@ -1,45 +1,864 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
 package com.strategicgains.eventing.kafka;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.errors.WakeupException;
 
+import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.codec.CodecException;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrame;
+
+/**
+ * The consumer runtime for a Kafka event bus. One thread polls the consumer (which is not
+ * thread safe) and hands each partition's records to that partition's PartitionWorker, so
+ * partitions are processed in parallel on a worker pool while each partition stays in order.
+ * To process a partition on several threads, keeping only each key's records in order, see
+ * setParallelismPerPartition().
+ * <p/>
+ * After each poll, the poll thread commits, for each partition, the offset below which every
+ * record's handlers have finished. So events are delivered at least once: if the
+ * process dies, or a partition is reassigned, unfinished records are redelivered.
+ * <p/>
+ * With KafkaTransactions (see setTransactions()), offsets are instead committed in a transaction
+ * with the events the handlers published, once per commit interval. If the transaction aborts,
+ * each partition is rewound to its last committed offset and its records processed again.
+ * <p/>
+ * Records are event frames (see EventFrameWriter). Each event's type is read from its header
+ * before decoding, so events no handler handles are skipped without being decoded. A partition
+ * whose worker falls too far behind (see setPendingRecordWatermarks()) is paused until the worker
+ * catches up, while polling continues.
+ * <p/>
+ * Given an EventTopicRouter, the adapter subscribes only to the topics its handlers need (see
+ * EventTopicRouter.topicsHandledBy()), re-subscribing as handlers are registered and unregistered.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
 public class KafkaEventHandlerAdapter
-implements Runnable
+implements Runnable, RecordProcessor
 {
-    private final AtomicBoolean closed = new AtomicBoolean(false);
-    private final KafkaConsumer<String, String> consumer = null;
-
-    public void run()
-    {
-        try
-        {
-            consumer.subscribe(Arrays.asList("topic"));
-
-            while (!closed.get())
-            {
-                ConsumerRecords<String, String> records = consumer.poll(10000);
-                // Handle new records
-            }
-        }
-        catch (WakeupException e)
-        {
-            // Ignore exception if closing
-            if (!closed.get()) throw e;
-        }
-        finally
-        {
-            consumer.close();
-        }
-    }
-
-    // Shutdown hook which can be called from a separate thread
-    public void shutdown()
-    {
-        closed.set(true);
-        consumer.wakeup();
-    }
-}
\ No newline at end of file
+	// SECTION: CONSTANTS
+
+	public static final long DEFAULT_POLL_MILLIS = 100L;
+	public static final int DEFAULT_HIGH_WATERMARK_RECORDS = 1000;
+	public static final int DEFAULT_LOW_WATERMARK_RECORDS = 250;
+	public static final long UNLIMITED_BYTES = Long.MAX_VALUE;
+	public static final long DEFAULT_SAMPLE_MILLIS = 1000L;
+	private static final long STOP_TIMEOUT_MILLIS = 30000L;
+	private static final AtomicInteger THREAD_COUNT = new AtomicInteger(0);
+
+	// Each worker thread reads its records with one reused frame (and decompression buffer).
+	private static final ThreadLocal<EventFrame> FRAMES = new ThreadLocal<EventFrame>()
+	{
+		@Override
+		protected EventFrame initialValue()
+		{
+			return new EventFrame();
+		}
+	};
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+	private Consumer<byte[], byte[]> consumer;
+	private List<String> topics;
+	private EventTopicRouter router;
+	private volatile boolean isSubscriptionChanged = true;
+	private EventCodec codec;
+	private ThreadPoolExecutor workerPool;
+	private long pollMillis = DEFAULT_POLL_MILLIS;
+	private int highWatermarkRecords = DEFAULT_HIGH_WATERMARK_RECORDS;
+	private int lowWatermarkRecords = DEFAULT_LOW_WATERMARK_RECORDS;
+	private long highWatermarkBytes = UNLIMITED_BYTES;
+	private long lowWatermarkBytes = UNLIMITED_BYTES;
+	private int parallelismPerPartition = 1;
+	private Thread pollThread;
+	private KafkaTransactions transactions;
+	private String groupId;
+	private ConsumeStatistics statistics = new ConsumeStatistics();
+	private WorkerAutoscaler autoscaler;
+	private long sampleMillis = DEFAULT_SAMPLE_MILLIS;
+
+	// Accessed only by the poll thread.
+	private Map<TopicPartition, PartitionWorker> workers = new HashMap<TopicPartition, PartitionWorker>();
+	private Set<TopicPartition> paused = new HashSet<TopicPartition>();
+	private long nextCommitAt = 0L;
+	private long nextSampleAt = 0L;
+	private boolean isLagUnknown = false;
+	private Set<String> subscribed = Collections.emptySet();
+	private RebalanceListener rebalanceListener = new RebalanceListener();
+
+	private Map<Class<?>, List<EventHandler>> handlersByEvent = new ConcurrentHashMap<Class<?>, List<EventHandler>>();
+	private Set<EventHandler> handlers = new LinkedHashSet<EventHandler>();
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param consumer the consumer, which this adapter owns (and closes) from here on.
+	 * @param topics the topics to subscribe to.
+	 * @param codec decodes events.
+	 * @param workerThreads the number of threads processing partitions.
+	 */
+	public KafkaEventHandlerAdapter(Consumer<byte[], byte[]> consumer, List<String> topics, EventCodec codec, int workerThreads)
+	{
+		this(consumer, topics, null, codec, workerThreads);
+	}
+
+	/**
+	 * @param consumer the consumer, which this adapter owns (and closes) from here on.
+	 * @param router chooses the topics to subscribe to, from the handlers registered.
+	 * @param codec decodes events.
+	 * @param workerThreads the number of threads processing partitions.
+	 */
+	public KafkaEventHandlerAdapter(Consumer<byte[], byte[]> consumer, EventTopicRouter router, EventCodec codec, int workerThreads)
+	{
+		this(consumer, null, router, codec, workerThreads);
+	}
+
+	private KafkaEventHandlerAdapter(Consumer<byte[], byte[]> consumer, List<String> topics, EventTopicRouter router, EventCodec codec, int workerThreads)
+	{
+		super();
+
+		if (workerThreads < 1)
+		{
+			throw new IllegalArgumentException("At least one worker thread is required");
+		}
+
+		this.consumer = consumer;
+		this.topics = topics;
+		this.router = router;
+		this.codec = codec;
+		this.workerPool = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable runnable)
+			{
+				Thread thread = new Thread(runnable, "kafka-event-worker-" + THREAD_COUNT.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		statistics.setWorkerThreads(workerThreads);
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	public void setPollMillis(long millis)
+	{
+		this.pollMillis = millis;
+	}
+
+	/**
+	 * Pause a partition once its worker has more than highWatermark records queued, and resume it
+	 * once the worker is down to lowWatermark. The gap between them keeps a busy partition from
+	 * pausing and resuming on every poll.
+	 * 
+	 * @param highWatermark the queued records above which the partition is paused.
+	 * @param lowWatermark the queued records at or below which a paused partition is resumed.
+	 */
+	public void setPendingRecordWatermarks(int highWatermark, int lowWatermark)
+	{
+		if (lowWatermark < 0 || lowWatermark > highWatermark)
+		{
+			throw new IllegalArgumentException("Low watermark must be between zero and the high watermark");
+		}
+
+		this.highWatermarkRecords = highWatermark;
+		this.lowWatermarkRecords = lowWatermark;
+	}
+
+	/**
+	 * Pause a partition once its worker has more than highWatermark bytes (of record keys and values)
+	 * queued, and resume it once the worker is down to lowWatermark. Unlimited by default.
+	 * 
+	 * @param highWatermark the queued bytes above which the partition is paused.
+	 * @param lowWatermark the queued bytes at or below which a paused partition is resumed.
+	 */
+	public void setPendingByteWatermarks(long highWatermark, long lowWatermark)
+	{
+		if (lowWatermark < 0 || lowWatermark > highWatermark)
+		{
+			throw new IllegalArgumentException("Low watermark must be between zero and the high watermark");
+		}
+
+		this.highWatermarkBytes = highWatermark;
+		this.lowWatermarkBytes = lowWatermark;
+	}
+
+	/**
+	 * Commit offsets in the given transactions, with the events handlers publish in them, instead
+	 * of directly to the consumer group. Must be called before start().
+	 * 
+	 * @param transactions the transactions handlers publish in.
+	 * @param groupId the consumer's group.id.
+	 */
+	public void setTransactions(KafkaTransactions transactions, String groupId)
+	{
+		this.transactions = transactions;
+		this.groupId = groupId;
+	}
+
+	/**
+	 * @param lanes the number of threads that may process one partition's records at once. Records
+	 * with the same key are always processed in order. One (the default) processes each partition in order.
+	 */
+	public void setParallelismPerPartition(int lanes)
+	{
+		if (lanes < 1)
+		{
+			throw new IllegalArgumentException("Parallelism must be at least one");
+		}
+
+		this.parallelismPerPartition = lanes;
+	}
+
+	/**
+	 * @return the per-partition lag, rate and processing latency.
+	 */
+	public ConsumeStatistics getStatistics()
+	{
+		return statistics;
+	}
+
+	/**
+	 * @param millis how often lag and rate are sampled (which fetches the partitions' end offsets)
+	 * and, if autoscaling, the worker pool is resized.
+	 */
+	public void setSampleMillis(long millis)
+	{
+		this.sampleMillis = millis;
+	}
+
+	/**
+	 * Grow and shrink the worker pool with the lag. The pool's size is brought within the
+	 * autoscaler's limits.
+	 * 
+	 * @param autoscaler decides the pool size. If null, the pool keeps its size.
+	 */
+	public void setAutoscaler(WorkerAutoscaler autoscaler)
+	{
+		this.autoscaler = autoscaler;
+
+		if (autoscaler != null)
+		{
+			resizeWorkerPool(autoscaler.bound(workerPool.getCorePoolSize()));
+		}
+	}
+
+	public synchronized boolean register(EventHandler handler)
+	{
+		boolean result = handlers.add(handler);
+		handlersByEvent.clear();
+		isSubscriptionChanged = true;
+		return result;
+	}
+
+	public synchronized boolean unregister(EventHandler handler)
+	{
+		if (handlers.remove(handler))
+		{
+			handlersByEvent.clear();
+			isSubscriptionChanged = true;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Start the poll thread, if it isn't already running.
+	 */
+	public synchronized void start()
+	{
+		if (pollThread != null) return;
+
+		pollThread = new Thread(this, "kafka-event-poller-" + (router == null ? topics : router.getTopics()));
+		pollThread.setDaemon(true);
+		pollThread.start();
+	}
+
+	@Override
+	public void run()
+	{
+		try
+		{
+			while (!closed.get())
+			{
+				if (isSubscriptionChanged)
+				{
+					isSubscriptionChanged = false;
+					updateSubscription();
+				}
+
+				if (subscribed.isEmpty())
+				{
+					// A consumer without a subscription can't poll.
+					Thread.sleep(pollMillis);
+					continue;
+				}
+
+				ConsumerRecords<byte[], byte[]> records = consumer.poll(pollMillis);
+				dispatch(records);
+
+				long now = System.currentTimeMillis();
+
+				if (transactions == null || now >= nextCommitAt)
+				{
+					commitCompleted(workers.values());
+				}
+
+				pauseOrResume();
+
+				if (now >= nextSampleAt)
+				{
+					nextSampleAt = now + sampleMillis;
+					sample(now);
+				}
+			}
+		}
+		catch (WakeupException e)
+		{
+			// Ignore exception if closing
+			if (!closed.get()) throw e;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (KafkaException e)
+		{
+			// Not retriable (e.g. not authorized, or no offset reset policy), so polling again won't help.
+			if (closed.compareAndSet(false, true))
+			{
+				System.err.println("Stopping consumption of " + subscribed + ": " + e.getMessage());
+				e.printStackTrace();
+			}
+		}
+		finally
+		{
+			try
+			{
+				stopWorkers(new ArrayList<PartitionWorker>(workers.values()));
+			}
+			catch (KafkaException e)
+			{
+				System.err.println("Unable to commit offsets of " + subscribed + " while stopping: " + e.getMessage());
+			}
+
+			workers.clear();
+			consumer.close();
+			workerPool.shutdown();
+		}
+	}
+
+	/**
+	 * Stop polling, wait for in-flight records to be processed and commit their offsets.
+	 * May be called from any thread.
+	 */
+	public void shutdown()
+	{
+		closed.set(true);
+		consumer.wakeup();
+		Thread thread;
+
+		synchronized (this)
+		{
+			thread = pollThread;
+
+			if (thread == null)
+			{
+				// Never started, so the poll thread won't close the consumer.
+				pollThread = Thread.currentThread();
+				consumer.close();
+				workerPool.shutdown();
+				return;
+			}
+		}
+
+		if (thread != Thread.currentThread())
+		{
+			try
+			{
+				thread.join(STOP_TIMEOUT_MILLIS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Decode the events in a record and call each handler that handles them. Handler failures
+	 * are logged and do not stop the partition.
+	 */
+	@Override
+	public void process(ConsumerRecord<byte[], byte[]> record)
+	{
+		byte[] value = record.value();
+
+		if (value == null) return;
+
+		try
+		{
+			EventFrame frame = FRAMES.get().reset(value, 0, value.length);
+
+			for (int index = 0; frame.hasNext(); index++)
+			{
+				Object event = decode(frame.next(), record, index);
+
+				if (event != null)
+				{
+					processEvent(event);
+				}
+			}
+		}
+		catch (CodecException e)
+		{
+			// The frame itself is corrupt, so the rest of the record is unreadable.
+			System.err.println("Skipping undecodable record " + record.topic() + "-" + record.partition() + "@" + record.offset());
+			e.printStackTrace();
+		}
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * Decode one event of a record, if some handler handles it. An event that can't be decoded
+	 * is logged and skipped, without affecting the rest of the record.
+	 * 
+	 * @return the event, or null if it's unhandled or can't be decoded.
+	 */
+	private Object decode(ByteBuffer encoded, ConsumerRecord<byte[], byte[]> record, int index)
+	{
+		try
+		{
+			Class<?> type = codec.peekType(encoded);
+			return (type != null && getConsumersFor(type).isEmpty() ? null : codec.decode(encoded));
+		}
+		catch (CodecException e)
+		{
+			System.err.println("Skipping undecodable event " + index + " of record " + record.topic() + "-" + record.partition() + "@" + record.offset());
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	private void processEvent(Object event)
+	{
+		for (EventHandler handler : getConsumersFor(event.getClass()))
+		{
+			try
+			{
+				handler.handle(event);
+			}
+			catch (Exception e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private List<EventHandler> getConsumersFor(Class<?> eventClass)
+	{
+		List<EventHandler> result = handlersByEvent.get(eventClass);
+
+		if (result == null)
+		{
+			synchronized (this)
+			{
+				result = new ArrayList<EventHandler>();
+
+				for (EventHandler handler : handlers)
+				{
+					if (handler.handles(eventClass))
+					{
+						result.add(handler);
+					}
+				}
+
+				result = (result.isEmpty() ? Collections.<EventHandler>emptyList() : result);
+				handlersByEvent.put(eventClass, result);
+			}
+		}
+
+		return result;
+	}
+
+	private void dispatch(ConsumerRecords<byte[], byte[]> records)
+	{
+		for (TopicPartition partition : records.partitions())
+		{
+			PartitionWorker worker = workers.get(partition);
+
+			if (worker == null)
+			{
+				worker = new PartitionWorker(partition, this, workerPool, (transactions == null ? null : transactions.getLock()), parallelismPerPartition);
+				worker.setStatistics(statistics.forPartition(partition));
+				workers.put(partition, worker);
+			}
+
+			worker.submit(records.records(partition));
+		}
+	}
+
+	private void commitCompleted(Collection<PartitionWorker> partitionWorkers)
+	{
+		if (transactions != null)
+		{
+			commitTransaction(partitionWorkers);
+			return;
+		}
+
+		Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+
+		for (PartitionWorker worker : partitionWorkers)
+		{
+			long offset = worker.getUncommittedOffset();
+
+			if (offset >= 0)
+			{
+				offsets.put(worker.getPartition(), new OffsetAndMetadata(offset));
+			}
+		}
+
+		if (offsets.isEmpty()) return;
+
+		try
+		{
+			consumer.commitSync(offsets);
+
+			for (PartitionWorker worker : partitionWorkers)
+			{
+				OffsetAndMetadata committed = offsets.get(worker.getPartition());
+
+				if (committed != null)
+				{
+					worker.setCommittedOffset(committed.offset());
+				}
+			}
+		}
+		catch (CommitFailedException e)
+		{
+			// The group rebalanced; the records will be redelivered to the partitions' new owners.
+			System.err.println("Unable to commit offsets " + offsets + ": " + e.getMessage());
+		}
+		catch (RetriableException e)
+		{
+			// The offsets are still uncommitted, so the next pass commits them again. Other failures stop consumption (see run()).
+			System.err.println("Unable to commit offsets " + offsets + ", will retry: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A transaction holds the output of every partition, so commits every partition's offsets.
+	 * If it aborts, the partitions are rewound to reprocess what it held. If the transactions
+	 * have failed, consumption stops.
+	 */
+	private void commitTransaction(Collection<PartitionWorker> partitionWorkers)
+	{
+		Set<PartitionWorker> all = new LinkedHashSet<PartitionWorker>(partitionWorkers);
+		all.addAll(workers.values());
+		nextCommitAt = System.currentTimeMillis() + transactions.getCommitIntervalMillis();
+
+		if (transactions.commit(groupId, all)) return;
+
+		if (transactions.isFailed())
+		{
+			// Nothing more can be committed, so stop rather than reprocess records forever.
+			if (closed.compareAndSet(false, true))
+			{
+				System.err.println("Stopping consumption of " + subscribed + ": Kafka transactions failed");
+				transactions.getFailure().printStackTrace();
+			}
+
+			return;
+		}
+
+		rewind(all);
+	}
+
+	/**
+	 * Discard the workers, once idle, and consume their partitions again from the last committed offsets.
+	 */
+	private void rewind(Collection<PartitionWorker> partitionWorkers)
+	{
+		Set<TopicPartition> assigned = consumer.assignment();
+
+		for (PartitionWorker worker : partitionWorkers)
+		{
+			TopicPartition partition = worker.getPartition();
+
+			if (!worker.stop(STOP_TIMEOUT_MILLIS))
+			{
+				System.err.println("Timed out waiting for handlers on " + partition);
+			}
+
+			if (workers.get(partition) == worker)
+			{
+				workers.remove(partition);
+			}
+
+			if (!assigned.contains(partition)) continue;
+
+			consumer.seek(partition, worker.getRewindOffset());
+
+			if (paused.remove(partition))
+			{
+				consumer.resume(Collections.singleton(partition));
+			}
+		}
+	}
+
+	/**
+	 * Subscribe to the topics the handlers now need, if they've changed. Partitions of dropped
+	 * topics are revoked by the rebalance that follows, or here, if none are left.
+	 */
+	private void updateSubscription()
+	{
+		Set<String> wanted;
+
+		synchronized (this)
+		{
+			wanted = (router == null ? new LinkedHashSet<String>(topics) : router.topicsHandledBy(handlers));
+		}
+
+		if (wanted.equals(subscribed)) return;
+
+		if (wanted.isEmpty())
+		{
+			rebalanceListener.onPartitionsRevoked(new ArrayList<TopicPartition>(workers.keySet()));
+			consumer.unsubscribe();
+		}
+		else
+		{
+			consumer.subscribe(wanted, rebalanceListener);
+		}
+
+		subscribed = wanted;
+	}
+
+	/**
+	 * Update each assigned partition's lag and rate and, if autoscaling, resize the worker pool.
+	 */
+	private void sample(long now)
+	{
+		Set<TopicPartition> assigned = consumer.assignment();
+
+		if (assigned.isEmpty()) return;
+
+		Map<TopicPartition, Long> endOffsets = fetchEndOffsets(assigned);
+
+		for (TopicPartition partition : assigned)
+		{
+			Long end = (endOffsets == null ? null : endOffsets.get(partition));
+			long lag = (end == null ? -1L : Math.max(0L, end - nextOffset(partition)));
+			statistics.forPartition(partition).sample(now, lag);
+		}
+
+		if (autoscaler != null && endOffsets != null)
+		{
+			resizeWorkerPool(autoscaler.resize(workerPool.getCorePoolSize(), statistics.getLag()));
+		}
+	}
+
+	/**
+	 * @return the partitions' end offsets, or null if they can't be fetched.
+	 */
+	private Map<TopicPartition, Long> fetchEndOffsets(Set<TopicPartition> partitions)
+	{
+		try
+		{
+			Map<TopicPartition, Long> result = consumer.endOffsets(partitions);
+			isLagUnknown = false;
+			return result;
+		}
+		catch (RuntimeException e)
+		{
+			if (e instanceof WakeupException) throw e;
+
+			if (!isLagUnknown)
+			{
+				isLagUnknown = true;
+				System.err.println("Unable to fetch end offsets for " + partitions + ": " + e.getMessage());
+			}
+
+			return null;
+		}
+	}
+
+	private long nextOffset(TopicPartition partition)
+	{
+		PartitionWorker worker = workers.get(partition);
+		long offset = (worker == null ? -1L : worker.getNextOffset());
+		return (offset >= 0 ? offset : consumer.position(partition));
+	}
+
+	private void resizeWorkerPool(int threads)
+	{
+		int current = workerPool.getCorePoolSize();
+
+		// The maximum may never be below the core size, so order the updates by direction.
+		if (threads > current)
+		{
+			workerPool.setMaximumPoolSize(threads);
+			workerPool.setCorePoolSize(threads);
+		}
+		else if (threads < current)
+		{
+			workerPool.setCorePoolSize(threads);
+			workerPool.setMaximumPoolSize(threads);
+		}
+
+		statistics.setWorkerThreads(threads);
+	}
+
+	/**
+	 * Pause partitions whose workers are above either high watermark, and resume those below both
+	 * low watermarks. Paused partitions are still polled (which keeps this consumer in its group),
+	 * but return no records, so each partition's backlog stays within its high watermark plus one poll.
+	 */
+	private void pauseOrResume()
+	{
+		List<TopicPartition> toPause = null;
+		List<TopicPartition> toResume = null;
+
+		for (PartitionWorker worker : workers.values())
+		{
+			TopicPartition partition = worker.getPartition();
+			int pendingRecords = worker.getPendingCount();
+			long pendingBytes = worker.getPendingBytes();
+
+			if (paused.contains(partition))
+			{
+				if (pendingRecords <= lowWatermarkRecords && pendingBytes <= lowWatermarkBytes)
+				{
+					paused.remove(partition);
+					toResume = add(toResume, partition);
+				}
+			}
+			else if (pendingRecords > highWatermarkRecords || pendingBytes > highWatermarkBytes)
+			{
+				paused.add(partition);
+				toPause = add(toPause, partition);
+			}
+		}
+
+		if (toPause != null) consumer.pause(toPause);
+		if (toResume != null) consumer.resume(toResume);
+	}
+
+	private static List<TopicPartition> add(List<TopicPartition> partitions, TopicPartition partition)
+	{
+		List<TopicPartition> result = (partitions == null ? new ArrayList<TopicPartition>() : partitions);
+		result.add(partition);
+		return result;
+	}
+
+	/**
+	 * Wait for the workers' in-flight records, then commit what they finished.
+	 */
+	private void stopWorkers(Collection<PartitionWorker> partitionWorkers)
+	{
+		for (PartitionWorker worker : partitionWorkers)
+		{
+			if (!worker.stop(STOP_TIMEOUT_MILLIS))
+			{
+				System.err.println("Timed out waiting for handlers on " + worker.getPartition());
+			}
+
+			paused.remove(worker.getPartition());
+		}
+
+		try
+		{
+			commitCompleted(partitionWorkers);
+		}
+		catch (WakeupException e)
+		{
+			// A wakeup from shutdown() can arrive after the last poll(). Retry once it's consumed.
+			commitCompleted(partitionWorkers);
+		}
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * Called on the poll thread, from within poll().
+	 */
+	private class RebalanceListener
+	implements ConsumerRebalanceListener
+	{
+		@Override
+		public void onPartitionsRevoked(Collection<TopicPartition> partitions)
+		{
+			List<PartitionWorker> revoked = new ArrayList<PartitionWorker>();
+
+			for (TopicPartition partition : partitions)
+			{
+				PartitionWorker worker = workers.remove(partition);
+
+				if (worker != null)
+				{
+					revoked.add(worker);
+				}
+
+				statistics.remove(partition);
+			}
+
+			stopWorkers(revoked);
+		}
+
+		@Override
+		public void onPartitionsAssigned(Collection<TopicPartition> partitions)
+		{
+			// Workers are created as records arrive.
+		}
+	}
+}
@@ -15,29 +15,82 @@
 */
 package com.strategicgains.eventing.kafka;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.Future;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.Producer;
-import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strategicgains.eventing.EventCapacity;
 import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventKeyExtractor;
 import com.strategicgains.eventing.EventTransport;
+import com.strategicgains.eventing.codec.EventBatcher;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.JacksonCodec;
 
 /**
+ * Publishes events to a Kafka topic as byte array values, encoded by an EventCodec
+ * (JSON, via Jackson, by default). Keys are UTF-8 bytes, encoded once, so the producer's
+ * ByteArraySerializers pass keys and values through without copying.
+ * <p/>
+ * Each record value is an event frame (see EventFrameWriter) holding one event or, when
+ * batching is enabled or events are published via publishAll(), many. Large frames are
+ * LZ4-compressed; producer-level compression still helps with runs of small records.
+ * <p/>
+ * Record keys come from an EventKeyExtractor (see setKeyExtractor()), so that, for example,
+ * each aggregate's events share a partition and stay in order. Batches are kept per partition
+ * to preserve that. Without a key extractor, records are unkeyed and spread across partitions.
+ * <p/>
+ * publishAsync() reports each event's outcome. To bound how many events await acknowledgement
+ * from the broker, set an in-flight limit (see setInFlightLimit()): publishers then wait for
+ * capacity, or are refused it by tryPublish() and timed publish(), when the broker falls behind.
+ * <p/>
+ * Subscribing handlers requires a consumer (see setConsumer()). Without one, the transport
+ * only publishes.
+ * <p/>
+ * Created with KafkaTransactions, the transport publishes in its transactions and, if it
+ * consumes, commits the consumed offsets in them too (see KafkaTransactions).
+ * <p/>
+ * Created with an EventTopicRouter, the transport publishes each event to its type's topic and
+ * consumes only the topics its handlers need. Each topic has its own batcher, created on first
+ * use and kept, which partitions and frames that topic's records.
+ * 
  * @author tfredrich
  * @since 20 May 2016
  */
 public class KafkaEventTransport
 implements EventTransport
 {
-	private String topic;
-	private Producer<String, String> producer;
-	private ObjectMapper mapper;
+	private static final long CAPACITY_WAIT_MILLIS = 10L;
+
+	private EventTopicRouter router;
+	private Producer<byte[], byte[]> producer;
+	private EventCodec codec;
+	private int compressionThreshold = EventFrameWriter.DEFAULT_COMPRESSION_THRESHOLD;
+	private EventKeyExtractor keyExtractor;
+	private int maxBatchEvents = EventBatcher.DEFAULT_MAX_EVENTS;
+	private int maxBatchBytes = EventBatcher.DEFAULT_MAX_BYTES;
+	private long lingerMillis = 0L;
+	private boolean isBatching = false;
+	private volatile Map<String, PartitionedEventBatcher> frames = new ConcurrentHashMap<String, PartitionedEventBatcher>();
+	private EventCapacity inFlight;
+	private SendStatistics statistics = new SendStatistics();
+	private KafkaTransactions transactions;
+	private KafkaEventHandlerAdapter adapter;
 
 	public KafkaEventTransport(Properties config, String topic)
 	{
@@ -46,40 +99,510 @@ implements EventTransport
 
 	public KafkaEventTransport(Properties config, String topic, ObjectMapper mapper)
 	{
-		this.producer = new KafkaProducer<>(config);
-		this.topic = topic;
-		this.mapper = mapper;
+		this(config, topic, new JacksonCodec(mapper));
+	}
+
+	/**
+	 * The key and value serializers are supplied, so needn't be set in the configuration.
+	 * 
+	 * @param config Kafka producer configuration.
+	 * @param topic the topic to publish to.
+	 * @param codec encodes event values.
+	 */
+	public KafkaEventTransport(Properties config, String topic, EventCodec codec)
+	{
+		this(new KafkaProducer<byte[], byte[]>(config, new ByteArraySerializer(), new ByteArraySerializer()), topic, codec);
+	}
+
+	/**
+	 * @param producer the producer, which this transport owns (and closes) from here on.
+	 * @param topic the topic to publish to.
+	 * @param codec encodes event values.
+	 */
+	public KafkaEventTransport(Producer<byte[], byte[]> producer, String topic, EventCodec codec)
+	{
+		this(producer, new EventTopicRouter(topic), codec);
+	}
+
+	/**
+	 * @param producer the producer, which this transport owns (and closes) from here on.
+	 * @param router chooses the topic for each event type.
+	 * @param codec encodes event values.
+	 */
+	public KafkaEventTransport(Producer<byte[], byte[]> producer, EventTopicRouter router, EventCodec codec)
+	{
+		super();
+		this.producer = producer;
+		this.router = router;
+		this.codec = codec;
+	}
+
+	/**
+	 * Publish in transactions, with the producer they share.
+	 * 
+	 * @param transactions the transactions, which close their producer once every transport using them has shut down.
+	 * @param topic the topic to publish to.
+	 * @param codec encodes event values.
+	 */
+	public KafkaEventTransport(KafkaTransactions transactions, String topic, EventCodec codec)
+	{
+		this(transactions, new EventTopicRouter(topic), codec);
+	}
+
+	/**
+	 * Publish in transactions, with the producer they share.
+	 * 
+	 * @param transactions the transactions, which close their producer once every transport using them has shut down.
+	 * @param router chooses the topic for each event type.
+	 * @param codec encodes event values.
+	 */
+	public KafkaEventTransport(KafkaTransactions transactions, EventTopicRouter router, EventCodec codec)
+	{
+		super();
+		this.producer = transactions.getProducer();
+		this.transactions = transactions;
+		this.router = router;
+		this.codec = codec;
+		transactions.register(this);
 	}
 
+	/**
+	 * Enable subscribing, by consuming the handlers' topics with the given consumer. The consumer must be
+	 * configured with a group.id and, since offsets are committed only after handlers finish,
+	 * enable.auto.commit=false. Polling starts when the first handler subscribes.
+	 * 
+	 * @param consumer the consumer, which this transport owns (and closes) from here on.
+	 * @param workerThreads the number of threads processing partitions in parallel.
+	 */
+	protected void setConsumer(Consumer<byte[], byte[]> consumer, int workerThreads)
+	{
+		setConsumer(consumer, workerThreads, null);
+	}
+
+	/**
+	 * @param consumer the consumer, which this transport owns (and closes) from here on.
+	 * @param workerThreads the number of threads processing partitions in parallel.
+	 * @param groupId the consumer's group.id, under which offsets are committed in transactions.
+	 * Required if the transport is transactional.
+	 */
+	protected void setConsumer(Consumer<byte[], byte[]> consumer, int workerThreads, String groupId)
+	{
+		if (transactions != null && groupId == null)
+		{
+			throw new IllegalArgumentException("A consumer group id is required to commit offsets in transactions");
+		}
+
+		if (adapter != null)
+		{
+			adapter.shutdown();
+		}
+
+		adapter = new KafkaEventHandlerAdapter(consumer, router, codec, workerThreads);
+
+		if (transactions != null)
+		{
+			adapter.setTransactions(transactions, groupId);
+		}
+	}
+
+	/**
+	 * Process each consumed partition on up to the given number of threads, keeping records with
+	 * the same key in order. Requires a consumer (see setConsumer()).
+	 * 
+	 * @param lanes the number of keys of a partition processed in parallel.
+	 */
+	protected void setParallelismPerPartition(int lanes)
+	{
+		if (adapter != null)
+		{
+			adapter.setParallelismPerPartition(lanes);
+		}
+	}
+
+	/**
+	 * Bound each consumed partition's backlog of records awaiting its handlers (see
+	 * KafkaEventHandlerAdapter.setPendingRecordWatermarks()). Requires a consumer.
+	 */
+	protected void setPendingRecordWatermarks(int highWatermark, int lowWatermark)
+	{
+		if (adapter != null)
+		{
+			adapter.setPendingRecordWatermarks(highWatermark, lowWatermark);
+		}
+	}
+
+	/**
+	 * Bound each consumed partition's backlog, in bytes (see
+	 * KafkaEventHandlerAdapter.setPendingByteWatermarks()). Requires a consumer.
+	 */
+	protected void setPendingByteWatermarks(long highWatermark, long lowWatermark)
+	{
+		if (adapter != null)
+		{
+			adapter.setPendingByteWatermarks(highWatermark, lowWatermark);
+		}
+	}
+
+	/**
+	 * Grow and shrink the consumer's worker pool with its lag (see
+	 * KafkaEventHandlerAdapter.setAutoscaler()). Requires a consumer.
+	 */
+	protected void setWorkerAutoscaler(WorkerAutoscaler autoscaler)
+	{
+		if (adapter != null)
+		{
+			adapter.setAutoscaler(autoscaler);
+		}
+	}
+
+	/**
+	 * @param compressionThreshold the frame payload size, in bytes, at or above which frames are compressed.
+	 */
+	protected void setCompressionThreshold(int compressionThreshold)
+	{
+		this.compressionThreshold = compressionThreshold;
+		resetFrames();
+	}
+
+	/**
+	 * @param keyExtractor chooses each record's key. If null, records are unkeyed.
+	 */
+	protected void setKeyExtractor(EventKeyExtractor keyExtractor)
+	{
+		this.keyExtractor = keyExtractor;
+		resetFrames();
+	}
+
+	/**
+	 * Limit the events handed to the producer but not yet acknowledged, including those
+	 * waiting in batches.
+	 * 
+	 * @param inFlight the in-flight limit. If null, in-flight events are unlimited.
+	 */
+	protected void setInFlightLimit(EventCapacity inFlight)
+	{
+		this.inFlight = inFlight;
+		resetFrames();
+	}
+
+	/**
+	 * @return the in-flight limit, or null if there is none.
+	 */
+	public EventCapacity getInFlightLimit()
+	{
+		return inFlight;
+	}
+
+	/**
+	 * @return counts and latency of the records sent.
+	 */
+	public SendStatistics getStatistics()
+	{
+		return statistics;
+	}
+
+	/**
+	 * @return per-partition lag, rate and latency of the records consumed, or null if there is no consumer.
+	 */
+	public ConsumeStatistics getConsumeStatistics()
+	{
+		return (adapter == null ? null : adapter.getStatistics());
+	}
+
+	/**
+	 * Collect published events into batch frames, per partition, instead of sending one
+	 * record per event.
+	 * 
+	 * @param maxEvents the most events in one record.
+	 * @param maxBytes the uncompressed size, in bytes, at which a batch is sent.
+	 * @param lingerMillis the longest an event waits for its batch to fill.
+	 */
+	protected void setBatching(int maxEvents, int maxBytes, long lingerMillis)
+	{
+		this.maxBatchEvents = maxEvents;
+		this.maxBatchBytes = maxBytes;
+		this.lingerMillis = lingerMillis;
+		this.isBatching = true;
+		resetFrames();
+	}
+
+	/**
+	 * Send any batched events and stop batching.
+	 */
+	protected void stopBatching()
+	{
+		if (isBatching)
+		{
+			this.maxBatchEvents = EventBatcher.DEFAULT_MAX_EVENTS;
+			this.maxBatchBytes = EventBatcher.DEFAULT_MAX_BYTES;
+			this.lingerMillis = 0L;
+			this.isBatching = false;
+			resetFrames();
+		}
+	}
+
+	/**
+	 * Waits for in-flight capacity, if limited. If interrupted while waiting, the event is
+	 * published anyway and the thread's interrupt status is restored.
+	 */
 	@Override
 	public void publish(Object event)
 	{
+		acquireUninterruptibly(event);
+		dispatch(event, null);
+	}
+
+	/**
+	 * @return false if in-flight capacity is limited and none became available within the timeout.
+	 */
+	@Override
+	public boolean publish(Object event, long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		if (inFlight != null && !inFlight.tryAcquire(event, timeout, unit)) return false;
+
+		dispatch(event, null);
+		return true;
+	}
+
+	/**
+	 * Publish an event, waiting for in-flight capacity if limited, and report when the broker
+	 * acknowledges it. If batching, the stage completes once the event's batch is acknowledged.
+	 * In transactions, it completes once the transaction commits, and fails if it aborts.
+	 * 
+	 * @param event the event to publish.
+	 * @return a stage completed with the event's record metadata or, if the event could not be
+	 * encoded or sent, or the caller was interrupted while waiting for capacity, exceptionally.
+	 */
+	public CompletionStage<RecordMetadata> publishAsync(Object event)
+	{
+		CompletableFuture<RecordMetadata> future = new CompletableFuture<RecordMetadata>();
+
 		try
 		{
-			Future<RecordMetadata> f = producer.send(new ProducerRecord<String, String>(topic, System.currentTimeMillis() + "", mapper.writeValueAsString(event)));
+			acquire(event);
+			dispatch(event, future);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			future.completeExceptionally(e);
 		}
-		catch (JsonProcessingException e)
+		catch (RuntimeException e)
 		{
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			future.completeExceptionally(e);
 		}
+
+		return future;
+	}
+
+	/**
+	 * Sends the events as one or more batch frames, waiting for in-flight capacity (if limited)
+	 * as needed.
+	 */
+	@Override
+	public void publishAll(Collection<?> events)
+	{
+		Set<PartitionedEventBatcher> batchers = new LinkedHashSet<PartitionedEventBatcher>();
+
+		for (Object event : events)
+		{
+			PartitionedEventBatcher batcher = framesFor(event);
+			batchers.add(batcher);
+			acquireUninterruptibly(event);
+
+			try
+			{
+				batcher.add(event, null);
+			}
+			catch (RuntimeException e)
+			{
+				release(event);
+				throw e;
+			}
+		}
+
+		for (PartitionedEventBatcher batcher : batchers)
+		{
+			batcher.flush();
+		}
+	}
+
+	/**
+	 * Send every partially-filled batch now.
+	 */
+	public void flush()
+	{
+		for (PartitionedEventBatcher batcher : frames.values())
+		{
+			batcher.flush();
+		}
+	}
+
+	/**
+	 * Create a replay of the handler's topics into the handler (see KafkaReplay).
+	 * 
+	 * @param consumer the replay's consumer, configured with the handler's own group.id.
+	 * @param handler the handler to replay into. It needn't, and shouldn't, be subscribed.
+	 * @return the replay, to be positioned and started.
+	 */
+	public KafkaReplay replay(Consumer<byte[], byte[]> consumer, EventHandler handler)
+	{
+		return new KafkaReplay(consumer, router.topicsHandledBy(Collections.singleton(handler)), codec, handler);
+	}
+
+	/**
+	 * @return the topic router.
+	 */
+	public EventTopicRouter getRouter()
+	{
+		return router;
 	}
 
 	@Override
 	public boolean subscribe(EventHandler handler)
 	{
-		return false;
+		if (adapter == null) return false;
+
+		boolean isSubscribed = adapter.register(handler);
+		adapter.start();
+		return isSubscribed;
 	}
 
 	@Override
 	public boolean unsubscribe(EventHandler handler)
 	{
-		return false;
+		if (adapter == null) return false;
+
+		return adapter.unregister(handler);
 	}
 
 	@Override
 	public void shutdown()
 	{
-		producer.close();
+		shutdownFrames(frames);
+
+		if (adapter != null)
+		{
+			adapter.shutdown();
+		}
+
+		if (transactions != null)
+		{
+			transactions.release(this);
+		}
+		else
+		{
+			producer.close();
+		}
+	}
+
+	/**
+	 * The batcher for the event's topic, created on first use.
+	 * 
+	 * @throws IllegalArgumentException if the event's type has no topic.
+	 */
+	private PartitionedEventBatcher framesFor(Object event)
+	{
+		String topic = router.topicFor(event.getClass());
+
+		if (topic == null)
+		{
+			throw new IllegalArgumentException("No Kafka topic for event type: " + event.getClass().getName());
+		}
+
+		PartitionedEventBatcher batcher = frames.get(topic);
+		return (batcher == null ? createFrames(topic) : batcher);
+	}
+
+	/**
+	 * Synchronized with resetFrames(), so a batcher is never added to replaced batchers.
+	 */
+	private synchronized PartitionedEventBatcher createFrames(String topic)
+	{
+		PartitionedEventBatcher batcher = frames.get(topic);
+
+		if (batcher == null)
+		{
+			batcher = new PartitionedEventBatcher(producer, topic, codec, keyExtractor, compressionThreshold, maxBatchEvents, maxBatchBytes, lingerMillis, inFlight, statistics, transactions);
+			frames.put(topic, batcher);
+		}
+
+		return batcher;
+	}
+
+	/**
+	 * Hand the event, whose capacity is already acquired, to its topic's batcher. If it can't
+	 * be routed or encoded, its capacity is released.
+	 */
+	private void dispatch(Object event, CompletableFuture<RecordMetadata> future)
+	{
+		try
+		{
+			if (isBatching)
+			{
+				framesFor(event).add(event, future);
+			}
+			else
+			{
+				framesFor(event).send(event, future);
+			}
+		}
+		catch (RuntimeException e)
+		{
+			release(event);
+			throw e;
+		}
+	}
+
+	private void acquire(Object event)
+	throws InterruptedException
+	{
+		if (inFlight == null) return;
+
+		while (!inFlight.tryAcquire(event, CAPACITY_WAIT_MILLIS, TimeUnit.MILLISECONDS))
+		{
+			// Batched events hold capacity until sent, so don't wait on a batch that may never fill.
+			flush();
+		}
+	}
+
+	private void acquireUninterruptibly(Object event)
+	{
+		try
+		{
+			acquire(event);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			inFlight.acquire(event);
+		}
+	}
+
+	private void release(Object event)
+	{
+		if (inFlight != null)
+		{
+			inFlight.release(event);
+		}
+	}
+
+	/**
+	 * Replace the batchers to apply new settings, sending whatever the old ones hold.
+	 */
+	private synchronized void resetFrames()
+	{
+		Map<String, PartitionedEventBatcher> old = frames;
+		frames = new ConcurrentHashMap<String, PartitionedEventBatcher>();
+		shutdownFrames(old);
+	}
+
+	private void shutdownFrames(Map<String, PartitionedEventBatcher> batchers)
+	{
+		for (PartitionedEventBatcher batcher : batchers.values())
+		{
+			batcher.shutdown();
+		}
 	}
 }
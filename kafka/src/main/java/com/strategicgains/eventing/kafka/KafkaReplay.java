@@ -0,0 +1,535 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+
+import com.strategicgains.eventing.BatchEventHandler;
+import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.codec.CodecException;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrame;
+
+/**
+ * Replays a handler's topics from an offset or a point in time, on a dedicated consumer, then
+ * hands over to live consumption. Use it to backfill a new handler (e.g. a projection) from
+ * history without a separate tool.
+ * <p/>
+ * The replay assigns itself every partition of the topics, seeks each to the start position and
+ * reads as fast as the consumer fetches: one thread decodes the records, skipping events the
+ * handler doesn't handle without decoding them, and delivers the rest in batches, to
+ * BatchEventHandler.handleAll() if the handler implements it, or to handle() one by one.
+ * <p/>
+ * Once every partition's position reaches its end offset, the replay commits those positions
+ * for the consumer's group and hands the consumer to a KafkaEventHandlerAdapter, which subscribes
+ * to the topics and continues from the committed offsets. So the handler sees each event once,
+ * with no gap between replay and live consumption. The consumer must therefore be configured
+ * with the handler's own group.id (not that of any other handlers), and enable.auto.commit=false.
+ * <p/>
+ * Usage:
+ * <pre>
+ * KafkaReplay replay = bus.replay(consumer, new OrderProjection())
+ *     .fromTimestamp(deployedAt);
+ * replay.start();
+ * replay.awaitCaughtUp(10, TimeUnit.MINUTES);
+ * ...
+ * replay.shutdown();	// Stops the replay or, once handed over, live consumption.
+ * </pre>
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class KafkaReplay
+implements Runnable
+{
+	// SECTION: CONSTANTS
+
+	public static final int DEFAULT_BATCH_SIZE = 500;
+	private static final long POLL_MILLIS = 100L;
+	private static final long STOP_TIMEOUT_MILLIS = 30000L;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private final AtomicBoolean closed = new AtomicBoolean(false);
+	private Consumer<byte[], byte[]> consumer;
+	private List<String> topics;
+	private EventCodec codec;
+	private EventHandler handler;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	private int workerThreads = 1;
+	private long startOffset = 0L;
+	private Map<TopicPartition, Long> startOffsets;
+	private long startTimestamp = -1L;
+	private AtomicLong replayed = new AtomicLong(0L);
+	private CountDownLatch caughtUp = new CountDownLatch(1);
+	private EventFrame frame = new EventFrame();
+	private Thread thread;
+	private KafkaEventHandlerAdapter live;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param consumer the consumer, which this replay owns (and closes, or hands over) from here on.
+	 * @param topics the topics to replay.
+	 * @param codec decodes events.
+	 * @param handler receives the replayed events, then live ones.
+	 */
+	public KafkaReplay(Consumer<byte[], byte[]> consumer, Collection<String> topics, EventCodec codec, EventHandler handler)
+	{
+		super();
+
+		if (topics.isEmpty())
+		{
+			throw new IllegalArgumentException("At least one topic is required");
+		}
+
+		this.consumer = consumer;
+		this.topics = new ArrayList<String>(topics);
+		this.codec = codec;
+		this.handler = handler;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Replay every partition from its beginning. The default.
+	 * 
+	 * @return this replay to facilitate method chaining.
+	 */
+	public KafkaReplay fromBeginning()
+	{
+		return fromOffset(0L);
+	}
+
+	/**
+	 * Replay every partition from the given offset (or its beginning, if that's later).
+	 * 
+	 * @return this replay to facilitate method chaining.
+	 */
+	public KafkaReplay fromOffset(long offset)
+	{
+		this.startOffset = offset;
+		this.startOffsets = null;
+		this.startTimestamp = -1L;
+		return this;
+	}
+
+	/**
+	 * Replay each partition from its given offset. Partitions not given are replayed from their beginning.
+	 * 
+	 * @return this replay to facilitate method chaining.
+	 */
+	public KafkaReplay fromOffsets(Map<TopicPartition, Long> offsets)
+	{
+		fromBeginning();
+		this.startOffsets = new HashMap<TopicPartition, Long>(offsets);
+		return this;
+	}
+
+	/**
+	 * Replay each partition from its first record with a timestamp at or after the given time,
+	 * found via the consumer's offsetsForTimes(). Partitions with no such record start at their end.
+	 * 
+	 * @param timestamp milliseconds since the epoch.
+	 * @return this replay to facilitate method chaining.
+	 */
+	public KafkaReplay fromTimestamp(long timestamp)
+	{
+		fromBeginning();
+		this.startTimestamp = timestamp;
+		return this;
+	}
+
+	/**
+	 * @param size the most events delivered in one batch. Defaults to 500.
+	 */
+	public void setBatchSize(int size)
+	{
+		if (size < 1)
+		{
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+
+		this.batchSize = size;
+	}
+
+	/**
+	 * @param workerThreads the number of threads processing partitions once live.
+	 */
+	public void setWorkerThreads(int workerThreads)
+	{
+		this.workerThreads = workerThreads;
+	}
+
+	/**
+	 * @return the number of events delivered by the replay, not counting live events.
+	 */
+	public long getReplayedCount()
+	{
+		return replayed.get();
+	}
+
+	public boolean isCaughtUp()
+	{
+		return (caughtUp.getCount() == 0);
+	}
+
+	/**
+	 * Wait for the replay to catch up and hand over to live consumption.
+	 * 
+	 * @return true if it has, false if the timeout elapsed first.
+	 */
+	public boolean awaitCaughtUp(long timeout, TimeUnit unit)
+	throws InterruptedException
+	{
+		return caughtUp.await(timeout, unit);
+	}
+
+	/**
+	 * Start replaying on a thread of its own.
+	 */
+	public synchronized void start()
+	{
+		if (thread != null || closed.get()) return;
+
+		thread = new Thread(this, "kafka-event-replay-" + topics);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	@Override
+	public void run()
+	{
+		boolean isHandedOver = false;
+
+		try
+		{
+			List<TopicPartition> partitions = partitionsOf(topics);
+			consumer.assign(partitions);
+			seek(partitions);
+			Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+			List<Object> batch = new ArrayList<Object>(batchSize);
+
+			while (!closed.get())
+			{
+				ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_MILLIS);
+
+				for (ConsumerRecord<byte[], byte[]> record : records)
+				{
+					decode(record, batch);
+				}
+
+				deliver(batch);
+
+				if (isCaughtUp(partitions, endOffsets))
+				{
+					// More may have been published while replaying, so catch up to that too.
+					endOffsets = consumer.endOffsets(partitions);
+
+					if (isCaughtUp(partitions, endOffsets))
+					{
+						isHandedOver = handOver(partitions);
+						return;
+					}
+				}
+			}
+		}
+		catch (WakeupException e)
+		{
+			// Ignore exception if closing
+			if (!closed.get()) throw e;
+		}
+		finally
+		{
+			if (!isHandedOver)
+			{
+				consumer.close();
+			}
+		}
+	}
+
+	/**
+	 * Stop replaying or, once handed over, stop live consumption. May be called from any thread.
+	 */
+	public void shutdown()
+	{
+		KafkaEventHandlerAdapter adapter;
+		Thread replaying;
+
+		synchronized (this)
+		{
+			closed.set(true);
+			adapter = live;
+			replaying = thread;
+		}
+
+		if (adapter != null)
+		{
+			adapter.shutdown();
+			return;
+		}
+
+		if (replaying == null)
+		{
+			consumer.close();
+			return;
+		}
+
+		consumer.wakeup();
+
+		if (replaying != Thread.currentThread())
+		{
+			try
+			{
+				replaying.join(STOP_TIMEOUT_MILLIS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private List<TopicPartition> partitionsOf(List<String> topics)
+	{
+		List<TopicPartition> partitions = new ArrayList<TopicPartition>();
+
+		for (String topic : topics)
+		{
+			List<PartitionInfo> infos = consumer.partitionsFor(topic);
+
+			if (infos == null) continue;
+
+			for (PartitionInfo info : infos)
+			{
+				partitions.add(new TopicPartition(info.topic(), info.partition()));
+			}
+		}
+
+		return partitions;
+	}
+
+	/**
+	 * Position each partition at the start, but never before its beginning.
+	 */
+	private void seek(List<TopicPartition> partitions)
+	{
+		Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+		Map<TopicPartition, Long> starts = new HashMap<TopicPartition, Long>();
+
+		for (TopicPartition partition : partitions)
+		{
+			Long start = (startOffsets == null ? null : startOffsets.get(partition));
+			starts.put(partition, (start == null ? startOffset : start));
+		}
+
+		if (startTimestamp >= 0)
+		{
+			Map<TopicPartition, Long> timestamps = new HashMap<TopicPartition, Long>();
+
+			for (TopicPartition partition : partitions)
+			{
+				timestamps.put(partition, startTimestamp);
+			}
+
+			Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+			for (Entry<TopicPartition, OffsetAndTimestamp> found : consumer.offsetsForTimes(timestamps).entrySet())
+			{
+				OffsetAndTimestamp offset = found.getValue();
+				starts.put(found.getKey(), (offset == null ? endOffsets.get(found.getKey()) : offset.offset()));
+			}
+		}
+
+		for (TopicPartition partition : partitions)
+		{
+			Long first = beginning.get(partition);
+			consumer.seek(partition, Math.max(starts.get(partition), (first == null ? 0L : first)));
+		}
+	}
+
+	/**
+	 * Decode the events in a record that the handler handles into the batch, delivering
+	 * the batch whenever it fills.
+	 */
+	private void decode(ConsumerRecord<byte[], byte[]> record, List<Object> batch)
+	{
+		byte[] value = record.value();
+
+		if (value == null) return;
+
+		try
+		{
+			frame.reset(value, 0, value.length);
+
+			for (int index = 0; frame.hasNext(); index++)
+			{
+				Object event = decode(frame.next(), record, index);
+
+				if (event == null) continue;
+
+				batch.add(event);
+
+				if (batch.size() >= batchSize)
+				{
+					deliver(batch);
+				}
+			}
+		}
+		catch (CodecException e)
+		{
+			// The frame itself is corrupt, so the rest of the record is unreadable.
+			System.err.println("Skipping undecodable record " + record.topic() + "-" + record.partition() + "@" + record.offset());
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Decode one event of a record, if the handler handles it. An event that can't be decoded
+	 * is logged and skipped, without affecting the rest of the record.
+	 * 
+	 * @return the event, or null if it's unhandled or can't be decoded.
+	 */
+	private Object decode(ByteBuffer encoded, ConsumerRecord<byte[], byte[]> record, int index)
+	{
+		try
+		{
+			Class<?> type = codec.peekType(encoded);
+
+			if (type != null && !handler.handles(type)) return null;
+
+			Object event = codec.decode(encoded);
+			return (type != null || handler.handles(event.getClass()) ? event : null);
+		}
+		catch (CodecException e)
+		{
+			System.err.println("Skipping undecodable event " + index + " of record " + record.topic() + "-" + record.partition() + "@" + record.offset());
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Hand the batch to the handler and clear it. Handler failures are logged and do not stop the replay.
+	 */
+	private void deliver(List<Object> batch)
+	{
+		if (batch.isEmpty()) return;
+
+		try
+		{
+			if (handler instanceof BatchEventHandler)
+			{
+				try
+				{
+					((BatchEventHandler) handler).handleAll(batch);
+				}
+				catch (Exception e)
+				{
+					e.printStackTrace();
+				}
+			}
+			else
+			{
+				for (Object event : batch)
+				{
+					try
+					{
+						handler.handle(event);
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+				}
+			}
+
+			replayed.addAndGet(batch.size());
+		}
+		finally
+		{
+			batch.clear();
+		}
+	}
+
+	private boolean isCaughtUp(List<TopicPartition> partitions, Map<TopicPartition, Long> endOffsets)
+	{
+		for (TopicPartition partition : partitions)
+		{
+			Long end = endOffsets.get(partition);
+
+			if (end != null && consumer.position(partition) < end) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Commit the replayed positions for the consumer's group, so live consumption continues
+	 * exactly where the replay stopped, and hand the consumer to an adapter subscribed to the topics.
+	 * 
+	 * @return true if handed over, false if shut down meanwhile.
+	 */
+	private boolean handOver(List<TopicPartition> partitions)
+	{
+		Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+
+		for (TopicPartition partition : partitions)
+		{
+			offsets.put(partition, new OffsetAndMetadata(consumer.position(partition)));
+		}
+
+		consumer.commitSync(offsets);
+		consumer.unsubscribe();
+
+		synchronized (this)
+		{
+			if (closed.get()) return false;
+
+			live = new KafkaEventHandlerAdapter(consumer, topics, codec, workerThreads);
+			live.register(handler);
+			live.start();
+		}
+
+		caughtUp.countDown();
+		return true;
+	}
+}
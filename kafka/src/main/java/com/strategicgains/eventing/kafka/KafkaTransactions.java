@@ -0,0 +1,428 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+/**
+ * A transactional producer shared by the Kafka event buses of a consume-transform-produce
+ * pipeline, so that the events handlers publish and the offsets of the records they consumed
+ * are committed together, or not at all (exactly-once processing).
+ * <p/>
+ * Rather than one transaction per record, which would cost a round trip to the transaction
+ * coordinator per record, a transaction spans every record processed in a commit interval
+ * (see setCommitIntervalMillis()). The consuming bus's poll thread commits it: it flushes the
+ * buses' batches, adds the processed offsets and commits, while briefly holding off handlers
+ * and publishers so nothing is sent between one transaction and the next.
+ * <p/>
+ * If a transaction fails, it is aborted, so its events are never seen by read_committed
+ * consumers, and the consuming bus rewinds its partitions to the last committed offsets and
+ * processes those records again.
+ * <p/>
+ * A producer that's been fenced, or whose transaction can't be aborted, can't be used again.
+ * The instance is then failed (see getFailure()): nothing more is committed, and consuming buses
+ * stop, reporting the failure, rather than reprocess records they can never commit.
+ * <p/>
+ * Events published outside handlers join the current transaction, so they are visible once
+ * the consuming bus next commits, and are discarded if that transaction aborts. Likewise, the
+ * stages publishAsync() returns complete when the transaction commits, and fail if it aborts,
+ * rather than when the broker acknowledges the record.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class KafkaTransactions
+{
+	// SECTION: CONSTANTS
+
+	public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 100L;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Producer<byte[], byte[]> producer;
+	private long commitIntervalMillis = DEFAULT_COMMIT_INTERVAL_MILLIS;
+	private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private Set<KafkaEventTransport> transports = new CopyOnWriteArraySet<KafkaEventTransport>();
+	private boolean isStarted = false;
+	private volatile KafkaException failure = null;
+	private volatile boolean isDirty = false;
+	private volatile Exception sendFailure = null;
+
+	// Sends acknowledged in the current transaction, completed once it commits or failed if it aborts.
+	private Queue<Acknowledged> acknowledged = new ConcurrentLinkedQueue<Acknowledged>();
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * Creates an idempotent, transactional producer. The key and value serializers are supplied.
+	 * 
+	 * @param config Kafka producer configuration.
+	 * @param transactionalId identifies the producer across restarts, so a restarted instance fences
+	 * off its predecessor. Each instance of a pipeline needs its own, stable, id.
+	 */
+	public KafkaTransactions(Properties config, String transactionalId)
+	{
+		this(new KafkaProducer<byte[], byte[]>(transactionalConfig(config, transactionalId), new ByteArraySerializer(), new ByteArraySerializer()));
+	}
+
+	/**
+	 * @param producer a producer configured with a transactional.id, which this instance owns
+	 * (and closes, once every bus using it has shut down) from here on.
+	 */
+	public KafkaTransactions(Producer<byte[], byte[]> producer)
+	{
+		super();
+		this.producer = producer;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	public Producer<byte[], byte[]> getProducer()
+	{
+		return producer;
+	}
+
+	/**
+	 * @param millis the longest a transaction stays open while records are being processed. Longer
+	 * intervals amortize each commit over more records, at the cost of end-to-end latency.
+	 */
+	public void setCommitIntervalMillis(long millis)
+	{
+		this.commitIntervalMillis = millis;
+	}
+
+	public long getCommitIntervalMillis()
+	{
+		return commitIntervalMillis;
+	}
+
+	/**
+	 * @return true if the producer was fenced or a transaction couldn't be aborted, so nothing more can be committed.
+	 */
+	public boolean isFailed()
+	{
+		return (failure != null);
+	}
+
+	/**
+	 * @return the exception that failed this instance, or null.
+	 */
+	public KafkaException getFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * Commit the current transaction, with no consumer offsets, and begin the next one. For
+	 * pipelines with no consuming bus; otherwise the consuming bus commits.
+	 * 
+	 * @return false if the transaction failed and was aborted.
+	 */
+	public boolean commit()
+	{
+		return commit(null, Collections.<PartitionWorker>emptyList());
+	}
+
+	/**
+	 * Send every transport's batches, then commit them, with the offsets the workers have completed,
+	 * and begin the next transaction. If the commit fails, the transaction is aborted and the workers
+	 * halted, without processing anything more, so the caller can rewind them.
+	 * 
+	 * @param groupId the consumer group whose offsets are committed.
+	 * @param workers the consuming partitions.
+	 * @return false if the transaction failed and was aborted, or this instance has failed (see isFailed()).
+	 */
+	boolean commit(String groupId, Collection<PartitionWorker> workers)
+	{
+		if (failure != null) return false;
+
+		lock.writeLock().lock();
+
+		try
+		{
+			if (!isStarted) return true;
+
+			for (KafkaEventTransport transport : transports)
+			{
+				transport.flush();
+			}
+
+			Map<TopicPartition, OffsetAndMetadata> offsets = uncommittedOffsets(workers);
+
+			if (offsets.isEmpty() && !isDirty) return true;
+
+			try
+			{
+				// The producer acknowledges every send before it commits, so a failed send fails the commit.
+				producer.flush();
+
+				if (sendFailure != null)
+				{
+					throw new KafkaException("Unable to send to the transaction", sendFailure);
+				}
+
+				if (!offsets.isEmpty())
+				{
+					producer.sendOffsetsToTransaction(offsets, groupId);
+				}
+
+				producer.commitTransaction();
+				completeAcknowledged(null);
+
+				for (PartitionWorker worker : workers)
+				{
+					OffsetAndMetadata committed = offsets.get(worker.getPartition());
+
+					if (committed != null)
+					{
+						worker.setCommittedOffset(committed.offset());
+					}
+				}
+
+				isDirty = false;
+				producer.beginTransaction();
+				return true;
+			}
+			catch (ProducerFencedException e)
+			{
+				// Another instance with the same transactional.id has started.
+				System.err.println("Kafka transactional producer fenced: " + e.getMessage());
+				failure = e;
+				completeAcknowledged(e);
+				halt(workers);
+				return false;
+			}
+			catch (KafkaException e)
+			{
+				System.err.println("Aborting Kafka transaction with offsets " + offsets + ": " + e.getMessage());
+				abort();
+				completeAcknowledged(e);
+				halt(workers);
+				return false;
+			}
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Held while processing a record or sending to the transaction, so a commit waits for both.
+	 */
+	Lock getLock()
+	{
+		return lock.readLock();
+	}
+
+	/**
+	 * A record was sent in the current transaction. Called with getLock() held.
+	 */
+	void onSend()
+	{
+		isDirty = true;
+	}
+
+	/**
+	 * A record sent in the current transaction failed, so the transaction must abort.
+	 */
+	void onSendFailure(Exception exception)
+	{
+		sendFailure = exception;
+	}
+
+	/**
+	 * A send in the current transaction was acknowledged, so its future waits for the commit.
+	 */
+	void onAcknowledged(CompletableFuture<RecordMetadata> future, RecordMetadata metadata)
+	{
+		acknowledged.add(new Acknowledged(future, metadata));
+
+		// It won't commit now.
+		if (failure != null)
+		{
+			completeAcknowledged(failure);
+		}
+	}
+
+	/**
+	 * Start a transport publishing in transactions, beginning the first transaction if needed.
+	 */
+	void register(KafkaEventTransport transport)
+	{
+		lock.writeLock().lock();
+
+		try
+		{
+			if (!isStarted)
+			{
+				producer.initTransactions();
+				producer.beginTransaction();
+				isStarted = true;
+			}
+
+			transports.add(transport);
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Stop a transport publishing. Once every transport has stopped, what remains is committed
+	 * and the producer is closed.
+	 */
+	void release(KafkaEventTransport transport)
+	{
+		if (!transports.remove(transport) || !transports.isEmpty()) return;
+
+		try
+		{
+			commit();
+		}
+		finally
+		{
+			producer.close();
+		}
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private static Properties transactionalConfig(Properties config, String transactionalId)
+	{
+		Properties result = new Properties();
+		result.putAll(config);
+		result.put("transactional.id", transactionalId);
+		result.put("enable.idempotence", "true");
+		result.put("acks", Acks.ALL.value());
+		result.put("max.in.flight.requests.per.connection", "1");
+		return result;
+	}
+
+	private Map<TopicPartition, OffsetAndMetadata> uncommittedOffsets(Collection<PartitionWorker> workers)
+	{
+		Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<TopicPartition, OffsetAndMetadata>();
+
+		for (PartitionWorker worker : workers)
+		{
+			long offset = worker.getUncommittedOffset();
+
+			if (offset >= 0)
+			{
+				offsets.put(worker.getPartition(), new OffsetAndMetadata(offset));
+			}
+		}
+
+		return offsets;
+	}
+
+	/**
+	 * Abort the current transaction and begin the next. If the producer can't, e.g. after a fatal
+	 * error, this instance fails.
+	 */
+	private void abort()
+	{
+		try
+		{
+			producer.abortTransaction();
+			producer.beginTransaction();
+		}
+		catch (KafkaException e)
+		{
+			System.err.println("Unable to abort Kafka transaction: " + e.getMessage());
+			failure = e;
+		}
+		finally
+		{
+			isDirty = false;
+			sendFailure = null;
+		}
+	}
+
+	/**
+	 * Complete the futures of the sends acknowledged in the transaction just ended.
+	 * 
+	 * @param abortCause why the transaction aborted, or null if it committed.
+	 */
+	private void completeAcknowledged(KafkaException abortCause)
+	{
+		Acknowledged send;
+
+		while ((send = acknowledged.poll()) != null)
+		{
+			if (abortCause == null)
+			{
+				send.future.complete(send.metadata);
+			}
+			else
+			{
+				send.future.completeExceptionally(new KafkaException("Kafka transaction did not commit", abortCause));
+			}
+		}
+	}
+
+	/**
+	 * Called with the write lock held, so no worker is processing. Halted workers won't start another record.
+	 */
+	private void halt(Collection<PartitionWorker> workers)
+	{
+		for (PartitionWorker worker : workers)
+		{
+			worker.halt();
+		}
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	private static class Acknowledged
+	{
+		private CompletableFuture<RecordMetadata> future;
+		private RecordMetadata metadata;
+
+		public Acknowledged(CompletableFuture<RecordMetadata> future, RecordMetadata metadata)
+		{
+			super();
+			this.future = future;
+			this.metadata = metadata;
+		}
+	}
+}
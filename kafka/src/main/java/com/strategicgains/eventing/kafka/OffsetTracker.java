@@ -0,0 +1,134 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks which of a partition's offsets are still being processed, when records complete out
+ * of order, and answers the commit watermark: the offset below which every record has completed.
+ * <p/>
+ * In-flight offsets are held in a sparse bitmap: fixed-size blocks of bits, created as offsets
+ * are added and dropped as soon as all their offsets complete. So memory is proportional to the
+ * spread of in-flight offsets, not to how many records have passed through, and offsets that
+ * never arrive (compacted records, transaction markers) don't hold the watermark back.
+ * <p/>
+ * Thread safe.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class OffsetTracker
+{
+	// SECTION: CONSTANTS
+
+	private static final int BLOCK_SHIFT = 10;
+	private static final int BLOCK_BITS = 1 << BLOCK_SHIFT;
+	private static final int BLOCK_MASK = BLOCK_BITS - 1;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	// Block index -> bits of the block's in-flight offsets, with a trailing count of set bits.
+	private TreeMap<Long, long[]> blocks = new TreeMap<Long, long[]>();
+	private long nextOffset = -1L;
+	private int inFlight = 0;
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Start tracking an offset. Offsets must be added in increasing order.
+	 */
+	public synchronized void add(long offset)
+	{
+		if (offset < nextOffset)
+		{
+			throw new IllegalArgumentException("Offset " + offset + " added out of order (expected at least " + nextOffset + ")");
+		}
+
+		long index = offset >>> BLOCK_SHIFT;
+		long[] block = blocks.get(index);
+
+		if (block == null)
+		{
+			block = new long[(BLOCK_BITS >>> 6) + 1];
+			blocks.put(index, block);
+		}
+
+		int bit = (int) (offset & BLOCK_MASK);
+		block[bit >>> 6] |= (1L << bit);
+		++block[block.length - 1];
+		++inFlight;
+		nextOffset = offset + 1;
+	}
+
+	/**
+	 * Mark an added offset complete. Completing an offset that isn't in flight has no effect.
+	 */
+	public synchronized void complete(long offset)
+	{
+		long index = offset >>> BLOCK_SHIFT;
+		long[] block = blocks.get(index);
+
+		if (block == null) return;
+
+		int bit = (int) (offset & BLOCK_MASK);
+		long mask = (1L << bit);
+
+		if ((block[bit >>> 6] & mask) == 0) return;
+
+		block[bit >>> 6] &= ~mask;
+		--inFlight;
+
+		if (--block[block.length - 1] == 0)
+		{
+			blocks.remove(index);
+		}
+	}
+
+	/**
+	 * The offset to commit: the lowest offset still in flight or, if none is, the offset after the
+	 * last one added. -1 if nothing has been added.
+	 */
+	public synchronized long getWatermark()
+	{
+		Map.Entry<Long, long[]> first = blocks.firstEntry();
+
+		if (first == null) return nextOffset;
+
+		long[] block = first.getValue();
+
+		for (int i = 0; i < block.length - 1; i++)
+		{
+			if (block[i] != 0)
+			{
+				return (first.getKey() << BLOCK_SHIFT) + (i << 6) + Long.numberOfTrailingZeros(block[i]);
+			}
+		}
+
+		throw new IllegalStateException("Empty offset block");
+	}
+
+	/**
+	 * The number of offsets added but not completed.
+	 */
+	public synchronized int getInFlightCount()
+	{
+		return inFlight;
+	}
+}
@@ -0,0 +1,131 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.common.TopicPartition;
+
+import com.strategicgains.eventing.metrics.LatencyHistogram;
+
+/**
+ * One consumed partition's statistics: records processed, how long each took to process
+ * (decoding and all its handlers), the processing rate and the lag, in records, between the end of the partition and the next record to process.
+ * <p/>
+ * Rate and lag are sampled by the poll thread (see ConsumeStatistics.sample()); processing is
+ * recorded by the worker threads.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class PartitionStatistics
+{
+	// SECTION: INSTANCE VARIABLES
+
+	private TopicPartition partition;
+	private LongAdder processed = new LongAdder();
+	private LatencyHistogram latency = new LatencyHistogram();
+	private LatencyHistogram totalLatency;
+	private volatile long lag = -1L;
+	private volatile long recordsPerSecond = 0L;
+	private long sampledProcessed = 0L;
+	private long sampledAt = System.currentTimeMillis();
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param partition the partition.
+	 * @param totalLatency also records this partition's processing times. May be null.
+	 */
+	public PartitionStatistics(TopicPartition partition, LatencyHistogram totalLatency)
+	{
+		super();
+		this.partition = partition;
+		this.totalLatency = totalLatency;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	public TopicPartition getPartition()
+	{
+		return partition;
+	}
+
+	/**
+	 * Record one processed record.
+	 * 
+	 * @param nanos how long the record took to process.
+	 */
+	public void recordProcessed(long nanos)
+	{
+		processed.increment();
+		latency.record(nanos);
+
+		if (totalLatency != null)
+		{
+			totalLatency.record(nanos);
+		}
+	}
+
+	public long getProcessed()
+	{
+		return processed.sum();
+	}
+
+	public LatencyHistogram getLatency()
+	{
+		return latency;
+	}
+
+	/**
+	 * @return the records between the next to process and the end of the partition, or -1 if unknown.
+	 */
+	public long getLag()
+	{
+		return lag;
+	}
+
+	/**
+	 * @return records processed per second, over the last sample interval.
+	 */
+	public long getRecordsPerSecond()
+	{
+		return recordsPerSecond;
+	}
+
+	/**
+	 * Update the rate and lag. Called by one thread at a time.
+	 * 
+	 * @param now the current time, in milliseconds.
+	 * @param lag the current lag, or -1 if unknown.
+	 */
+	void sample(long now, long lag)
+	{
+		long count = processed.sum();
+		long elapsed = now - sampledAt;
+
+		if (elapsed > 0)
+		{
+			recordsPerSecond = (count - sampledProcessed) * 1000L / elapsed;
+			sampledProcessed = count;
+			sampledAt = now;
+		}
+
+		this.lag = lag;
+	}
+}
@@ -0,0 +1,372 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Processes one partition's records on a shared worker pool. By default, records are processed
+ * in offset order, by at most one pool thread at a time, so partitions are processed in parallel
+ * while each stays ordered.
+ * <p/>
+ * With more than one lane, records are instead divided among the lanes by key, and the lanes are
+ * processed in parallel. So records with the same key stay in order, while a partition's
+ * throughput is no longer limited to one thread. Unkeyed records are spread across the lanes.
+ * <p/>
+ * Either way, the worker tracks its in-flight offsets (see OffsetTracker) and answers the offset
+ * below which every record is fully processed, which is what the poll thread commits, so an
+ * offset is never committed before its handlers (and those of every earlier record) have finished.
+ * <p/>
+ * Given a lock, the worker holds it while processing each record, so that (for example) a
+ * transaction can commit between records, but never during one.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class PartitionWorker
+{
+	// SECTION: CONSTANTS
+
+	private static final long STOP_POLL_MILLIS = 5L;
+
+	// The most records a lane processes before yielding its pool thread to other partitions' lanes.
+	private static final int MAX_RECORDS_PER_RUN = 64;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private TopicPartition partition;
+	private RecordProcessor processor;
+	private Executor executor;
+	private Lock lock;
+	private Lane[] lanes;
+	private OffsetTracker offsets = new OffsetTracker();
+	private AtomicInteger pendingCount = new AtomicInteger(0);
+	private AtomicLong pendingBytes = new AtomicLong(0L);
+	private volatile boolean isStopped = false;
+	private long committedOffset = -1L;
+	private long firstOffset = -1L;
+	private PartitionStatistics statistics;
+
+
+	// SECTION: CONSTRUCTORS
+
+	public PartitionWorker(TopicPartition partition, RecordProcessor processor, Executor executor)
+	{
+		this(partition, processor, executor, null, 1);
+	}
+
+	/**
+	 * @param lock held while processing each record. May be null.
+	 * @param laneCount the number of keys processed in parallel. One processes the partition in offset order.
+	 */
+	public PartitionWorker(TopicPartition partition, RecordProcessor processor, Executor executor, Lock lock, int laneCount)
+	{
+		super();
+
+		if (laneCount < 1)
+		{
+			throw new IllegalArgumentException("At least one lane is required");
+		}
+
+		this.partition = partition;
+		this.processor = processor;
+		this.executor = executor;
+		this.lock = lock;
+		this.lanes = new Lane[laneCount];
+
+		for (int i = 0; i < laneCount; i++)
+		{
+			lanes[i] = new Lane();
+		}
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	public TopicPartition getPartition()
+	{
+		return partition;
+	}
+
+	/**
+	 * @param statistics records each record's processing time. Set before submitting records.
+	 */
+	public void setStatistics(PartitionStatistics statistics)
+	{
+		this.statistics = statistics;
+	}
+
+	/**
+	 * Queue records, in offset order, for processing.
+	 */
+	public void submit(List<ConsumerRecord<byte[], byte[]>> records)
+	{
+		if (records.isEmpty()) return;
+
+		if (firstOffset < 0)
+		{
+			firstOffset = records.get(0).offset();
+		}
+
+		long bytes = 0L;
+
+		for (ConsumerRecord<byte[], byte[]> record : records)
+		{
+			bytes += sizeOf(record);
+		}
+
+		pendingCount.addAndGet(records.size());
+		pendingBytes.addAndGet(bytes);
+
+		for (ConsumerRecord<byte[], byte[]> record : records)
+		{
+			offsets.add(record.offset());
+			laneFor(record).pending.add(record);
+		}
+
+		for (Lane lane : lanes)
+		{
+			lane.schedule();
+		}
+	}
+
+	/**
+	 * The number of records queued, but not yet processed.
+	 */
+	public int getPendingCount()
+	{
+		return pendingCount.get();
+	}
+
+	/**
+	 * The size, in key and value bytes, of the records queued, but not yet processed.
+	 */
+	public long getPendingBytes()
+	{
+		return pendingBytes.get();
+	}
+
+	/**
+	 * The offset to commit (one past the last record processed with every earlier record), or
+	 * -1 if nothing new has been processed since the last call to setCommittedOffset().
+	 */
+	public long getUncommittedOffset()
+	{
+		long offset = offsets.getWatermark();
+		return (offset > getRewindOffset() ? offset : -1L);
+	}
+
+	/**
+	 * The next offset to process, i.e. the lowest not yet processed, or -1 if nothing has been submitted.
+	 */
+	public long getNextOffset()
+	{
+		return offsets.getWatermark();
+	}
+
+	public void setCommittedOffset(long offset)
+	{
+		this.committedOffset = offset;
+	}
+
+	/**
+	 * The offset to consume from to process again everything not yet committed: the committed
+	 * offset or, if nothing has been committed, the first offset submitted.
+	 */
+	public long getRewindOffset()
+	{
+		return (committedOffset >= 0 ? committedOffset : firstOffset);
+	}
+
+	/**
+	 * Stop processing after the current records, without waiting. Queued records are discarded by stop().
+	 */
+	public void halt()
+	{
+		isStopped = true;
+	}
+
+	/**
+	 * Stop processing after the current records, discarding queued records, and wait up to
+	 * timeoutMillis for the current records to finish. Discarded records are redelivered
+	 * from the committed offset to whichever consumer next owns the partition.
+	 * 
+	 * @return true if the worker is idle.
+	 */
+	public boolean stop(long timeoutMillis)
+	{
+		isStopped = true;
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+
+		while (isBusy() && System.currentTimeMillis() < deadline)
+		{
+			try
+			{
+				Thread.sleep(STOP_POLL_MILLIS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		for (Lane lane : lanes)
+		{
+			lane.pending.clear();
+		}
+
+		pendingCount.set(0);
+		pendingBytes.set(0L);
+		return !isBusy();
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private Lane laneFor(ConsumerRecord<byte[], byte[]> record)
+	{
+		if (lanes.length == 1) return lanes[0];
+
+		byte[] key = record.key();
+		long hash = (key == null ? record.offset() : Utils.murmur2(key) & 0x7fffffff);
+		return lanes[(int) (hash % lanes.length)];
+	}
+
+	private static long sizeOf(ConsumerRecord<byte[], byte[]> record)
+	{
+		return (record.key() == null ? 0 : record.key().length) + (record.value() == null ? 0 : record.value().length);
+	}
+
+	private boolean isBusy()
+	{
+		for (Lane lane : lanes)
+		{
+			if (lane.isScheduled.get()) return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Process a record and mark its offset complete, under the lock, if any, so the offset is
+	 * committed with whatever processing it produced.
+	 * 
+	 * @return false if the worker was stopped while waiting for the lock, so the record wasn't processed.
+	 */
+	private boolean process(ConsumerRecord<byte[], byte[]> record)
+	{
+		if (lock == null)
+		{
+			processTimed(record);
+			offsets.complete(record.offset());
+			return true;
+		}
+
+		lock.lock();
+
+		try
+		{
+			if (isStopped) return false;
+
+			processTimed(record);
+			offsets.complete(record.offset());
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	private void processTimed(ConsumerRecord<byte[], byte[]> record)
+	{
+		if (statistics == null)
+		{
+			processor.process(record);
+			return;
+		}
+
+		long start = System.nanoTime();
+		processor.process(record);
+		statistics.recordProcessed(System.nanoTime() - start);
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * Records processed in order, by at most one pool thread at a time. Each run processes up to
+	 * MAX_RECORDS_PER_RUN records, then schedules the lane again behind whatever else is queued
+	 * on the pool, so a busy partition can't keep a thread to itself.
+	 */
+	private class Lane
+	implements Runnable
+	{
+		private Queue<ConsumerRecord<byte[], byte[]>> pending = new ConcurrentLinkedQueue<ConsumerRecord<byte[], byte[]>>();
+		private AtomicBoolean isScheduled = new AtomicBoolean(false);
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				ConsumerRecord<byte[], byte[]> record;
+				int processed = 0;
+
+				while (!isStopped && processed < MAX_RECORDS_PER_RUN && (record = pending.peek()) != null)
+				{
+					if (!process(record)) break;
+
+					pending.poll();
+					pendingCount.decrementAndGet();
+					pendingBytes.addAndGet(-sizeOf(record));
+					++processed;
+				}
+			}
+			finally
+			{
+				isScheduled.set(false);
+
+				// Records may remain after a full run, or have been submitted after the last peek() but before isScheduled was cleared.
+				if (!isStopped && !pending.isEmpty())
+				{
+					schedule();
+				}
+			}
+		}
+
+		public void schedule()
+		{
+			if (!pending.isEmpty() && isScheduled.compareAndSet(false, true))
+			{
+				executor.execute(this);
+			}
+		}
+	}
+}
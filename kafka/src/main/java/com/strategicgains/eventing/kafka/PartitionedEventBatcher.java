@@ -0,0 +1,539 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.utils.Utils;
+
+import com.strategicgains.eventing.EventCapacity;
+import com.strategicgains.eventing.EventKeyExtractor;
+import com.strategicgains.eventing.codec.EventBatcher;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.FrameSink;
+
+/**
+ * Batches events into frames per topic partition, so events with the same key still land
+ * in the same partition, in order, when sent many to a record. Keyed events are assigned a
+ * partition by hashing their key; events without a key share one batch, which the producer
+ * spreads across partitions.
+ * <p/>
+ * Until the topic's partition count is known (e.g. the producer has no metadata), keyed
+ * events are sent one per record with their key and the producer partitions them.
+ * <p/>
+ * Each batch remembers its events, so when the producer acknowledges (or fails) a record,
+ * every event in it completes: its future, if it has one, and its in-flight capacity, if
+ * limited. All the batches share one linger timer.
+ * <p/>
+ * Given KafkaTransactions, records are sent only while holding its lock, so each lands in
+ * a transaction, and a failed send fails that transaction.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class PartitionedEventBatcher
+{
+	// SECTION: CONSTANTS
+
+	private static final Integer UNKEYED = -1;
+	private static final long METADATA_REFRESH_MILLIS = 30000L;
+
+	// How long an unknown partition count is kept before asking the producer again, since each ask can block for up to max.block.ms.
+	private static final long UNKNOWN_PARTITIONS_RETRY_MILLIS = 1000L;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Producer<byte[], byte[]> producer;
+	private String topic;
+	private EventCodec codec;
+	private EventKeyExtractor keys;
+	private int compressionThreshold;
+	private int maxEvents;
+	private int maxBytes;
+	private long lingerMillis;
+	private EventCapacity inFlight;
+	private SendStatistics statistics;
+	private KafkaTransactions transactions;
+	private Map<Integer, Batch> batches = new ConcurrentHashMap<Integer, Batch>();
+	private volatile int partitionCount = 0;
+	private volatile long partitionCountExpiresAt = 0L;
+	private Thread lingerThread;
+	private volatile boolean shouldShutDown = false;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param producer sends the frames.
+	 * @param topic the topic to send to.
+	 * @param codec encodes the events.
+	 * @param keys chooses each event's key. If null, no events are keyed.
+	 * @param compressionThreshold the frame payload size, in bytes, at or above which frames are compressed.
+	 * @param maxEvents the most events in one record.
+	 * @param maxBytes the uncompressed size, in bytes, at which a batch is sent.
+	 * @param lingerMillis the longest an event waits for its batch to fill. If zero, batches are only sent when full or on flush().
+	 * @param inFlight capacity the caller acquired for each event, released once the event's record is acknowledged or fails. May be null.
+	 * @param statistics records each record's outcome. May be null.
+	 * @param transactions the transactions the producer sends in. May be null.
+	 */
+	public PartitionedEventBatcher(Producer<byte[], byte[]> producer, String topic, EventCodec codec, EventKeyExtractor keys,
+		int compressionThreshold, int maxEvents, int maxBytes, long lingerMillis, EventCapacity inFlight, SendStatistics statistics,
+		KafkaTransactions transactions)
+	{
+		super();
+
+		if (maxEvents < 1 || maxBytes < 1 || lingerMillis < 0)
+		{
+			throw new IllegalArgumentException("Batch limits must be positive");
+		}
+
+		this.producer = producer;
+		this.topic = topic;
+		this.codec = codec;
+		this.keys = keys;
+		this.compressionThreshold = compressionThreshold;
+		this.maxEvents = maxEvents;
+		this.maxBytes = maxBytes;
+		this.lingerMillis = lingerMillis;
+		this.inFlight = inFlight;
+		this.statistics = statistics;
+		this.transactions = transactions;
+
+		if (lingerMillis > 0)
+		{
+			lingerThread = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					flushPeriodically();
+				}
+			}, "kafka-event-batcher");
+			lingerThread.setDaemon(true);
+			lingerThread.start();
+		}
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Add an event to its partition's batch, sending the batch if it's full.
+	 * 
+	 * @param event the event.
+	 * @param future completed when the event's record is acknowledged, or fails. May be null.
+	 * @throws CodecException if the event cannot be encoded.
+	 * @throws IllegalStateException if the batcher is shut down.
+	 */
+	public void add(Object event, CompletableFuture<RecordMetadata> future)
+	{
+		if (shouldShutDown) throw new IllegalStateException("PartitionedEventBatcher shut down");
+
+		byte[] key = keyFor(keys, event);
+		Integer partition = (key == null ? UNKEYED : partitionFor(key));
+		lock();
+
+		try
+		{
+			if (partition != null)
+			{
+				batchFor(partition).add(event, future);
+			}
+			else
+			{
+				send(null, key, EventFrameWriter.single(codec, event, compressionThreshold), 1, held(event), future);
+			}
+		}
+		finally
+		{
+			unlock();
+		}
+	}
+
+	/**
+	 * Send an event in a record of its own, now, to the same partition its batches would go to.
+	 * 
+	 * @param event the event.
+	 * @param future completed when the record is acknowledged, or fails. May be null.
+	 * @throws CodecException if the event cannot be encoded.
+	 */
+	public void send(Object event, CompletableFuture<RecordMetadata> future)
+	{
+		byte[] key = keyFor(keys, event);
+		Integer partition = (key == null ? null : partitionFor(key));
+		byte[] frame = EventFrameWriter.single(codec, event, compressionThreshold);
+		lock();
+
+		try
+		{
+			send(partition, key, frame, 1, held(event), future);
+		}
+		finally
+		{
+			unlock();
+		}
+	}
+
+	/**
+	 * Send every partially-filled batch.
+	 */
+	public void flush()
+	{
+		lock();
+
+		try
+		{
+			for (Batch batch : batches.values())
+			{
+				batch.flush();
+			}
+		}
+		finally
+		{
+			unlock();
+		}
+	}
+
+	/**
+	 * Send any pending events and stop the linger timer.
+	 */
+	public void shutdown()
+	{
+		shouldShutDown = true;
+
+		if (lingerThread != null)
+		{
+			lingerThread.interrupt();
+		}
+
+		flush();
+	}
+
+	/**
+	 * The partition for a key, given the topic's partition count.
+	 */
+	public static int partitionFor(byte[] key, int partitionCount)
+	{
+		return (Utils.murmur2(key) & 0x7fffffff) % partitionCount;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	/**
+	 * The event's key, encoded once as UTF-8 for both partitioning and the record.
+	 */
+	private static byte[] keyFor(EventKeyExtractor keys, Object event)
+	{
+		String key = (keys == null ? null : keys.keyFor(event));
+		return (key == null ? null : key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Every keyed record, batched or not, is partitioned here, so a key's events always share
+	 * a partition. Null if the partition count isn't known.
+	 */
+	private Integer partitionFor(byte[] key)
+	{
+		int partitions = getPartitionCount();
+		return (partitions > 0 ? partitionFor(key, partitions) : null);
+	}
+
+	/**
+	 * Taken before a batch's lock, so a transaction commit (which flushes the batches) can't deadlock with a sender.
+	 */
+	private void lock()
+	{
+		if (transactions != null)
+		{
+			transactions.getLock().lock();
+		}
+	}
+
+	private void unlock()
+	{
+		if (transactions != null)
+		{
+			transactions.getLock().unlock();
+		}
+	}
+
+	/**
+	 * The events whose in-flight capacity a record releases, if capacity is limited.
+	 */
+	private Object[] held(Object event)
+	{
+		return (inFlight == null ? null : new Object[] {event});
+	}
+
+	private Batch batchFor(Integer partition)
+	{
+		Batch batch = batches.get(partition);
+
+		if (batch == null)
+		{
+			Batch created = new Batch(UNKEYED.equals(partition) ? null : partition);
+			batch = batches.putIfAbsent(partition, created);
+
+			if (batch == null)
+			{
+				batch = created;
+			}
+		}
+
+		return batch;
+	}
+
+	/**
+	 * The topic's partition count, or zero if it isn't known, in which case the producer's partitioner
+	 * (which hashes keys the same way) chooses each record's partition until it is.
+	 */
+	private int getPartitionCount()
+	{
+		long now = System.currentTimeMillis();
+
+		if (now >= partitionCountExpiresAt)
+		{
+			List<PartitionInfo> partitions = null;
+
+			try
+			{
+				partitions = producer.partitionsFor(topic);
+			}
+			catch (KafkaException e)
+			{
+				// E.g. the metadata wasn't available within max.block.ms. Sending will report it, if it persists.
+				System.err.println("Unable to get partitions of Kafka topic " + topic + ": " + e.getMessage());
+			}
+
+			partitionCount = (partitions == null ? 0 : partitions.size());
+			partitionCountExpiresAt = now + (partitionCount > 0 ? METADATA_REFRESH_MILLIS : UNKNOWN_PARTITIONS_RETRY_MILLIS);
+		}
+
+		return partitionCount;
+	}
+
+	/**
+	 * Hand a record to the producer. Never throws: a send that fails immediately completes
+	 * its events the same way as one that fails later.
+	 * 
+	 * @param futures one future (or null), or a List of futures (or nulls) in event order.
+	 */
+	private void send(Integer partition, byte[] key, byte[] frame, int eventCount, Object[] events, Object futures)
+	{
+		RecordCallback callback = new RecordCallback(eventCount, events, futures);
+
+		try
+		{
+			if (transactions != null)
+			{
+				transactions.onSend();
+			}
+
+			producer.send(new ProducerRecord<byte[], byte[]>(topic, partition, key, frame), callback);
+		}
+		catch (RuntimeException e)
+		{
+			callback.onCompletion(null, e);
+		}
+	}
+
+	private void flushPeriodically()
+	{
+		while (!shouldShutDown)
+		{
+			try
+			{
+				Thread.sleep(lingerMillis);
+				flush();
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+			catch (RuntimeException e)
+			{
+				e.printStackTrace();
+			}
+		}
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	/**
+	 * One partition's batch and the events (and futures) in it. The EventBatcher sends frames
+	 * while holding its own lock, so the event lists are guarded by that lock too.
+	 */
+	private class Batch
+	implements FrameSink
+	{
+		private Integer partition;
+		private EventBatcher batcher;
+		private List<Object> events = new ArrayList<Object>();
+		private List<CompletableFuture<RecordMetadata>> futures = new ArrayList<CompletableFuture<RecordMetadata>>();
+		private int futureCount = 0;
+
+		public Batch(Integer partition)
+		{
+			super();
+			this.partition = partition;
+
+			// Every batch is flushed by the shared timer, not its own.
+			this.batcher = new EventBatcher(new EventFrameWriter(codec, compressionThreshold), this, maxEvents, maxBytes, 0L);
+		}
+
+		public void add(Object event, CompletableFuture<RecordMetadata> future)
+		{
+			synchronized (batcher)
+			{
+				events.add(event);
+				futures.add(future);
+
+				if (future != null) ++futureCount;
+
+				try
+				{
+					batcher.add(event);
+				}
+				catch (RuntimeException e)
+				{
+					// Encoding failed, so the event never joined the batch.
+					events.remove(events.size() - 1);
+					futures.remove(futures.size() - 1);
+
+					if (future != null) --futureCount;
+
+					throw e;
+				}
+			}
+		}
+
+		public void flush()
+		{
+			batcher.flush();
+		}
+
+		@Override
+		public void send(byte[] frame)
+		{
+			int count = events.size();
+			Object[] sent = (inFlight == null ? null : events.toArray());
+			Object sentFutures = (futureCount == 0 ? null : new ArrayList<CompletableFuture<RecordMetadata>>(futures));
+			events.clear();
+			futures.clear();
+			futureCount = 0;
+			PartitionedEventBatcher.this.send(partition, null, frame, count, sent, sentFutures);
+		}
+	}
+
+	/**
+	 * Completes a record's events exactly once, whether the producer calls back or throws.
+	 */
+	private class RecordCallback
+	implements Callback
+	{
+		private long startNanos = System.nanoTime();
+		private AtomicBoolean isComplete = new AtomicBoolean(false);
+		private int eventCount;
+		private Object[] events;
+		private Object futures;
+
+		public RecordCallback(int eventCount, Object[] events, Object futures)
+		{
+			super();
+			this.eventCount = eventCount;
+			this.events = events;
+			this.futures = futures;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void onCompletion(RecordMetadata metadata, Exception exception)
+		{
+			if (!isComplete.compareAndSet(false, true)) return;
+
+			if (exception != null && transactions != null)
+			{
+				transactions.onSendFailure(exception);
+			}
+
+			if (statistics != null)
+			{
+				statistics.record(eventCount, System.nanoTime() - startNanos, exception == null);
+			}
+
+			if (inFlight != null && events != null)
+			{
+				for (Object event : events)
+				{
+					inFlight.release(event);
+				}
+			}
+
+			if (futures instanceof CompletableFuture)
+			{
+				complete((CompletableFuture<RecordMetadata>) futures, metadata, exception);
+			}
+			else if (futures != null)
+			{
+				for (CompletableFuture<RecordMetadata> future : (List<CompletableFuture<RecordMetadata>>) futures)
+				{
+					complete(future, metadata, exception);
+				}
+			}
+			else if (exception != null)
+			{
+				// Nobody is waiting on these events, so don't lose the failure.
+				System.err.println("Unable to send " + eventCount + " event(s) to Kafka topic " + topic);
+				exception.printStackTrace();
+			}
+		}
+
+		private void complete(CompletableFuture<RecordMetadata> future, RecordMetadata metadata, Exception exception)
+		{
+			if (future == null) return;
+
+			if (exception == null && transactions != null)
+			{
+				// Not published until the transaction commits.
+				transactions.onAcknowledged(future, metadata);
+			}
+			else if (exception == null)
+			{
+				future.complete(metadata);
+			}
+			else
+			{
+				future.completeExceptionally(exception);
+			}
+		}
+	}
+}
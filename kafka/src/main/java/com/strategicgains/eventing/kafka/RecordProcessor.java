@@ -0,0 +1,30 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+/**
+ * Processes one consumed record. Called by a PartitionWorker, on a worker pool thread.
+ * Implementations must not throw for a bad record, since that would stall the partition.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public interface RecordProcessor
+{
+	public void process(ConsumerRecord<byte[], byte[]> record);
+}
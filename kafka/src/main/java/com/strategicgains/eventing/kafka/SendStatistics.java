@@ -0,0 +1,126 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.strategicgains.eventing.metrics.Gauge;
+import com.strategicgains.eventing.metrics.LatencyHistogram;
+import com.strategicgains.eventing.metrics.Metrics;
+
+/**
+ * Counts records and events sent to Kafka and how long the broker took to acknowledge them,
+ * measured from handing each record to the producer to its send callback (so including the
+ * producer's linger time).
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class SendStatistics
+{
+	// SECTION: CONSTANTS
+
+	public static final String SENT_RECORDS_METRIC = "kafka.sent.records";
+	public static final String SENT_EVENTS_METRIC = "kafka.sent.events";
+	public static final String FAILED_EVENTS_METRIC = "kafka.failed.events";
+	public static final String SEND_LATENCY_METRIC = "kafka.send.latency";
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private LongAdder sentRecords = new LongAdder();
+	private LongAdder sentEvents = new LongAdder();
+	private LongAdder failedEvents = new LongAdder();
+	private LatencyHistogram latency = new LatencyHistogram();
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Record the outcome of one record.
+	 * 
+	 * @param eventCount the number of events in the record.
+	 * @param latencyNanos the time from send to acknowledgement (or failure).
+	 * @param succeeded whether the broker acknowledged the record.
+	 */
+	public void record(int eventCount, long latencyNanos, boolean succeeded)
+	{
+		if (succeeded)
+		{
+			sentRecords.increment();
+			sentEvents.add(eventCount);
+			latency.record(latencyNanos);
+		}
+		else
+		{
+			failedEvents.add(eventCount);
+		}
+	}
+
+	public long getSentRecords()
+	{
+		return sentRecords.sum();
+	}
+
+	public long getSentEvents()
+	{
+		return sentEvents.sum();
+	}
+
+	public long getFailedEvents()
+	{
+		return failedEvents.sum();
+	}
+
+	public LatencyHistogram getLatency()
+	{
+		return latency;
+	}
+
+	/**
+	 * Expose the counts, and the send latency (see LatencyHistogram.registerMetrics()), as gauges.
+	 * 
+	 * @param metrics
+	 */
+	public void registerMetrics(Metrics metrics)
+	{
+		metrics.register(SENT_RECORDS_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getSentRecords();
+			}
+		});
+		metrics.register(SENT_EVENTS_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getSentEvents();
+			}
+		});
+		metrics.register(FAILED_EVENTS_METRIC, new Gauge()
+		{
+			@Override
+			public long getValue()
+			{
+				return getFailedEvents();
+			}
+		});
+		latency.registerMetrics(metrics, SEND_LATENCY_METRIC);
+	}
+}
@@ -0,0 +1,139 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+/**
+ * Decides how many worker threads the consumer runtime should have, from the trend of its
+ * total lag, sampled at a regular interval (see KafkaEventHandlerAdapter.setAutoscaler()).
+ * <p/>
+ * While lag is above the target and not falling, the pool grows by a quarter (at least one
+ * thread) per sample. Once lag has stayed below a quarter of the target for several samples
+ * in a row, the pool shrinks by one thread. So it grows quickly under a backlog and gives
+ * threads back slowly, and never goes outside its limits.
+ * <p/>
+ * Threads beyond the number of assigned partitions (times the parallelism per partition)
+ * can't be used, so set maxThreads accordingly.
+ * 
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class WorkerAutoscaler
+{
+	// SECTION: CONSTANTS
+
+	public static final int DEFAULT_SHRINK_SAMPLES = 5;
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private int minThreads;
+	private int maxThreads;
+	private long targetLag;
+	private int shrinkSamples = DEFAULT_SHRINK_SAMPLES;
+	private long previousLag = -1L;
+	private int lowSamples = 0;
+
+
+	// SECTION: CONSTRUCTORS
+
+	/**
+	 * @param minThreads the fewest worker threads.
+	 * @param maxThreads the most worker threads.
+	 * @param targetLag the total lag, in records, above which the pool grows if the lag isn't falling.
+	 */
+	public WorkerAutoscaler(int minThreads, int maxThreads, long targetLag)
+	{
+		super();
+
+		if (minThreads < 1 || maxThreads < minThreads)
+		{
+			throw new IllegalArgumentException("Thread limits must satisfy 1 <= minThreads <= maxThreads");
+		}
+
+		if (targetLag < 1)
+		{
+			throw new IllegalArgumentException("Target lag must be positive");
+		}
+
+		this.minThreads = minThreads;
+		this.maxThreads = maxThreads;
+		this.targetLag = targetLag;
+	}
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * @param samples the consecutive low-lag samples before the pool shrinks.
+	 */
+	public void setShrinkSamples(int samples)
+	{
+		this.shrinkSamples = samples;
+	}
+
+	public int getMinThreads()
+	{
+		return minThreads;
+	}
+
+	public int getMaxThreads()
+	{
+		return maxThreads;
+	}
+
+	/**
+	 * @param threads a requested thread count.
+	 * @return the count, within the limits.
+	 */
+	public int bound(int threads)
+	{
+		return Math.max(minThreads, Math.min(maxThreads, threads));
+	}
+
+	/**
+	 * Take a lag sample and decide the pool size.
+	 * 
+	 * @param currentThreads the pool's current size.
+	 * @param lag the total lag, in records.
+	 * @return the size the pool should be.
+	 */
+	public int resize(int currentThreads, long lag)
+	{
+		boolean isNotFalling = (previousLag >= 0 && lag >= previousLag);
+		previousLag = lag;
+
+		if (lag > targetLag && isNotFalling)
+		{
+			lowSamples = 0;
+			return bound(currentThreads + Math.max(1, currentThreads / 4));
+		}
+
+		if (lag < targetLag / 4)
+		{
+			if (++lowSamples >= shrinkSamples)
+			{
+				lowSamples = 0;
+				return bound(currentThreads - 1);
+			}
+		}
+		else
+		{
+			lowSamples = 0;
+		}
+
+		return bound(currentThreads);
+	}
+}
@@ -0,0 +1,1633 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.record.CompressionType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.strategicgains.eventing.BatchEventHandler;
+import com.strategicgains.eventing.EventHandler;
+import com.strategicgains.eventing.EventKeyExtractor;
+import com.strategicgains.eventing.EventSlotFactory;
+import com.strategicgains.eventing.EventSlots;
+import com.strategicgains.eventing.codec.BinaryCodec;
+import com.strategicgains.eventing.codec.EventCodec;
+import com.strategicgains.eventing.codec.EventFrame;
+import com.strategicgains.eventing.codec.EventFrameWriter;
+import com.strategicgains.eventing.codec.EventTypeRegistry;
+
+/**
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class KafkaEventBusTest
+{
+	private static final String TOPIC = "domain-events";
+	private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+	private static final TopicPartition PARTITION_1 = new TopicPartition(TOPIC, 1);
+	private static final String SHIPMENTS_TOPIC = "shipments";
+	private static final String GROUP_ID = "shipping";
+	private static final long WAIT_MILLIS = 5000L;
+
+	private static final EventKeyExtractor ORDER_ID = new EventKeyExtractor()
+	{
+		@Override
+		public String keyFor(Object event)
+		{
+			return (event instanceof OrderPlaced ? ((OrderPlaced) event).orderId : ((OrderShipped) event).orderId);
+		}
+	};
+
+	private EventCodec codec = new BinaryCodec(new EventTypeRegistry()
+		.register(OrderPlaced.class, 1)
+		.register(OrderShipped.class, 2));
+	private MockProducer<byte[], byte[]> producer;
+	private MockConsumer<byte[], byte[]> consumer;
+	private KafkaEventBus bus;
+
+	@Before
+	public void setup()
+	{
+		producer = new MockProducer<byte[], byte[]>(true, null, null);
+		consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+	}
+
+	@After
+	public void teardown()
+	{
+		if (bus != null) bus.shutdown();
+	}
+
+	@Test
+	public void shouldPublishEventFrames()
+	{
+		bus = builder().build();
+		bus.publish(new OrderPlaced("A-1", 3));
+		bus.publishAll(Arrays.asList(new OrderPlaced("A-2", 1), new OrderShipped("A-1")));
+
+		List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+		assertEquals(2, sent.size());
+		assertEquals(Arrays.<Object>asList(new OrderPlaced("A-1", 3)), decodeAll(sent.get(0).value()));
+		assertEquals(Arrays.<Object>asList(new OrderPlaced("A-2", 1), new OrderShipped("A-1")), decodeAll(sent.get(1).value()));
+	}
+
+	@Test
+	public void shouldPublishEachTypeToItsTopic()
+	{
+		bus = builder().route(OrderShipped.class, SHIPMENTS_TOPIC).build();
+		bus.publish(new OrderPlaced("A-1", 3));
+		bus.publish(new OrderShipped("A-1"));
+		bus.publishAll(Arrays.asList(new OrderPlaced("A-2", 1), new OrderShipped("A-2")));
+
+		List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+		assertEquals(4, sent.size());
+		assertEquals(TOPIC, sent.get(0).topic());
+		assertEquals(SHIPMENTS_TOPIC, sent.get(1).topic());
+		assertEquals(TOPIC, sent.get(2).topic());
+		assertEquals(Arrays.<Object>asList(new OrderPlaced("A-2", 1)), decodeAll(sent.get(2).value()));
+		assertEquals(SHIPMENTS_TOPIC, sent.get(3).topic());
+		assertEquals(Arrays.<Object>asList(new OrderShipped("A-2")), decodeAll(sent.get(3).value()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectUnroutedEventWithoutDefaultTopic()
+	{
+		bus = builder().topic(null).route(OrderShipped.class, SHIPMENTS_TOPIC).build();
+		bus.publish(new OrderPlaced("A-1", 3));
+	}
+
+	@Test
+	public void shouldSubscribeOnlyToHandledTopics()
+	throws Exception
+	{
+		RecordingHandler shipped = new RecordingHandler(OrderShipped.class, 1);
+		RecordingHandler placed = new RecordingHandler(OrderPlaced.class, 1);
+		bus = builder()
+			.topic(null)
+			.route(OrderPlaced.class, "orders")
+			.route(OrderShipped.class, SHIPMENTS_TOPIC)
+			.subscribe(shipped)
+			.build();
+		assertSubscribed(SHIPMENTS_TOPIC);
+
+		bus.subscribe(placed);
+		assertSubscribed("orders", SHIPMENTS_TOPIC);
+
+		bus.unsubscribe(shipped);
+		bus.unsubscribe(placed);
+		assertSubscribed();
+	}
+
+	@Test
+	public void shouldKeyRecordsByExtractedKey()
+	{
+		bus = builder().keyExtractor(ORDER_ID).build();
+		bus.publish(new OrderPlaced("A-1", 3));
+		bus.publish(new OrderShipped("A-1"));
+
+		List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+		assertEquals(2, sent.size());
+		assertEquals("A-1", new String(sent.get(0).key(), StandardCharsets.UTF_8));
+		assertEquals("A-1", new String(sent.get(1).key(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void shouldNotKeyRecordsByDefault()
+	{
+		bus = builder().build();
+		bus.publish(new OrderPlaced("A-1", 3));
+		assertNull(producer.history().get(0).key());
+	}
+
+	@Test
+	public void shouldBatchKeyedEventsPerPartition()
+	{
+		producer = new MockProducer<byte[], byte[]>(cluster(4), true, null, null, null);
+		bus = builder().keyExtractor(ORDER_ID).batch(100, 0L).build();
+		List<Object> events = new ArrayList<Object>();
+
+		for (int i = 0; i < 50; i++)
+		{
+			events.add(new OrderPlaced("order-" + (i % 10), i));
+		}
+
+		events.add(new OrderShipped("order-3"));
+		bus.publishAll(events);
+
+		Map<String, List<Integer>> byOrder = new HashMap<String, List<Integer>>();
+		int shipped = 0;
+
+		for (ProducerRecord<byte[], byte[]> record : producer.history())
+		{
+			for (Object event : decodeAll(record.value()))
+			{
+				String orderId = ORDER_ID.keyFor(event);
+				assertEquals(PartitionedEventBatcher.partitionFor(orderId.getBytes(StandardCharsets.UTF_8), 4), record.partition().intValue());
+
+				if (event instanceof OrderShipped)
+				{
+					++shipped;
+					continue;
+				}
+
+				List<Integer> quantities = byOrder.get(orderId);
+
+				if (quantities == null)
+				{
+					quantities = new ArrayList<Integer>();
+					byOrder.put(orderId, quantities);
+				}
+
+				quantities.add(((OrderPlaced) event).quantity);
+			}
+		}
+
+		assertTrue(producer.history().size() <= 4);
+		assertEquals(1, shipped);
+		assertEquals(10, byOrder.size());
+
+		for (int i = 0; i < 10; i++)
+		{
+			assertEquals(Arrays.asList(i, i + 10, i + 20, i + 30, i + 40), byOrder.get("order-" + i));
+		}
+	}
+
+	@Test
+	public void shouldSendUnbatchedKeyedEventsToTheirPartition()
+	{
+		producer = new MockProducer<byte[], byte[]>(cluster(4), true, null, null, null);
+		bus = builder().keyExtractor(ORDER_ID).build();
+		bus.publish(new OrderPlaced("A-1", 3));
+
+		ProducerRecord<byte[], byte[]> record = producer.history().get(0);
+		assertEquals("A-1", new String(record.key(), StandardCharsets.UTF_8));
+		assertEquals(PartitionedEventBatcher.partitionFor(record.key(), 4), record.partition().intValue());
+	}
+
+	@Test
+	public void shouldNotAskForUnknownPartitionsOnEveryPublish()
+	{
+		final AtomicInteger asked = new AtomicInteger(0);
+		producer = new MockProducer<byte[], byte[]>(true, null, null)
+		{
+			@Override
+			public synchronized List<PartitionInfo> partitionsFor(String topic)
+			{
+				asked.incrementAndGet();
+				throw new TimeoutException("Expected metadata timeout");
+			}
+		};
+		bus = builder().keyExtractor(ORDER_ID).build();
+
+		for (int i = 0; i < 10; i++)
+		{
+			bus.publish(new OrderPlaced("A-" + i, i));
+		}
+
+		// Sent anyway, for the producer to partition.
+		assertEquals(10, producer.history().size());
+		assertNull(producer.history().get(0).partition());
+		assertEquals(1, asked.get());
+	}
+
+	@Test
+	public void shouldDefaultProducerToThroughputSettings()
+	{
+		Properties config = new Properties();
+		config.put("bootstrap.servers", "localhost:9092");
+		config.put("acks", "all");
+		config.put("linger.ms", "20");
+
+		Properties built = new KafkaEventBusBuilder()
+			.producerConfig(config)
+			.producerBatchSize(128 * 1024)
+			.producerCompression(CompressionType.SNAPPY)
+			.acks(Acks.LEADER)
+			.buildProducerConfig();
+
+		assertEquals("localhost:9092", built.get("bootstrap.servers"));
+		assertEquals("20", built.get("linger.ms"));
+		assertEquals("131072", built.get("batch.size"));
+		assertEquals("snappy", built.get("compression.type"));
+		assertEquals("1", built.get("acks"));
+		assertEquals("lz4", new KafkaEventBusBuilder().buildProducerConfig().get("compression.type"));
+	}
+
+	@Test
+	public void shouldConfigureIdempotentProducer()
+	{
+		Properties built = new KafkaEventBusBuilder()
+			.idempotent()
+			.buildProducerConfig();
+
+		assertEquals("true", built.get("enable.idempotence"));
+		assertEquals("all", built.get("acks"));
+		assertEquals("1", built.get("max.in.flight.requests.per.connection"));
+
+		try
+		{
+			new KafkaEventBusBuilder().idempotent().acks(Acks.LEADER).buildProducerConfig();
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e)
+		{
+			// expected
+		}
+	}
+
+	@Test
+	public void shouldCompleteAsyncPublishOnAcknowledgement()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		bus = builder().build();
+		CompletableFuture<RecordMetadata> result = bus.publishAsync(new OrderPlaced("A-1", 3)).toCompletableFuture();
+
+		assertFalse(result.isDone());
+		assertEquals(0L, bus.getMetrics().get(KafkaEventBus.PUBLISHED_METRIC));
+		assertTrue(producer.completeNext());
+		assertNotNull(result.get());
+		assertEquals(1L, bus.getMetrics().get(KafkaEventBus.PUBLISHED_METRIC));
+		assertEquals(1L, bus.getMetrics().get(SendStatistics.SENT_EVENTS_METRIC));
+		assertEquals(1L, bus.getMetrics().get(SendStatistics.SEND_LATENCY_METRIC + ".count"));
+	}
+
+	@Test
+	public void shouldFailAsyncPublishOnSendError()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		bus = builder().build();
+		CompletableFuture<RecordMetadata> result = bus.publishAsync(new OrderPlaced("A-1", 3)).toCompletableFuture();
+		producer.errorNext(new RuntimeException("Expected failure"));
+
+		try
+		{
+			result.get();
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e)
+		{
+			assertEquals("Expected failure", e.getCause().getMessage());
+		}
+
+		assertEquals(1L, bus.getMetrics().get(SendStatistics.FAILED_EVENTS_METRIC));
+		assertEquals(0L, bus.getMetrics().get(KafkaEventBus.PUBLISHED_METRIC));
+	}
+
+	@Test
+	public void shouldCompleteBatchedEventsWithTheirRecord()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		bus = builder().batch(3, 0L).build();
+		List<CompletableFuture<RecordMetadata>> results = new ArrayList<CompletableFuture<RecordMetadata>>();
+
+		for (int i = 0; i < 3; i++)
+		{
+			results.add(bus.publishAsync(new OrderPlaced("A-" + i, i)).toCompletableFuture());
+		}
+
+		assertEquals(1, producer.history().size());
+		assertFalse(results.get(0).isDone());
+		assertTrue(producer.completeNext());
+
+		for (CompletableFuture<RecordMetadata> result : results)
+		{
+			assertEquals(0L, result.get().offset());
+		}
+
+		assertEquals(1L, bus.getMetrics().get(SendStatistics.SENT_RECORDS_METRIC));
+		assertEquals(3L, bus.getMetrics().get(SendStatistics.SENT_EVENTS_METRIC));
+	}
+
+	@Test
+	public void shouldRejectAtInFlightLimit()
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		bus = builder().maxInFlightEvents(2).build();
+
+		assertTrue(bus.tryPublish(new OrderPlaced("A-1", 1)));
+		assertTrue(bus.tryPublish(new OrderPlaced("A-2", 1)));
+		assertEquals(2L, bus.getMetrics().get(KafkaEventBus.IN_FLIGHT_METRIC));
+		assertFalse(bus.tryPublish(new OrderPlaced("A-3", 1)));
+		assertEquals(1L, bus.getMetrics().get(KafkaEventBus.REJECTED_METRIC));
+
+		assertTrue(producer.completeNext());
+		assertTrue(bus.tryPublish(new OrderPlaced("A-3", 1)));
+		assertEquals(3, producer.history().size());
+	}
+
+	@Test
+	public void shouldBlockPublisherUntilAcknowledged()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		bus = builder().maxInFlightEvents(1).build();
+		bus.publish(new OrderPlaced("A-1", 1));
+
+		Thread publisher = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				bus.publish(new OrderPlaced("A-2", 1));
+			}
+		});
+		publisher.start();
+		Thread.sleep(100);
+		assertTrue(publisher.isAlive());
+		assertEquals(1, producer.history().size());
+
+		assertTrue(producer.completeNext());
+		publisher.join(WAIT_MILLIS);
+		assertFalse(publisher.isAlive());
+		assertEquals(2, producer.history().size());
+	}
+
+	@Test
+	public void shouldPublishSlotsAsCommitted()
+	throws Exception
+	{
+		bus = builder().build();
+		EventSlots<OrderPlaced> slots = bus.addSlots(OrderPlaced.class, new EventSlotFactory<OrderPlaced>()
+		{
+			@Override
+			public OrderPlaced newSlot()
+			{
+				return new OrderPlaced();
+			}
+		}, 4);
+
+		for (int i = 0; i < 20; i++)
+		{
+			long sequence = slots.claim();
+			slots.get(sequence).orderId = "A-" + i;
+			slots.get(sequence).quantity = i;
+			slots.commit(sequence);
+		}
+
+		assertMetric(KafkaEventBus.PUBLISHED_METRIC, 20L);
+
+		List<Object> published = new ArrayList<Object>();
+
+		for (ProducerRecord<byte[], byte[]> record : producer.history())
+		{
+			published.addAll(decodeAll(record.value()));
+		}
+
+		assertEquals(20, published.size());
+
+		for (int i = 0; i < 20; i++)
+		{
+			assertEquals(new OrderPlaced("A-" + i, i), published.get(i));
+		}
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void shouldNotAddSlotsWithInFlightLimit()
+	{
+		bus = builder().maxInFlightEvents(2).build();
+		bus.addSlots(OrderPlaced.class, new EventSlotFactory<OrderPlaced>()
+		{
+			@Override
+			public OrderPlaced newSlot()
+			{
+				return new OrderPlaced();
+			}
+		}, 4);
+	}
+
+	@Test
+	public void shouldFlushBatchesWhileWaitingForCapacity()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		bus = builder().batch(100, 0L).maxInFlightEvents(2).build();
+		bus.publish(new OrderPlaced("A-1", 1));
+		bus.publish(new OrderPlaced("A-2", 1));
+		assertEquals(0, producer.history().size());
+
+		Thread publisher = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				bus.publish(new OrderPlaced("A-3", 1));
+			}
+		});
+		publisher.start();
+
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (producer.history().isEmpty() && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+
+		assertEquals(2, decodeAll(producer.history().get(0).value()).size());
+		assertTrue(producer.completeNext());
+		publisher.join(WAIT_MILLIS);
+		assertFalse(publisher.isAlive());
+	}
+
+	@Test
+	public void shouldDispatchConsumedEventsAndCommit()
+	throws Exception
+	{
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 4);
+		assign(PARTITION_0, PARTITION_1);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		addRecord(PARTITION_0, 1, new OrderShipped("A-1"));
+		addRecord(PARTITION_1, 0, new OrderPlaced("B-1", 1));
+		addRecord(PARTITION_1, 1, new OrderPlaced("B-2", 2));
+		addRecord(PARTITION_0, 2, new OrderPlaced("A-2", 2));
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.await());
+		assertEquals(4, handler.events.size());
+		assertCommitted(PARTITION_0, 3);
+		assertCommitted(PARTITION_1, 2);
+	}
+
+	@Test
+	public void shouldNotCommitUntilHandlersFinish()
+	throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingHandler handler = new BlockingHandler(release);
+		assign(PARTITION_0);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		Thread.sleep(100);
+		assertNull(consumer.committed(PARTITION_0));
+
+		release.countDown();
+		assertCommitted(PARTITION_0, 1);
+	}
+
+	@Test
+	public void shouldPauseAboveHighWatermarkAndResumeAtLow()
+	throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingHandler handler = new BlockingHandler(release);
+		assign(PARTITION_0, PARTITION_1);
+
+		for (int i = 0; i < 5; i++)
+		{
+			addRecord(PARTITION_0, i, new OrderPlaced("A-" + i, 1));
+		}
+
+		addRecord(PARTITION_1, 0, new OrderPlaced("B-1", 1));
+		bus = builder().workerThreads(2).pendingRecordWatermarks(2, 1).subscribe(handler).build();
+
+		assertTrue(handler.started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		assertPaused(PARTITION_0);
+
+		release.countDown();
+		assertPaused();
+		assertCommitted(PARTITION_0, 5);
+	}
+
+	@Test
+	public void shouldPauseAboveByteWatermark()
+	throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingHandler handler = new BlockingHandler(release);
+		assign(PARTITION_0);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		addRecord(PARTITION_0, 1, new OrderPlaced("A-2", 1));
+		bus = builder().pendingByteWatermarks(1, 0).subscribe(handler).build();
+
+		assertTrue(handler.started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		assertPaused(PARTITION_0);
+
+		release.countDown();
+		assertPaused();
+	}
+
+	@Test
+	public void shouldReportPartitionLag()
+	throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		BlockingHandler handler = new BlockingHandler(release);
+		assign(PARTITION_0);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		addRecord(PARTITION_0, 1, new OrderPlaced("A-2", 1));
+		addRecord(PARTITION_0, 2, new OrderPlaced("A-3", 1));
+		consumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				consumer.updateEndOffsets(Collections.singletonMap(PARTITION_0, 3L));
+			}
+		});
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.started.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		assertMetric(ConsumeStatistics.prefixFor(PARTITION_0) + ".lag", 3L);
+		assertEquals(3L, bus.getMetrics().get(ConsumeStatistics.LAG_METRIC));
+
+		release.countDown();
+		assertMetric(ConsumeStatistics.prefixFor(PARTITION_0) + ".lag", 0L);
+		assertEquals(3L, bus.getMetrics().get(ConsumeStatistics.PROCESSED_METRIC));
+		assertEquals(3L, bus.getMetrics().get(ConsumeStatistics.LATENCY_METRIC + ".count"));
+	}
+
+	@Test
+	public void shouldReplayFromOffsetAndHandOverToLive()
+	throws Exception
+	{
+		MockConsumer<byte[], byte[]> replayConsumer = replayConsumer(3);
+		addReplayRecords(replayConsumer, new OrderPlaced("A-1", 1), new OrderPlaced("A-2", 1), new OrderShipped("A-1"));
+		BatchRecordingHandler handler = new BatchRecordingHandler(OrderPlaced.class, 2);
+		final MockConsumer<byte[], byte[]> live = replayConsumer;
+		final byte[] value = EventFrameWriter.single(codec, new OrderPlaced("A-3", 1), EventFrameWriter.NO_COMPRESSION);
+		replayConsumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				live.rebalance(Collections.singletonList(PARTITION_0));
+				live.addRecord(new ConsumerRecord<byte[], byte[]>(TOPIC, 0, 3, null, value));
+			}
+		});
+		bus = builder().build();
+
+		KafkaReplay replay = bus.replay(replayConsumer, handler).fromOffset(1);
+
+		try
+		{
+			replay.start();
+			assertTrue(replay.awaitCaughtUp(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+			assertEquals(1L, replay.getReplayedCount());
+			assertEquals(Arrays.<List<Object>>asList(Arrays.<Object>asList(new OrderPlaced("A-2", 1))), handler.batches);
+			assertEquals(3L, replayConsumer.committed(PARTITION_0).offset());
+
+			assertTrue(handler.await());
+			assertEquals(Arrays.<Object>asList(new OrderPlaced("A-3", 1)), handler.live);
+			assertEquals(Collections.singleton(TOPIC), replayConsumer.subscription());
+		}
+		finally
+		{
+			replay.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldReplayFromTimestamp()
+	throws Exception
+	{
+		MockConsumer<byte[], byte[]> replayConsumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST)
+		{
+			@Override
+			public synchronized Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes(Map<TopicPartition, Long> timestamps)
+			{
+				assertEquals(Long.valueOf(1000L), timestamps.get(PARTITION_0));
+				return Collections.singletonMap(PARTITION_0, new OffsetAndTimestamp(2L, 1000L));
+			}
+		};
+		initializeReplay(replayConsumer, 3);
+		addReplayRecords(replayConsumer, new OrderPlaced("A-1", 1), new OrderPlaced("A-2", 1), new OrderPlaced("A-3", 1));
+		BatchRecordingHandler handler = new BatchRecordingHandler(OrderPlaced.class, 1);
+		bus = builder().build();
+
+		KafkaReplay replay = bus.replay(replayConsumer, handler).fromTimestamp(1000L);
+
+		try
+		{
+			replay.start();
+			assertTrue(replay.awaitCaughtUp(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+			assertEquals(Arrays.<List<Object>>asList(Arrays.<Object>asList(new OrderPlaced("A-3", 1))), handler.batches);
+		}
+		finally
+		{
+			replay.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldKeepPartitionOrder()
+	throws Exception
+	{
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 200);
+		assign(PARTITION_0, PARTITION_1);
+
+		for (int i = 0; i < 100; i++)
+		{
+			addRecord(PARTITION_0, i, new OrderPlaced("A", i));
+			addRecord(PARTITION_1, i, new OrderPlaced("B", i));
+		}
+
+		bus = builder().workerThreads(2).subscribe(handler).build();
+
+		assertTrue(handler.await());
+		List<Integer> a = new ArrayList<Integer>();
+		List<Integer> b = new ArrayList<Integer>();
+
+		synchronized (handler.events)
+		{
+			for (Object event : handler.events)
+			{
+				OrderPlaced order = (OrderPlaced) event;
+				(order.orderId.equals("A") ? a : b).add(order.quantity);
+			}
+		}
+
+		for (int i = 0; i < 100; i++)
+		{
+			assertEquals(i, a.get(i).intValue());
+			assertEquals(i, b.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void shouldShareWorkerThreadsBetweenPartitions()
+	throws Exception
+	{
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 301);
+		assign(PARTITION_0, PARTITION_1);
+
+		// Both partitions' records in one poll.
+		consumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = 0; i < 300; i++)
+				{
+					consumer.addRecord(new ConsumerRecord<byte[], byte[]>(TOPIC, 1, i, null, EventFrameWriter.single(codec, new OrderPlaced("A", i), EventFrameWriter.NO_COMPRESSION)));
+				}
+
+				consumer.addRecord(new ConsumerRecord<byte[], byte[]>(TOPIC, 0, 0, null, EventFrameWriter.single(codec, new OrderPlaced("B", 0), EventFrameWriter.NO_COMPRESSION)));
+			}
+		});
+		bus = builder().workerThreads(1).subscribe(handler).build();
+
+		assertTrue(handler.await());
+
+		// A busy partition yields the only thread, so the other isn't left until it's drained.
+		assertTrue(handler.events.indexOf(new OrderPlaced("B", 0)) < 200);
+	}
+
+	@Test
+	public void shouldProcessKeysInParallelWithinPartition()
+	throws Exception
+	{
+		CountDownLatch release = new CountDownLatch(1);
+		KeyBlockingHandler handler = new KeyBlockingHandler("A", release, 40);
+		assign(PARTITION_0);
+
+		for (int i = 0; i < 20; i++)
+		{
+			addRecord(PARTITION_0, i * 2, "A", new OrderPlaced("A", i));
+			addRecord(PARTITION_0, i * 2 + 1, "B", new OrderPlaced("B", i));
+		}
+
+		bus = builder().workerThreads(4).parallelismPerPartition(4).subscribe(handler).build();
+
+		// B's records complete while A's first record is still in progress, but the commit waits for it.
+		assertTrue(handler.keyDone.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+		Thread.sleep(100);
+		assertNull(consumer.committed(PARTITION_0));
+
+		release.countDown();
+		assertTrue(handler.await());
+		assertCommitted(PARTITION_0, 40);
+
+		for (String key : Arrays.asList("A", "B"))
+		{
+			List<Integer> quantities = handler.quantitiesByKey.get(key);
+
+			for (int i = 0; i < 20; i++)
+			{
+				assertEquals(i, quantities.get(i).intValue());
+			}
+		}
+	}
+
+	@Test
+	public void shouldContinueAfterHandlerFailure()
+	throws Exception
+	{
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 2);
+		handler.failOn = "A-1";
+		assign(PARTITION_0);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		addRecord(PARTITION_0, 1, new OrderPlaced("A-2", 1));
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.await());
+		assertCommitted(PARTITION_0, 2);
+	}
+
+	@Test
+	public void shouldRetryCommitAfterRetriableFailure()
+	throws Exception
+	{
+		final AtomicBoolean hasFailed = new AtomicBoolean(false);
+		consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST)
+		{
+			@Override
+			public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets)
+			{
+				if (hasFailed.compareAndSet(false, true)) throw new TimeoutException("Expected commit timeout");
+
+				super.commitSync(offsets);
+			}
+		};
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 1);
+		assign(PARTITION_0);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.await());
+		assertCommitted(PARTITION_0, 1);
+		assertTrue(hasFailed.get());
+		assertFalse(consumer.closed());
+	}
+
+	@Test
+	public void shouldStopConsumingOnNonRetriableFailure()
+	throws Exception
+	{
+		consumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST)
+		{
+			@Override
+			public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets)
+			{
+				throw new AuthorizationException("Expected authorization failure");
+			}
+		};
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 1);
+		assign(PARTITION_0);
+		addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.await());
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (!consumer.closed() && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+
+		assertTrue(consumer.closed());
+	}
+
+	@Test
+	public void shouldSkipUndecodableEventsInBatchedRecord()
+	throws Exception
+	{
+		// Type id 3 is unknown to the consumer's codec.
+		EventFrameWriter writer = new EventFrameWriter(new BinaryCodec(new EventTypeRegistry()
+			.register(OrderPlaced.class, 1)
+			.register(OrderShipped.class, 3)));
+		writer.add(new OrderPlaced("A-1", 1));
+		writer.add(new OrderShipped("A-1"));
+		writer.add(new OrderPlaced("A-2", 1));
+		final byte[] value = writer.finish();
+		RecordingHandler handler = new RecordingHandler(OrderPlaced.class, 2);
+		assign(PARTITION_0);
+		consumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				consumer.addRecord(new ConsumerRecord<byte[], byte[]>(TOPIC, 0, 0, null, value));
+			}
+		});
+		bus = builder().subscribe(handler).build();
+
+		assertTrue(handler.await());
+		assertEquals(2, handler.events.size());
+		assertCommitted(PARTITION_0, 1);
+	}
+
+	@Test
+	public void shouldCommitOffsetsInTransactionWithPublishedEvents()
+	throws Exception
+	{
+		KafkaTransactions transactions = new KafkaTransactions(producer);
+		KafkaEventBus shipments = shipmentsBus(transactions);
+
+		try
+		{
+			ShippingHandler handler = new ShippingHandler(shipments, 2);
+			assign(PARTITION_0);
+			addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+			addRecord(PARTITION_0, 1, new OrderPlaced("A-2", 1));
+			bus = transactionalBuilder(transactions).subscribe(handler).build();
+
+			assertTrue(handler.await());
+			assertTransactionCommitted(PARTITION_0, 2, 2);
+			List<ProducerRecord<byte[], byte[]>> sent = producer.history();
+			assertEquals(SHIPMENTS_TOPIC, sent.get(0).topic());
+			assertEquals(Arrays.<Object>asList(new OrderShipped("A-1")), decodeAll(sent.get(0).value()));
+			assertEquals(Arrays.<Object>asList(new OrderShipped("A-2")), decodeAll(sent.get(1).value()));
+			assertNull(consumer.committed(PARTITION_0));
+		}
+		finally
+		{
+			shipments.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldAbortTransactionAndReprocessOnSendFailure()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(false, null, null);
+		KafkaTransactions transactions = new KafkaTransactions(producer);
+		KafkaEventBus shipments = shipmentsBus(transactions);
+
+		try
+		{
+			ShippingHandler handler = new ShippingHandler(shipments, 2);
+			handler.failFirstSend = producer;
+			assign(PARTITION_0);
+			addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+			bus = transactionalBuilder(transactions).subscribe(handler).build();
+
+			// The aborted record is redelivered from the rewound position, as the broker would.
+			awaitPosition(PARTITION_0, 1);
+			awaitPosition(PARTITION_0, 0);
+			addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+
+			assertTrue(handler.await());
+			assertTransactionCommitted(PARTITION_0, 1, 1);
+			assertEquals(Arrays.<Object>asList(new OrderShipped("A-1")), decodeAll(producer.history().get(0).value()));
+		}
+		finally
+		{
+			shipments.shutdown();
+		}
+	}
+
+	@Test
+	public void shouldCompleteAsyncPublishWhenTransactionCommits()
+	throws Exception
+	{
+		KafkaTransactions transactions = new KafkaTransactions(producer);
+		bus = shipmentsBus(transactions);
+		CompletableFuture<RecordMetadata> result = bus.publishAsync(new OrderShipped("A-1")).toCompletableFuture();
+
+		// Acknowledged, but not yet committed.
+		assertFalse(result.isDone());
+
+		assertTrue(transactions.commit());
+		assertNotNull(result.get());
+		assertEquals(1L, bus.getMetrics().get(KafkaEventBus.PUBLISHED_METRIC));
+	}
+
+	@Test
+	public void shouldFailAsyncPublishWhenTransactionAborts()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(true, null, null)
+		{
+			@Override
+			public synchronized void commitTransaction()
+			{
+				throw new KafkaException("Expected commit failure");
+			}
+		};
+		KafkaTransactions transactions = new KafkaTransactions(producer);
+		bus = shipmentsBus(transactions);
+		CompletableFuture<RecordMetadata> result = bus.publishAsync(new OrderShipped("A-1")).toCompletableFuture();
+
+		assertFalse(transactions.commit());
+
+		try
+		{
+			result.get();
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e)
+		{
+			assertEquals("Expected commit failure", e.getCause().getCause().getMessage());
+		}
+
+		assertEquals(0L, bus.getMetrics().get(KafkaEventBus.PUBLISHED_METRIC));
+	}
+
+	@Test
+	public void shouldStopConsumingWhenTransactionCannotAbort()
+	throws Exception
+	{
+		producer = new MockProducer<byte[], byte[]>(true, null, null)
+		{
+			@Override
+			public synchronized void commitTransaction()
+			{
+				throw new KafkaException("Expected commit failure");
+			}
+
+			@Override
+			public synchronized void abortTransaction()
+			{
+				throw new KafkaException("Expected abort failure");
+			}
+		};
+		KafkaTransactions transactions = new KafkaTransactions(producer);
+		KafkaEventBus shipments = shipmentsBus(transactions);
+
+		try
+		{
+			ShippingHandler handler = new ShippingHandler(shipments, 1);
+			assign(PARTITION_0);
+			addRecord(PARTITION_0, 0, new OrderPlaced("A-1", 1));
+			bus = transactionalBuilder(transactions).subscribe(handler).build();
+
+			assertTrue(handler.await());
+			long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+			while (!consumer.closed() && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(10);
+			}
+
+			assertTrue(consumer.closed());
+			assertTrue(transactions.isFailed());
+			assertEquals("Expected abort failure", transactions.getFailure().getMessage());
+		}
+		finally
+		{
+			shipments.shutdown();
+		}
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldRequireGroupIdForTransactions()
+	{
+		new KafkaEventBusBuilder()
+			.transactions(new KafkaTransactions(producer))
+			.consumer(consumer)
+			.build();
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void shouldRequireConsumerToSubscribe()
+	{
+		new KafkaEventBusBuilder()
+			.producer(producer)
+			.subscribe(new RecordingHandler(OrderPlaced.class, 1))
+			.build();
+	}
+
+	@Test
+	public void shouldNotSubscribeWithoutConsumer()
+	{
+		bus = new KafkaEventBusBuilder()
+			.codec(codec)
+			.producer(producer)
+			.build();
+		assertFalse(bus.subscribe(new RecordingHandler(OrderPlaced.class, 1)));
+	}
+
+	private KafkaEventBusBuilder builder()
+	{
+		return new KafkaEventBusBuilder()
+			.topic(TOPIC)
+			.codec(codec)
+			.producer(producer)
+			.consumer(consumer);
+	}
+
+	private KafkaEventBusBuilder transactionalBuilder(KafkaTransactions transactions)
+	{
+		return new KafkaEventBusBuilder()
+			.topic(TOPIC)
+			.codec(codec)
+			.transactions(transactions)
+			.consumer(consumer)
+			.groupId(GROUP_ID);
+	}
+
+	private KafkaEventBus shipmentsBus(KafkaTransactions transactions)
+	{
+		return new KafkaEventBusBuilder()
+			.topic(SHIPMENTS_TOPIC)
+			.codec(codec)
+			.transactions(transactions)
+			.build();
+	}
+
+	/**
+	 * Partitions can only be assigned, and records added, once the bus has subscribed, which
+	 * it does on its poll thread. So do it from within the first poll.
+	 */
+	private void assign(final TopicPartition... partitions)
+	{
+		consumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				consumer.rebalance(Arrays.asList(partitions));
+				Map<TopicPartition, Long> beginning = new HashMap<TopicPartition, Long>();
+
+				for (TopicPartition partition : partitions)
+				{
+					beginning.put(partition, 0L);
+				}
+
+				consumer.updateBeginningOffsets(beginning);
+			}
+		});
+	}
+
+	private MockConsumer<byte[], byte[]> replayConsumer(long endOffset)
+	{
+		MockConsumer<byte[], byte[]> replayConsumer = new MockConsumer<byte[], byte[]>(OffsetResetStrategy.EARLIEST);
+		initializeReplay(replayConsumer, endOffset);
+		return replayConsumer;
+	}
+
+	/**
+	 * Give PARTITION_0 to the replay consumer's metadata, from offset 0 to endOffset.
+	 */
+	private void initializeReplay(MockConsumer<byte[], byte[]> replayConsumer, long endOffset)
+	{
+		Node node = new Node(0, "localhost", 9092);
+		replayConsumer.updatePartitions(TOPIC, Collections.singletonList(new PartitionInfo(TOPIC, 0, node, new Node[] {node}, new Node[] {node})));
+		replayConsumer.updateBeginningOffsets(Collections.singletonMap(PARTITION_0, 0L));
+		replayConsumer.updateEndOffsets(Collections.singletonMap(PARTITION_0, endOffset));
+	}
+
+	/**
+	 * The replay assigns itself its partitions before its first poll, so add records then.
+	 */
+	private void addReplayRecords(final MockConsumer<byte[], byte[]> replayConsumer, Object... events)
+	{
+		final List<byte[]> values = new ArrayList<byte[]>();
+
+		for (Object event : events)
+		{
+			values.add(EventFrameWriter.single(codec, event, EventFrameWriter.NO_COMPRESSION));
+		}
+
+		replayConsumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = 0; i < values.size(); i++)
+				{
+					replayConsumer.addRecord(new ConsumerRecord<byte[], byte[]>(TOPIC, 0, i, null, values.get(i)));
+				}
+			}
+		});
+	}
+
+	private void addRecord(TopicPartition partition, long offset, Object event)
+	{
+		addRecord(partition, offset, null, event);
+	}
+
+	private void addRecord(final TopicPartition partition, final long offset, String key, Object event)
+	{
+		final byte[] keyBytes = (key == null ? null : key.getBytes(StandardCharsets.UTF_8));
+		final byte[] value = EventFrameWriter.single(codec, event, EventFrameWriter.NO_COMPRESSION);
+		consumer.schedulePollTask(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				consumer.addRecord(new ConsumerRecord<byte[], byte[]>(partition.topic(), partition.partition(), offset, keyBytes, value));
+			}
+		});
+	}
+
+	private Cluster cluster(int partitionCount)
+	{
+		Node node = new Node(0, "localhost", 9092);
+		List<PartitionInfo> partitions = new ArrayList<PartitionInfo>();
+
+		for (int i = 0; i < partitionCount; i++)
+		{
+			partitions.add(new PartitionInfo(TOPIC, i, node, new Node[] {node}, new Node[] {node}));
+		}
+
+		return new Cluster(Collections.singletonList(node), partitions, Collections.<String>emptySet());
+	}
+
+	private void assertCommitted(TopicPartition partition, long offset)
+	throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+		OffsetAndMetadata committed = consumer.committed(partition);
+
+		while ((committed == null || committed.offset() != offset) && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+			committed = consumer.committed(partition);
+		}
+
+		assertEquals(offset, (committed == null ? -1L : committed.offset()));
+	}
+
+	/**
+	 * Wait for a gauge to reach the value. Lag is sampled once a second.
+	 */
+	private void assertMetric(String name, long value)
+	throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (bus.getMetrics().get(name) != value && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+
+		assertEquals(value, bus.getMetrics().get(name));
+	}
+
+	/**
+	 * Wait for the consumer to subscribe to exactly the given topics.
+	 */
+	private void assertSubscribed(String... topics)
+	throws InterruptedException
+	{
+		Set<String> expected = new HashSet<String>(Arrays.asList(topics));
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (!consumer.subscription().equals(expected) && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(5);
+		}
+
+		assertEquals(expected, consumer.subscription());
+	}
+
+	/**
+	 * Wait for exactly the given partitions to be paused.
+	 */
+	private void assertPaused(TopicPartition... partitions)
+	throws InterruptedException
+	{
+		Set<TopicPartition> expected = new HashSet<TopicPartition>(Arrays.asList(partitions));
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (!consumer.paused().equals(expected) && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(5);
+		}
+
+		assertEquals(expected, consumer.paused());
+	}
+
+	/**
+	 * Wait for a transaction to commit the offset along with the expected number of published records.
+	 */
+	private void assertTransactionCommitted(TopicPartition partition, long offset, int recordCount)
+	throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (!isTransactionCommitted(partition, offset, recordCount) && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+
+		assertTrue(isTransactionCommitted(partition, offset, recordCount));
+	}
+
+	private boolean isTransactionCommitted(TopicPartition partition, long offset, int recordCount)
+	{
+		if (producer.history().size() != recordCount) return false;
+
+		for (Map<String, Map<TopicPartition, OffsetAndMetadata>> offsets : producer.consumerGroupOffsetsHistory())
+		{
+			Map<TopicPartition, OffsetAndMetadata> group = offsets.get(GROUP_ID);
+
+			if (group != null && group.get(partition) != null && group.get(partition).offset() == offset) return true;
+		}
+
+		return false;
+	}
+
+	private void awaitPosition(TopicPartition partition, long offset)
+	throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+
+		while (consumer.position(partition) != offset && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(5);
+		}
+
+		assertEquals(offset, consumer.position(partition));
+	}
+
+	private List<Object> decodeAll(byte[] value)
+	{
+		List<Object> events = new ArrayList<Object>();
+		EventFrame frame = EventFrame.wrap(value);
+
+		while (frame.hasNext())
+		{
+			events.add(codec.decode(frame.next()));
+		}
+
+		return events;
+	}
+
+
+	// SECTION: INNER CLASSES
+
+	public static class OrderPlaced
+	{
+		private String orderId;
+		private int quantity;
+
+		public OrderPlaced()
+		{
+			super();
+		}
+
+		public OrderPlaced(String orderId, int quantity)
+		{
+			this();
+			this.orderId = orderId;
+			this.quantity = quantity;
+		}
+
+		@Override
+		public boolean equals(Object that)
+		{
+			if (!(that instanceof OrderPlaced)) return false;
+
+			OrderPlaced order = (OrderPlaced) that;
+			return (orderId.equals(order.orderId) && quantity == order.quantity);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return orderId.hashCode() * 31 + quantity;
+		}
+	}
+
+	public static class OrderShipped
+	{
+		private String orderId;
+
+		public OrderShipped()
+		{
+			super();
+		}
+
+		public OrderShipped(String orderId)
+		{
+			this();
+			this.orderId = orderId;
+		}
+
+		@Override
+		public boolean equals(Object that)
+		{
+			return (that instanceof OrderShipped && orderId.equals(((OrderShipped) that).orderId));
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return orderId.hashCode();
+		}
+	}
+
+	private static class RecordingHandler
+	implements EventHandler
+	{
+		private Class<?> type;
+		private CountDownLatch latch;
+		private List<Object> events = Collections.synchronizedList(new ArrayList<Object>());
+		private volatile String failOn;
+
+		public RecordingHandler(Class<?> type, int expected)
+		{
+			super();
+			this.type = type;
+			this.latch = new CountDownLatch(expected);
+		}
+
+		@Override
+		public void handle(Object event)
+		{
+			events.add(event);
+			latch.countDown();
+
+			if (failOn != null && failOn.equals(((OrderPlaced) event).orderId))
+			{
+				throw new RuntimeException("Expected failure");
+			}
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return type.isAssignableFrom(eventClass);
+		}
+
+		public boolean await()
+		throws InterruptedException
+		{
+			return latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Publishes an OrderShipped for each OrderPlaced.
+	 */
+	private static class ShippingHandler
+	implements EventHandler
+	{
+		private KafkaEventBus shipments;
+		private CountDownLatch latch;
+		private AtomicBoolean hasFailed = new AtomicBoolean(false);
+		private volatile MockProducer<byte[], byte[]> failFirstSend;
+
+		public ShippingHandler(KafkaEventBus shipments, int expected)
+		{
+			super();
+			this.shipments = shipments;
+			this.latch = new CountDownLatch(expected);
+		}
+
+		@Override
+		public void handle(Object event)
+		{
+			shipments.publish(new OrderShipped(((OrderPlaced) event).orderId));
+
+			if (failFirstSend != null && hasFailed.compareAndSet(false, true))
+			{
+				failFirstSend.errorNext(new KafkaException("Expected failure"));
+			}
+
+			latch.countDown();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return OrderPlaced.class.isAssignableFrom(eventClass);
+		}
+
+		public boolean await()
+		throws InterruptedException
+		{
+			return latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Blocks on the first event for one key until released, recording every event's quantity by key.
+	 */
+	private static class KeyBlockingHandler
+	implements EventHandler
+	{
+		private String blockedKey;
+		private CountDownLatch release;
+		private CountDownLatch latch;
+		private CountDownLatch keyDone;
+		private Map<String, List<Integer>> quantitiesByKey = new ConcurrentHashMap<String, List<Integer>>();
+
+		public KeyBlockingHandler(String blockedKey, CountDownLatch release, int expected)
+		{
+			super();
+			this.blockedKey = blockedKey;
+			this.release = release;
+			this.latch = new CountDownLatch(expected);
+			this.keyDone = new CountDownLatch(expected / 2);
+		}
+
+		@Override
+		public void handle(Object event)
+		{
+			OrderPlaced order = (OrderPlaced) event;
+			List<Integer> quantities = quantitiesByKey.get(order.orderId);
+
+			if (quantities == null)
+			{
+				quantities = Collections.synchronizedList(new ArrayList<Integer>());
+				quantitiesByKey.put(order.orderId, quantities);
+			}
+
+			if (order.orderId.equals(blockedKey))
+			{
+				try
+				{
+					release.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+			else
+			{
+				keyDone.countDown();
+			}
+
+			quantities.add(order.quantity);
+			latch.countDown();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return OrderPlaced.class.isAssignableFrom(eventClass);
+		}
+
+		public boolean await()
+		throws InterruptedException
+		{
+			return latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Records replayed batches and, separately, live events.
+	 */
+	private static class BatchRecordingHandler
+	implements BatchEventHandler
+	{
+		private Class<?> type;
+		private CountDownLatch latch;
+		private List<List<Object>> batches = Collections.synchronizedList(new ArrayList<List<Object>>());
+		private List<Object> live = Collections.synchronizedList(new ArrayList<Object>());
+
+		public BatchRecordingHandler(Class<?> type, int expected)
+		{
+			super();
+			this.type = type;
+			this.latch = new CountDownLatch(expected);
+		}
+
+		@Override
+		public void handleAll(List<Object> events)
+		{
+			batches.add(new ArrayList<Object>(events));
+
+			for (int i = 0; i < events.size(); i++)
+			{
+				latch.countDown();
+			}
+		}
+
+		@Override
+		public void handle(Object event)
+		{
+			live.add(event);
+			latch.countDown();
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return type.isAssignableFrom(eventClass);
+		}
+
+		public boolean await()
+		throws InterruptedException
+		{
+			return latch.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static class BlockingHandler
+	implements EventHandler
+	{
+		private CountDownLatch started = new CountDownLatch(1);
+		private CountDownLatch release;
+
+		public BlockingHandler(CountDownLatch release)
+		{
+			super();
+			this.release = release;
+		}
+
+		@Override
+		public void handle(Object event)
+		{
+			started.countDown();
+
+			try
+			{
+				release.await(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public boolean handles(Class<?> eventClass)
+		{
+			return true;
+		}
+	}
+}
@@ -0,0 +1,89 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class OffsetTrackerTest
+{
+	@Test
+	public void shouldHaveNoWatermarkWhenEmpty()
+	{
+		assertEquals(-1L, new OffsetTracker().getWatermark());
+	}
+
+	@Test
+	public void shouldHoldWatermarkAtLowestInFlightOffset()
+	{
+		OffsetTracker offsets = new OffsetTracker();
+
+		for (long offset = 10; offset < 20; offset++)
+		{
+			offsets.add(offset);
+		}
+
+		assertEquals(10L, offsets.getWatermark());
+		offsets.complete(11);
+		offsets.complete(12);
+		offsets.complete(15);
+		assertEquals(10L, offsets.getWatermark());
+
+		offsets.complete(10);
+		assertEquals(13L, offsets.getWatermark());
+		assertEquals(6, offsets.getInFlightCount());
+
+		for (long offset = 13; offset < 20; offset++)
+		{
+			offsets.complete(offset);
+		}
+
+		assertEquals(20L, offsets.getWatermark());
+		assertEquals(0, offsets.getInFlightCount());
+	}
+
+	@Test
+	public void shouldSkipOffsetsThatNeverArrive()
+	{
+		OffsetTracker offsets = new OffsetTracker();
+		offsets.add(5);
+		offsets.add(9);
+		offsets.add(5000);
+		offsets.complete(5);
+		assertEquals(9L, offsets.getWatermark());
+
+		offsets.complete(9);
+		assertEquals(5000L, offsets.getWatermark());
+
+		offsets.complete(5000);
+		offsets.complete(5000);
+		assertEquals(5001L, offsets.getWatermark());
+		assertEquals(0, offsets.getInFlightCount());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void shouldRejectOffsetsOutOfOrder()
+	{
+		OffsetTracker offsets = new OffsetTracker();
+		offsets.add(5);
+		offsets.add(4);
+	}
+}
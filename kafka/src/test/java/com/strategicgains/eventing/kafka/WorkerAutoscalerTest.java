@@ -0,0 +1,68 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.kafka;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * @author tfredrich
+ * @since Oct 19, 2026
+ */
+public class WorkerAutoscalerTest
+{
+	@Test
+	public void shouldGrowWhileLagIsHighAndNotFalling()
+	{
+		WorkerAutoscaler autoscaler = new WorkerAutoscaler(2, 10, 100);
+		assertEquals(8, autoscaler.resize(8, 500));
+		assertEquals(10, autoscaler.resize(8, 600));
+		assertEquals(10, autoscaler.resize(10, 700));
+	}
+
+	@Test
+	public void shouldHoldWhileLagIsFalling()
+	{
+		WorkerAutoscaler autoscaler = new WorkerAutoscaler(2, 10, 100);
+		autoscaler.resize(4, 500);
+		assertEquals(5, autoscaler.resize(4, 500));
+		assertEquals(5, autoscaler.resize(5, 400));
+	}
+
+	@Test
+	public void shouldShrinkAfterConsecutiveLowSamples()
+	{
+		WorkerAutoscaler autoscaler = new WorkerAutoscaler(2, 10, 100);
+		autoscaler.setShrinkSamples(3);
+		assertEquals(4, autoscaler.resize(4, 0));
+		assertEquals(4, autoscaler.resize(4, 0));
+		assertEquals(4, autoscaler.resize(4, 50));
+		assertEquals(4, autoscaler.resize(4, 0));
+		assertEquals(4, autoscaler.resize(4, 0));
+		assertEquals(3, autoscaler.resize(4, 0));
+	}
+
+	@Test
+	public void shouldStayWithinLimits()
+	{
+		WorkerAutoscaler autoscaler = new WorkerAutoscaler(2, 10, 100);
+		autoscaler.setShrinkSamples(1);
+		assertEquals(2, autoscaler.resize(2, 0));
+		assertEquals(2, autoscaler.bound(1));
+		assertEquals(10, autoscaler.bound(20));
+	}
+}
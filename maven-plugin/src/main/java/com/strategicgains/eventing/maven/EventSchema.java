@@ -0,0 +1,119 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A flyweight event type, as declared in a schema file.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class EventSchema
+{
+	private String packageName;
+	private String name;
+	private int typeId;
+	private String source;
+	private List<FieldSchema> fields = new ArrayList<FieldSchema>();
+	private int fixedLength = 0;
+	private int variableCount = 0;
+
+	public EventSchema(String packageName, String name, int typeId, String source)
+	{
+		super();
+		this.packageName = packageName;
+		this.name = name;
+		this.typeId = typeId;
+		this.source = source;
+	}
+
+	/**
+	 * Add a field, laying it out after those already added.
+	 * 
+	 * @param fieldName
+	 * @param type
+	 * @return the new field.
+	 */
+	public FieldSchema addField(String fieldName, FieldType type)
+	{
+		FieldSchema field;
+
+		if (type.isVariableLength())
+		{
+			field = new FieldSchema(fieldName, type, -1, variableCount++);
+		}
+		else
+		{
+			field = new FieldSchema(fieldName, type, fixedLength, -1);
+			fixedLength += type.getLength();
+		}
+
+		fields.add(field);
+		return field;
+	}
+
+	public boolean hasField(String fieldName)
+	{
+		for (FieldSchema field : fields)
+		{
+			if (field.getName().equals(fieldName)) return true;
+		}
+
+		return false;
+	}
+
+	public String getPackageName()
+	{
+		return packageName;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public String getQualifiedName()
+	{
+		return (packageName == null ? name : packageName + "." + name);
+	}
+
+	public int getTypeId()
+	{
+		return typeId;
+	}
+
+	/**
+	 * The name of the schema file this event was declared in.
+	 */
+	public String getSource()
+	{
+		return source;
+	}
+
+	public List<FieldSchema> getFields()
+	{
+		return Collections.unmodifiableList(fields);
+	}
+
+	public int getFixedLength()
+	{
+		return fixedLength;
+	}
+}
@@ -0,0 +1,88 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+/**
+ * A single field of an event schema.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class FieldSchema
+{
+	private String name;
+	private FieldType type;
+	private int offset;
+	private int index;
+
+	/**
+	 * @param name the field name, a Java identifier.
+	 * @param type the field type.
+	 * @param offset for fixed-length fields, the offset of the field within the fixed-length block.
+	 * @param index for variable-length fields, the position of the field among the variable-length fields.
+	 */
+	public FieldSchema(String name, FieldType type, int offset, int index)
+	{
+		super();
+		this.name = name;
+		this.type = type;
+		this.offset = offset;
+		this.index = index;
+	}
+
+	public String getName()
+	{
+		return name;
+	}
+
+	public FieldType getType()
+	{
+		return type;
+	}
+
+	public int getOffset()
+	{
+		return offset;
+	}
+
+	public int getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * The name of the generated offset or index constant, e.g. orderId becomes ORDER_ID_OFFSET.
+	 */
+	public String getConstantName()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < name.length(); i++)
+		{
+			char c = name.charAt(i);
+
+			if (Character.isUpperCase(c) && i > 0)
+			{
+				sb.append('_');
+			}
+
+			sb.append(Character.toUpperCase(c));
+		}
+
+		sb.append(type.isVariableLength() ? "_INDEX" : "_OFFSET");
+		return sb.toString();
+	}
+}
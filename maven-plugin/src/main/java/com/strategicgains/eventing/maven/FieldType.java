@@ -0,0 +1,99 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+/**
+ * The field types supported in an event schema, with their Java types, encoded lengths and
+ * the ByteBuffer accessors used to read and write them.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public enum FieldType
+{
+	INT8("byte", 1, "get", "put"),
+	INT16("short", 2, "getShort", "putShort"),
+	INT32("int", 4, "getInt", "putInt"),
+	INT64("long", 8, "getLong", "putLong"),
+	FLOAT32("float", 4, "getFloat", "putFloat"),
+	FLOAT64("double", 8, "getDouble", "putDouble"),
+	BOOL("boolean", 1, "get", "put"),
+	CHAR("char", 2, "getChar", "putChar"),
+
+	// Variable length: a 4-byte length followed by UTF-8 bytes, after the fixed-length fields.
+	STRING("String", -1, null, null);
+
+	private String javaType;
+	private int length;
+	private String getter;
+	private String setter;
+
+	private FieldType(String javaType, int length, String getter, String setter)
+	{
+		this.javaType = javaType;
+		this.length = length;
+		this.getter = getter;
+		this.setter = setter;
+	}
+
+	public String getJavaType()
+	{
+		return javaType;
+	}
+
+	/**
+	 * The encoded length of a fixed-length field. Not meaningful for variable-length fields.
+	 */
+	public int getLength()
+	{
+		return length;
+	}
+
+	public boolean isVariableLength()
+	{
+		return (length < 0);
+	}
+
+	public String getGetter()
+	{
+		return getter;
+	}
+
+	public String getSetter()
+	{
+		return setter;
+	}
+
+	/**
+	 * Answers the FieldType for a schema type name, accepting either the schema name (e.g. 'int64')
+	 * or the Java name (e.g. 'long').
+	 * 
+	 * @param name a type name from a schema.
+	 * @return the FieldType, or null if the name is unknown.
+	 */
+	public static FieldType forName(String name)
+	{
+		for (FieldType type : values())
+		{
+			if (type.name().equalsIgnoreCase(name) || type.javaType.equals(name))
+			{
+				return type;
+			}
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+import java.io.File;
+
+/**
+ * Generates the Java source for a flyweight event class from its schema. Generated classes
+ * extend com.strategicgains.eventing.flyweight.Flyweight and have, for each field, an accessor
+ * that reads it directly from the wrapped ByteBuffer and a fluent mutator that writes it.
+ * String fields also get xxxLength() and xxxBytes(byte[], int) accessors that don't allocate.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class FlyweightGenerator
+{
+	private static final String FLYWEIGHT_CLASS = "com.strategicgains.eventing.flyweight.Flyweight";
+
+	/**
+	 * The path of the generated source file, relative to the output directory.
+	 */
+	public String getRelativePath(EventSchema event)
+	{
+		return event.getQualifiedName().replace('.', File.separatorChar) + ".java";
+	}
+
+	/**
+	 * Generate the Java source for the event's flyweight class.
+	 */
+	public String generate(EventSchema event)
+	{
+		StringBuilder s = new StringBuilder(4096);
+		String name = event.getName();
+
+		if (event.getPackageName() != null)
+		{
+			s.append("package ").append(event.getPackageName()).append(";\n\n");
+		}
+
+		s.append("import java.nio.ByteBuffer;\n\n");
+		s.append("import ").append(FLYWEIGHT_CLASS).append(";\n\n");
+		s.append("/**\n");
+		s.append(" * Flyweight event generated from ").append(event.getSource()).append(" by the domain-eventing-maven-plugin. Do not edit.\n");
+		s.append(" * <p/>\n");
+		s.append(" * To encode, call wrapForEncode() or allocate(), set the fixed-length fields in any order,\n");
+		s.append(" * then set the string fields in schema order.\n");
+		s.append(" */\n");
+		s.append("public class ").append(name).append("\nextends Flyweight\n{\n");
+
+		s.append("\tprivate static final long serialVersionUID = 1L;\n\n");
+
+		s.append("\tpublic static final int TYPE_ID = ").append(event.getTypeId()).append(";\n");
+		s.append("\tpublic static final int FIXED_LENGTH = ").append(event.getFixedLength()).append(";\n");
+
+		if (!event.getFields().isEmpty())
+		{
+			s.append('\n');
+		}
+
+		for (FieldSchema field : event.getFields())
+		{
+			s.append("\tprivate static final int ").append(field.getConstantName()).append(" = ")
+				.append(field.getType().isVariableLength() ? field.getIndex() : field.getOffset()).append(";\n");
+		}
+
+		appendOverrides(s, name);
+
+		for (FieldSchema field : event.getFields())
+		{
+			if (field.getType().isVariableLength())
+			{
+				appendStringAccessors(s, name, field);
+			}
+			else
+			{
+				appendFixedAccessors(s, name, field);
+			}
+		}
+
+		appendToString(s, event);
+		s.append("}\n");
+		return s.toString();
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private void appendOverrides(StringBuilder s, String name)
+	{
+		s.append("\n\t@Override\n\tpublic int typeId()\n\t{\n\t\treturn TYPE_ID;\n\t}\n");
+		s.append("\n\t@Override\n\tpublic int fixedLength()\n\t{\n\t\treturn FIXED_LENGTH;\n\t}\n");
+		s.append("\n\t@Override\n\tpublic ").append(name).append(" newInstance()\n\t{\n\t\treturn new ").append(name).append("();\n\t}\n");
+		s.append("\n\t@Override\n\tpublic ").append(name).append(" wrap(ByteBuffer buffer, int offset, int length)\n\t{\n")
+			.append("\t\tsuper.wrap(buffer, offset, length);\n\t\treturn this;\n\t}\n");
+		s.append("\n\t@Override\n\tpublic ").append(name).append(" wrapForEncode(ByteBuffer buffer, int offset)\n\t{\n")
+			.append("\t\tsuper.wrapForEncode(buffer, offset);\n\t\treturn this;\n\t}\n");
+		s.append("\n\t@Override\n\tpublic ").append(name).append(" allocate(int capacity)\n\t{\n")
+			.append("\t\tsuper.allocate(capacity);\n\t\treturn this;\n\t}\n");
+	}
+
+	private void appendFixedAccessors(StringBuilder s, String name, FieldSchema field)
+	{
+		FieldType type = field.getType();
+		String position = "offset + " + field.getConstantName();
+		String read = "buffer." + type.getGetter() + "(" + position + ")";
+
+		s.append("\n\tpublic ").append(type.getJavaType()).append(' ').append(field.getName()).append("()\n\t{\n");
+		s.append("\t\treturn ").append(type == FieldType.BOOL ? read + " != 0" : read).append(";\n\t}\n");
+
+		s.append("\n\tpublic ").append(name).append(' ').append(field.getName())
+			.append('(').append(type.getJavaType()).append(" value)\n\t{\n");
+		s.append("\t\tbuffer.").append(type.getSetter()).append('(').append(position).append(", ")
+			.append(type == FieldType.BOOL ? "(byte) (value ? 1 : 0)" : "value").append(");\n");
+		s.append("\t\treturn this;\n\t}\n");
+	}
+
+	private void appendStringAccessors(StringBuilder s, String name, FieldSchema field)
+	{
+		String constant = field.getConstantName();
+		String fieldName = field.getName();
+
+		s.append("\n\t/**\n\t * Allocates a String. Use ").append(fieldName).append("Bytes() to avoid allocation.\n\t */\n");
+		s.append("\tpublic String ").append(fieldName).append("()\n\t{\n");
+		s.append("\t\treturn string(").append(constant).append(");\n\t}\n");
+
+		s.append("\n\tpublic int ").append(fieldName).append("Length()\n\t{\n");
+		s.append("\t\treturn stringLength(").append(constant).append(");\n\t}\n");
+
+		s.append("\n\tpublic int ").append(fieldName).append("Bytes(byte[] destination, int destinationOffset)\n\t{\n");
+		s.append("\t\treturn stringBytes(").append(constant).append(", destination, destinationOffset);\n\t}\n");
+
+		s.append("\n\tpublic ").append(name).append(' ').append(fieldName).append("(CharSequence value)\n\t{\n");
+		s.append("\t\tappendString(value);\n\t\treturn this;\n\t}\n");
+	}
+
+	private void appendToString(StringBuilder s, EventSchema event)
+	{
+		s.append("\n\t@Override\n\tpublic String toString()\n\t{\n");
+		s.append("\t\treturn \"").append(event.getName()).append("[\"");
+		boolean isFirst = true;
+
+		for (FieldSchema field : event.getFields())
+		{
+			s.append("\n\t\t\t+ \"").append(isFirst ? "" : ", ").append(field.getName()).append("=\" + ").append(field.getName()).append("()");
+			isFirst = false;
+		}
+
+		s.append("\n\t\t\t+ \"]\";\n\t}\n");
+	}
+}
@@ -0,0 +1,165 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Generates flyweight event classes from the event schema files (*.events) in the source
+ * directory and adds the output directory to the project's compile source roots.
+ * <pre>
+ * &lt;plugin&gt;
+ *     &lt;groupId&gt;com.strategicgains.domain-eventing&lt;/groupId&gt;
+ *     &lt;artifactId&gt;domain-eventing-maven-plugin&lt;/artifactId&gt;
+ *     &lt;executions&gt;
+ *         &lt;execution&gt;
+ *             &lt;goals&gt;&lt;goal&gt;generate-flyweights&lt;/goal&gt;&lt;/goals&gt;
+ *         &lt;/execution&gt;
+ *     &lt;/executions&gt;
+ * &lt;/plugin&gt;
+ * </pre>
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+@Mojo(name = "generate-flyweights", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public class GenerateFlyweightsMojo
+extends AbstractMojo
+{
+	private static final String SCHEMA_EXTENSION = ".events";
+
+	@Parameter(defaultValue = "${basedir}/src/main/events")
+	private File sourceDirectory;
+
+	@Parameter(defaultValue = "${project.build.directory}/generated-sources/events")
+	private File outputDirectory;
+
+	@Parameter(defaultValue = "${project}", readonly = true, required = true)
+	private MavenProject project;
+
+	@Override
+	public void execute()
+	throws MojoExecutionException, MojoFailureException
+	{
+		if (!sourceDirectory.isDirectory())
+		{
+			getLog().info("No event schema directory: " + sourceDirectory);
+			return;
+		}
+
+		List<File> schemas = new ArrayList<File>();
+		findSchemas(sourceDirectory, schemas);
+		SchemaParser parser = new SchemaParser();
+		FlyweightGenerator generator = new FlyweightGenerator();
+		int count = 0;
+
+		try
+		{
+			for (File schema : schemas)
+			{
+				for (EventSchema event : parse(parser, schema))
+				{
+					write(new File(outputDirectory, generator.getRelativePath(event)), generator.generate(event));
+					++count;
+				}
+			}
+		}
+		catch (SchemaException e)
+		{
+			throw new MojoFailureException(e.getMessage(), e);
+		}
+		catch (IOException e)
+		{
+			throw new MojoExecutionException("Unable to generate flyweight events", e);
+		}
+
+		getLog().info("Generated " + count + " flyweight event(s) from " + schemas.size() + " schema(s) to " + outputDirectory);
+		project.addCompileSourceRoot(outputDirectory.getAbsolutePath());
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private void findSchemas(File directory, List<File> schemas)
+	{
+		File[] files = directory.listFiles();
+
+		if (files == null) return;
+
+		// Sorted, so duplicate type ids are always reported against the same file.
+		Arrays.sort(files);
+
+		for (File file : files)
+		{
+			if (file.isDirectory())
+			{
+				findSchemas(file, schemas);
+			}
+			else if (file.getName().endsWith(SCHEMA_EXTENSION))
+			{
+				schemas.add(file);
+			}
+		}
+	}
+
+	private List<EventSchema> parse(SchemaParser parser, File schema)
+	throws IOException, SchemaException
+	{
+		Reader reader = new InputStreamReader(Files.newInputStream(schema.toPath()), StandardCharsets.UTF_8);
+
+		try
+		{
+			return parser.parse(schema.getName(), reader);
+		}
+		finally
+		{
+			reader.close();
+		}
+	}
+
+	/**
+	 * Only rewrites files whose content has changed, so unchanged events aren't recompiled.
+	 */
+	private void write(File file, String source)
+	throws IOException
+	{
+		byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+
+		if (file.isFile() && Arrays.equals(bytes, Files.readAllBytes(file.toPath())))
+		{
+			return;
+		}
+
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), bytes);
+	}
+}
@@ -0,0 +1,261 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses event schema files. A schema file declares an optional package, followed by
+ * one or more events, each with a unique, positive type id and its fields in layout order:
+ * <pre>
+ * # Comments run to the end of the line.
+ * package com.example.orders
+ *
+ * event OrderPlaced 1
+ *     int64 orderId
+ *     int32 quantity
+ *     float64 price
+ *     bool express
+ *     string customer
+ * end
+ * </pre>
+ * Field types are int8, int16, int32, int64, float32, float64, bool, char and string (or the
+ * equivalent Java primitive names). Strings are variable-length and are laid out after the
+ * fixed-length fields.
+ * <p/>
+ * Type ids and event names must be unique across every file parsed by the same SchemaParser.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class SchemaParser
+{
+	// SECTION: CONSTANTS
+
+	private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList(
+		"abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+		"continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float",
+		"for", "goto", "if", "implements", "import", "instanceof", "int", "interface", "long", "native",
+		"new", "package", "private", "protected", "public", "return", "short", "static", "strictfp",
+		"super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void",
+		"volatile", "while", "true", "false", "null"));
+
+	// Members of Flyweight (and Object) that a generated accessor would clash with.
+	private static final Set<String> RESERVED_FIELDS = new HashSet<String>(Arrays.asList(
+		"buffer", "offset", "limit", "typeId", "fixedLength", "newInstance", "wrap", "wrapForEncode",
+		"allocate", "encodedLength", "getBytes", "string", "stringLength", "stringBytes", "appendString",
+		"writeExternal", "readExternal", "getClass", "hashCode", "equals", "clone", "toString", "notify",
+		"notifyAll", "wait", "finalize"));
+
+
+	// SECTION: INSTANCE VARIABLES
+
+	private Map<Integer, String> namesById = new HashMap<Integer, String>();
+	private Map<String, String> sourcesByName = new HashMap<String, String>();
+
+
+	// SECTION: INSTANCE METHODS
+
+	/**
+	 * Parse one schema file.
+	 * 
+	 * @param source the name of the schema file, for error messages.
+	 * @param reader the schema text.
+	 * @return the events declared in the file.
+	 * @throws SchemaException if the schema is malformed.
+	 */
+	public List<EventSchema> parse(String source, Reader reader)
+	throws IOException, SchemaException
+	{
+		List<EventSchema> events = new ArrayList<EventSchema>();
+		BufferedReader lines = new BufferedReader(reader);
+		String packageName = null;
+		EventSchema event = null;
+		String line;
+		int lineNumber = 0;
+
+		while ((line = lines.readLine()) != null)
+		{
+			++lineNumber;
+			String[] tokens = tokenize(line);
+
+			if (tokens.length == 0) continue;
+
+			String keyword = tokens[0];
+
+			if (event == null)
+			{
+				if ("package".equals(keyword))
+				{
+					expectTokens(tokens, 2, source, lineNumber, "package <name>");
+
+					if (packageName != null || !events.isEmpty())
+					{
+						throw new SchemaException(source, lineNumber, "package must be declared once, before any events");
+					}
+
+					packageName = validatePackage(tokens[1], source, lineNumber);
+				}
+				else if ("event".equals(keyword))
+				{
+					expectTokens(tokens, 3, source, lineNumber, "event <Name> <typeId>");
+					event = newEvent(packageName, tokens[1], tokens[2], source, lineNumber);
+				}
+				else
+				{
+					throw new SchemaException(source, lineNumber, "Expected 'package' or 'event' but found '" + keyword + "'");
+				}
+			}
+			else if ("end".equals(keyword))
+			{
+				expectTokens(tokens, 1, source, lineNumber, "end");
+				events.add(event);
+				event = null;
+			}
+			else
+			{
+				expectTokens(tokens, 2, source, lineNumber, "<type> <name>");
+				addField(event, tokens[0], tokens[1], source, lineNumber);
+			}
+		}
+
+		if (event != null)
+		{
+			throw new SchemaException(source, lineNumber, "Missing 'end' for event " + event.getName());
+		}
+
+		return events;
+	}
+
+
+	// SECTION: UTILITY - PRIVATE
+
+	private EventSchema newEvent(String packageName, String name, String typeIdText, String source, int lineNumber)
+	throws SchemaException
+	{
+		if (!isIdentifier(name))
+		{
+			throw new SchemaException(source, lineNumber, "Invalid event name: " + name);
+		}
+
+		int typeId;
+
+		try
+		{
+			typeId = Integer.parseInt(typeIdText);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new SchemaException(source, lineNumber, "Invalid type id: " + typeIdText);
+		}
+
+		if (typeId <= 0)
+		{
+			throw new SchemaException(source, lineNumber, "Type id must be positive: " + typeId);
+		}
+
+		EventSchema event = new EventSchema(packageName, name, typeId, source);
+		String existing = namesById.get(typeId);
+
+		if (existing != null)
+		{
+			throw new SchemaException(source, lineNumber, "Type id " + typeId + " already used by " + existing);
+		}
+
+		if (sourcesByName.containsKey(event.getQualifiedName()))
+		{
+			throw new SchemaException(source, lineNumber, "Event " + event.getQualifiedName() + " already declared in " + sourcesByName.get(event.getQualifiedName()));
+		}
+
+		namesById.put(typeId, event.getQualifiedName());
+		sourcesByName.put(event.getQualifiedName(), source);
+		return event;
+	}
+
+	private void addField(EventSchema event, String typeName, String name, String source, int lineNumber)
+	throws SchemaException
+	{
+		FieldType type = FieldType.forName(typeName);
+
+		if (type == null)
+		{
+			throw new SchemaException(source, lineNumber, "Unknown field type: " + typeName);
+		}
+
+		if (!isIdentifier(name) || RESERVED_FIELDS.contains(name))
+		{
+			throw new SchemaException(source, lineNumber, "Invalid field name: " + name);
+		}
+
+		if (event.hasField(name))
+		{
+			throw new SchemaException(source, lineNumber, "Duplicate field " + name + " in event " + event.getName());
+		}
+
+		event.addField(name, type);
+	}
+
+	private String validatePackage(String packageName, String source, int lineNumber)
+	throws SchemaException
+	{
+		for (String segment : packageName.split("\\.", -1))
+		{
+			if (!isIdentifier(segment))
+			{
+				throw new SchemaException(source, lineNumber, "Invalid package name: " + packageName);
+			}
+		}
+
+		return packageName;
+	}
+
+	private void expectTokens(String[] tokens, int count, String source, int lineNumber, String usage)
+	throws SchemaException
+	{
+		if (tokens.length != count)
+		{
+			throw new SchemaException(source, lineNumber, "Expected '" + usage + "'");
+		}
+	}
+
+	private static String[] tokenize(String line)
+	{
+		int comment = line.indexOf('#');
+		String content = (comment < 0 ? line : line.substring(0, comment)).trim();
+		return (content.isEmpty() ? new String[0] : content.split("\\s+"));
+	}
+
+	private static boolean isIdentifier(String name)
+	{
+		if (name.isEmpty() || KEYWORDS.contains(name) || !Character.isJavaIdentifierStart(name.charAt(0))) return false;
+
+		for (int i = 1; i < name.length(); i++)
+		{
+			if (!Character.isJavaIdentifierPart(name.charAt(i))) return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.strategicgains.eventing.codec.EncodeBuffer;
+import com.strategicgains.eventing.flyweight.Flyweight;
+import com.strategicgains.eventing.flyweight.FlyweightCodec;
+
+/**
+ * Compiles generated flyweights against domain-eventing-core and exercises them.
+ * 
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class FlyweightGeneratorTest
+{
+	private static final String SCHEMA =
+		"package com.example.orders\n" +
+		"event OrderPlaced 1\n" +
+		"\tint64 orderId\n" +
+		"\tstring customer\n" +
+		"\tint8 priority\n" +
+		"\tint16 region\n" +
+		"\tint32 quantity\n" +
+		"\tfloat32 discount\n" +
+		"\tfloat64 price\n" +
+		"\tbool express\n" +
+		"\tchar grade\n" +
+		"\tstring sku\n" +
+		"end\n";
+
+	private FlyweightGenerator generator = new FlyweightGenerator();
+
+	@Test
+	public void shouldGenerateAccessors()
+	throws Exception
+	{
+		String source = generator.generate(parse().get(0));
+		assertTrue(source.startsWith("package com.example.orders;"));
+		assertTrue(source.contains("public static final int TYPE_ID = 1;"));
+		assertTrue(source.contains("public static final int FIXED_LENGTH = 30;"));
+		assertTrue(source.contains("return buffer.getLong(offset + ORDER_ID_OFFSET);"));
+		assertTrue(source.contains("return buffer.get(offset + EXPRESS_OFFSET) != 0;"));
+		assertTrue(source.contains("public OrderPlaced customer(CharSequence value)"));
+		assertEquals("com" + File.separator + "example" + File.separator + "orders" + File.separator + "OrderPlaced.java",
+			generator.getRelativePath(parse().get(0)));
+	}
+
+	@Test
+	public void shouldCompileAndRoundTrip()
+	throws Exception
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeTrue(compiler != null);
+
+		EventSchema event = parse().get(0);
+		File dir = Files.createTempDirectory("flyweights").toFile();
+		File source = new File(dir, generator.getRelativePath(event));
+		source.getParentFile().mkdirs();
+		Files.write(source.toPath(), generator.generate(event).getBytes(StandardCharsets.UTF_8));
+
+		String classpath = new File(Flyweight.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+		int result = compiler.run(null, null, null, "-Xlint:serial", "-Werror", "-classpath", classpath, "-d", dir.getPath(), source.getPath());
+		assertEquals(0, result);
+
+		URLClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()}, Flyweight.class.getClassLoader());
+
+		try
+		{
+			Flyweight order = (Flyweight) loader.loadClass("com.example.orders.OrderPlaced").getConstructor().newInstance();
+			order.allocate(128);
+			set(order, "price", double.class, 9.99d);
+			set(order, "orderId", long.class, 42L);
+			set(order, "priority", byte.class, (byte) 3);
+			set(order, "region", short.class, (short) 12);
+			set(order, "quantity", int.class, 5);
+			set(order, "discount", float.class, 0.5f);
+			set(order, "express", boolean.class, true);
+			set(order, "grade", char.class, 'A');
+			set(order, "customer", CharSequence.class, "Acme");
+			set(order, "sku", CharSequence.class, "SKU-1");
+
+			FlyweightCodec codec = new FlyweightCodec().register(order.newInstance());
+			EncodeBuffer buffer = new EncodeBuffer();
+			codec.encode(order, buffer);
+			Object decoded = codec.decode(buffer.asByteBuffer());
+
+			assertEquals(order.getClass(), decoded.getClass());
+			assertEquals(42L, get(decoded, "orderId"));
+			assertEquals("Acme", get(decoded, "customer"));
+			assertEquals((byte) 3, get(decoded, "priority"));
+			assertEquals((short) 12, get(decoded, "region"));
+			assertEquals(5, get(decoded, "quantity"));
+			assertEquals(0.5f, get(decoded, "discount"));
+			assertEquals(9.99d, get(decoded, "price"));
+			assertEquals(true, get(decoded, "express"));
+			assertEquals('A', get(decoded, "grade"));
+			assertEquals("SKU-1", get(decoded, "sku"));
+			assertEquals(5, get(decoded, "skuLength"));
+			assertEquals("OrderPlaced[orderId=42, customer=Acme, priority=3, region=12, quantity=5, discount=0.5, price=9.99, express=true, grade=A, sku=SKU-1]",
+				decoded.toString());
+		}
+		finally
+		{
+			loader.close();
+		}
+	}
+
+	private List<EventSchema> parse()
+	throws Exception
+	{
+		return new SchemaParser().parse("orders.events", new StringReader(SCHEMA));
+	}
+
+	private void set(Object flyweight, String field, Class<?> type, Object value)
+	throws Exception
+	{
+		flyweight.getClass().getMethod(field, type).invoke(flyweight, value);
+	}
+
+	private Object get(Object flyweight, String field)
+	throws Exception
+	{
+		Method accessor = flyweight.getClass().getMethod(field);
+		return accessor.invoke(flyweight);
+	}
+}
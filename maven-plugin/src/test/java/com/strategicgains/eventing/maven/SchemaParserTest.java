@@ -0,0 +1,125 @@
+/*
+    Copyright 2026, Strategic Gains, Inc.
+
+	Licensed under the Apache License, Version 2.0 (the "License");
+	you may not use this file except in compliance with the License.
+	You may obtain a copy of the License at
+
+		http://www.apache.org/licenses/LICENSE-2.0
+
+	Unless required by applicable law or agreed to in writing, software
+	distributed under the License is distributed on an "AS IS" BASIS,
+	WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+	See the License for the specific language governing permissions and
+	limitations under the License.
+*/
+package com.strategicgains.eventing.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * @author toddf
+ * @since Oct 19, 2026
+ */
+public class SchemaParserTest
+{
+	private static final String ORDERS =
+		"# Order events\n" +
+		"package com.example.orders\n" +
+		"\n" +
+		"event OrderPlaced 1\n" +
+		"\tint64 orderId     # the order\n" +
+		"\tstring customer\n" +
+		"\tint32 quantity\n" +
+		"\tbool express\n" +
+		"\tstring sku\n" +
+		"end\n" +
+		"\n" +
+		"event OrderCancelled 2\n" +
+		"\tlong orderId\n" +
+		"end\n";
+
+	@Test
+	public void shouldParseEvents()
+	throws Exception
+	{
+		List<EventSchema> events = new SchemaParser().parse("orders.events", new StringReader(ORDERS));
+		assertEquals(2, events.size());
+
+		EventSchema placed = events.get(0);
+		assertEquals("com.example.orders.OrderPlaced", placed.getQualifiedName());
+		assertEquals(1, placed.getTypeId());
+		assertEquals(13, placed.getFixedLength());
+		assertEquals(5, placed.getFields().size());
+
+		FieldSchema orderId = placed.getFields().get(0);
+		assertEquals(FieldType.INT64, orderId.getType());
+		assertEquals(0, orderId.getOffset());
+		assertEquals("ORDER_ID_OFFSET", orderId.getConstantName());
+
+		FieldSchema customer = placed.getFields().get(1);
+		assertEquals(FieldType.STRING, customer.getType());
+		assertEquals(0, customer.getIndex());
+
+		assertEquals(8, placed.getFields().get(2).getOffset());
+		assertEquals(12, placed.getFields().get(3).getOffset());
+		assertEquals(1, placed.getFields().get(4).getIndex());
+
+		assertEquals(FieldType.INT64, events.get(1).getFields().get(0).getType());
+	}
+
+	@Test
+	public void shouldAllowDefaultPackage()
+	throws Exception
+	{
+		List<EventSchema> events = new SchemaParser().parse("x.events", new StringReader("event Empty 9\nend\n"));
+		assertNull(events.get(0).getPackageName());
+		assertEquals("Empty", events.get(0).getQualifiedName());
+		assertEquals(0, events.get(0).getFixedLength());
+	}
+
+	@Test
+	public void shouldRejectDuplicateTypeIdsAcrossFiles()
+	throws Exception
+	{
+		SchemaParser parser = new SchemaParser();
+		parser.parse("orders.events", new StringReader(ORDERS));
+		assertError(parser, "event Shipped 2\nend\n", "shipping.events:1: Type id 2 already used by com.example.orders.OrderCancelled");
+	}
+
+	@Test
+	public void shouldRejectMalformedSchemas()
+	throws Exception
+	{
+		assertError(new SchemaParser(), "event OrderPlaced 1\n\tint64 orderId\n", "x.events:2: Missing 'end' for event OrderPlaced");
+		assertError(new SchemaParser(), "event OrderPlaced 1\n\tdecimal price\nend\n", "x.events:2: Unknown field type: decimal");
+		assertError(new SchemaParser(), "event OrderPlaced 1\n\tint32 a\n\tint64 a\nend\n", "x.events:3: Duplicate field a in event OrderPlaced");
+		assertError(new SchemaParser(), "event OrderPlaced 1\n\tint32 class\nend\n", "x.events:2: Invalid field name: class");
+		assertError(new SchemaParser(), "event OrderPlaced 1\n\tint32 offset\nend\n", "x.events:2: Invalid field name: offset");
+		assertError(new SchemaParser(), "event OrderPlaced 0\nend\n", "x.events:1: Type id must be positive: 0");
+		assertError(new SchemaParser(), "event OrderPlaced one\nend\n", "x.events:1: Invalid type id: one");
+		assertError(new SchemaParser(), "event OrderPlaced 1\nend\npackage a.b\n", "x.events:3: package must be declared once, before any events");
+		assertError(new SchemaParser(), "events OrderPlaced 1\n", "x.events:1: Expected 'package' or 'event' but found 'events'");
+	}
+
+	private void assertError(SchemaParser parser, String schema, String message)
+	throws Exception
+	{
+		try
+		{
+			parser.parse(message.substring(0, message.indexOf(':')), new StringReader(schema));
+			fail("Expected SchemaException: " + message);
+		}
+		catch (SchemaException e)
+		{
+			assertEquals(message, e.getMessage());
+		}
+	}
+}